@@ -25,7 +25,6 @@ import org.dinky.data.enums.BusinessStatus;
 import org.dinky.data.model.OperateLog;
 import org.dinky.data.model.rbac.User;
 import org.dinky.data.result.Result;
-import org.dinky.service.impl.OperateLogServiceImpl;
 import org.dinky.utils.IpUtils;
 import org.dinky.utils.JsonUtils;
 import org.dinky.utils.ServletUtils;
@@ -136,8 +135,8 @@ public class LogAspect {
 
             operLog.setOperateTime(LocalDateTime.now());
 
-            // 保存数据库
-            SpringUtil.getBean(OperateLogServiceImpl.class).saveLog(operLog);
+            // 异步批量保存数据库
+            SpringUtil.getBean(OperateLogWriter.class).submit(operLog);
 
         } catch (Exception exp) {
             // 记录本地异常日志
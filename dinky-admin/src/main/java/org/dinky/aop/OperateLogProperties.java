@@ -0,0 +1,56 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.dinky.aop;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/** Settings of the operate log writer, see {@link OperateLogWriter}. */
+@Setter
+@Getter
+@ConfigurationProperties(prefix = "dinky.operate-log")
+@Component
+public class OperateLogProperties {
+
+    /** Operate logs waiting to be written, beyond it the overflow policy applies */
+    private Integer queueCapacity = 10000;
+
+    /** Operate logs written by one batch insert */
+    private Integer batchSize = 200;
+
+    /** Characters kept of the request parameters and of the response, longer ones are truncated */
+    private Integer maxPayloadLength = 10000;
+
+    /** What a request does when the queue is full */
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+
+    /** With the block policy, how long a request waits for room before the log is dropped anyway */
+    private Long blockTimeoutMs = 1000L;
+
+    public enum OverflowPolicy {
+        /** Drop the operate log, the request is not delayed */
+        DROP,
+        /** Wait up to the block timeout for room in the queue */
+        BLOCK
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.dinky.aop;
+
+import org.dinky.data.model.OperateLog;
+import org.dinky.service.OperateLogService;
+import org.dinky.utils.MeterUtil;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.stereotype.Component;
+
+import cn.hutool.core.thread.ThreadUtil;
+import io.micrometer.core.instrument.Counter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Writes operate logs in the background, so that requests do not wait for the audit insert.
+ *
+ * <p>Logs are put into a bounded queue which a single writer drains with batch inserts. When the queue is full the
+ * log is dropped, or with the block policy the request waits for room for a limited time first. Dropped logs are
+ * counted by the dinky.operate.log.dropped meter. On shutdown the writer finishes the queued logs, and whatever it has
+ * not written within the stop timeout is flushed by the stopping thread.
+ */
+@Slf4j
+@Component
+public class OperateLogWriter {
+    private static final String TRUNCATED = "...(truncated)";
+    private static final long POLL_INTERVAL_MS = 500;
+    private static final long STOP_TIMEOUT_MS = 10000;
+
+    private final OperateLogService operateLogService;
+    private final OperateLogProperties properties;
+    private final BlockingQueue<OperateLog> queue;
+    private final ExecutorService writer =
+            Executors.newSingleThreadExecutor(ThreadUtil.newNamedThreadFactory("operate-log-writer-", true));
+    private final Counter dropped = MeterUtil.counter("dinky.operate.log.dropped");
+    private volatile boolean running = true;
+
+    public OperateLogWriter(OperateLogService operateLogService, OperateLogProperties properties) {
+        this.operateLogService = operateLogService;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+    }
+
+    @PostConstruct
+    public void start() {
+        writer.execute(this::write);
+        MeterUtil.gauge("dinky.operate.log.queue", queue::size);
+    }
+
+    /** Queue the operate log, never throws. */
+    public void submit(OperateLog operateLog) {
+        operateLog.setOperateParam(truncate(operateLog.getOperateParam()));
+        operateLog.setJsonResult(truncate(operateLog.getJsonResult()));
+        try {
+            boolean queued = properties.getOverflowPolicy() == OperateLogProperties.OverflowPolicy.BLOCK
+                    ? queue.offer(operateLog, properties.getBlockTimeoutMs(), TimeUnit.MILLISECONDS)
+                    : queue.offer(operateLog);
+            if (!queued) {
+                drop(operateLog);
+            }
+        } catch (InterruptedException e) {
+            drop(operateLog);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drop(OperateLog operateLog) {
+        dropped.increment();
+        log.warn("Operate log queue is full, drop the log of {}", operateLog.getMethod());
+    }
+
+    private String truncate(String payload) {
+        int max = properties.getMaxPayloadLength();
+        if (payload == null || payload.length() <= max) {
+            return payload;
+        }
+        return payload.substring(0, max) + TRUNCATED;
+    }
+
+    private void write() {
+        List<OperateLog> batch = new ArrayList<>(properties.getBatchSize());
+        while (running || !queue.isEmpty()) {
+            try {
+                OperateLog operateLog = queue.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                if (operateLog == null) {
+                    continue;
+                }
+                batch.add(operateLog);
+                queue.drainTo(batch, properties.getBatchSize() - 1);
+                save(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void save(List<OperateLog> batch) {
+        try {
+            operateLogService.saveBatch(batch, properties.getBatchSize());
+        } catch (Exception e) {
+            dropped.increment(batch.size());
+            log.error("Write {} operate logs failed: {}", batch.size(), e.getMessage(), e);
+        }
+    }
+
+    /** Let the writer finish the queued logs without interrupting a running batch insert. */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writer.shutdown();
+        if (!writer.awaitTermination(STOP_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+            log.warn("Operate log writer did not finish in {} ms, flush the remaining logs", STOP_TIMEOUT_MS);
+        }
+        List<OperateLog> remaining = new ArrayList<>(queue.size());
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            save(remaining);
+        }
+    }
+}
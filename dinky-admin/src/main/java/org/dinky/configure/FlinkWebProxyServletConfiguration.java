@@ -31,6 +31,8 @@ import org.springframework.core.env.Environment;
 @Configuration
 public class FlinkWebProxyServletConfiguration implements EnvironmentAware {
     private static final String TARGET_URL = "http://{_authority}/#/job/running/{_jid}/overview";
+    /** Pooled keep-alive connections of the proxy, in total and to one job manager */
+    private static final String MAX_CONNECTIONS = "64";
 
     @Bean
     public ServletRegistrationBean servletRegistrationBean() {
@@ -39,6 +41,7 @@ public class FlinkWebProxyServletConfiguration implements EnvironmentAware {
         servletRegistrationBean.addUrlMappings("/api/flink_web/proxy/*", "/api/flink_web/*");
         servletRegistrationBean.addInitParameter(ProxyServlet.P_TARGET_URI, TARGET_URL);
         servletRegistrationBean.addInitParameter(ProxyServlet.P_LOG, "false");
+        servletRegistrationBean.addInitParameter(ProxyServlet.P_MAXCONNECTIONS, MAX_CONNECTIONS);
         return servletRegistrationBean;
     }
 
@@ -20,14 +20,17 @@
 package org.dinky.configure;
 
 import org.dinky.context.TenantContextHolder;
+import org.dinky.interceptor.HomeAggregatesInterceptor;
 import org.dinky.interceptor.PostgreSQLPrepareInterceptor;
 import org.dinky.interceptor.PostgreSQLQueryInterceptor;
 import org.dinky.mybatis.handler.DateMetaObjectHandler;
 import org.dinky.mybatis.properties.MybatisPlusFillProperties;
+import org.dinky.service.home.HomeAggregates;
 
 import java.util.Set;
 
 import org.mybatis.spring.annotation.MapperScan;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
@@ -96,6 +99,11 @@ public class MybatisPlusConfig {
         return new PostgreSQLPrepareInterceptor();
     }
 
+    @Bean
+    public HomeAggregatesInterceptor homeAggregatesInterceptor(ObjectProvider<HomeAggregates> homeAggregates) {
+        return new HomeAggregatesInterceptor(homeAggregates);
+    }
+
     @Bean
     public MybatisPlusInterceptor mybatisPlusInterceptor() {
         log.info("mybatis plus interceptor execute");
@@ -24,6 +24,7 @@ import static org.dinky.ws.GlobalWebSocket.sendTopic;
 
 import org.dinky.data.constant.MonitorTableConstant;
 import org.dinky.data.vo.MetricsVO;
+import org.dinky.utils.MeterUtil;
 import org.dinky.utils.SqliteUtil;
 import org.dinky.ws.GlobalWebSocketTopic;
 
@@ -46,6 +47,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 import cn.hutool.core.map.MapUtil;
+import io.micrometer.core.instrument.Timer;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
@@ -56,6 +58,7 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class MetricsContextHolder {
     private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final Timer FLUSH_TIMER = MeterUtil.timer(MeterUtil.METRICS_FLUSH);
 
     @Getter
     protected static final MetricsContextHolder instance = new MetricsContextHolder();
@@ -83,6 +86,10 @@ public class MetricsContextHolder {
             new LinkedBlockingQueue<>(10), // Use a larger queue to hold excess tasks
             namedThreadFactory);
 
+    {
+        MeterUtil.monitor(pool, "metrics-send");
+    }
+
     public void sendAsync(String key, MetricsVO o) {
         Object content = o.getContent();
         if (content == null
@@ -112,7 +119,9 @@ public class MetricsContextHolder {
             try {
                 final List<String> columns = Arrays.asList(
                         JOB_ID, MonitorTableConstant.VALUE, MonitorTableConstant.HEART_TIME, MonitorTableConstant.DATE);
+                long start = System.nanoTime();
                 SqliteUtil.INSTANCE.write(MonitorTableConstant.DINKY_METRICS, columns, values);
+                FLUSH_TIMER.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
             } catch (SQLException e) {
                 log.error("Failed to write metrics to SQLite", e);
                 return;
@@ -35,9 +35,12 @@ import org.dinky.data.vo.task.JobInstanceVo;
 import org.dinky.gateway.enums.SavePointType;
 import org.dinky.gateway.result.SavePointResult;
 import org.dinky.job.JobResult;
+import org.dinky.job.JobSubmitQueue;
+import org.dinky.job.JobSubmitTicket;
 import org.dinky.service.JobInstanceService;
 import org.dinky.service.TaskService;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.springframework.web.bind.annotation.GetMapping;
@@ -69,6 +72,7 @@ public class APIController {
 
     private final TaskService taskService;
     private final JobInstanceService jobInstanceService;
+    private final JobSubmitQueue jobSubmitQueue;
 
     @GetMapping("/version")
     @ApiOperation(value = "Query Service Version", notes = "Query Dinky Service Version Number")
@@ -89,6 +93,41 @@ public class APIController {
         }
     }
 
+    @PostMapping("/submitTaskAsync")
+    @ApiOperation(value = "Submit Task Async", notes = "Queue the submission and return its ticket at once")
+    public Result<JobSubmitTicket> submitTaskAsync(@RequestBody TaskSubmitDto submitDto) {
+        taskService.initTenantByTaskId(submitDto.getId());
+        return Result.succeed(jobSubmitQueue.submit(submitDto), Status.EXECUTE_SUCCESS);
+    }
+
+    @PostMapping("/submitTasks")
+    @ApiOperation(value = "Submit Tasks", notes = "Queue the submissions of many tasks and return their tickets")
+    public Result<List<JobSubmitTicket>> submitTasks(@RequestBody List<TaskSubmitDto> submitDtoList) {
+        List<JobSubmitTicket> tickets = new ArrayList<>(submitDtoList.size());
+        for (TaskSubmitDto submitDto : submitDtoList) {
+            taskService.initTenantByTaskId(submitDto.getId());
+            tickets.add(jobSubmitQueue.submit(submitDto));
+        }
+        return Result.succeed(tickets, Status.EXECUTE_SUCCESS);
+    }
+
+    @GetMapping("/getSubmitTicket")
+    @ApiOperation("Get Submit Ticket")
+    @ApiImplicitParam(name = "ticketId", value = "Ticket ID", required = true, dataType = "String")
+    public Result<JobSubmitTicket> getSubmitTicket(@RequestParam String ticketId) {
+        JobSubmitTicket ticket = jobSubmitQueue.getTicket(ticketId);
+        if (ticket == null) {
+            return Result.failed("The ticket " + ticketId + " does not exist or has expired.");
+        }
+        return Result.succeed(ticket, Status.QUERY_SUCCESS);
+    }
+
+    @PostMapping("/getSubmitTickets")
+    @ApiOperation(value = "Get Submit Tickets", notes = "Unknown and expired tickets are left out")
+    public Result<List<JobSubmitTicket>> getSubmitTickets(@RequestBody List<String> ticketIds) {
+        return Result.succeed(jobSubmitQueue.getTickets(ticketIds), Status.QUERY_SUCCESS);
+    }
+
     @PostMapping("/savepointTask")
     public Result savepointTask(@RequestBody APISavePointTaskDTO apiSavePointTaskDTO) {
         return Result.succeed(
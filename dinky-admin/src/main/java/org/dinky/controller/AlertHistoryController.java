@@ -23,6 +23,7 @@ import org.dinky.data.annotations.Log;
 import org.dinky.data.enums.BusinessType;
 import org.dinky.data.enums.Status;
 import org.dinky.data.model.alert.AlertHistory;
+import org.dinky.data.result.ProTableResult;
 import org.dinky.data.result.Result;
 import org.dinky.service.AlertHistoryService;
 
@@ -30,10 +31,14 @@ import java.util.List;
 
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.fasterxml.jackson.databind.JsonNode;
+
 import cn.dev33.satoken.annotation.SaCheckLogin;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiImplicitParam;
@@ -74,6 +79,19 @@ public class AlertHistoryController {
         return Result.succeed(alertHistoryService.queryAlertHistoryRecordByJobInstanceId(jobInstanceId));
     }
 
+    /**
+     * Query alert history page by page, pass the nextCursor of a page as cursor to read the page after it
+     *
+     * @param para {@link JsonNode}
+     * @return {@link ProTableResult} of {@link AlertHistory}
+     */
+    @PostMapping("/page")
+    @ApiOperation("Query Alert History Page")
+    @ApiImplicitParam(name = "para", value = "Query Parameters", dataType = "JsonNode", paramType = "body")
+    public ProTableResult<AlertHistory> pageAlertHistoryRecord(@RequestBody JsonNode para) {
+        return alertHistoryService.selectForProTable(para);
+    }
+
     /**
      * delete AlertInstance by id
      *
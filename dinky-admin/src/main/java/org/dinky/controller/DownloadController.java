@@ -22,6 +22,7 @@ package org.dinky.controller;
 import org.dinky.assertion.Asserts;
 import org.dinky.data.constant.DirConstant;
 import org.dinky.data.exception.BusException;
+import org.dinky.data.model.DependencyFile;
 import org.dinky.data.model.FlinkUdfManifest;
 import org.dinky.data.model.ResourcesModelEnum;
 import org.dinky.data.model.SystemConfiguration;
@@ -31,12 +32,22 @@ import org.dinky.function.util.ZipWriter;
 import org.dinky.resource.BaseResourceManager;
 import org.dinky.utils.JsonUtils;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.net.URL;
 import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import javax.servlet.http.HttpServletResponse;
 
@@ -50,10 +61,14 @@ import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
 import cn.dev33.satoken.annotation.SaIgnore;
+import cn.hutool.cache.Cache;
+import cn.hutool.cache.CacheUtil;
 import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.convert.Convert;
 import cn.hutool.core.io.FileUtil;
 import cn.hutool.core.util.ArrayUtil;
+import cn.hutool.core.util.StrUtil;
+import cn.hutool.crypto.digest.DigestUtil;
 import cn.hutool.extra.servlet.ServletUtil;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
@@ -67,6 +82,12 @@ import lombok.extern.slf4j.Slf4j;
 @Api(tags = "UDF & App Jar Controller")
 @RequestMapping("/download")
 public class DownloadController {
+    private static final Pattern RANGE_PATTERN = Pattern.compile("bytes=(\\d+)-(\\d*)");
+    private static final int MAX_RANGE_SIZE = 16 * 1024 * 1024;
+    private static final String UPLOAD_ID_SUFFIX = ".upload";
+    private static final Map<String, Object> UPLOAD_LOCKS = new ConcurrentHashMap<>();
+    private static final Cache<String, String> SHA256_CACHE = CacheUtil.newLRUCache(1024);
+
     @GetMapping("downloadDepJar/{taskId}")
     @ApiOperation("Download UDF Jar")
     public void downloadJavaUDF(@PathVariable Integer taskId, HttpServletResponse resp) {
@@ -107,6 +128,57 @@ public class DownloadController {
         FileUtil.del(zipFile);
     }
 
+    @GetMapping("depManifest/{taskId}")
+    @ApiOperation("List the UDF dependencies of a task with their sha256")
+    public Result<List<DependencyFile>> depManifest(@PathVariable Integer taskId) {
+        FlinkUdfManifest flinkUdfManifest = readUdfManifest(taskId);
+        if (flinkUdfManifest == null) {
+            return Result.succeed(Collections.emptyList());
+        }
+        List<DependencyFile> files = new ArrayList<>();
+        CollUtil.emptyIfNull(flinkUdfManifest.getJars())
+                .forEach(url -> files.add(toDependencyFile(url, DependencyFile.TYPE_JAR)));
+        CollUtil.emptyIfNull(flinkUdfManifest.getPythonFiles())
+                .forEach(url -> files.add(toDependencyFile(url, DependencyFile.TYPE_PYTHON)));
+        return Result.succeed(files);
+    }
+
+    @GetMapping("depFile/{taskId}")
+    @ApiOperation("Download a single UDF dependency of a task")
+    public void depFile(@PathVariable Integer taskId, @RequestParam String name, HttpServletResponse resp) {
+        FlinkUdfManifest flinkUdfManifest = readUdfManifest(taskId);
+        if (flinkUdfManifest == null) {
+            throw new BusException("dependency manifest of task " + taskId + " not found");
+        }
+        File file = Stream.concat(
+                        CollUtil.emptyIfNull(flinkUdfManifest.getJars()).stream(),
+                        CollUtil.emptyIfNull(flinkUdfManifest.getPythonFiles()).stream())
+                .map(FileUtil::file)
+                .filter(f -> f.getName().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new BusException("dependency " + name + " not found in task " + taskId));
+        ServletUtil.write(resp, file);
+    }
+
+    private static FlinkUdfManifest readUdfManifest(Integer taskId) {
+        if (Asserts.isNull(taskId)) {
+            throw new BusException("task id can not null!");
+        }
+        File depManifestFile = FileUtil.file(PathConstant.getUdfPackagePath(taskId) + PathConstant.DEP_MANIFEST);
+        if (!depManifestFile.exists()) {
+            return null;
+        }
+        return JsonUtils.toBean(FileUtil.readUtf8String(depManifestFile), FlinkUdfManifest.class);
+    }
+
+    private static DependencyFile toDependencyFile(URL url, String type) {
+        File file = FileUtil.file(url);
+        // hashing a jar is expensive, recompute it only when the file changes
+        String key = file.getAbsolutePath() + ":" + file.lastModified() + ":" + file.length();
+        String sha256 = SHA256_CACHE.get(key, () -> DigestUtil.sha256Hex(file));
+        return new DependencyFile(file.getName(), type, sha256, file.length());
+    }
+
     /**
      * Provide Docker to download dinky-app.jar via HTTP request
      *
@@ -126,9 +198,41 @@ public class DownloadController {
     @GetMapping("downloadFromRs")
     @ApiOperation("Download From Resource")
     @SaIgnore
-    public void downloadFromRs(String path, HttpServletResponse resp) {
+    public void downloadFromRs(
+            String path, @RequestHeader(value = "Range", required = false) String range, HttpServletResponse resp)
+            throws IOException {
         InputStream inputStream = BaseResourceManager.getInstance().readFile(path);
-        ServletUtil.write(resp, inputStream);
+        Matcher matcher = range == null ? null : RANGE_PATTERN.matcher(range);
+        if (matcher == null || !matcher.matches()) {
+            ServletUtil.write(resp, inputStream);
+            return;
+        }
+        // serve a single byte range, the size of the resource is not known to every resource manager
+        try (InputStream in = inputStream) {
+            long start = Long.parseLong(matcher.group(1));
+            long end = StrUtil.isEmpty(matcher.group(2)) ? Long.MAX_VALUE : Long.parseLong(matcher.group(2));
+            if (end < start) {
+                rangeNotSatisfiable(resp);
+                return;
+            }
+            int length = (int) Math.min(end - start + 1, MAX_RANGE_SIZE);
+            long skipped = skip(in, start);
+            ByteArrayOutputStream bytes = skipped < start ? null : readRange(in, length);
+            if (bytes == null || bytes.size() == 0) {
+                // the range starts at or beyond the end of the resource
+                rangeNotSatisfiable(resp);
+                return;
+            }
+            resp.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            resp.setHeader("Content-Range", StrUtil.format("bytes {}-{}/*", start, start + bytes.size() - 1));
+            resp.setContentLength(bytes.size());
+            bytes.writeTo(resp.getOutputStream());
+        }
+    }
+
+    private static void rangeNotSatisfiable(HttpServletResponse resp) {
+        resp.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+        resp.setHeader("Content-Range", "bytes */*");
     }
 
     @PostMapping("uploadFromRsByLocal")
@@ -157,4 +261,146 @@ public class DownloadController {
             throw new BusException("upload file failed");
         }
     }
+
+    /**
+     * Append a chunk of a file written by a dinky app to a local resource. A chunk is identified by its upload id and
+     * offset, so resending a chunk that has already been appended is a no-op, and the returned size tells the
+     * client where to resume after a failure. The first chunk of a new upload id replaces the file.
+     *
+     * @return the size of the file after the chunk was applied
+     */
+    @PostMapping("uploadChunkFromRsByLocal")
+    @ApiOperation("Upload Chunk From Resource By Local")
+    @SaIgnore
+    public Result<Long> uploadChunkFromRs(
+            String path,
+            String uploadId,
+            Long offset,
+            @RequestParam("file") MultipartFile file,
+            @RequestHeader("token") String token) {
+        Result<Long> denied = checkLocalUpload(token);
+        if (denied != null) {
+            return denied;
+        }
+        File dest = new File(path);
+        File uploadIdFile = new File(dest.getParentFile(), "." + dest.getName() + UPLOAD_ID_SUFFIX);
+        synchronized (UPLOAD_LOCKS.computeIfAbsent(dest.getAbsolutePath(), k -> new Object())) {
+            try {
+                FileUtil.mkParentDirs(dest);
+                boolean sameUpload =
+                        uploadIdFile.exists() && uploadId.equals(FileUtil.readUtf8String(uploadIdFile));
+                long size = sameUpload && dest.exists() ? dest.length() : 0;
+                if (!sameUpload) {
+                    if (offset != 0) {
+                        return Result.failed(0L, "unknown upload id, the upload has to restart from offset 0");
+                    }
+                    FileUtil.writeUtf8String(uploadId, uploadIdFile);
+                }
+                if (offset + file.getSize() <= size) {
+                    // already applied
+                    return Result.succeed(size);
+                }
+                if (offset > size) {
+                    return Result.failed(size, StrUtil.format("chunk at {} is beyond the file size {}", offset, size));
+                }
+                try (RandomAccessFile raf = new RandomAccessFile(dest, "rw");
+                        InputStream in = file.getInputStream()) {
+                    raf.setLength(offset);
+                    raf.seek(offset);
+                    byte[] buffer = new byte[64 * 1024];
+                    int read;
+                    while ((read = in.read(buffer)) != -1) {
+                        raf.write(buffer, 0, read);
+                    }
+                    return Result.succeed(raf.length());
+                }
+            } catch (IOException e) {
+                log.error("upload chunk failed", e);
+                throw new BusException("upload chunk failed");
+            }
+        }
+    }
+
+    /**
+     * @return the size of the file uploaded under the upload id so far, 0 if unknown
+     */
+    @GetMapping("uploadStatusFromRs")
+    @ApiOperation("Upload Status From Resource")
+    @SaIgnore
+    public Result<Long> uploadStatusFromRs(String path, String uploadId, @RequestHeader("token") String token) {
+        Result<Long> denied = checkLocalUpload(token);
+        if (denied != null) {
+            return denied;
+        }
+        File dest = new File(path);
+        File uploadIdFile = new File(dest.getParentFile(), "." + dest.getName() + UPLOAD_ID_SUFFIX);
+        synchronized (UPLOAD_LOCKS.computeIfAbsent(dest.getAbsolutePath(), k -> new Object())) {
+            if (uploadIdFile.exists() && uploadId.equals(FileUtil.readUtf8String(uploadIdFile)) && dest.exists()) {
+                return Result.succeed(dest.length());
+            }
+            return Result.succeed(0L);
+        }
+    }
+
+    @PostMapping("completeUploadFromRs")
+    @ApiOperation("Complete Upload From Resource")
+    @SaIgnore
+    public Result<Void> completeUploadFromRs(String path, String uploadId, @RequestHeader("token") String token) {
+        Result<Void> denied = checkLocalUpload(token);
+        if (denied != null) {
+            return denied;
+        }
+        File dest = new File(path);
+        File uploadIdFile = new File(dest.getParentFile(), "." + dest.getName() + UPLOAD_ID_SUFFIX);
+        synchronized (UPLOAD_LOCKS.computeIfAbsent(dest.getAbsolutePath(), k -> new Object())) {
+            if (uploadIdFile.exists() && uploadId.equals(FileUtil.readUtf8String(uploadIdFile))) {
+                FileUtil.del(uploadIdFile);
+            }
+            UPLOAD_LOCKS.remove(dest.getAbsolutePath());
+        }
+        return Result.succeed();
+    }
+
+    private <T> Result<T> checkLocalUpload(String token) {
+        SystemConfiguration systemConfiguration = SystemConfiguration.getInstances();
+        if (!systemConfiguration.getDinkyToken().getValue().equals(token)) {
+            return Result.failed("token is not correct");
+        }
+        if (!systemConfiguration.getResourcesEnable().getValue()
+                || !systemConfiguration.getResourcesModel().getValue().equals(ResourcesModelEnum.LOCAL)) {
+            return Result.failed("resources model is not local or resources is not enable");
+        }
+        return null;
+    }
+
+    private static long skip(InputStream in, long n) throws IOException {
+        long skipped = 0;
+        while (skipped < n) {
+            long step = in.skip(n - skipped);
+            if (step <= 0) {
+                if (in.read() == -1) {
+                    break;
+                }
+                step = 1;
+            }
+            skipped += step;
+        }
+        return skipped;
+    }
+
+    /**
+     * Read up to length bytes, the buffer starts at what the stream reports as available so a small resource does not
+     * allocate a full range.
+     */
+    private static ByteArrayOutputStream readRange(InputStream in, int length) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.min(length, Math.max(in.available(), 32)));
+        byte[] buffer = new byte[Math.min(length, 64 * 1024)];
+        int remaining = length;
+        int read;
+        while (remaining > 0 && (read = in.read(buffer, 0, Math.min(buffer.length, remaining))) != -1) {
+            out.write(buffer, 0, read);
+            remaining -= read;
+        }
+        return out;
+    }
 }
@@ -20,6 +20,8 @@
 package org.dinky.controller;
 
 import org.dinky.data.model.CheckPointReadTable;
+import org.dinky.data.model.CheckpointStatePage;
+import org.dinky.data.model.CheckpointStateSummary;
 import org.dinky.data.result.Result;
 import org.dinky.data.vo.CascaderVO;
 import org.dinky.flink.checkpoint.CheckpointRead;
@@ -30,11 +32,14 @@ import java.util.Map;
 
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import cn.dev33.satoken.annotation.SaCheckLogin;
 import cn.hutool.core.lang.Singleton;
 import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiImplicitParam;
+import io.swagger.annotations.ApiImplicitParams;
 import io.swagger.annotations.ApiOperation;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -55,6 +60,35 @@ public class FlinkController {
         return Result.data(checkpointRead.readCheckpoint(path, operatorId));
     }
 
+    @GetMapping("/readCheckPointSummary")
+    @ApiOperation("Read the entry count and size of each state of a Checkpoint")
+    public Result<List<CheckpointStateSummary>> readCheckPointSummary(String path, String operatorId) {
+        CheckpointRead checkpointRead = Singleton.get(CheckpointRead.class);
+        return Result.data(checkpointRead.readCheckpointSummary(path, operatorId));
+    }
+
+    @GetMapping("/readCheckPointPage")
+    @ApiOperation("Read a page of a state of a Checkpoint")
+    @ApiImplicitParams({
+        @ApiImplicitParam(name = "path", value = "Checkpoint path", required = true, dataType = "String"),
+        @ApiImplicitParam(name = "operatorId", value = "Operator id", required = true, dataType = "String"),
+        @ApiImplicitParam(name = "stateName", value = "State name", required = true, dataType = "String"),
+        @ApiImplicitParam(name = "keyPrefix", value = "Prefix of the first column", dataType = "String"),
+        @ApiImplicitParam(name = "cursor", value = "Next cursor of the previous page", dataType = "String"),
+        @ApiImplicitParam(name = "pageSize", value = "Page size", dataType = "Integer", defaultValue = "100")
+    })
+    public Result<CheckpointStatePage> readCheckPointPage(
+            @RequestParam String path,
+            @RequestParam String operatorId,
+            @RequestParam String stateName,
+            @RequestParam(required = false) String keyPrefix,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") Integer pageSize) {
+        CheckpointRead checkpointRead = Singleton.get(CheckpointRead.class);
+        return Result.data(
+                checkpointRead.readCheckpointPage(path, operatorId, stateName, keyPrefix, cursor, pageSize));
+    }
+
     @GetMapping("/configOptions")
     @ApiOperation("Query Flink Configuration Options")
     public Result<List<CascaderVO>> loadDataByGroup() {
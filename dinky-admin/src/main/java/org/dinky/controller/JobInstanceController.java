@@ -25,6 +25,7 @@ import org.dinky.data.annotations.Log;
 import org.dinky.data.enums.BusinessType;
 import org.dinky.data.enums.Status;
 import org.dinky.data.model.ID;
+import org.dinky.data.model.LogChunk;
 import org.dinky.data.model.devops.TaskManagerConfiguration;
 import org.dinky.data.model.ext.JobInfoDetail;
 import org.dinky.data.model.home.JobInstanceStatus;
@@ -71,6 +72,7 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 @SaCheckLogin
 public class JobInstanceController {
+    private static final String DEFAULT_LOG_RANGE = "1048576";
     private final JobInstanceService jobInstanceService;
 
     @PutMapping
@@ -201,6 +203,29 @@ public class JobInstanceController {
         return Result.succeed(FlinkAPI.build(address).getJobManagerLog(), "");
     }
 
+    @GetMapping("/getJobManagerLogRange")
+    @ApiOperation("Get a byte range of job manager log")
+    @ApiImplicitParams({
+        @ApiImplicitParam(
+                name = "address",
+                value = "JobManager address",
+                dataType = "String",
+                paramType = "query",
+                required = true),
+        @ApiImplicitParam(
+                name = "offset",
+                value = "First byte, the tail of the log is read if absent",
+                dataType = "Long",
+                paramType = "query"),
+        @ApiImplicitParam(name = "length", value = "Max bytes", dataType = "Integer", paramType = "query")
+    })
+    public Result<LogChunk> getJobManagerLogRange(
+            @RequestParam String address,
+            @RequestParam(required = false) Long offset,
+            @RequestParam(required = false, defaultValue = DEFAULT_LOG_RANGE) Integer length) {
+        return Result.succeed(FlinkAPI.build(address).getJobManagerLog(offset, length));
+    }
+
     @GetMapping("/getJobManagerStdOut")
     @ApiOperation("Get job manager stdout")
     @ApiImplicitParam(
@@ -267,6 +292,36 @@ public class JobInstanceController {
         return Result.succeed(FlinkAPI.build(address).getTaskManagerLog(containerId), "");
     }
 
+    @GetMapping("/getTaskManagerLogRange")
+    @ApiOperation("Get a byte range of task manager log")
+    @ApiImplicitParams({
+        @ApiImplicitParam(
+                name = "address",
+                value = "JobManager address",
+                dataType = "String",
+                paramType = "query",
+                required = true),
+        @ApiImplicitParam(
+                name = "containerId",
+                value = "TaskManager container id",
+                dataType = "String",
+                paramType = "query",
+                required = true),
+        @ApiImplicitParam(
+                name = "offset",
+                value = "First byte, the tail of the log is read if absent",
+                dataType = "Long",
+                paramType = "query"),
+        @ApiImplicitParam(name = "length", value = "Max bytes", dataType = "Integer", paramType = "query")
+    })
+    public Result<LogChunk> getTaskManagerLogRange(
+            @RequestParam String address,
+            @RequestParam String containerId,
+            @RequestParam(required = false) Long offset,
+            @RequestParam(required = false, defaultValue = DEFAULT_LOG_RANGE) Integer length) {
+        return Result.succeed(FlinkAPI.build(address).getTaskManagerLog(containerId, offset, length));
+    }
+
     @GetMapping("/getJobMetricsItems")
     @ApiOperation(" getJobMetricsItems List")
     @ApiImplicitParams({
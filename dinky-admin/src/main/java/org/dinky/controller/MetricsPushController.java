@@ -0,0 +1,93 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.dinky.controller;
+
+import org.dinky.data.model.SystemConfiguration;
+import org.dinky.job.MetricsPushReceiver;
+import org.dinky.metrics.MetricsPushProtocol;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import cn.dev33.satoken.annotation.SaIgnore;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/** Ingestion of the metrics pushed by the dinky metric reporter, authenticated by the dinky token. */
+@Slf4j
+@RestController
+@Api(tags = "Metrics Push Controller")
+@RequestMapping("/metrics")
+@RequiredArgsConstructor
+public class MetricsPushController {
+
+    private final MetricsPushReceiver metricsPushReceiver;
+
+    @PostMapping(
+            value = "push",
+            consumes = MetricsPushProtocol.CONTENT_TYPE,
+            produces = MetricsPushProtocol.CONTENT_TYPE)
+    @ApiOperation("Receive Metrics Pushed By Flink Jobs")
+    @SaIgnore
+    public ResponseEntity<byte[]> push(HttpServletRequest request, @RequestHeader("token") String token) {
+        if (!SystemConfiguration.getInstances().getDinkyToken().getValue().equals(token)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        if (request.getContentLengthLong() > MetricsPushProtocol.MAX_FRAME_SIZE) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        }
+        try {
+            byte[] frame = readFrame(request.getInputStream(), MetricsPushProtocol.MAX_FRAME_SIZE);
+            if (frame == null) {
+                return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+            }
+            return ResponseEntity.ok(metricsPushReceiver.receive(frame));
+        } catch (IOException e) {
+            log.warn("Invalid metrics push frame: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /** Read the frame, null if it is larger than maxSize, a chunked request has no content length to check first. */
+    static byte[] readFrame(InputStream in, int maxSize) throws IOException {
+        ByteArrayOutputStream frame = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            if (frame.size() + read > maxSize) {
+                return null;
+            }
+            frame.write(buffer, 0, read);
+        }
+        return frame.toByteArray();
+    }
+}
@@ -22,6 +22,7 @@ package org.dinky.controller;
 import org.dinky.data.enums.Status;
 import org.dinky.data.result.Result;
 import org.dinky.scheduler.model.DinkyTaskRequest;
+import org.dinky.scheduler.model.PushTaskResult;
 import org.dinky.scheduler.model.TaskDefinition;
 import org.dinky.scheduler.model.TaskGroup;
 import org.dinky.scheduler.model.TaskMainInfo;
@@ -98,6 +99,16 @@ public class SchedulerController {
         return Result.succeed(Status.DS_ADD_TASK_DEFINITION_SUCCESS);
     }
 
+    /**
+     * create or update in bulk
+     */
+    @PostMapping("/batchCreateOrUpdateTaskDefinition")
+    @ApiOperation("Create or Update Task Definitions In Bulk")
+    public Result<List<PushTaskResult>> batchCreateOrUpdateTaskDefinition(
+            @RequestBody List<DinkyTaskRequest> dinkyTaskRequests) {
+        return Result.succeed(schedulerService.pushAddTasks(dinkyTaskRequests));
+    }
+
     /**
      * Get task group
      * @param projectCode
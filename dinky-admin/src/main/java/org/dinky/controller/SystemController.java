@@ -23,21 +23,25 @@ import org.dinky.data.constant.DirConstant;
 import org.dinky.data.constant.PermissionConstants;
 import org.dinky.data.dto.TreeNodeDTO;
 import org.dinky.data.metrics.MetricsTotal;
+import org.dinky.data.model.LogChunk;
 import org.dinky.data.result.Result;
 import org.dinky.service.SystemService;
 
 import java.util.List;
 import java.util.Map;
 
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import cn.dev33.satoken.annotation.SaCheckLogin;
 import cn.dev33.satoken.annotation.SaCheckPermission;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiImplicitParam;
+import io.swagger.annotations.ApiImplicitParams;
 import io.swagger.annotations.ApiOperation;
 import lombok.RequiredArgsConstructor;
 
@@ -95,6 +99,87 @@ public class SystemController {
         return Result.data(systemService.readFile(path));
     }
 
+    /**
+     * read a byte range of a file, pass the end offset of the previous chunk as offset to follow the file
+     *
+     * @param path   {@link String}
+     * @param offset {@link Long}
+     * @param length {@link Integer}
+     * @return {@link Result} <{@link LogChunk}>
+     */
+    @GetMapping("/readFileRange")
+    @ApiOperation("Read File Range By File Path")
+    @ApiImplicitParams({
+        @ApiImplicitParam(name = "path", value = "File Path", required = true, dataType = "String"),
+        @ApiImplicitParam(name = "offset", value = "First Byte", dataType = "Long"),
+        @ApiImplicitParam(name = "length", value = "Max Bytes", dataType = "Integer")
+    })
+    public Result<LogChunk> readFileRange(
+            @RequestParam String path,
+            @RequestParam(required = false) Long offset,
+            @RequestParam(required = false) Integer length) {
+        return Result.succeed(systemService.readFileRange(path, offset, length));
+    }
+
+    /**
+     * read the last lines of a file
+     *
+     * @param path   {@link String}
+     * @param lines  {@link Integer}
+     * @param length {@link Integer}
+     * @return {@link Result} <{@link LogChunk}>
+     */
+    @GetMapping("/tailFile")
+    @ApiOperation("Read The Last Lines Of File")
+    @ApiImplicitParams({
+        @ApiImplicitParam(name = "path", value = "File Path", required = true, dataType = "String"),
+        @ApiImplicitParam(name = "lines", value = "Line Count", dataType = "Integer"),
+        @ApiImplicitParam(name = "length", value = "Max Bytes", dataType = "Integer")
+    })
+    public Result<LogChunk> tailFile(
+            @RequestParam String path,
+            @RequestParam(required = false) Integer lines,
+            @RequestParam(required = false) Integer length) {
+        return Result.succeed(systemService.tailFile(path, lines, length));
+    }
+
+    /**
+     * read a file from the first line logged at or after time
+     *
+     * @param path   {@link String}
+     * @param time   {@link String}
+     * @param length {@link Integer}
+     * @return {@link Result} <{@link LogChunk}>
+     */
+    @GetMapping("/readFileFromTime")
+    @ApiOperation("Read File From Time")
+    @ApiImplicitParams({
+        @ApiImplicitParam(name = "path", value = "File Path", required = true, dataType = "String"),
+        @ApiImplicitParam(name = "time", value = "yyyy-MM-dd HH:mm:ss", required = true, dataType = "String"),
+        @ApiImplicitParam(name = "length", value = "Max Bytes", dataType = "Integer")
+    })
+    public Result<LogChunk> readFileFromTime(
+            @RequestParam String path, @RequestParam String time, @RequestParam(required = false) Integer length) {
+        return Result.succeed(systemService.readFileFromTime(path, time, length));
+    }
+
+    /**
+     * push the bytes appended to a file
+     *
+     * @param path   {@link String}
+     * @param offset {@link Long}
+     * @return {@link SseEmitter}
+     */
+    @GetMapping(path = "/followFile", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ApiOperation("Follow File")
+    @ApiImplicitParams({
+        @ApiImplicitParam(name = "path", value = "File Path", required = true, dataType = "String"),
+        @ApiImplicitParam(name = "offset", value = "First Byte", dataType = "Long")
+    })
+    public SseEmitter followFile(@RequestParam String path, @RequestParam(required = false) Long offset) {
+        return systemService.followFile(path, offset);
+    }
+
     @GetMapping("/queryAllClassLoaderJarFiles")
     @ApiOperation("Query All ClassLoader Jar Files")
     public Result<Map<String, List<String>>> queryAllClassLoaderJarFiles() {
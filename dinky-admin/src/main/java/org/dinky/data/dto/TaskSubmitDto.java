@@ -37,6 +37,12 @@ public class TaskSubmitDto {
         this.variables = variables;
     }
 
+    public TaskSubmitDto(
+            Integer id, Boolean isOnline, String savePointPath, Map<String, String> variables, String idempotencyKey) {
+        this(id, isOnline, savePointPath, variables);
+        this.idempotencyKey = idempotencyKey;
+    }
+
     @ApiModelProperty(value = "ID", dataType = "Integer", example = "6", notes = "The identifier of the execution")
     private Integer id;
 
@@ -60,4 +66,11 @@ public class TaskSubmitDto {
             example = "{\"key\": \"value\"}",
             notes = "Variables")
     private Map<String, String> variables;
+
+    @ApiModelProperty(
+            value = "Idempotency Key",
+            dataType = "String",
+            example = "restart-20250101-6",
+            notes = "Queued submissions with the same key are submitted only once, the ticket of the first is returned")
+    private String idempotencyKey;
 }
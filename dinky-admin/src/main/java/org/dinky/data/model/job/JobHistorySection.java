@@ -0,0 +1,82 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.dinky.data.model.job;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+import com.baomidou.mybatisplus.annotation.FieldFill;
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * One json section of a {@link JobHistory}, stored apart from the history row so that a save only rewrites the
+ * sections whose content hash changed.
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+@TableName("dinky_job_history_section")
+@ApiModel(value = "JobHistorySection", description = "Job History Section Information")
+public class JobHistorySection implements Serializable {
+
+    private static final long serialVersionUID = 6349514235728096513L;
+
+    @TableId(value = "id", type = IdType.AUTO)
+    @ApiModelProperty(value = "ID", dataType = "Integer", example = "1", notes = "Unique identifier for the section")
+    private Integer id;
+
+    @ApiModelProperty(
+            value = "Job History ID",
+            dataType = "Integer",
+            example = "1",
+            notes = "ID of the job history the section belongs to")
+    private Integer jobHistoryId;
+
+    @ApiModelProperty(
+            value = "Section",
+            dataType = "String",
+            example = "jobJson",
+            notes = "Name of the job history field stored in the section")
+    private String section;
+
+    @ApiModelProperty(value = "Content Hash", dataType = "String", notes = "Md5 of the uncompressed json content")
+    private String contentHash;
+
+    @ApiModelProperty(
+            value = "Compressed",
+            dataType = "Boolean",
+            example = "false",
+            notes = "Whether the content is gzip compressed and base64 encoded")
+    private Boolean compressed;
+
+    @ApiModelProperty(value = "Content", dataType = "String", notes = "Json content of the section")
+    private String content;
+
+    @TableField(fill = FieldFill.INSERT_UPDATE)
+    @ApiModelProperty(value = "Update Time", example = "2022-02-24 20:12:00", dataType = "LocalDateTime")
+    private LocalDateTime updateTime;
+}
@@ -0,0 +1,62 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.dinky.data.model.job;
+
+import java.io.Serializable;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.Data;
+
+/**
+ * The right of one admin node to refresh, save the history of and alert on a job instance. The epoch grows with every
+ * change of owner, so a node whose lease was taken over can not renew or release it any more.
+ */
+@Data
+@TableName("dinky_job_monitor_lease")
+@ApiModel(value = "JobMonitorLease", description = "Job Monitor Lease Information")
+public class JobMonitorLease implements Serializable {
+
+    private static final long serialVersionUID = 4471391203652315907L;
+
+    @TableId(value = "job_instance_id", type = IdType.INPUT)
+    @ApiModelProperty(value = "Job Instance ID", dataType = "Integer", example = "1", notes = "ID of the job instance")
+    private Integer jobInstanceId;
+
+    @ApiModelProperty(value = "Task ID", dataType = "Integer", example = "1", notes = "ID of the task of the job")
+    private Integer taskId;
+
+    @ApiModelProperty(value = "Owner", dataType = "String", notes = "ID of the node holding the lease")
+    private String owner;
+
+    @ApiModelProperty(value = "Epoch", dataType = "Long", example = "1", notes = "Fencing token of the lease")
+    private Long epoch;
+
+    @ApiModelProperty(
+            value = "Expire Time",
+            dataType = "Long",
+            example = "1704038400000",
+            notes = "Epoch millis after which another node may take the lease over")
+    private Long expireTime;
+}
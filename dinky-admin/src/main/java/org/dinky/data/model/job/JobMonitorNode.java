@@ -0,0 +1,53 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.dinky.data.model.job;
+
+import java.io.Serializable;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.Data;
+
+/** A live admin node taking part in job monitoring, kept alive by its heartbeat. */
+@Data
+@TableName("dinky_job_monitor_node")
+@ApiModel(value = "JobMonitorNode", description = "Job Monitor Node Information")
+public class JobMonitorNode implements Serializable {
+
+    private static final long serialVersionUID = -2214931458472310512L;
+
+    @TableId(value = "node_id", type = IdType.INPUT)
+    @ApiModelProperty(value = "Node ID", dataType = "String", notes = "Unique identifier of the admin process")
+    private String nodeId;
+
+    @ApiModelProperty(value = "Host", dataType = "String", example = "127.0.0.1", notes = "Host of the admin node")
+    private String host;
+
+    @ApiModelProperty(
+            value = "Heartbeat Time",
+            dataType = "Long",
+            example = "1704038400000",
+            notes = "Epoch millis of the last heartbeat")
+    private Long heartbeatTime;
+}
@@ -67,4 +67,12 @@ public class ProTableResult<T> implements Serializable {
      */
     @ApiModelProperty(value = "Current Page Data", required = true, dataType = "List<T>", example = "[]")
     private List<T> data;
+    /**
+     * 下一页的游标
+     */
+    @ApiModelProperty(
+            value = "Next Page Cursor",
+            dataType = "String",
+            notes = "Pass it as cursor to read the next page by keyset, null on the last page")
+    private String nextCursor;
 }
@@ -23,14 +23,17 @@ import org.dinky.data.model.SystemConfiguration;
 import org.dinky.resource.BaseResourceManager;
 import org.dinky.service.JobInstanceService;
 import org.dinky.service.SysConfigService;
+import org.dinky.utils.MeterUtil;
 
 import org.apache.flink.runtime.webmonitor.history.HistoryServerUtil;
 
-import java.util.LinkedHashSet;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
@@ -40,47 +43,111 @@ import org.springframework.boot.ApplicationRunner;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
+import cn.hutool.cache.CacheUtil;
+import cn.hutool.cache.impl.TimedCache;
 import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.net.NetUtil;
+import cn.hutool.core.thread.ThreadUtil;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Runs the flink history server and hooks the jobs it archives as done.
+ *
+ * <p>Archived job ids are deduplicated by a set whose entries expire, then put into a bounded queue. When the queue is
+ * full the archive fetcher blocks until there is room again, so no completion is dropped. A few consumers drain the
+ * queue in batches, loading the job instances of a batch with one query. The queue does not need to be persisted: the
+ * history server lists all the archives again when it starts, and hooking a job which is already done does nothing.
+ */
 @Component
 @Slf4j
 @Order(value = 2)
 public class FlinkHistoryServer implements ApplicationRunner {
-    public static final Set<String> HISTORY_JOBID_SET = new LinkedHashSet<>();
-    private final ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(
-            5, 20, 10, TimeUnit.SECONDS, new LinkedBlockingQueue<>(100), new ThreadPoolExecutor.DiscardOldestPolicy());
+    private static final long ARCHIVED_JOB_EXPIRE = TimeUnit.DAYS.toMillis(1);
+    private static final int QUEUE_CAPACITY = 10000;
+    private static final int BATCH_SIZE = 100;
+    private static final int CONSUMERS = 5;
+
+    private static final TimedCache<String, Boolean> ARCHIVED_JOB_IDS = CacheUtil.newTimedCache(ARCHIVED_JOB_EXPIRE);
+
+    static {
+        ARCHIVED_JOB_IDS.schedulePrune(TimeUnit.MINUTES.toMillis(10));
+    }
+
+    private final BlockingQueue<String> doneJobQueue = new LinkedBlockingQueue<>(QUEUE_CAPACITY);
+    private final ExecutorService consumers =
+            Executors.newFixedThreadPool(CONSUMERS, ThreadUtil.newNamedThreadFactory("history-job-done-", true));
 
     private final Runnable historyRunnable;
     private final SystemConfiguration systemConfiguration = SystemConfiguration.getInstances();
     private final SysConfigService sysConfigService;
+    private final JobInstanceService jobInstanceService;
 
     public FlinkHistoryServer(JobInstanceService jobInstanceService, SysConfigService sysConfigService) {
         this.sysConfigService = sysConfigService;
+        this.jobInstanceService = jobInstanceService;
         this.historyRunnable = () -> {
             Map<String, String> flinkHistoryServerConfiguration =
                     SystemConfiguration.getInstances().getFlinkHistoryServerConfiguration();
             flinkHistoryServerConfiguration.putAll(BaseResourceManager.convertFlinkResourceConfig());
 
-            HistoryServerUtil.run(
-                    (jobId) -> {
-                        HISTORY_JOBID_SET.add(jobId);
-                        threadPoolExecutor.execute(() -> {
-                            jobInstanceService.hookJobDoneByHistory(jobId);
-                        });
-                    },
-                    flinkHistoryServerConfiguration);
+            HistoryServerUtil.run(this::onJobArchived, flinkHistoryServerConfiguration);
         };
     }
 
+    /** Whether the job has been archived by the history server, its information is then read from there. */
+    public static boolean isArchived(String jobId) {
+        return jobId != null && ARCHIVED_JOB_IDS.containsKey(jobId);
+    }
+
+    private void onJobArchived(String jobId) {
+        synchronized (ARCHIVED_JOB_IDS) {
+            if (ARCHIVED_JOB_IDS.containsKey(jobId)) {
+                return;
+            }
+            ARCHIVED_JOB_IDS.put(jobId, Boolean.TRUE);
+        }
+        try {
+            if (!doneJobQueue.offer(jobId)) {
+                log.warn("History job done queue is full, wait for the pending jobs to be hooked");
+                doneJobQueue.put(jobId);
+            }
+        } catch (InterruptedException e) {
+            // the history server is stopping, the job is hooked again when the archives are listed on restart
+            ARCHIVED_JOB_IDS.remove(jobId);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void consumeDoneJobs() {
+        List<String> batch = new ArrayList<>(BATCH_SIZE);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(doneJobQueue.take());
+                doneJobQueue.drainTo(batch, BATCH_SIZE - 1);
+                int done = jobInstanceService.hookJobDoneByHistory(batch);
+                log.debug("Hooked {} of {} archived jobs done", done, batch.size());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                log.error("Hook archived jobs {} done failed: {}", batch, e.getMessage(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
     @Override
     public void run(ApplicationArguments args) throws Exception {
+        // started by the runner, so the consumers inherit the context of the system initialization
+        for (int i = 0; i < CONSUMERS; i++) {
+            consumers.execute(this::consumeDoneJobs);
+        }
+        MeterUtil.monitor(consumers, "history-job-done");
+        MeterUtil.gauge("dinky.history.job.done.queue", doneJobQueue::size);
         AtomicReference<Thread> historyThread = new AtomicReference<>(new Thread(historyRunnable));
         Runnable closeHistory = () -> {
             if (historyThread.get().isAlive()) {
                 historyThread.get().interrupt();
-                HISTORY_JOBID_SET.clear();
             }
         };
 
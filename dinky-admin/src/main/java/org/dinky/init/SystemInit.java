@@ -36,6 +36,7 @@ import org.dinky.function.constant.PathConstant;
 import org.dinky.function.pool.UdfCodePool;
 import org.dinky.job.ClearJobHistoryTask;
 import org.dinky.job.FlinkJobTask;
+import org.dinky.job.JobMonitorCoordinator;
 import org.dinky.resource.BaseResourceManager;
 import org.dinky.scheduler.client.ProjectClient;
 import org.dinky.scheduler.exception.SchedulerException;
@@ -47,6 +48,7 @@ import org.dinky.service.TaskService;
 import org.dinky.service.TenantService;
 import org.dinky.url.RsURLStreamHandlerFactory;
 import org.dinky.utils.JsonUtils;
+import org.dinky.utils.MeterUtil;
 import org.dinky.utils.UDFUtils;
 
 import java.net.URL;
@@ -90,6 +92,7 @@ public class SystemInit implements ApplicationRunner {
     private final TenantService tenantService;
     private final GitProjectService gitProjectService;
     private final ScheduleThreadPool schedule;
+    private final JobMonitorCoordinator jobMonitorCoordinator;
     private static Project project;
 
     @Override
@@ -160,9 +163,23 @@ public class SystemInit implements ApplicationRunner {
         DaemonTask clearJobHistoryTask = DaemonTask.build(new DaemonTaskConfig(ClearJobHistoryTask.TYPE));
         schedule.addSchedule(clearJobHistoryTask, new PeriodicTrigger(1, TimeUnit.HOURS));
 
+        FlinkJobThreadPool flinkJobThreadPool = FlinkJobThreadPool.getInstance();
+        MeterUtil.gauge("dinky.job.monitor.tasks", flinkJobThreadPool::getTaskSize);
+        MeterUtil.gauge("dinky.job.monitor.workers", flinkJobThreadPool::getWorkerNum);
+        if (jobMonitorCoordinator.isShardingEnabled()) {
+            // The running jobs are partitioned across the admin nodes, each node takes its share on heartbeat
+            MeterUtil.gauge("dinky.job.monitor.leases", jobMonitorCoordinator::getOwnedLeaseSize);
+            long interval = jobMonitorCoordinator.getHeartbeatIntervalMs();
+            schedule.addSchedule(
+                    JobMonitorCoordinator.TYPE,
+                    jobMonitorCoordinator::heartbeat,
+                    new PeriodicTrigger(interval, TimeUnit.MILLISECONDS));
+            log.info("Job monitor sharding is enabled, node id: {}", jobMonitorCoordinator.getNodeId());
+            return;
+        }
+
         // Add flink running job task to flink job thread pool
         List<JobInstance> jobInstances = jobInstanceService.listJobInstanceActive();
-        FlinkJobThreadPool flinkJobThreadPool = FlinkJobThreadPool.getInstance();
         for (JobInstance jobInstance : jobInstances) {
             DaemonTaskConfig config =
                     DaemonTaskConfig.build(FlinkJobTask.TYPE, jobInstance.getId(), jobInstance.getTaskId());
@@ -0,0 +1,133 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.dinky.interceptor;
+
+import org.dinky.data.model.job.JobInstance;
+import org.dinky.mapper.AlertGroupMapper;
+import org.dinky.mapper.AlertInstanceMapper;
+import org.dinky.mapper.ClusterConfigurationMapper;
+import org.dinky.mapper.ClusterInstanceMapper;
+import org.dinky.mapper.DataBaseMapper;
+import org.dinky.mapper.FragmentVariableMapper;
+import org.dinky.mapper.GitProjectMapper;
+import org.dinky.mapper.JobInstanceMapper;
+import org.dinky.mapper.TaskMapper;
+import org.dinky.service.home.HomeAggregates;
+
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Plugin;
+import org.apache.ibatis.plugin.Signature;
+
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import org.springframework.beans.factory.ObjectProvider;
+
+import com.baomidou.mybatisplus.core.toolkit.Constants;
+import com.google.common.collect.ImmutableSet;
+
+import lombok.extern.slf4j.Slf4j;
+
+/** Report the writes which change the aggregates of the home page to {@link HomeAggregates}. */
+@Slf4j
+@Intercepts({@Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class})})
+public class HomeAggregatesInterceptor implements Interceptor {
+
+    private static final Set<String> RESOURCE_MAPPERS = ImmutableSet.of(
+            ClusterInstanceMapper.class.getName(),
+            ClusterConfigurationMapper.class.getName(),
+            DataBaseMapper.class.getName(),
+            FragmentVariableMapper.class.getName(),
+            GitProjectMapper.class.getName(),
+            AlertGroupMapper.class.getName(),
+            AlertInstanceMapper.class.getName());
+
+    /** Looked up lazily, the aggregates read through mappers which need this interceptor first. */
+    private final ObjectProvider<HomeAggregates> homeAggregates;
+
+    public HomeAggregatesInterceptor(ObjectProvider<HomeAggregates> homeAggregates) {
+        this.homeAggregates = homeAggregates;
+    }
+
+    @Override
+    public Object intercept(final Invocation invocation) throws Throwable {
+        Object result = invocation.proceed();
+        if (result instanceof Integer && (Integer) result == 0) {
+            return result;
+        }
+        MappedStatement ms = (MappedStatement) invocation.getArgs()[0];
+        Object parameter = invocation.getArgs()[1];
+        try {
+            HomeAggregates aggregates = homeAggregates.getIfAvailable();
+            if (aggregates != null) {
+                onUpdate(aggregates, ms, parameter);
+            }
+        } catch (Exception e) {
+            // the aggregates are reconciled later on, never fail the write because of them
+            log.warn("Failed to update the home aggregates after {}: {}", ms.getId(), e.getMessage());
+        }
+        return result;
+    }
+
+    private static void onUpdate(HomeAggregates aggregates, MappedStatement ms, Object parameter) {
+        String mapper = ms.getId().substring(0, ms.getId().lastIndexOf('.'));
+        SqlCommandType type = ms.getSqlCommandType();
+        if (JobInstanceMapper.class.getName().equals(mapper)) {
+            JobInstance jobInstance = entityOf(parameter);
+            if (jobInstance != null && type != SqlCommandType.DELETE) {
+                aggregates.onJobInstanceSaved(jobInstance, type == SqlCommandType.INSERT);
+            } else {
+                aggregates.invalidateJobInstances(null);
+            }
+        } else if (TaskMapper.class.getName().equals(mapper)) {
+            aggregates.invalidateTasks(null);
+        } else if (RESOURCE_MAPPERS.contains(mapper) && type != SqlCommandType.UPDATE) {
+            aggregates.invalidateResources(null);
+        }
+    }
+
+    /** The entity of insert and updateById, null for updates by wrapper. */
+    private static JobInstance entityOf(Object parameter) {
+        if (parameter instanceof JobInstance) {
+            return (JobInstance) parameter;
+        }
+        if (parameter instanceof Map && ((Map<?, ?>) parameter).containsKey(Constants.ENTITY)) {
+            Object entity = ((Map<?, ?>) parameter).get(Constants.ENTITY);
+            if (entity instanceof JobInstance && !((Map<?, ?>) parameter).containsKey(Constants.WRAPPER)) {
+                return (JobInstance) entity;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Object plugin(final Object target) {
+        return Plugin.wrap(target, this);
+    }
+
+    @Override
+    public void setProperties(final Properties properties) {}
+}
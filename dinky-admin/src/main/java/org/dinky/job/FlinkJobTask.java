@@ -54,6 +54,10 @@ public class FlinkJobTask implements DaemonTask {
 
     private static final MonitorService monitorService;
 
+    private static final JobMonitorCoordinator jobMonitorCoordinator;
+
+    private static final MetricsPushReceiver metricsPushReceiver;
+
     private long preDealTime;
 
     private long refreshCount = 0;
@@ -63,6 +67,8 @@ public class FlinkJobTask implements DaemonTask {
     static {
         jobInstanceService = SpringContextUtils.getBean("jobInstanceServiceImpl", JobInstanceService.class);
         monitorService = SpringContextUtils.getBean("monitorServiceImpl", MonitorService.class);
+        jobMonitorCoordinator = SpringContextUtils.getBean("jobMonitorCoordinator", JobMonitorCoordinator.class);
+        metricsPushReceiver = SpringContextUtils.getBean("metricsPushReceiver", MetricsPushReceiver.class);
     }
 
     private JobInfoDetail jobInfoDetail;
@@ -99,12 +105,25 @@ public class FlinkJobTask implements DaemonTask {
      */
     @Override
     public boolean dealTask() {
+        if (!jobMonitorCoordinator.owns(config.getId())) {
+            // another admin node holds the lease of the job, only it refreshes, saves and alerts. If this node renews
+            // the lease later, its next heartbeat puts the task back into the pool.
+            return true;
+        }
         volatilityBalance();
 
         boolean isDone = JobRefreshHandler.refreshJob(jobInfoDetail, isNeedSave());
+        String jid = jobInfoDetail.getInstance().getJid();
+        if (isDone) {
+            metricsPushReceiver.unwatch(jid);
+        } else if (!verticesAndMetricsMap.isEmpty()) {
+            metricsPushReceiver.watch(jid, verticesAndMetricsMap);
+        }
         if (Asserts.isAllNotNull(jobInfoDetail.getClusterInstance())) {
             JobAlertHandler.getInstance().check(jobInfoDetail);
-            if (SystemConfiguration.getInstances().getMetricsSysEnable().getValue()) {
+            // jobs running the dinky metric reporter push their metrics, the others are polled
+            if (SystemConfiguration.getInstances().getMetricsSysEnable().getValue()
+                    && !metricsPushReceiver.isPushing(jid)) {
                 JobMetricsHandler.refreshAndWriteFlinkMetrics(jobInfoDetail, verticesAndMetricsMap);
             }
         }
@@ -0,0 +1,334 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.dinky.job;
+
+import org.dinky.daemon.pool.FlinkJobThreadPool;
+import org.dinky.daemon.task.DaemonTask;
+import org.dinky.daemon.task.DaemonTaskConfig;
+import org.dinky.data.model.job.JobInstance;
+import org.dinky.data.model.job.JobMonitorLease;
+import org.dinky.data.model.job.JobMonitorNode;
+import org.dinky.mapper.JobInstanceMapper;
+import org.dinky.mapper.JobMonitorLeaseMapper;
+import org.dinky.mapper.JobMonitorNodeMapper;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+
+import cn.hutool.core.lang.hash.MurmurHash;
+import cn.hutool.core.net.NetUtil;
+import cn.hutool.core.util.IdUtil;
+import cn.hutool.core.util.StrUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Partition the monitored jobs across the admin nodes sharing the database.
+ * <p>
+ * Every node registers itself in dinky_job_monitor_node and renews its heartbeat there. Each active job instance is
+ * assigned to one live node by rendezvous hashing, so a node joining or leaving only moves the jobs assigned to it.
+ * The assigned node takes a lease on the job in dinky_job_monitor_lease and renews it with every heartbeat. A node
+ * considers its lease valid for one heartbeat interval less than the lease lasts in the database, so it stops
+ * refreshing, saving and alerting on a job it could not renew before another node may take the lease over.
+ * Lease expiry is compared across nodes, their clocks are expected to be synchronized.
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class JobMonitorCoordinator {
+
+    public static final String TYPE = JobMonitorCoordinator.class.toString();
+
+    private final JobMonitorProperties properties;
+    private final JobMonitorNodeMapper nodeMapper;
+    private final JobMonitorLeaseMapper leaseMapper;
+    private final JobInstanceMapper jobInstanceMapper;
+
+    private final String nodeId = NetUtil.getLocalhostStr() + "-" + IdUtil.fastSimpleUUID();
+
+    /** Leases held by this node, by job instance id */
+    private final Map<Integer, OwnedLease> ownedLeases = new ConcurrentHashMap<>();
+
+    /** Replacing the task of a job in the pool is not atomic, it is guarded by this lock */
+    private final Object poolLock = new Object();
+
+    public boolean isShardingEnabled() {
+        return Boolean.TRUE.equals(properties.getShardingEnabled());
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public long getHeartbeatIntervalMs() {
+        return properties.getHeartbeatIntervalMs();
+    }
+
+    public int getOwnedLeaseSize() {
+        return ownedLeases.size();
+    }
+
+    /** Whether this node may refresh, save the history of and alert on the job instance. */
+    public boolean owns(Integer jobInstanceId) {
+        if (!isShardingEnabled()) {
+            return true;
+        }
+        OwnedLease lease = ownedLeases.get(jobInstanceId);
+        return lease != null && lease.validUntil > System.currentTimeMillis();
+    }
+
+    /**
+     * Monitor a job instance on this node, for example right after it has been submitted here. With sharding the
+     * node takes the lease first, if the job is assigned to another node the next heartbeat hands it over. The lease
+     * row fences concurrent owners, so this does not wait for a running heartbeat.
+     */
+    public void monitor(Integer jobInstanceId, Integer taskId) {
+        if (isShardingEnabled() && !owns(jobInstanceId)) {
+            JobMonitorLease lease = leaseMapper.selectById(jobInstanceId);
+            if (!acquire(jobInstanceId, taskId, lease, System.currentTimeMillis())) {
+                log.info("Job instance {} is monitored by another node", jobInstanceId);
+                return;
+            }
+        }
+        start(jobInstanceId, taskId);
+    }
+
+    /**
+     * Renew the heartbeat and the leases of this node and rebalance the active jobs across the live nodes.
+     * <p>
+     * Only the leases held before the database is read are checked, a lease taken by {@link #monitor} meanwhile is
+     * left to the next heartbeat. An owned lease is dropped only if it has not been replaced in the meantime.
+     * </p>
+     */
+    public synchronized void heartbeat() {
+        try {
+            Map<Integer, OwnedLease> owned = new HashMap<>(ownedLeases);
+            long now = System.currentTimeMillis();
+            List<String> liveNodes = register(now);
+            Map<Integer, JobMonitorLease> leases = new HashMap<>();
+            leaseMapper.selectList(null).forEach(x -> leases.put(x.getJobInstanceId(), x));
+
+            // a lease taken over or removed by another node is lost
+            for (Map.Entry<Integer, OwnedLease> entry : owned.entrySet()) {
+                JobMonitorLease lease = leases.get(entry.getKey());
+                if (lease == null
+                        || !nodeId.equals(lease.getOwner())
+                        || !lease.getEpoch().equals(entry.getValue().epoch)) {
+                    log.warn("Lost the monitor lease of job instance {}", entry.getKey());
+                    stop(entry.getKey(), entry.getValue());
+                }
+            }
+
+            for (JobInstance instance : jobInstanceMapper.listJobInstanceActive()) {
+                JobMonitorLease lease = leases.remove(instance.getId());
+                boolean assigned = nodeId.equals(assign(instance.getId(), liveNodes));
+                OwnedLease held = owned.get(instance.getId());
+                if (lease != null && nodeId.equals(lease.getOwner())) {
+                    if (!assigned) {
+                        // the job is assigned to another live node, it takes the lease with its next heartbeat
+                        release(lease, held);
+                    } else if (held == null) {
+                        if (renew(lease, now)) {
+                            start(instance.getId(), instance.getTaskId());
+                        }
+                    } else if (!renew(lease, now)) {
+                        stop(instance.getId(), held);
+                    } else if (!isRunning(instance.getId())) {
+                        // the task left the pool while the lease could not be renewed in time
+                        start(instance.getId(), instance.getTaskId());
+                    }
+                } else if (assigned && acquire(instance.getId(), instance.getTaskId(), lease, now)) {
+                    start(instance.getId(), instance.getTaskId());
+                }
+            }
+
+            // the remaining leases belong to jobs which are done
+            for (JobMonitorLease lease : leases.values()) {
+                if (nodeId.equals(lease.getOwner()) || lease.getExpireTime() < now) {
+                    release(lease, owned.get(lease.getJobInstanceId()));
+                }
+            }
+        } catch (Exception e) {
+            log.error("Job monitor heartbeat of node {} failed: {}", nodeId, e.getMessage(), e);
+        }
+    }
+
+    /** Leave the cluster on shutdown, so that the other nodes take over the jobs without waiting for the leases. */
+    @PreDestroy
+    public synchronized void leave() {
+        if (!isShardingEnabled()) {
+            return;
+        }
+        ownedLeases.clear();
+        try {
+            leaseMapper.delete(new LambdaQueryWrapper<JobMonitorLease>().eq(JobMonitorLease::getOwner, nodeId));
+            nodeMapper.deleteById(nodeId);
+        } catch (Exception e) {
+            log.warn("Node {} failed to leave the job monitor: {}", nodeId, e.getMessage());
+        }
+    }
+
+    /** Register the heartbeat of this node and return the ids of the live nodes. */
+    private List<String> register(long now) {
+        JobMonitorNode node = new JobMonitorNode();
+        node.setNodeId(nodeId);
+        node.setHost(NetUtil.getLocalhostStr());
+        node.setHeartbeatTime(now);
+        if (nodeMapper.updateById(node) == 0) {
+            nodeMapper.insert(node);
+        }
+        long timeout = properties.getLeaseTimeoutMs();
+        nodeMapper.delete(
+                new LambdaQueryWrapper<JobMonitorNode>().lt(JobMonitorNode::getHeartbeatTime, now - 10 * timeout));
+        return nodeMapper
+                .selectList(
+                        new LambdaQueryWrapper<JobMonitorNode>().ge(JobMonitorNode::getHeartbeatTime, now - timeout))
+                .stream()
+                .map(JobMonitorNode::getNodeId)
+                .collect(Collectors.toList());
+    }
+
+    /** The live node a job instance is assigned to, the node with the highest hash of node and job. */
+    static String assign(Integer jobInstanceId, List<String> liveNodes) {
+        String assigned = null;
+        long highest = Long.MIN_VALUE;
+        for (String node : liveNodes) {
+            long weight = MurmurHash.hash64(StrUtil.utf8Bytes(node + "#" + jobInstanceId));
+            if (assigned == null || weight > highest) {
+                assigned = node;
+                highest = weight;
+            }
+        }
+        return assigned;
+    }
+
+    private boolean acquire(Integer jobInstanceId, Integer taskId, JobMonitorLease lease, long now) {
+        long epoch;
+        try {
+            if (lease == null) {
+                epoch = 1L;
+                JobMonitorLease created = new JobMonitorLease();
+                created.setJobInstanceId(jobInstanceId);
+                created.setTaskId(taskId);
+                created.setOwner(nodeId);
+                created.setEpoch(epoch);
+                created.setExpireTime(now + properties.getLeaseTimeoutMs());
+                leaseMapper.insert(created);
+            } else if (lease.getExpireTime() < now) {
+                epoch = lease.getEpoch() + 1;
+                int updated = leaseMapper.update(
+                        null,
+                        new LambdaUpdateWrapper<JobMonitorLease>()
+                                .set(JobMonitorLease::getOwner, nodeId)
+                                .set(JobMonitorLease::getEpoch, epoch)
+                                .set(JobMonitorLease::getExpireTime, now + properties.getLeaseTimeoutMs())
+                                .eq(JobMonitorLease::getJobInstanceId, jobInstanceId)
+                                .eq(JobMonitorLease::getEpoch, lease.getEpoch()));
+                if (updated != 1) {
+                    return false;
+                }
+                log.info("Took over the monitor lease of job instance {} from {}", jobInstanceId, lease.getOwner());
+            } else {
+                return false;
+            }
+        } catch (DuplicateKeyException e) {
+            // another node has just taken the lease
+            return false;
+        }
+        ownedLeases.put(jobInstanceId, new OwnedLease(epoch, validUntil(now)));
+        return true;
+    }
+
+    private boolean renew(JobMonitorLease lease, long now) {
+        int updated = leaseMapper.update(
+                null,
+                new LambdaUpdateWrapper<JobMonitorLease>()
+                        .set(JobMonitorLease::getExpireTime, now + properties.getLeaseTimeoutMs())
+                        .eq(JobMonitorLease::getJobInstanceId, lease.getJobInstanceId())
+                        .eq(JobMonitorLease::getOwner, nodeId)
+                        .eq(JobMonitorLease::getEpoch, lease.getEpoch()));
+        if (updated != 1) {
+            return false;
+        }
+        ownedLeases.put(lease.getJobInstanceId(), new OwnedLease(lease.getEpoch(), validUntil(now)));
+        return true;
+    }
+
+    private void release(JobMonitorLease lease, OwnedLease held) {
+        if (held != null && nodeId.equals(lease.getOwner())) {
+            stop(lease.getJobInstanceId(), held);
+        }
+        leaseMapper.delete(new LambdaQueryWrapper<JobMonitorLease>()
+                .eq(JobMonitorLease::getJobInstanceId, lease.getJobInstanceId())
+                .eq(JobMonitorLease::getEpoch, lease.getEpoch()));
+    }
+
+    private long validUntil(long now) {
+        return now + properties.getLeaseTimeoutMs() - properties.getHeartbeatIntervalMs();
+    }
+
+    private void start(Integer jobInstanceId, Integer taskId) {
+        DaemonTaskConfig config = taskConfig(jobInstanceId, taskId);
+        DaemonTask task = DaemonTask.build(config);
+        synchronized (poolLock) {
+            FlinkJobThreadPool.getInstance().removeByTaskConfig(config);
+            FlinkJobThreadPool.getInstance().execute(task);
+        }
+    }
+
+    private void stop(Integer jobInstanceId, OwnedLease held) {
+        if (ownedLeases.remove(jobInstanceId, held)) {
+            synchronized (poolLock) {
+                FlinkJobThreadPool.getInstance().removeByTaskConfig(taskConfig(jobInstanceId, null));
+            }
+        }
+    }
+
+    private boolean isRunning(Integer jobInstanceId) {
+        return FlinkJobThreadPool.getInstance().getByTaskConfig(taskConfig(jobInstanceId, null)) != null;
+    }
+
+    private static DaemonTaskConfig taskConfig(Integer jobInstanceId, Integer taskId) {
+        return DaemonTaskConfig.build(FlinkJobTask.TYPE, jobInstanceId, taskId);
+    }
+
+    private static class OwnedLease {
+        private final Long epoch;
+        private final long validUntil;
+
+        private OwnedLease(Long epoch, long validUntil) {
+            this.epoch = epoch;
+            this.validUntil = validUntil;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.dinky.job;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/** Settings of the job monitor, see {@link JobMonitorCoordinator}. */
+@Setter
+@Getter
+@ConfigurationProperties(prefix = "dinky.job-monitor")
+@Component
+public class JobMonitorProperties {
+
+    /** Partition the monitored jobs across the admin nodes sharing the database, off means every node monitors all */
+    private Boolean shardingEnabled = false;
+
+    /** How often a node renews its heartbeat and leases and rebalances the jobs */
+    private Long heartbeatIntervalMs = 10000L;
+
+    /** How long a lease lasts without renewal, a node missing its heartbeat this long is considered gone */
+    private Long leaseTimeoutMs = 30000L;
+}
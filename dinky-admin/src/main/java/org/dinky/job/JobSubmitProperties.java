@@ -0,0 +1,46 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.dinky.job;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/** Settings of the task submission queue, see {@link JobSubmitQueue}. */
+@Setter
+@Getter
+@ConfigurationProperties(prefix = "dinky.job-submit")
+@Component
+public class JobSubmitProperties {
+
+    /** How many submissions run at the same time */
+    private Integer globalParallelism = 4;
+
+    /** How many submissions run at the same time against one cluster or cluster configuration */
+    private Integer clusterParallelism = 2;
+
+    /** How many submissions may wait in the queue, further submissions are rejected */
+    private Integer maxPending = 1000;
+
+    /** How long a finished ticket can still be polled, and deduplicates submissions with its idempotency key */
+    private Long ticketRetentionMs = 3600000L;
+}
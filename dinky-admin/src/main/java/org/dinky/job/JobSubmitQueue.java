@@ -0,0 +1,292 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.dinky.job;
+
+import org.dinky.context.TenantContextHolder;
+import org.dinky.data.dto.TaskSubmitDto;
+import org.dinky.data.enums.Status;
+import org.dinky.data.exception.BusException;
+import org.dinky.data.model.Task;
+import org.dinky.gateway.enums.GatewayType;
+import org.dinky.service.TaskService;
+import org.dinky.utils.MeterUtil;
+import org.dinky.ws.topic.JobSubmit;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import cn.hutool.core.thread.ThreadUtil;
+import cn.hutool.core.util.StrUtil;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Submits tasks in the background, so that a submission does not hold the request until the job is deployed.
+ *
+ * <p>{@link #submit} queues the task and returns a ticket at once. Workers take the queued tasks in order, running at
+ * most global-parallelism submissions, of which at most cluster-parallelism against the same cluster, a task whose
+ * cluster is busy lets the tasks behind it pass. A submission carrying the idempotency key of a known ticket, or of a
+ * task which is queued or running already, returns the existing ticket instead of submitting again. Ticket changes
+ * are pushed to the JOB_SUBMIT websocket topic, finished tickets can be polled until the retention has passed.
+ */
+@Slf4j
+@Component
+public class JobSubmitQueue {
+    private static final String STOPPED = "Dinky stopped before the task was submitted";
+
+    private final TaskService taskService;
+    private final JobSubmitProperties properties;
+    private final ExecutorService workers;
+    /** Told about every change of a ticket */
+    private final Consumer<JobSubmitTicket> listener;
+
+    /** All known tickets by ticket id, queued, running and finished within the retention */
+    private final Map<String, JobSubmitTicket> tickets = new ConcurrentHashMap<>();
+
+    // guarded by this
+    private final LinkedList<JobSubmitTicket> pending = new LinkedList<>();
+    /** Ticket ids by idempotency key, scoped by tenant and task */
+    private final Map<String, String> keyTickets = new HashMap<>();
+    private final Map<Integer, String> activeTaskTickets = new HashMap<>();
+    private final Map<String, Integer> runningByCluster = new HashMap<>();
+    private int running;
+
+    @Autowired
+    public JobSubmitQueue(TaskService taskService, JobSubmitProperties properties) {
+        this(taskService, properties, JobSubmit.INSTANCE::send);
+    }
+
+    JobSubmitQueue(TaskService taskService, JobSubmitProperties properties, Consumer<JobSubmitTicket> listener) {
+        this.taskService = taskService;
+        this.properties = properties;
+        this.listener = listener;
+        this.workers = Executors.newFixedThreadPool(
+                properties.getGlobalParallelism(), ThreadUtil.newNamedThreadFactory("job-submit-", true));
+    }
+
+    @PostConstruct
+    public void start() {
+        MeterUtil.gauge("dinky.job.submit.pending", this::getPendingSize);
+        MeterUtil.gauge("dinky.job.submit.running", this::getRunningSize);
+    }
+
+    /**
+     * Queue the submission of a task, the tenant of the task must have been set on the calling thread.
+     *
+     * @return the ticket of the submission, or the existing ticket of a duplicate submission
+     */
+    public JobSubmitTicket submit(TaskSubmitDto submitDto) {
+        Task task = taskService.getById(submitDto.getId());
+        if (task == null) {
+            throw new BusException(Status.TASK_NOT_EXIST);
+        }
+        return enqueue(task, submitDto);
+    }
+
+    private synchronized JobSubmitTicket enqueue(Task task, TaskSubmitDto submitDto) {
+        expire();
+        String key = scopedKey(task.getTenantId(), task.getId(), submitDto.getIdempotencyKey());
+        JobSubmitTicket existing = key != null ? ticket(keyTickets.get(key)) : null;
+        if (existing == null) {
+            existing = ticket(activeTaskTickets.get(task.getId()));
+        }
+        if (existing != null) {
+            log.info("Task {} is submitted already, ticket: {}", task.getId(), existing.getTicketId());
+            return existing;
+        }
+        if (pending.size() >= properties.getMaxPending()) {
+            throw new BusException(
+                    StrUtil.format("The submit queue is full, {} tasks are waiting.", properties.getMaxPending()));
+        }
+
+        JobSubmitTicket ticket = new JobSubmitTicket();
+        ticket.setTicketId(UUID.randomUUID().toString());
+        ticket.setTaskId(task.getId());
+        ticket.setTenantId(task.getTenantId());
+        ticket.setIdempotencyKey(submitDto.getIdempotencyKey());
+        ticket.setCluster(clusterOf(task));
+        ticket.setState(JobSubmitTicket.State.QUEUED);
+        ticket.setCreateTime(System.currentTimeMillis());
+        ticket.setSubmitDto(submitDto);
+        tickets.put(ticket.getTicketId(), ticket);
+        if (key != null) {
+            keyTickets.put(key, ticket.getTicketId());
+        }
+        activeTaskTickets.put(task.getId(), ticket.getTicketId());
+        pending.add(ticket);
+        listener.accept(ticket);
+        dispatch();
+        return ticket;
+    }
+
+    /** The ticket if it belongs to the tenant of the calling thread, callers without a tenant see all tickets. */
+    public JobSubmitTicket getTicket(String ticketId) {
+        JobSubmitTicket ticket = ticket(ticketId);
+        return ticket != null && isVisible(ticket) ? ticket : null;
+    }
+
+    public List<JobSubmitTicket> getTickets(Collection<String> ticketIds) {
+        List<JobSubmitTicket> result = new ArrayList<>(ticketIds.size());
+        for (String ticketId : ticketIds) {
+            JobSubmitTicket ticket = getTicket(ticketId);
+            if (ticket != null) {
+                result.add(ticket);
+            }
+        }
+        return result;
+    }
+
+    private JobSubmitTicket ticket(String ticketId) {
+        return ticketId == null ? null : tickets.get(ticketId);
+    }
+
+    private static boolean isVisible(JobSubmitTicket ticket) {
+        Object tenantId = TenantContextHolder.get();
+        return tenantId == null
+                || TenantContextHolder.isIgnoreTenant()
+                || String.valueOf(tenantId).equals(String.valueOf(ticket.getTenantId()));
+    }
+
+    /** Idempotency keys are only unique within the submissions of a task of a tenant. */
+    private static String scopedKey(Integer tenantId, Integer taskId, String idempotencyKey) {
+        return StrUtil.isBlank(idempotencyKey) ? null : tenantId + ":" + taskId + ":" + idempotencyKey;
+    }
+
+    public synchronized int getPendingSize() {
+        return pending.size();
+    }
+
+    public synchronized int getRunningSize() {
+        return running;
+    }
+
+    /** The key submissions are limited by, deployed clusters by their configuration, the others by their cluster. */
+    static String clusterOf(Task task) {
+        GatewayType type = GatewayType.get(task.getType());
+        if (type.isDeployCluster()) {
+            return type.getLongValue() + ":" + task.getClusterConfigurationId();
+        }
+        if (type == GatewayType.LOCAL) {
+            return type.getLongValue();
+        }
+        return type.getLongValue() + ":" + task.getClusterId();
+    }
+
+    /** Start the queued submissions that the parallelism limits allow. */
+    private synchronized void dispatch() {
+        Iterator<JobSubmitTicket> iterator = pending.iterator();
+        while (running < properties.getGlobalParallelism() && iterator.hasNext()) {
+            JobSubmitTicket ticket = iterator.next();
+            if (runningByCluster.getOrDefault(ticket.getCluster(), 0) >= properties.getClusterParallelism()) {
+                continue;
+            }
+            iterator.remove();
+            running++;
+            runningByCluster.merge(ticket.getCluster(), 1, Integer::sum);
+            ticket.setState(JobSubmitTicket.State.RUNNING);
+            ticket.setStartTime(System.currentTimeMillis());
+            try {
+                workers.execute(() -> run(ticket));
+            } catch (RejectedExecutionException e) {
+                ticket.setError(STOPPED);
+                finish(ticket, JobSubmitTicket.State.FAILED);
+                return;
+            }
+        }
+    }
+
+    private void run(JobSubmitTicket ticket) {
+        listener.accept(ticket);
+        JobSubmitTicket.State state = JobSubmitTicket.State.FAILED;
+        try {
+            taskService.initTenantByTaskId(ticket.getTaskId());
+            JobResult jobResult = taskService.submitTask(ticket.getSubmitDto());
+            ticket.setJobInstanceId(jobResult.getJobInstanceId());
+            ticket.setJobId(jobResult.getJobId());
+            ticket.setError(jobResult.getError());
+            if (jobResult.isSuccess()) {
+                state = JobSubmitTicket.State.SUCCESS;
+            }
+        } catch (Throwable e) {
+            log.error("Submit task {} failed, ticket: {}", ticket.getTaskId(), ticket.getTicketId(), e);
+            ticket.setError(StrUtil.blankToDefault(e.getMessage(), e.getClass().getName()));
+        } finally {
+            TenantContextHolder.clear();
+            finish(ticket, state);
+            listener.accept(ticket);
+            dispatch();
+        }
+    }
+
+    /** Release the slots of the submission, then publish its outcome so that a finished task can be submitted again. */
+    private synchronized void finish(JobSubmitTicket ticket, JobSubmitTicket.State state) {
+        running--;
+        runningByCluster.computeIfPresent(ticket.getCluster(), (cluster, count) -> count > 1 ? count - 1 : null);
+        activeTaskTickets.remove(ticket.getTaskId(), ticket.getTicketId());
+        ticket.setFinishTime(System.currentTimeMillis());
+        ticket.setState(state);
+    }
+
+    /** Forget the tickets finished longer ago than the retention. */
+    private synchronized void expire() {
+        long expireBefore = System.currentTimeMillis() - properties.getTicketRetentionMs();
+        tickets.values().removeIf(ticket -> {
+            if (!ticket.isFinished() || ticket.getFinishTime() >= expireBefore) {
+                return false;
+            }
+            String key = scopedKey(ticket.getTenantId(), ticket.getTaskId(), ticket.getIdempotencyKey());
+            if (key != null) {
+                keyTickets.remove(key, ticket.getTicketId());
+            }
+            return true;
+        });
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        workers.shutdown();
+        if (!pending.isEmpty()) {
+            log.warn("Stop the submit queue, {} queued tasks are not submitted", pending.size());
+        }
+        pending.forEach(ticket -> {
+            activeTaskTickets.remove(ticket.getTaskId(), ticket.getTicketId());
+            ticket.setError(STOPPED);
+            ticket.setFinishTime(System.currentTimeMillis());
+            ticket.setState(JobSubmitTicket.State.FAILED);
+        });
+        pending.clear();
+    }
+}
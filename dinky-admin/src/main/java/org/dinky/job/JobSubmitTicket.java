@@ -0,0 +1,88 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.dinky.job;
+
+import org.dinky.data.dto.TaskSubmitDto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.Data;
+
+/** A queued task submission, updated by {@link JobSubmitQueue} as the submission proceeds. */
+@Data
+@ApiModel(value = "JobSubmitTicket", description = "The state of a queued task submission")
+public class JobSubmitTicket {
+
+    public enum State {
+        QUEUED,
+        RUNNING,
+        SUCCESS,
+        FAILED
+    }
+
+    @ApiModelProperty(value = "Ticket ID", dataType = "String", notes = "Poll the submission with it")
+    private String ticketId;
+
+    @ApiModelProperty(value = "Task ID", dataType = "Integer", example = "6")
+    private Integer taskId;
+
+    @JsonIgnore
+    private Integer tenantId;
+
+    @ApiModelProperty(value = "Idempotency Key", dataType = "String")
+    private String idempotencyKey;
+
+    @ApiModelProperty(
+            value = "Cluster",
+            dataType = "String",
+            notes = "The cluster or cluster configuration the task is submitted to")
+    private String cluster;
+
+    @ApiModelProperty(value = "State", dataType = "String", example = "QUEUED")
+    private volatile State state;
+
+    @ApiModelProperty(value = "Job Instance ID", dataType = "Integer", notes = "Set when the submission succeeded")
+    private volatile Integer jobInstanceId;
+
+    @ApiModelProperty(value = "Job ID", dataType = "String", notes = "Set when the submission succeeded")
+    private volatile String jobId;
+
+    @ApiModelProperty(value = "Error", dataType = "String", notes = "Set when the submission failed")
+    private volatile String error;
+
+    @ApiModelProperty(value = "Create Time", dataType = "Long", notes = "Epoch millis the ticket was queued")
+    private long createTime;
+
+    @ApiModelProperty(value = "Start Time", dataType = "Long", notes = "Epoch millis the submission started")
+    private volatile long startTime;
+
+    @ApiModelProperty(value = "Finish Time", dataType = "Long", notes = "Epoch millis the submission finished")
+    private volatile long finishTime;
+
+    @JsonIgnore
+    private TaskSubmitDto submitDto;
+
+    @JsonIgnore
+    public boolean isFinished() {
+        return state == State.SUCCESS || state == State.FAILED;
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.dinky.job;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/** Settings of the metrics pushed by the dinky metric reporter, see {@link MetricsPushReceiver}. */
+@Setter
+@Getter
+@ConfigurationProperties(prefix = "dinky.metrics-push")
+@Component
+public class MetricsPushProperties {
+
+    /** Accept pushed metrics, off answers every reporter with an empty selection */
+    private Boolean enabled = true;
+
+    /** A job without pushed metrics for this long is polled through the rest api again */
+    private Long pollingFallbackMs = 60000L;
+
+    /** Write at most one snapshot of a job this often, the pushes of all task managers are merged in between */
+    private Long emitIntervalMs = 5000L;
+}
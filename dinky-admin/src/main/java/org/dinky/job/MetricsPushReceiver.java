@@ -0,0 +1,144 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.dinky.job;
+
+import org.dinky.context.MetricsContextHolder;
+import org.dinky.data.model.SystemConfiguration;
+import org.dinky.data.vo.MetricsVO;
+import org.dinky.metrics.MetricsPushProtocol;
+import org.dinky.utils.TimeUtil;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Receive the metrics pushed by the dinky metric reporter of the flink jobs. The monitored jobs register the metrics
+ * selected in their layouts, which are sent back to the reporters as the answer of every push. The pushed values of
+ * all task managers of a job are merged and written to the metrics store like the polled ones, a job whose metrics
+ * are pushed is not polled by {@link FlinkJobTask}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MetricsPushReceiver {
+
+    private final MetricsPushProperties properties;
+
+    /** Selected metric ids by vertex id of the monitored jobs, by flink job id. */
+    private final Map<String, Map<String, Map<String, String>>> selections = new ConcurrentHashMap<>();
+
+    private final Map<String, PushedMetrics> pushedMetrics = new ConcurrentHashMap<>();
+
+    /**
+     * Watch the metrics of a job, the values of the given layout map are not used.
+     *
+     * @param jobId flink job id
+     * @param verticesAndMetrics metric ids by vertex id
+     */
+    public void watch(String jobId, Map<String, Map<String, String>> verticesAndMetrics) {
+        if (jobId != null) {
+            selections.put(jobId, verticesAndMetrics);
+        }
+    }
+
+    public void unwatch(String jobId) {
+        if (jobId != null) {
+            selections.remove(jobId);
+            pushedMetrics.remove(jobId);
+        }
+    }
+
+    /** Whether the metrics of the job have been pushed recently, so polling them can be skipped. */
+    public boolean isPushing(String jobId) {
+        if (!properties.getEnabled() || jobId == null) {
+            return false;
+        }
+        PushedMetrics pushed = pushedMetrics.get(jobId);
+        return pushed != null && System.currentTimeMillis() - pushed.lastPushTime < properties.getPollingFallbackMs();
+    }
+
+    /**
+     * Take a push frame of a reporter.
+     *
+     * @param frame push frame
+     * @return selection frame of the jobs of the push
+     */
+    public byte[] receive(byte[] frame) throws IOException {
+        MetricsPushProtocol.Push push = MetricsPushProtocol.readPush(frame);
+        boolean enabled = properties.getEnabled()
+                && SystemConfiguration.getInstances().getMetricsSysEnable().getValue();
+        Map<String, Map<String, Set<String>>> selection = new LinkedHashMap<>();
+        for (Map.Entry<String, Map<String, Map<String, String>>> job : push.getJobs().entrySet()) {
+            Map<String, Map<String, String>> watched = enabled ? selections.get(job.getKey()) : null;
+            if (watched == null) {
+                selection.put(job.getKey(), Collections.emptyMap());
+                continue;
+            }
+            Map<String, Set<String>> vertices = new LinkedHashMap<>();
+            watched.forEach((vertexId, metrics) -> vertices.put(vertexId, metrics.keySet()));
+            selection.put(job.getKey(), vertices);
+            if (!job.getValue().isEmpty()) {
+                merge(job.getKey(), job.getValue());
+            }
+        }
+        return MetricsPushProtocol.writeSelection(selection);
+    }
+
+    private void merge(String jobId, Map<String, Map<String, String>> values) {
+        PushedMetrics pushed = pushedMetrics.computeIfAbsent(jobId, k -> new PushedMetrics());
+        MetricsVO metricsVO = null;
+        synchronized (pushed) {
+            long now = System.currentTimeMillis();
+            values.forEach((vertexId, metrics) ->
+                    pushed.values.computeIfAbsent(vertexId, k -> new LinkedHashMap<>()).putAll(metrics));
+            pushed.lastPushTime = now;
+            if (now - pushed.lastEmitTime >= properties.getEmitIntervalMs()) {
+                pushed.lastEmitTime = now;
+                Map<String, Map<String, String>> content = new ConcurrentHashMap<>();
+                pushed.values.forEach((vertexId, metrics) -> content.put(vertexId, new LinkedHashMap<>(metrics)));
+                metricsVO = new MetricsVO();
+                metricsVO.setContent(content);
+                metricsVO.setHeartTime(LocalDateTime.now());
+                metricsVO.setModel(jobId);
+                metricsVO.setDate(TimeUtil.nowStr("yyyy-MM-dd"));
+            }
+        }
+        if (metricsVO != null) {
+            MetricsContextHolder.getInstance().saveToSqlite(metricsVO.getModel(), metricsVO);
+        }
+    }
+
+    /** The merged values last pushed for a job. */
+    private static class PushedMetrics {
+        private final Map<String, Map<String, String>> values = new LinkedHashMap<>();
+        private volatile long lastPushTime;
+        private long lastEmitTime;
+    }
+}
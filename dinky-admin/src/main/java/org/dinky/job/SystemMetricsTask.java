@@ -35,7 +35,7 @@ import cn.hutool.core.lang.Opt;
 import cn.hutool.core.util.ReflectUtil;
 import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
-import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import io.micrometer.core.instrument.Metrics;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
 
@@ -43,7 +43,7 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 @Data
 public class SystemMetricsTask implements DaemonTask {
-    private final MeterRegistry registry = new CompositeMeterRegistry();
+    private final MeterRegistry registry = Metrics.globalRegistry;
 
     private DaemonTaskConfig config;
     public static final String TYPE = SystemMetricsTask.class.toString();
@@ -21,9 +21,6 @@ package org.dinky.job.handler;
 
 import org.dinky.assertion.Asserts;
 import org.dinky.context.SpringContextUtils;
-import org.dinky.daemon.pool.FlinkJobThreadPool;
-import org.dinky.daemon.task.DaemonTask;
-import org.dinky.daemon.task.DaemonTaskConfig;
 import org.dinky.data.constant.MysqlConstant;
 import org.dinky.data.dto.ClusterInstanceDTO;
 import org.dinky.data.enums.GatewayType;
@@ -38,8 +35,8 @@ import org.dinky.data.model.mapping.ClusterConfigurationMapping;
 import org.dinky.data.model.mapping.ClusterInstanceMapping;
 import org.dinky.data.result.ResultPool;
 import org.dinky.data.result.SelectResult;
-import org.dinky.job.FlinkJobTask;
 import org.dinky.job.Job;
+import org.dinky.job.JobMonitorCoordinator;
 import org.dinky.job.JobReadHandler;
 import org.dinky.service.ClusterConfigurationService;
 import org.dinky.service.ClusterInstanceService;
@@ -73,6 +70,7 @@ public class Job2MysqlHandler extends AbsJobHandler {
     private static final JobInstanceService jobInstanceService;
     private static final JobHistoryService jobHistoryService;
     private static final TaskService taskService;
+    private static final JobMonitorCoordinator jobMonitorCoordinator;
 
     static {
         historyService = SpringContextUtils.getBean("historyServiceImpl", HistoryService.class);
@@ -82,6 +80,7 @@ public class Job2MysqlHandler extends AbsJobHandler {
         jobInstanceService = SpringContextUtils.getBean("jobInstanceServiceImpl", JobInstanceService.class);
         jobHistoryService = SpringContextUtils.getBean("jobHistoryServiceImpl", JobHistoryService.class);
         taskService = SpringContextUtils.getBean("taskServiceImpl", TaskService.class);
+        jobMonitorCoordinator = SpringContextUtils.getBean("jobMonitorCoordinator", JobMonitorCoordinator.class);
     }
 
     @Override
@@ -215,10 +214,8 @@ public class Job2MysqlHandler extends AbsJobHandler {
                                         clusterConfigurationService.getClusterConfigById(clusterConfigurationId))
                                 : null)
                 .build();
-        jobHistoryService.save(jobHistory);
-        DaemonTaskConfig taskConfig =
-                DaemonTaskConfig.build(FlinkJobTask.TYPE, jobInstance.getId(), jobInstance.getTaskId());
-        FlinkJobThreadPool.getInstance().execute(DaemonTask.build(taskConfig));
+        jobHistoryService.saveSnapshot(jobHistory);
+        jobMonitorCoordinator.monitor(jobInstance.getId(), jobInstance.getTaskId());
         return true;
     }
 
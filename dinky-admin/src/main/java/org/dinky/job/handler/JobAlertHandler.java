@@ -48,6 +48,7 @@ import org.dinky.service.TaskService;
 import org.dinky.service.UserService;
 import org.dinky.service.impl.AlertRuleServiceImpl;
 import org.dinky.utils.JsonUtils;
+import org.dinky.utils.MeterUtil;
 
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.compress.utils.Lists;
@@ -75,6 +76,7 @@ import com.google.common.cache.LoadingCache;
 import cn.hutool.core.text.StrFormatter;
 import cn.hutool.core.util.StrUtil;
 import cn.hutool.json.JSONObject;
+import io.micrometer.core.instrument.Timer;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
 
@@ -87,6 +89,7 @@ public class JobAlertHandler {
     private static final AlertRuleServiceImpl alertRuleService;
     private static final SystemConfiguration systemConfiguration = SystemConfiguration.getInstances();
     private static final UserService userService;
+    private static final Timer ALERT_TIMER = MeterUtil.timer(MeterUtil.ALERT_EVALUATE);
 
     /**
      * Rules for evaluating alert conditions.
@@ -169,7 +172,7 @@ public class JobAlertHandler {
             }
             ruleFacts.put(k, v);
         });
-        rulesEngine.fire(rules, ruleFacts);
+        MeterUtil.record(ALERT_TIMER, () -> rulesEngine.fire(rules, ruleFacts));
     }
 
     /**
@@ -53,6 +53,7 @@ import org.dinky.service.HistoryService;
 import org.dinky.service.JobHistoryService;
 import org.dinky.service.JobInstanceService;
 import org.dinky.utils.JsonUtils;
+import org.dinky.utils.MeterUtil;
 import org.dinky.utils.TimeUtil;
 
 import java.time.Duration;
@@ -70,6 +71,7 @@ import com.fasterxml.jackson.databind.type.CollectionType;
 
 import cn.hutool.core.bean.BeanUtil;
 import cn.hutool.core.bean.copier.CopyOptions;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -83,6 +85,7 @@ public class JobRefreshHandler {
     private static final JobHistoryService jobHistoryService;
     private static final ClusterInstanceService clusterInstanceService;
     private static final HistoryService historyService;
+    private static final Timer REFRESH_TIMER = MeterUtil.timer(MeterUtil.JOB_REFRESH);
 
     static {
         jobInstanceService = SpringContextUtils.getBean("jobInstanceServiceImpl", JobInstanceService.class);
@@ -102,6 +105,10 @@ public class JobRefreshHandler {
      * @return True if the job is done, false otherwise.
      */
     public static boolean refreshJob(JobInfoDetail jobInfoDetail, boolean needSave) {
+        return MeterUtil.record(REFRESH_TIMER, () -> doRefreshJob(jobInfoDetail, needSave));
+    }
+
+    private static boolean doRefreshJob(JobInfoDetail jobInfoDetail, boolean needSave) {
         if (Asserts.isNull(TenantContextHolder.get())) {
             jobInstanceService.initTenantByJobInstanceId(
                     jobInfoDetail.getInstance().getId());
@@ -206,11 +213,11 @@ public class JobRefreshHandler {
                     isDone = true;
                 } else {
                     jobInstanceService.updateById(jobInstance);
-                    jobHistoryService.updateById(jobInfoDetail.getJobDataDto().toJobHistory());
+                    jobHistoryService.saveSnapshot(jobInfoDetail.getJobDataDto().toJobHistory());
                 }
             } else {
                 jobInstanceService.updateById(jobInstance);
-                jobHistoryService.updateById(jobInfoDetail.getJobDataDto().toJobHistory());
+                jobHistoryService.saveSnapshot(jobInfoDetail.getJobDataDto().toJobHistory());
             }
         }
 
@@ -235,7 +242,7 @@ public class JobRefreshHandler {
      * @return {@link org.dinky.data.dto.JobDataDto}.
      */
     public static JobDataDto getJobData(Integer id, String jobManagerHost, String jobId) {
-        if (FlinkHistoryServer.HISTORY_JOBID_SET.contains(jobId)
+        if (FlinkHistoryServer.isArchived(jobId)
                 && SystemConfiguration.getInstances().getUseFlinkHistoryServer().getValue()) {
             jobManagerHost = "127.0.0.1:"
                     + SystemConfiguration.getInstances()
@@ -306,7 +313,11 @@ public class JobRefreshHandler {
         ClusterInstance clusterInstance = jobInfoDetail.getClusterInstance();
         if (!Asserts.isNull(clusterCfg)
                 && (GatewayType.YARN_PER_JOB.getLongValue().equals(clusterInstance.getType())
-                        || GatewayType.YARN_APPLICATION.getLongValue().equals(clusterInstance.getType()))) {
+                        || GatewayType.YARN_APPLICATION.getLongValue().equals(clusterInstance.getType())
+                        || GatewayType.KUBERNETES_APPLICATION.getLongValue().equals(clusterInstance.getType())
+                        || GatewayType.KUBERNETES_APPLICATION_OPERATOR
+                                .getLongValue()
+                                .equals(clusterInstance.getType()))) {
             try {
                 String appId = jobInfoDetail.getClusterInstance().getName();
 
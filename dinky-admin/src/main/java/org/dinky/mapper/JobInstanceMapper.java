@@ -44,6 +44,9 @@ public interface JobInstanceMapper extends SuperMapper<JobInstance> {
 
     List<JobInstanceCount> countStatus();
 
+    /** The id, task id and status of the latest job instance of every task. */
+    List<JobInstance> listLatestStatus();
+
     JobModelOverview getJobStreamingOrBatchModelOverview();
 
     @InterceptorIgnore(tenantLine = "true")
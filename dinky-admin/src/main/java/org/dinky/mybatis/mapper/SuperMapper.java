@@ -38,4 +38,13 @@ public interface SuperMapper<T> extends BaseMapper<T> {
 
     <K> List<K> selectForProTable(
             Page<K> page, @Param(Constants.WRAPPER) Wrapper<K> queryWrapper, @Param("param") Map<String, Object> param);
+
+    /**
+     * Count the rows of select for pro table, but at most limit of them. Only mappers whose service declares
+     * {@link org.dinky.mybatis.util.ProTableFields} have to provide the statement.
+     */
+    <K> Long selectCountForProTable(
+            @Param(Constants.WRAPPER) Wrapper<K> queryWrapper,
+            @Param("param") Map<String, Object> param,
+            @Param("limit") long limit);
 }
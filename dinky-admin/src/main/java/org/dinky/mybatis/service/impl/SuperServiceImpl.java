@@ -22,6 +22,7 @@ package org.dinky.mybatis.service.impl;
 import org.dinky.data.result.ProTableResult;
 import org.dinky.mybatis.mapper.SuperMapper;
 import org.dinky.mybatis.service.ISuperService;
+import org.dinky.mybatis.util.ProTableFields;
 import org.dinky.mybatis.util.ProTableUtil;
 
 import java.util.List;
@@ -42,7 +43,22 @@ import cn.hutool.core.lang.Opt;
  */
 public class SuperServiceImpl<M extends SuperMapper<T>, T> extends ServiceImpl<M, T> implements ISuperService<T> {
 
+    /** Counting of keyset pages without a total stops here, larger lists report this as their total. */
+    protected static final long PRO_TABLE_COUNT_LIMIT = 10000;
+
+    /**
+     * The sortable and filterable fields of the pro table of this service. Return them to page the table by keyset
+     * instead of by offset, the mapper then has to provide selectCountForProTable.
+     */
+    protected ProTableFields getProTableFields() {
+        return null;
+    }
+
     private ProTableResult<T> selectForProTable(JsonNode params, boolean isDelete, Map<String, Object> paramsMap) {
+        ProTableFields fields = getProTableFields();
+        if (fields != null) {
+            return selectForProTable(params, fields, paramsMap);
+        }
         Integer current = params.has("current") ? params.get("current").asInt() : 1;
         Integer pageSize = params.has("pageSize") ? params.get("pageSize").asInt() : 10;
         QueryWrapper<T> queryWrapper = new QueryWrapper<>();
@@ -63,6 +79,51 @@ public class SuperServiceImpl<M extends SuperMapper<T>, T> extends ServiceImpl<M
                 .build();
     }
 
+    /**
+     * Page the table by keyset: the client passes the nextCursor of the previous page to seek to the next page, a
+     * page without cursor is read by offset. Only whitelisted fields are sorted and filtered by. Offset pages count
+     * the exact total for the pager, keyset pages take it from the params or count up to
+     * {@link #PRO_TABLE_COUNT_LIMIT}.
+     */
+    protected <K> ProTableResult<K> selectForProTable(
+            JsonNode params, ProTableFields fields, Map<String, Object> paramsMap) {
+        int current = params.has("current") ? params.get("current").asInt() : 1;
+        int pageSize = params.has("pageSize") ? params.get("pageSize").asInt() : 10;
+        String cursor = params.hasNonNull("cursor") ? params.get("cursor").asText() : null;
+        ObjectMapper mapper = new ObjectMapper();
+        Map<String, Object> param = mapper.convertValue(params, Map.class);
+        Opt.ofNullable(paramsMap).ifPresent(x -> param.putAll(paramsMap));
+
+        Long total = cursor != null && params.has("total") ? params.get("total").asLong() : null;
+        if (total == null) {
+            QueryWrapper<K> countWrapper = new QueryWrapper<>();
+            ProTableUtil.autoFilter(params, countWrapper, fields);
+            long limit = cursor == null ? Long.MAX_VALUE : PRO_TABLE_COUNT_LIMIT;
+            total = baseMapper.selectCountForProTable(countWrapper, param, limit);
+        }
+
+        ProTableFields.Sort sort = ProTableUtil.autoSort(params, fields);
+        QueryWrapper<K> queryWrapper = new QueryWrapper<>();
+        ProTableUtil.autoFilter(params, queryWrapper, fields);
+        Page<K> page;
+        if (cursor != null) {
+            ProTableUtil.seek(queryWrapper, fields, sort, cursor);
+            page = new Page<>(1, pageSize, false);
+        } else {
+            page = new Page<>(current, pageSize, false);
+        }
+        ProTableUtil.orderBy(queryWrapper, fields, sort);
+        List<K> list = baseMapper.selectForProTable(page, queryWrapper, param);
+        return ProTableResult.<K>builder()
+                .success(true)
+                .data(list)
+                .total(total)
+                .current(current)
+                .pageSize(pageSize)
+                .nextCursor(list.size() < pageSize ? null : ProTableUtil.cursorOf(list.get(list.size() - 1), sort))
+                .build();
+    }
+
     @Override
     public ProTableResult<T> selectForProTable(JsonNode params) {
         return selectForProTable(params, false, null);
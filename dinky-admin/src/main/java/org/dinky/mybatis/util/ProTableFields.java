@@ -0,0 +1,138 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.dinky.mybatis.util;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.common.base.CaseFormat;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * The fields a pro table may be sorted and filtered by. Every field should be backed by an index whose columns are
+ * the filter columns followed by the sort column and id, so that a page is read by seeking the index instead of
+ * scanning the table. Sortable columns must not be nullable, the last row of a page is the cursor of the next one.
+ *
+ * @see ProTableUtil
+ */
+public class ProTableFields {
+
+    public static final String ID = "id";
+
+    /** sortable column -> java type of the column, used to read the values of a cursor */
+    private final Map<String, Class<?>> sortable = new LinkedHashMap<>();
+
+    private final Set<String> filterable = new HashSet<>();
+
+    private final String alias;
+
+    private ProTableFields(String alias) {
+        this.alias = alias;
+        sortable.put(ID, Integer.class);
+    }
+
+    /** @param alias alias of the table in the select for pro table statement, usually a */
+    public static ProTableFields of(String alias) {
+        return new ProTableFields(alias);
+    }
+
+    public ProTableFields idType(Class<?> type) {
+        sortable.put(ID, type);
+        return this;
+    }
+
+    public ProTableFields sortable(String field, Class<?> type) {
+        sortable.put(toColumn(field), type);
+        return this;
+    }
+
+    public ProTableFields filterable(String... fields) {
+        for (String field : fields) {
+            filterable.add(toColumn(field));
+        }
+        return this;
+    }
+
+    public boolean isSortable(String field) {
+        return sortable.containsKey(toColumn(field));
+    }
+
+    public boolean isFilterable(String field) {
+        return filterable.contains(toColumn(field));
+    }
+
+    /** The qualified column of the field, for example a.create_time. */
+    public String column(String field) {
+        return alias + "." + toColumn(field);
+    }
+
+    public Sort sort(String field, boolean ascending) {
+        String column = toColumn(field);
+        return new Sort(column, CaseFormat.LOWER_UNDERSCORE.to(CaseFormat.LOWER_CAMEL, column), ascending);
+    }
+
+    public Sort defaultSort() {
+        return sort(ID, false);
+    }
+
+    Class<?> typeOf(String column) {
+        return sortable.getOrDefault(column, String.class);
+    }
+
+    Class<?> idType() {
+        return sortable.get(ID);
+    }
+
+    /** Accept both createTime and create_time, the pro tables of dinky send either. */
+    static String toColumn(String field) {
+        return CaseFormat.LOWER_CAMEL.to(CaseFormat.LOWER_UNDERSCORE, field);
+    }
+
+    static Object parse(String value, Class<?> type) {
+        if (value == null) {
+            return null;
+        } else if (type == Integer.class) {
+            return Integer.valueOf(value);
+        } else if (type == Long.class) {
+            return Long.valueOf(value);
+        } else if (type == LocalDateTime.class) {
+            return LocalDateTime.parse(value);
+        }
+        return value;
+    }
+
+    /** A whitelisted sort, ties are broken by id in the same direction. */
+    @Getter
+    @AllArgsConstructor
+    public static class Sort {
+        private final String column;
+        private final String property;
+        private final boolean ascending;
+
+        public boolean isById() {
+            return ID.equals(column);
+        }
+    }
+}
@@ -19,6 +19,9 @@
 
 package org.dinky.mybatis.util;
 
+import org.dinky.data.exception.BusException;
+
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
@@ -30,6 +33,10 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.JsonNodeType;
 import com.google.common.base.CaseFormat;
 
+import cn.hutool.core.bean.BeanUtil;
+import cn.hutool.core.codec.Base64;
+import cn.hutool.core.util.StrUtil;
+
 /**
  * ProTableUtil
  *
@@ -132,6 +139,88 @@ public class ProTableUtil {
         }
     }
 
+    /**
+     * Apply the filters of the table which are whitelisted by fields, the other filters are ignored so that a query
+     * can not bypass the indexes.
+     */
+    public static void autoFilter(JsonNode para, QueryWrapper<?> wrapper, ProTableFields fields) {
+        JsonNode filter = para.get("filter");
+        if (filter == null) {
+            return;
+        }
+        Iterator<Map.Entry<String, JsonNode>> it = filter.fields();
+        while (it.hasNext()) {
+            Map.Entry<String, JsonNode> entry = it.next();
+            if (fields.isFilterable(entry.getKey())) {
+                buildFilter(ProTableFields.toColumn(entry.getKey()), entry.getValue(), wrapper, false);
+            }
+        }
+    }
+
+    /** The first whitelisted field of the sorter, or id descend if there is none. */
+    public static ProTableFields.Sort autoSort(JsonNode para, ProTableFields fields) {
+        JsonNode sorter = para.get("sorter");
+        if (sorter != null) {
+            Iterator<Map.Entry<String, JsonNode>> it = sorter.fields();
+            while (it.hasNext()) {
+                Map.Entry<String, JsonNode> entry = it.next();
+                if (fields.isSortable(entry.getKey())) {
+                    return fields.sort(entry.getKey(), "ascend".equals(entry.getValue().asText()));
+                }
+            }
+        }
+        return fields.defaultSort();
+    }
+
+    /** Order by the sort and then by id, which makes the order total as keyset pagination requires. */
+    public static void orderBy(QueryWrapper<?> wrapper, ProTableFields fields, ProTableFields.Sort sort) {
+        wrapper.orderBy(true, sort.isAscending(), fields.column(sort.getColumn()));
+        if (!sort.isById()) {
+            wrapper.orderBy(true, sort.isAscending(), fields.column(ProTableFields.ID));
+        }
+    }
+
+    /**
+     * Seek to the rows after the cursor, the cursor is the last row of the previous page as returned by
+     * {@link #cursorOf(Object, ProTableFields.Sort)}.
+     */
+    public static void seek(QueryWrapper<?> wrapper, ProTableFields fields, ProTableFields.Sort sort, String cursor) {
+        Object id;
+        Object value;
+        try {
+            String[] values = StrUtil.splitToArray(Base64.decodeStr(cursor, StandardCharsets.UTF_8), '\n', 2);
+            id = ProTableFields.parse(values[1], fields.idType());
+            value = ProTableFields.parse(values[0], fields.typeOf(sort.getColumn()));
+        } catch (RuntimeException e) {
+            throw new BusException(StrUtil.format("Invalid cursor {}", cursor));
+        }
+        String idColumn = fields.column(ProTableFields.ID);
+        if (sort.isById()) {
+            if (sort.isAscending()) {
+                wrapper.gt(idColumn, id);
+            } else {
+                wrapper.lt(idColumn, id);
+            }
+            return;
+        }
+        String column = fields.column(sort.getColumn());
+        // (column, id) > (value, id) written out, row values are not supported by every database
+        wrapper.and(qw -> {
+            if (sort.isAscending()) {
+                qw.gt(column, value).or(q -> q.eq(column, value).gt(idColumn, id));
+            } else {
+                qw.lt(column, value).or(q -> q.eq(column, value).lt(idColumn, id));
+            }
+        });
+    }
+
+    /** The cursor of the page after the row. */
+    public static String cursorOf(Object row, ProTableFields.Sort sort) {
+        Object value = BeanUtil.getFieldValue(row, sort.getProperty());
+        Object id = BeanUtil.getFieldValue(row, ProTableFields.ID);
+        return Base64.encodeUrlSafe(value + "\n" + id, StandardCharsets.UTF_8);
+    }
+
     /**
      * @return void @Author wenmo @Description 自动装载表单查询参数 @Date 2021/5/18 @Param [wrapper, para,
      *     blackarr, writearr, camelToUnderscore]
@@ -35,4 +35,12 @@ public interface JobHistoryService extends ISuperService<JobHistory> {
     JobHistory getJobHistory(Integer id);
 
     JobDataDto getJobHistoryDto(Integer id);
+
+    /**
+     * Save the job history, only the json sections whose content changed since the last save are written.
+     *
+     * @param jobHistory the job history to save
+     * @return true if the history row is saved
+     */
+    boolean saveSnapshot(JobHistory jobHistory);
 }
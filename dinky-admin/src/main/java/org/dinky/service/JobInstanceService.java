@@ -27,6 +27,7 @@ import org.dinky.data.vo.task.JobInstanceVo;
 import org.dinky.explainer.lineage.LineageResult;
 import org.dinky.mybatis.service.ISuperService;
 
+import java.util.Collection;
 import java.util.List;
 
 import com.fasterxml.jackson.databind.JsonNode;
@@ -96,6 +97,15 @@ public interface JobInstanceService extends ISuperService<JobInstance> {
 
     boolean hookJobDoneByHistory(String jobId);
 
+    /**
+     * Hook the job done for a batch of jobs archived by the flink history server, loading their instances with one
+     * query.
+     *
+     * @param jobIds The IDs of the archived jobs.
+     * @return The number of job instances which are done.
+     */
+    int hookJobDoneByHistory(Collection<String> jobIds);
+
     /**
      * Refresh the job instances for the given task IDs.
      *
@@ -20,6 +20,7 @@
 package org.dinky.service;
 
 import org.dinky.scheduler.model.DinkyTaskRequest;
+import org.dinky.scheduler.model.PushTaskResult;
 import org.dinky.scheduler.model.TaskDefinition;
 import org.dinky.scheduler.model.TaskGroup;
 import org.dinky.scheduler.model.TaskMainInfo;
@@ -36,6 +37,14 @@ public interface SchedulerService {
      */
     boolean pushAddTask(DinkyTaskRequest dinkyTaskRequest);
 
+    /**
+     * Pushes the specified tasks to DolphinScheduler in bulk.
+     *
+     * @param  dinkyTaskRequests  the tasks to push
+     * @return                    the result of every task, in the order of the requests
+     */
+    List<PushTaskResult> pushAddTasks(List<DinkyTaskRequest> dinkyTaskRequests);
+
     /**
      * A description of the entire Java function.
      *
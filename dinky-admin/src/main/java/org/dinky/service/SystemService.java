@@ -20,11 +20,14 @@
 package org.dinky.service;
 
 import org.dinky.data.dto.TreeNodeDTO;
+import org.dinky.data.model.LogChunk;
 import org.dinky.data.model.ext.FileNode;
 
 import java.util.List;
 import java.util.Map;
 
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
 /**
  * SystemService
  *
@@ -47,5 +50,44 @@ public interface SystemService {
      */
     String readFile(String path);
 
+    /**
+     * Read a byte range of a file, the range ends at a line break.
+     *
+     * @param path   file path
+     * @param offset first byte to read, pass the end offset of the previous chunk to follow the file
+     * @param length max bytes to read
+     * @return {@link LogChunk}
+     */
+    LogChunk readFileRange(String path, Long offset, Integer length);
+
+    /**
+     * Read the last lines of a file.
+     *
+     * @param path   file path
+     * @param lines  number of lines
+     * @param length max bytes to read
+     * @return {@link LogChunk}
+     */
+    LogChunk tailFile(String path, Integer lines, Integer length);
+
+    /**
+     * Read a file starting at the first line logged at or after the given time.
+     *
+     * @param path   file path
+     * @param time   yyyy-MM-dd HH:mm:ss
+     * @param length max bytes to read
+     * @return {@link LogChunk}
+     */
+    LogChunk readFileFromTime(String path, String time, Integer length);
+
+    /**
+     * Push the bytes appended to a file after offset until the client disconnects.
+     *
+     * @param path   file path
+     * @param offset first byte to push, null to start at the end of the file
+     * @return {@link SseEmitter}
+     */
+    SseEmitter followFile(String path, Long offset);
+
     Map<String, List<String>> queryAllClassLoaderJarFiles();
 }
@@ -0,0 +1,286 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.dinky.service.home;
+
+import org.dinky.context.TenantContextHolder;
+import org.dinky.data.model.home.HomeResource;
+import org.dinky.data.model.home.JobInstanceCount;
+import org.dinky.data.model.home.JobModelOverview;
+import org.dinky.data.model.home.JobTypeOverView;
+import org.dinky.data.model.job.JobInstance;
+import org.dinky.mapper.AlertGroupMapper;
+import org.dinky.mapper.AlertInstanceMapper;
+import org.dinky.mapper.ClusterConfigurationMapper;
+import org.dinky.mapper.ClusterInstanceMapper;
+import org.dinky.mapper.DataBaseMapper;
+import org.dinky.mapper.FragmentVariableMapper;
+import org.dinky.mapper.GitProjectMapper;
+import org.dinky.mapper.JobInstanceMapper;
+import org.dinky.mapper.TaskMapper;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The aggregates of the home page per tenant, kept in memory instead of being grouped in the database on every poll.
+ * Job status counts are updated incrementally as job instances are saved, the other aggregates are invalidated by
+ * writes to their tables and loaded again on the next read. Every snapshot is reloaded after the reconcile interval,
+ * which corrects the changes of other admin nodes and of rolled back transactions.
+ *
+ * <p>Changes are reported by {@link org.dinky.interceptor.HomeAggregatesInterceptor}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class HomeAggregates {
+
+    private final HomeAggregatesProperties properties;
+    private final JobInstanceMapper jobInstanceMapper;
+    private final TaskMapper taskMapper;
+    private final ClusterInstanceMapper clusterInstanceMapper;
+    private final ClusterConfigurationMapper clusterConfigurationMapper;
+    private final DataBaseMapper dataBaseMapper;
+    private final FragmentVariableMapper fragmentVariableMapper;
+    private final GitProjectMapper gitProjectMapper;
+    private final AlertGroupMapper alertGroupMapper;
+    private final AlertInstanceMapper alertInstanceMapper;
+
+    private final Map<Integer, TenantAggregates> tenants = new ConcurrentHashMap<>();
+
+    /** Status counts of the latest job instance of every task. */
+    public List<JobInstanceCount> getStatusCounts() {
+        TenantAggregates aggregates = current();
+        if (aggregates == null) {
+            return jobInstanceMapper.countStatus();
+        }
+        synchronized (aggregates) {
+            if (aggregates.latestByTask == null) {
+                loadLatestInstances(aggregates);
+            }
+            List<JobInstanceCount> counts = new ArrayList<>();
+            aggregates.statusCounts.forEach((status, count) -> counts.add(new JobInstanceCount(status, count)));
+            return counts;
+        }
+    }
+
+    public JobModelOverview getInstanceModelOverview() {
+        TenantAggregates aggregates = current();
+        if (aggregates == null) {
+            return jobInstanceMapper.getJobStreamingOrBatchModelOverview();
+        }
+        return aggregates.instanceModel.get(jobInstanceMapper::getJobStreamingOrBatchModelOverview);
+    }
+
+    public JobModelOverview getTaskModelOverview() {
+        TenantAggregates aggregates = current();
+        if (aggregates == null) {
+            return taskMapper.getJobStreamingOrBatchModelOverview();
+        }
+        return aggregates.taskModel.get(taskMapper::getJobStreamingOrBatchModelOverview);
+    }
+
+    public List<JobTypeOverView> getTaskOnlineRate() {
+        TenantAggregates aggregates = current();
+        if (aggregates == null) {
+            return taskMapper.getTaskOnlineRate();
+        }
+        return aggregates.taskOnlineRate.get(taskMapper::getTaskOnlineRate);
+    }
+
+    public HomeResource getResourceOverview() {
+        TenantAggregates aggregates = current();
+        if (aggregates == null) {
+            return loadResourceOverview();
+        }
+        return aggregates.resources.get(this::loadResourceOverview);
+    }
+
+    /** A job instance has been inserted or updated, move its task to the new status if it is the latest one. */
+    public void onJobInstanceSaved(JobInstance jobInstance, boolean inserted) {
+        Integer tenantId = jobInstance.getTenantId();
+        if (tenantId == null && TenantContextHolder.get() instanceof Integer) {
+            // the tenant line interceptor fills the column, not the entity
+            tenantId = (Integer) TenantContextHolder.get();
+        }
+        if (tenantId == null
+                || jobInstance.getTaskId() == null
+                || jobInstance.getId() == null
+                || jobInstance.getStatus() == null) {
+            // a partial update, the status of the task is not known
+            invalidateJobInstances(tenantId);
+            return;
+        }
+        TenantAggregates aggregates = tenants.get(tenantId);
+        if (aggregates == null) {
+            return;
+        }
+        if (inserted) {
+            aggregates.instanceModel.invalidate();
+        }
+        synchronized (aggregates) {
+            if (aggregates.latestByTask == null) {
+                return;
+            }
+            LatestInstance latest = aggregates.latestByTask.get(jobInstance.getTaskId());
+            if (latest != null && latest.id > jobInstance.getId()) {
+                return;
+            }
+            if (latest != null) {
+                aggregates.statusCounts.computeIfPresent(latest.status, (k, v) -> v > 1 ? v - 1 : null);
+            }
+            aggregates.latestByTask.put(
+                    jobInstance.getTaskId(), new LatestInstance(jobInstance.getId(), jobInstance.getStatus()));
+            aggregates.statusCounts.merge(jobInstance.getStatus(), 1, Integer::sum);
+        }
+    }
+
+    /** Job instances have been changed in a way that can not be followed, such as deletes, reload them. */
+    public void invalidateJobInstances(Integer tenantId) {
+        forTenants(tenantId, aggregates -> {
+            synchronized (aggregates) {
+                aggregates.latestByTask = null;
+            }
+            aggregates.instanceModel.invalidate();
+        });
+    }
+
+    public void invalidateTasks(Integer tenantId) {
+        forTenants(tenantId, aggregates -> {
+            aggregates.taskModel.invalidate();
+            aggregates.taskOnlineRate.invalidate();
+        });
+    }
+
+    public void invalidateResources(Integer tenantId) {
+        forTenants(tenantId, aggregates -> aggregates.resources.invalidate());
+    }
+
+    private void forTenants(Integer tenantId, Consumer<TenantAggregates> action) {
+        if (tenantId == null) {
+            tenants.values().forEach(action);
+        } else if (tenants.containsKey(tenantId)) {
+            action.accept(tenants.get(tenantId));
+        }
+    }
+
+    /** The aggregates of the tenant of the request, null when they are not kept in memory. */
+    private TenantAggregates current() {
+        Object tenantId = TenantContextHolder.get();
+        if (!properties.getEnabled() || TenantContextHolder.isIgnoreTenant() || !(tenantId instanceof Integer)) {
+            return null;
+        }
+        TenantAggregates aggregates = tenants.computeIfAbsent((Integer) tenantId, k -> new TenantAggregates());
+        if (System.currentTimeMillis() - aggregates.loadedAt > properties.getReconcileIntervalMs()) {
+            reconcile(aggregates);
+        }
+        return aggregates;
+    }
+
+    private void reconcile(TenantAggregates aggregates) {
+        synchronized (aggregates) {
+            aggregates.loadedAt = System.currentTimeMillis();
+            aggregates.latestByTask = null;
+        }
+        aggregates.instanceModel.invalidate();
+        aggregates.taskModel.invalidate();
+        aggregates.taskOnlineRate.invalidate();
+        aggregates.resources.invalidate();
+    }
+
+    private void loadLatestInstances(TenantAggregates aggregates) {
+        Map<Integer, LatestInstance> latestByTask = new HashMap<>();
+        Map<String, Integer> statusCounts = new HashMap<>();
+        for (JobInstance jobInstance : jobInstanceMapper.listLatestStatus()) {
+            latestByTask.put(jobInstance.getTaskId(), new LatestInstance(jobInstance.getId(), jobInstance.getStatus()));
+            statusCounts.merge(jobInstance.getStatus(), 1, Integer::sum);
+        }
+        aggregates.latestByTask = latestByTask;
+        aggregates.statusCounts = statusCounts;
+    }
+
+    private HomeResource loadResourceOverview() {
+        HomeResource homeResource = new HomeResource();
+        homeResource.setFlinkClusterCount(clusterInstanceMapper.selectCount(null).intValue());
+        homeResource.setFlinkConfigCount(clusterConfigurationMapper.selectCount(null).intValue());
+        homeResource.setDbSourceCount(dataBaseMapper.selectCount(null).intValue());
+        homeResource.setGlobalVarCount(fragmentVariableMapper.selectCount(null).intValue());
+        homeResource.setGitProjectCount(gitProjectMapper.selectCount(null).intValue());
+        homeResource.setAlertGroupCount(alertGroupMapper.selectCount(null).intValue());
+        homeResource.setAlertInstanceCount(alertInstanceMapper.selectCount(null).intValue());
+        return homeResource;
+    }
+
+    private static class TenantAggregates {
+        private long loadedAt;
+        /** task id -> latest job instance of the task, null until loaded */
+        private Map<Integer, LatestInstance> latestByTask;
+
+        private Map<String, Integer> statusCounts = new HashMap<>();
+        private final Cached<JobModelOverview> instanceModel = new Cached<>();
+        private final Cached<JobModelOverview> taskModel = new Cached<>();
+        private final Cached<List<JobTypeOverView>> taskOnlineRate = new Cached<>();
+        private final Cached<HomeResource> resources = new Cached<>();
+    }
+
+    @RequiredArgsConstructor
+    private static class LatestInstance {
+        private final int id;
+        private final String status;
+    }
+
+    /** A value loaded on first read after it has been invalidated. */
+    private static class Cached<T> {
+        private T value;
+        private long version;
+
+        synchronized void invalidate() {
+            value = null;
+            version++;
+        }
+
+        T get(Supplier<T> loader) {
+            long loadVersion;
+            synchronized (this) {
+                if (value != null) {
+                    return value;
+                }
+                loadVersion = version;
+            }
+            T loaded = loader.get();
+            synchronized (this) {
+                // an invalidation while loading means the loaded value may already be outdated
+                if (loadVersion == version) {
+                    value = loaded;
+                }
+            }
+            return loaded;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.dinky.service.home;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/** Settings of the aggregates of the home page, see {@link HomeAggregates}. */
+@Setter
+@Getter
+@ConfigurationProperties(prefix = "dinky.home-aggregates")
+@Component
+public class HomeAggregatesProperties {
+
+    /** Serve the aggregates from memory, otherwise every request queries the database */
+    private Boolean enabled = true;
+
+    /** How long a snapshot is served before it is reloaded from the database to correct any drift */
+    private Long reconcileIntervalMs = 60000L;
+}
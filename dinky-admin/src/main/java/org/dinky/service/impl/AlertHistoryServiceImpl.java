@@ -22,9 +22,11 @@ package org.dinky.service.impl;
 import org.dinky.data.model.alert.AlertHistory;
 import org.dinky.mapper.AlertHistoryMapper;
 import org.dinky.mybatis.service.impl.SuperServiceImpl;
+import org.dinky.mybatis.util.ProTableFields;
 import org.dinky.service.AlertGroupService;
 import org.dinky.service.AlertHistoryService;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -41,8 +43,17 @@ import lombok.RequiredArgsConstructor;
 public class AlertHistoryServiceImpl extends SuperServiceImpl<AlertHistoryMapper, AlertHistory>
         implements AlertHistoryService {
 
+    private static final ProTableFields PRO_TABLE_FIELDS = ProTableFields.of("a")
+            .sortable("createTime", LocalDateTime.class)
+            .filterable("jobInstanceId");
+
     private final AlertGroupService alertGroupService;
 
+    @Override
+    protected ProTableFields getProTableFields() {
+        return PRO_TABLE_FIELDS;
+    }
+
     /**
      * delete alert history by alert group id
      *
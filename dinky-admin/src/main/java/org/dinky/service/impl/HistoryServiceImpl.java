@@ -22,6 +22,7 @@ package org.dinky.service.impl;
 import org.dinky.data.model.job.History;
 import org.dinky.mapper.HistoryMapper;
 import org.dinky.mybatis.service.impl.SuperServiceImpl;
+import org.dinky.mybatis.util.ProTableFields;
 import org.dinky.service.HistoryService;
 
 import org.springframework.stereotype.Service;
@@ -38,6 +39,14 @@ import lombok.RequiredArgsConstructor;
 @Service
 @RequiredArgsConstructor
 public class HistoryServiceImpl extends SuperServiceImpl<HistoryMapper, History> implements HistoryService {
+
+    private static final ProTableFields PRO_TABLE_FIELDS = ProTableFields.of("a").filterable("status");
+
+    @Override
+    protected ProTableFields getProTableFields() {
+        return PRO_TABLE_FIELDS;
+    }
+
     @Override
     public History getLatestHistoryById(Integer id) {
         return baseMapper.selectOne(new LambdaQueryWrapper<>(History.class)
@@ -23,15 +23,8 @@ import org.dinky.data.model.home.HomeResource;
 import org.dinky.data.model.home.JobModelOverview;
 import org.dinky.data.model.home.JobStatusOverView;
 import org.dinky.data.model.home.JobTypeOverView;
-import org.dinky.service.AlertGroupService;
-import org.dinky.service.AlertInstanceService;
-import org.dinky.service.ClusterConfigurationService;
-import org.dinky.service.ClusterInstanceService;
-import org.dinky.service.DataBaseService;
-import org.dinky.service.FragmentVariableService;
-import org.dinky.service.GitProjectService;
 import org.dinky.service.HomeService;
-import org.dinky.service.TaskService;
+import org.dinky.service.home.HomeAggregates;
 
 import java.util.List;
 
@@ -43,26 +36,11 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class HomeServiceImpl implements HomeService {
 
-    private final ClusterInstanceService clusterInstanceService;
-    private final ClusterConfigurationService clusterConfigurationService;
-    private final DataBaseService dataBaseService;
-    private final FragmentVariableService fragmentVariableService;
-    private final GitProjectService gitProjectService;
-    private final AlertGroupService alertGroupService;
-    private final AlertInstanceService alertInstanceService;
-    private final TaskService taskService;
+    private final HomeAggregates homeAggregates;
 
     @Override
     public HomeResource getResourceOverview() {
-        HomeResource homeResource = new HomeResource();
-        homeResource.setFlinkClusterCount(clusterInstanceService.list().size());
-        homeResource.setFlinkConfigCount(clusterConfigurationService.list().size());
-        homeResource.setDbSourceCount(dataBaseService.list().size());
-        homeResource.setGlobalVarCount(fragmentVariableService.list().size());
-        homeResource.setGitProjectCount(gitProjectService.list().size());
-        homeResource.setAlertGroupCount(alertGroupService.list().size());
-        homeResource.setAlertInstanceCount(alertInstanceService.list().size());
-        return homeResource;
+        return homeAggregates.getResourceOverview();
     }
 
     @Override
@@ -74,11 +52,11 @@ public class HomeServiceImpl implements HomeService {
 
     @Override
     public List<JobTypeOverView> getJobTypeOverView() {
-        return taskService.getTaskOnlineRate();
+        return homeAggregates.getTaskOnlineRate();
     }
 
     @Override
     public JobModelOverview getJobModelOverview() {
-        return taskService.getJobStreamingOrBatchModelOverview();
+        return homeAggregates.getTaskModelOverview();
     }
 }
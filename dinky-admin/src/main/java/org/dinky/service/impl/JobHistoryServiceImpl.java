@@ -20,13 +20,50 @@
 package org.dinky.service.impl;
 
 import org.dinky.data.dto.JobDataDto;
+import org.dinky.data.flink.checkpoint.CheckPointOverView;
+import org.dinky.data.flink.config.CheckpointConfigInfo;
+import org.dinky.data.flink.config.FlinkJobConfigInfo;
+import org.dinky.data.flink.exceptions.FlinkJobExceptionsDetail;
+import org.dinky.data.flink.job.FlinkJobDetailInfo;
 import org.dinky.data.model.job.JobHistory;
+import org.dinky.data.model.job.JobHistorySection;
+import org.dinky.data.model.mapping.ClusterConfigurationMapping;
+import org.dinky.data.model.mapping.ClusterInstanceMapping;
 import org.dinky.mapper.JobHistoryMapper;
+import org.dinky.mapper.JobHistorySectionMapper;
 import org.dinky.mybatis.service.impl.SuperServiceImpl;
 import org.dinky.service.JobHistoryService;
+import org.dinky.utils.JsonUtils;
 
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
 
+import cn.hutool.cache.Cache;
+import cn.hutool.cache.CacheUtil;
+import cn.hutool.core.codec.Base64;
+import cn.hutool.core.util.ZipUtil;
+import cn.hutool.crypto.digest.DigestUtil;
+import cn.hutool.json.JSONUtil;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -36,8 +73,18 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Service
 @Slf4j
+@RequiredArgsConstructor
 public class JobHistoryServiceImpl extends SuperServiceImpl<JobHistoryMapper, JobHistory> implements JobHistoryService {
 
+    /** Sections larger than this are stored gzip compressed. */
+    private static final int COMPRESS_THRESHOLD = 4 * 1024;
+
+    /** The last written hash of every section, by job history id. */
+    private static final Cache<Integer, Map<String, String>> SECTION_HASHES = CacheUtil.newLRUCache(8192);
+
+    private final JobHistorySectionMapper jobHistorySectionMapper;
+    private final PlatformTransactionManager transactionManager;
+
     @Override
     public JobHistory getByIdWithoutTenant(Integer id) {
         return baseMapper.getByIdWithoutTenant(id);
@@ -45,11 +92,218 @@ public class JobHistoryServiceImpl extends SuperServiceImpl<JobHistoryMapper, Jo
 
     @Override
     public JobHistory getJobHistory(Integer id) {
-        return baseMapper.getByIdWithoutTenant(id);
+        JobHistory jobHistory = baseMapper.getByIdWithoutTenant(id);
+        if (jobHistory == null) {
+            return null;
+        }
+        // rows written before the sections existed keep their json columns, a section overrides its column
+        List<JobHistorySection> sections = jobHistorySectionMapper.selectList(
+                Wrappers.<JobHistorySection>lambdaQuery().eq(JobHistorySection::getJobHistoryId, id));
+        for (JobHistorySection section : sections) {
+            Section definition = Section.of(section.getSection());
+            if (definition != null) {
+                definition.read(jobHistory, decode(section));
+            }
+        }
+        return jobHistory;
     }
 
     @Override
     public JobDataDto getJobHistoryDto(Integer id) {
         return JobDataDto.fromJobHistory(getJobHistory(id));
     }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public boolean saveSnapshot(JobHistory jobHistory) {
+        Integer id = jobHistory.getId();
+        JobHistory base = JobHistory.builder()
+                .id(id)
+                .tenantId(jobHistory.getTenantId())
+                .updateTime(LocalDateTime.now())
+                .build();
+        boolean exists = baseMapper.getByIdWithoutTenant(id) != null;
+        boolean saved = exists ? updateById(base) : save(base);
+        Map<String, String> hashes = getSectionHashes(id);
+        Map<String, String> written = new HashMap<>();
+        for (Section section : Section.values()) {
+            Object value = section.getter.apply(jobHistory);
+            if (value == null) {
+                continue;
+            }
+            String json = JsonUtils.toJsonString(value);
+            String hash = DigestUtil.md5Hex(json);
+            String oldHash = hashes.get(section.name);
+            if (hash.equals(oldHash)) {
+                continue;
+            }
+            JobHistorySection entity = encode(json);
+            entity.setContentHash(hash);
+            entity.setUpdateTime(LocalDateTime.now());
+            // another writer may have inserted the section first, or removed it, since the hashes were cached
+            boolean updated = oldHash != null && updateSection(id, section, entity);
+            if (!updated && !insertSection(id, section, entity)) {
+                updateSection(id, section, entity);
+            }
+            written.put(section.name, hash);
+        }
+        // the cache must not claim rows of a transaction which is rolled back
+        afterCommit(() -> hashes.putAll(written));
+        return saved;
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public boolean removeById(Serializable id) {
+        jobHistorySectionMapper.delete(
+                Wrappers.<JobHistorySection>lambdaQuery().eq(JobHistorySection::getJobHistoryId, id));
+        afterCommit(() -> SECTION_HASHES.remove(toId(id)));
+        return super.removeById(id);
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public boolean removeBatchByIds(Collection<?> list) {
+        if (list.isEmpty()) {
+            return false;
+        }
+        jobHistorySectionMapper.delete(
+                Wrappers.<JobHistorySection>lambdaQuery().in(JobHistorySection::getJobHistoryId, list));
+        afterCommit(() -> list.forEach(id -> SECTION_HASHES.remove(toId(id))));
+        return super.removeBatchByIds(list);
+    }
+
+    private Map<String, String> getSectionHashes(Integer id) {
+        return SECTION_HASHES.get(id, () -> {
+            Map<String, String> hashes = new ConcurrentHashMap<>();
+            jobHistorySectionMapper
+                    .selectList(Wrappers.<JobHistorySection>lambdaQuery()
+                            .select(JobHistorySection::getSection, JobHistorySection::getContentHash)
+                            .eq(JobHistorySection::getJobHistoryId, id))
+                    .forEach(section -> hashes.put(section.getSection(), section.getContentHash()));
+            return hashes;
+        });
+    }
+
+    private boolean updateSection(Integer id, Section section, JobHistorySection entity) {
+        return jobHistorySectionMapper.update(
+                        entity,
+                        Wrappers.<JobHistorySection>lambdaUpdate()
+                                .eq(JobHistorySection::getJobHistoryId, id)
+                                .eq(JobHistorySection::getSection, section.name))
+                > 0;
+    }
+
+    /**
+     * Insert a section, false if another writer has inserted it first. The insert runs in a savepoint, so that the
+     * duplicate key does not abort the surrounding transaction.
+     */
+    private boolean insertSection(Integer id, Section section, JobHistorySection entity) {
+        entity.setJobHistoryId(id);
+        entity.setSection(section.name);
+        TransactionTemplate savepoint = new TransactionTemplate(transactionManager);
+        savepoint.setPropagationBehavior(TransactionDefinition.PROPAGATION_NESTED);
+        try {
+            savepoint.executeWithoutResult(status -> jobHistorySectionMapper.insert(entity));
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    /** Run the action after the current transaction has committed, or right away without a transaction. */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static Integer toId(Object id) {
+        return id instanceof Integer ? (Integer) id : Integer.valueOf(String.valueOf(id));
+    }
+
+    private static JobHistorySection encode(String json) {
+        JobHistorySection section = new JobHistorySection();
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > COMPRESS_THRESHOLD) {
+            section.setCompressed(true);
+            section.setContent(Base64.encode(ZipUtil.gzip(bytes)));
+        } else {
+            section.setCompressed(false);
+            section.setContent(json);
+        }
+        return section;
+    }
+
+    private static String decode(JobHistorySection section) {
+        if (Boolean.TRUE.equals(section.getCompressed())) {
+            return new String(ZipUtil.unGzip(Base64.decode(section.getContent())), StandardCharsets.UTF_8);
+        }
+        return section.getContent();
+    }
+
+    /** The json fields of a job history which are stored as sections. */
+    private enum Section {
+        JOB("jobJson", FlinkJobDetailInfo.class, JobHistory::getJobJson, JobHistory::setJobJson),
+        EXCEPTIONS(
+                "exceptionsJson",
+                FlinkJobExceptionsDetail.class,
+                JobHistory::getExceptionsJson,
+                JobHistory::setExceptionsJson),
+        CHECKPOINTS(
+                "checkpointsJson",
+                CheckPointOverView.class,
+                JobHistory::getCheckpointsJson,
+                JobHistory::setCheckpointsJson),
+        CHECKPOINTS_CONFIG(
+                "checkpointsConfigJson",
+                CheckpointConfigInfo.class,
+                JobHistory::getCheckpointsConfigJson,
+                JobHistory::setCheckpointsConfigJson),
+        CONFIG("configJson", FlinkJobConfigInfo.class, JobHistory::getConfigJson, JobHistory::setConfigJson),
+        CLUSTER("clusterJson", ClusterInstanceMapping.class, JobHistory::getClusterJson, JobHistory::setClusterJson),
+        CLUSTER_CONFIGURATION(
+                "clusterConfigurationJson",
+                ClusterConfigurationMapping.class,
+                JobHistory::getClusterConfigurationJson,
+                JobHistory::setClusterConfigurationJson);
+
+        private final String name;
+        private final Class<?> type;
+        private final Function<JobHistory, Object> getter;
+        private final BiConsumer<JobHistory, Object> setter;
+
+        @SuppressWarnings("unchecked")
+        <T> Section(String name, Class<T> type, Function<JobHistory, T> getter, BiConsumer<JobHistory, T> setter) {
+            this.name = name;
+            this.type = type;
+            this.getter = (Function<JobHistory, Object>) getter;
+            this.setter = (BiConsumer<JobHistory, Object>) setter;
+        }
+
+        static Section of(String name) {
+            for (Section section : values()) {
+                if (section.name.equals(name)) {
+                    return section;
+                }
+            }
+            return null;
+        }
+
+        void read(JobHistory jobHistory, String json) {
+            try {
+                // the same parser as JSONObjectHandler, which maps underscore and camel case keys alike
+                setter.accept(jobHistory, JSONUtil.toBean(json, type));
+            } catch (Exception e) {
+                log.error("Parse job history section {} of {} failed", name, jobHistory.getId(), e);
+            }
+        }
+    }
 }
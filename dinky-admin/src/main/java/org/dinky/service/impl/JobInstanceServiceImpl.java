@@ -45,15 +45,20 @@ import org.dinky.executor.ExecutorConfig;
 import org.dinky.explainer.lineage.LineageBuilder;
 import org.dinky.explainer.lineage.LineageResult;
 import org.dinky.job.FlinkJobTask;
+import org.dinky.job.JobMonitorCoordinator;
 import org.dinky.mapper.JobInstanceMapper;
 import org.dinky.mybatis.service.impl.SuperServiceImpl;
-import org.dinky.mybatis.util.ProTableUtil;
+import org.dinky.mybatis.util.ProTableFields;
 import org.dinky.service.ClusterConfigurationService;
 import org.dinky.service.ClusterInstanceService;
 import org.dinky.service.HistoryService;
 import org.dinky.service.JobHistoryService;
 import org.dinky.service.JobInstanceService;
+import org.dinky.service.home.HomeAggregates;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -61,10 +66,7 @@ import java.util.Optional;
 import org.springframework.stereotype.Service;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
-import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
-import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
 import cn.hutool.core.util.StrUtil;
 import lombok.RequiredArgsConstructor;
@@ -81,10 +83,17 @@ import lombok.extern.slf4j.Slf4j;
 public class JobInstanceServiceImpl extends SuperServiceImpl<JobInstanceMapper, JobInstance>
         implements JobInstanceService {
 
+    private static final ProTableFields PRO_TABLE_FIELDS = ProTableFields.of("a")
+            .sortable("createTime", LocalDateTime.class)
+            .sortable("updateTime", LocalDateTime.class)
+            .filterable("status", "taskId");
+
     private final HistoryService historyService;
     private final ClusterInstanceService clusterInstanceService;
     private final ClusterConfigurationService clusterConfigurationService;
     private final JobHistoryService jobHistoryService;
+    private final JobMonitorCoordinator jobMonitorCoordinator;
+    private final HomeAggregates homeAggregates;
 
     @Override
     public JobInstance getByIdWithoutTenant(Integer id) {
@@ -93,9 +102,8 @@ public class JobInstanceServiceImpl extends SuperServiceImpl<JobInstanceMapper,
 
     @Override
     public JobInstanceStatus getStatusCount() {
-        List<JobInstanceCount> jobInstanceCounts;
-        jobInstanceCounts = baseMapper.countStatus();
-        JobModelOverview modelOverview = baseMapper.getJobStreamingOrBatchModelOverview();
+        List<JobInstanceCount> jobInstanceCounts = homeAggregates.getStatusCounts();
+        JobModelOverview modelOverview = homeAggregates.getInstanceModelOverview();
         JobInstanceStatus jobInstanceStatus = new JobInstanceStatus();
         jobInstanceStatus.setModelOverview(modelOverview);
         int total = 0;
@@ -193,7 +201,7 @@ public class JobInstanceServiceImpl extends SuperServiceImpl<JobInstanceMapper,
                                             .toBean())
                                     : null)
                     .build();
-            jobHistoryService.save(jobHistory);
+            jobHistoryService.saveSnapshot(jobHistory);
             jobDataDto = JobDataDto.fromJobHistory(jobHistory);
         }
         jobInfoDetail.setJobDataDto(jobDataDto);
@@ -259,23 +267,69 @@ public class JobInstanceServiceImpl extends SuperServiceImpl<JobInstanceMapper,
                 .last("limit 1");
         JobInstance instance = baseMapper.selectOne(queryWrapper);
 
-        if (instance == null
-                || !StrUtil.equalsAny(
-                        instance.getStatus(), JobStatus.RECONNECTING.getValue(), JobStatus.UNKNOWN.getValue())) {
+        if (instance == null || !isWaitingForHistory(instance)) {
             // Not having a corresponding jobinstance means that this may not have succeeded in running,
             // returning true to prevent retry.
             return true;
         }
+        return refreshArchivedJob(instance);
+    }
 
+    @Override
+    public int hookJobDoneByHistory(Collection<String> jobIds) {
+        if (jobIds.isEmpty()) {
+            return 0;
+        }
+        LambdaQueryWrapper<JobInstance> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper
+                .select(
+                        JobInstance::getId,
+                        JobInstance::getTaskId,
+                        JobInstance::getJid,
+                        JobInstance::getStatus,
+                        JobInstance::getCreateTime)
+                .in(JobInstance::getJid, jobIds)
+                .orderByDesc(JobInstance::getCreateTime);
+        // only the latest instance of a job id is hooked, as for a single job id
+        Map<String, JobInstance> latestInstances = new LinkedHashMap<>();
+        baseMapper.selectList(queryWrapper).forEach(x -> latestInstances.putIfAbsent(x.getJid(), x));
+
+        int done = 0;
+        for (JobInstance instance : latestInstances.values()) {
+            if (!isWaitingForHistory(instance)) {
+                continue;
+            }
+            try {
+                if (refreshArchivedJob(instance)) {
+                    done++;
+                }
+            } catch (Exception e) {
+                log.error("Hook job {} done by history failed: {}", instance.getJid(), e.getMessage(), e);
+            }
+        }
+        return done;
+    }
+
+    private static boolean isWaitingForHistory(JobInstance instance) {
+        return StrUtil.equalsAny(instance.getStatus(), JobStatus.RECONNECTING.getValue(), JobStatus.UNKNOWN.getValue());
+    }
+
+    /**
+     * Refresh a job archived by the history server. If it is still not done, for example because the refresh
+     * failed, it is handed back to the job monitor instead of being dropped.
+     */
+    private boolean refreshArchivedJob(JobInstance instance) {
         DaemonTaskConfig config = DaemonTaskConfig.build(FlinkJobTask.TYPE, instance.getId(), instance.getTaskId());
         DaemonTask daemonTask = FlinkJobThreadPool.getInstance().removeByTaskConfig(config);
         daemonTask = Optional.ofNullable(daemonTask).orElse(DaemonTask.build(config));
 
-        boolean isDone = daemonTask.dealTask();
-        // If the task is not completed, it is re-queued
-        if (!isDone) {
-            daemonTask.dealTask();
-            //            FlinkJobThreadPool.getInstance().execute(daemonTask);
+        boolean isDone = false;
+        try {
+            isDone = daemonTask.dealTask() || daemonTask.dealTask();
+        } finally {
+            if (!isDone) {
+                FlinkJobThreadPool.getInstance().execute(daemonTask);
+            }
         }
         return isDone;
     }
@@ -284,10 +338,7 @@ public class JobInstanceServiceImpl extends SuperServiceImpl<JobInstanceMapper,
     public void refreshJobByTaskIds(Integer... taskIds) {
         for (Integer taskId : taskIds) {
             JobInstance instance = getJobInstanceByTaskId(taskId);
-            DaemonTaskConfig daemonTaskConfig =
-                    DaemonTaskConfig.build(FlinkJobTask.TYPE, instance.getId(), instance.getTaskId());
-            FlinkJobThreadPool.getInstance().removeByTaskConfig(daemonTaskConfig);
-            FlinkJobThreadPool.getInstance().execute(DaemonTask.build(daemonTaskConfig));
+            jobMonitorCoordinator.monitor(instance.getId(), instance.getTaskId());
             refreshJobInfoDetail(instance.getId(), instance.getTaskId(), false);
         }
     }
@@ -303,23 +354,14 @@ public class JobInstanceServiceImpl extends SuperServiceImpl<JobInstanceMapper,
         return baseMapper.getJobInstanceByTaskId(id);
     }
 
+    @Override
+    protected ProTableFields getProTableFields() {
+        return PRO_TABLE_FIELDS;
+    }
+
     @Override
     public ProTableResult<JobInstanceVo> listJobInstances(JsonNode para) {
-        int current = para.has("current") ? para.get("current").asInt() : 1;
-        int pageSize = para.has("pageSize") ? para.get("pageSize").asInt() : 10;
-        QueryWrapper<JobInstanceVo> queryWrapper = new QueryWrapper<>();
-        ProTableUtil.autoQueryDefalut(para, queryWrapper);
-        ObjectMapper mapper = new ObjectMapper();
-        Map<String, Object> param = mapper.convertValue(para, Map.class);
-        Page<JobInstanceVo> page = new Page<>(current, pageSize);
-        List<JobInstanceVo> list = baseMapper.selectForProTable(page, queryWrapper, param);
-        return ProTableResult.<JobInstanceVo>builder()
-                .success(true)
-                .data(list)
-                .total(page.getTotal())
-                .current(current)
-                .pageSize(pageSize)
-                .build();
+        return selectForProTable(para, PRO_TABLE_FIELDS, null);
     }
 
     @Override
@@ -23,6 +23,7 @@ import org.dinky.data.model.OperateLog;
 import org.dinky.data.result.ProTableResult;
 import org.dinky.mapper.OperateLogMapper;
 import org.dinky.mybatis.service.impl.SuperServiceImpl;
+import org.dinky.mybatis.util.ProTableFields;
 import org.dinky.service.OperateLogService;
 
 import java.util.HashMap;
@@ -34,6 +35,15 @@ import com.fasterxml.jackson.databind.JsonNode;
 
 @Service
 public class OperateLogServiceImpl extends SuperServiceImpl<OperateLogMapper, OperateLog> implements OperateLogService {
+
+    private static final ProTableFields PRO_TABLE_FIELDS =
+            ProTableFields.of("a").idType(Long.class).filterable("status");
+
+    @Override
+    protected ProTableFields getProTableFields() {
+        return PRO_TABLE_FIELDS;
+    }
+
     /** @param operateLog */
     @Override
     public void saveLog(OperateLog operateLog) {
@@ -19,29 +19,45 @@
 
 package org.dinky.service.impl;
 
+import org.dinky.connector.printnet.sink.PrintNetProtocol;
 import org.dinky.data.job.SqlType;
 import org.dinky.data.vo.PrintTableVo;
 import org.dinky.explainer.print_table.PrintStatementExplainer;
 import org.dinky.service.PrintTableService;
 import org.dinky.trans.Operations;
+import org.dinky.utils.MeterUtil;
 import org.dinky.utils.SqlUtil;
 
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
 import java.net.DatagramPacket;
 import java.net.DatagramSocket;
 import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
 import java.net.SocketException;
 import java.net.UnknownHostException;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.function.Consumer;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Service;
 
+import cn.hutool.core.thread.ThreadUtil;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
@@ -74,31 +90,74 @@ public class PrintTableServiceImpl implements PrintTableService {
                 : String.format("`default_catalog`.`default_database`.`print_%s`", table);
     }
 
+    /**
+     * Receive the batched frames of the printnet sink over udp and tcp on the same port. Frames are demultiplexed by
+     * print table onto a fixed set of workers, so the rows of a table keep their order while different tables are
+     * handled in parallel. Udp frames are dropped when a worker falls behind, tcp connections are blocked instead,
+     * which pushes back to the sink.
+     */
     public static class PrintTableListener {
 
-        private final Consumer<String> consumer;
         public static final int PORT = 7125;
-        private DatagramSocket socket;
-        private final byte[] buf = new byte[4096];
+        private static final int WORKER_NUM = 4;
+        private static final int WORKER_QUEUE_SIZE = 1024;
+        private static final int MAX_TRACKED_SENDERS = 10000;
 
-        private final ExecutorService executor;
+        private final BiConsumer<String, List<String>> consumer;
+        private DatagramSocket socket;
+        private ServerSocket serverSocket;
+        private final ExecutorService receivers;
+        private final ThreadPoolExecutor[] workers;
+        private final Map<Long, Long> senderSequences = new LinkedHashMap<Long, Long>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+                return size() > MAX_TRACKED_SENDERS;
+            }
+        };
+        private final AtomicLong droppedFrames = new AtomicLong();
+        private final AtomicLong lostFrames = new AtomicLong();
 
-        public PrintTableListener(Consumer<String> consumer) {
+        public PrintTableListener(BiConsumer<String, List<String>> consumer) {
             this.consumer = consumer;
             this.socket = getDatagramSocket(PORT);
-            executor = Executors.newSingleThreadExecutor();
+            this.serverSocket = getServerSocket(PORT);
+            this.receivers =
+                    Executors.newCachedThreadPool(ThreadUtil.newNamedThreadFactory("print-table-receiver", true));
+            this.workers = new ThreadPoolExecutor[WORKER_NUM];
+            for (int i = 0; i < WORKER_NUM; i++) {
+                workers[i] = new ThreadPoolExecutor(
+                        1,
+                        1,
+                        0,
+                        TimeUnit.MILLISECONDS,
+                        new LinkedBlockingQueue<>(WORKER_QUEUE_SIZE),
+                        ThreadUtil.newNamedThreadFactory("print-table-worker-" + i, true));
+                MeterUtil.monitor(workers[i], "print-table-worker-" + i);
+            }
         }
 
         public void start() {
-            executor.execute(this::run);
+            receivers.execute(this::run);
+            receivers.execute(this::accept);
+        }
+
+        public long getDroppedFrames() {
+            return droppedFrames.get();
+        }
+
+        public long getLostFrames() {
+            return lostFrames.get();
         }
 
         private static DatagramSocket getDatagramSocket(int port) {
             InetAddress host = null;
             try {
                 host = InetAddress.getByName("0.0.0.0");
+                DatagramSocket datagramSocket = new DatagramSocket(port, host);
+                // leave room for bursts of datagrams while the receiver is busy
+                datagramSocket.setReceiveBufferSize(4 * 1024 * 1024);
                 log.info("PrintTableListener:DatagramSocket init success, host: {}, port: {}", host, port);
-                return new DatagramSocket(port, host);
+                return datagramSocket;
             } catch (SocketException | UnknownHostException e) {
                 log.error(
                         "PrintTableListener:DatagramSocket init failed, host: {}, port {}: {}",
@@ -109,6 +168,17 @@ public class PrintTableServiceImpl implements PrintTableService {
             return null;
         }
 
+        private static ServerSocket getServerSocket(int port) {
+            try {
+                ServerSocket server = new ServerSocket(port);
+                log.info("PrintTableListener:ServerSocket init success, port: {}", port);
+                return server;
+            } catch (IOException e) {
+                log.error("PrintTableListener:ServerSocket init failed, port {}: {}", port, e.getMessage());
+            }
+            return null;
+        }
+
         public void run() {
             if (socket == null) {
                 log.warn("PrintTableListener:socket is null, try to initial it");
@@ -116,16 +186,92 @@ public class PrintTableServiceImpl implements PrintTableService {
                 if (socket == null) return;
             }
 
+            byte[] buf = new byte[PrintNetProtocol.MAX_DATAGRAM_SIZE];
             while (true) {
                 DatagramPacket packet = new DatagramPacket(buf, buf.length);
                 try {
                     socket.receive(packet);
-                    String received = new String(packet.getData(), 0, packet.getLength());
-                    consumer.accept(received);
+                    PrintNetProtocol.Frame frame =
+                            PrintNetProtocol.readFrame(packet.getData(), packet.getOffset(), packet.getLength());
+                    if (!dispatch(frame, false)) {
+                        log.warn(
+                                "print table worker is busy, frame of {} dropped, dropped frames: {}",
+                                frame.getIdentifier(),
+                                droppedFrames.incrementAndGet());
+                    }
                 } catch (Exception e) {
                     log.error("print table receive data:" + e.getMessage());
                 }
             }
         }
+
+        private void accept() {
+            if (serverSocket == null) {
+                serverSocket = getServerSocket(PORT);
+                if (serverSocket == null) return;
+            }
+            while (!serverSocket.isClosed()) {
+                try {
+                    Socket client = serverSocket.accept();
+                    receivers.execute(() -> receive(client));
+                } catch (IOException e) {
+                    log.error("print table accept connection:" + e.getMessage());
+                }
+            }
+        }
+
+        private void receive(Socket client) {
+            try (Socket s = client;
+                    DataInputStream in = new DataInputStream(new BufferedInputStream(s.getInputStream()))) {
+                while (true) {
+                    int length = in.readInt();
+                    if (length <= 0 || length > PrintNetProtocol.MAX_FRAME_SIZE) {
+                        throw new IOException("Invalid print net frame length: " + length);
+                    }
+                    byte[] frame = new byte[length];
+                    in.readFully(frame);
+                    dispatch(PrintNetProtocol.readFrame(frame, 0, length), true);
+                }
+            } catch (EOFException e) {
+                // sink closed the connection
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException e) {
+                log.error("print table receive data:" + e.getMessage());
+            }
+        }
+
+        private boolean dispatch(PrintNetProtocol.Frame frame, boolean block) throws InterruptedException {
+            checkSequence(frame);
+            ThreadPoolExecutor worker = workers[Math.floorMod(frame.getIdentifier().hashCode(), WORKER_NUM)];
+            Runnable task = () -> consumer.accept(frame.getIdentifier(), frame.getRows());
+            if (block) {
+                worker.getQueue().put(task);
+                // the worker thread may not be started yet
+                worker.prestartCoreThread();
+                return true;
+            }
+            try {
+                worker.execute(task);
+                return true;
+            } catch (RejectedExecutionException e) {
+                return false;
+            }
+        }
+
+        private void checkSequence(PrintNetProtocol.Frame frame) {
+            Long last;
+            synchronized (senderSequences) {
+                last = senderSequences.put(frame.getSenderId(), frame.getSequence());
+            }
+            if (last != null && frame.getSequence() > last + 1) {
+                long lost = frame.getSequence() - last - 1;
+                log.warn(
+                        "print table {} lost {} frames, total lost frames: {}",
+                        frame.getIdentifier(),
+                        lost,
+                        lostFrames.addAndGet(lost));
+            }
+        }
     }
 }
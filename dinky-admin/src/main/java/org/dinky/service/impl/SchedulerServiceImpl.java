@@ -35,17 +35,31 @@ import org.dinky.scheduler.model.DinkyTaskRequest;
 import org.dinky.scheduler.model.ProcessDefinition;
 import org.dinky.scheduler.model.ProcessTaskRelation;
 import org.dinky.scheduler.model.Project;
+import org.dinky.scheduler.model.PushTaskResult;
 import org.dinky.scheduler.model.TaskDefinition;
 import org.dinky.scheduler.model.TaskGroup;
 import org.dinky.scheduler.model.TaskMainInfo;
 import org.dinky.scheduler.model.TaskRequest;
+import org.dinky.scheduler.utils.RequestUtil;
 import org.dinky.service.SchedulerService;
 import org.dinky.service.catalogue.CatalogueService;
 import org.dinky.utils.JsonUtils;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import javax.annotation.PreDestroy;
 
 import org.springframework.stereotype.Service;
 
@@ -54,7 +68,9 @@ import com.google.common.base.Strings;
 
 import cn.hutool.core.bean.BeanUtil;
 import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.thread.ThreadUtil;
 import cn.hutool.core.util.RandomUtil;
+import cn.hutool.core.util.StrUtil;
 import cn.hutool.json.JSONArray;
 import cn.hutool.json.JSONObject;
 import lombok.RequiredArgsConstructor;
@@ -66,10 +82,36 @@ import lombok.extern.slf4j.Slf4j;
 public class SchedulerServiceImpl implements SchedulerService {
 
     public static final String TASK_TYPE = "DINKY";
+
+    /** At most this many processes are pushed at the same time, each on its own pooled keep-alive connection. */
+    private static final int PUSH_PARALLELISM = RequestUtil.MAX_CONNECTIONS_PER_ROUTE;
+
+    private static final int GEN_CODE_BATCH_SIZE = 100;
+
     private final ProcessClient processClient;
     private final TaskClient taskClient;
     private final CatalogueService catalogueService;
 
+    /** Shared by all bulk pushes, so that concurrent pushes do not exceed the parallelism together. */
+    private final ExecutorService pushExecutor = newPushExecutor();
+
+    private static ExecutorService newPushExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                PUSH_PARALLELISM,
+                PUSH_PARALLELISM,
+                60,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                ThreadUtil.newNamedThreadFactory("ds-push-", true));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    @PreDestroy
+    public void stop() {
+        pushExecutor.shutdown();
+    }
+
     /**
      * Pushes the specified DinkyTaskRequest to the task queue.
      *
@@ -292,6 +334,263 @@ public class SchedulerServiceImpl implements SchedulerService {
         return false;
     }
 
+    /**
+     * Pushes the specified tasks to DolphinScheduler in bulk.
+     * The processes and dinky tasks of the project are fetched once, the codes of the new tasks are generated in
+     * batches, and every process is written with a single definition update. Processes are pushed concurrently,
+     * the tasks of one process together as the update replaces the whole dag.
+     *
+     * @param  dinkyTaskRequests  the tasks to push
+     * @return                    the result of every task, in the order of the requests
+     */
+    @Override
+    public List<PushTaskResult> pushAddTasks(List<DinkyTaskRequest> dinkyTaskRequests) {
+        List<PushTaskResult> results = new ArrayList<>();
+        if (CollUtil.isEmpty(dinkyTaskRequests)) {
+            return results;
+        }
+        long projectCode = SystemInit.getProject().getCode();
+        String address = SystemConfiguration.getInstances().getDinkyAddr().getValue();
+
+        Map<String, Catalogue> catalogues = catalogueService
+                .list(new LambdaQueryWrapper<Catalogue>()
+                        .in(
+                                Catalogue::getTaskId,
+                                dinkyTaskRequests.stream()
+                                        .map(DinkyTaskRequest::getTaskId)
+                                        .collect(Collectors.toList())))
+                .stream()
+                .collect(Collectors.toMap(c -> String.valueOf(c.getTaskId()), c -> c, (a, b) -> a));
+        Map<Integer, Catalogue> parents = new HashMap<>();
+        Function<Integer, Catalogue> parentLookup = id -> parents.computeIfAbsent(id, catalogueService::getById);
+
+        // group the tasks by process, a process is updated once with all of its tasks
+        Map<String, List<PushItem>> processItems = new LinkedHashMap<>();
+        for (DinkyTaskRequest dinkyTaskRequest : dinkyTaskRequests) {
+            PushTaskResult result = PushTaskResult.of(dinkyTaskRequest.getTaskId());
+            results.add(result);
+            Catalogue catalogue = catalogues.get(dinkyTaskRequest.getTaskId());
+            if (catalogue == null) {
+                result.fail(Status.DS_GET_NODE_LIST_ERROR.getMessage());
+                continue;
+            }
+            try {
+                String processName = getDinkyNames(catalogue, 0, parentLookup);
+                result.setProcessName(processName);
+                result.setTaskName(catalogue.getName());
+                DinkyTaskParams dinkyTaskParams = new DinkyTaskParams();
+                dinkyTaskParams.setTaskId(dinkyTaskRequest.getTaskId());
+                dinkyTaskParams.setAddress(address);
+                dinkyTaskRequest.setTaskParams(JsonUtils.toJsonString(dinkyTaskParams));
+                dinkyTaskRequest.setTaskType(TASK_TYPE);
+                dinkyTaskRequest.setName(catalogue.getName());
+                processItems
+                        .computeIfAbsent(processName.toLowerCase(), k -> new ArrayList<>())
+                        .add(new PushItem(dinkyTaskRequest, result));
+            } catch (Exception e) {
+                result.fail(e.getMessage());
+            }
+        }
+        if (processItems.isEmpty()) {
+            return results;
+        }
+
+        Map<String, ProcessDefinition> processes = processClient.getProcessDefinition(projectCode, "").stream()
+                .collect(Collectors.toMap(p -> p.getName().toLowerCase(), p -> p, (a, b) -> a));
+        Map<String, TaskMainInfo> taskMainInfos = new HashMap<>();
+        for (TaskMainInfo taskMainInfo : taskClient.getTaskMainInfos(projectCode, "", "", TASK_TYPE)) {
+            taskMainInfos.putIfAbsent(
+                    taskKey(taskMainInfo.getProcessDefinitionName(), taskMainInfo.getTaskName()), taskMainInfo);
+        }
+
+        List<PushItem> newItems = new ArrayList<>();
+        for (Map.Entry<String, List<PushItem>> entry : processItems.entrySet()) {
+            for (PushItem item : entry.getValue()) {
+                item.taskMainInfo = taskMainInfos.get(taskKey(entry.getKey(), item.request.getName()));
+                if (item.taskMainInfo == null) {
+                    newItems.add(item);
+                }
+            }
+        }
+        try {
+            for (int i = 0; i < newItems.size(); i += GEN_CODE_BATCH_SIZE) {
+                List<PushItem> batch = newItems.subList(i, Math.min(newItems.size(), i + GEN_CODE_BATCH_SIZE));
+                List<Long> codes = taskClient.genTaskCodes(projectCode, batch.size());
+                if (codes == null || codes.size() < batch.size()) {
+                    throw new SchedulerException("Failed to generate task definition number");
+                }
+                for (int j = 0; j < batch.size(); j++) {
+                    batch.get(j).request.setCode(codes.get(j));
+                }
+            }
+        } catch (Exception e) {
+            newItems.forEach(item -> item.result.fail(e.getMessage()));
+            processItems.values().forEach(items -> items.removeAll(newItems));
+        }
+
+        CompletableFuture.allOf(processItems.entrySet().stream()
+                        .filter(entry -> CollUtil.isNotEmpty(entry.getValue()))
+                        .map(entry -> CompletableFuture.runAsync(
+                                () -> pushProcess(projectCode, processes.get(entry.getKey()), entry.getValue()),
+                                pushExecutor))
+                        .toArray(CompletableFuture[]::new))
+                .join();
+        return results;
+    }
+
+    /** Create or update the process with all of its pushed tasks in one definition update. */
+    private void pushProcess(long projectCode, ProcessDefinition process, List<PushItem> items) {
+        String processName = items.get(0).result.getProcessName();
+        try {
+            if (process == null) {
+                JSONArray taskArray = new JSONArray();
+                List<ProcessTaskRelation> relations = new ArrayList<>();
+                List<DagNodeLocation> locations = new ArrayList<>();
+                for (PushItem item : items) {
+                    TaskRequest taskRequest = toTaskRequest(item.request);
+                    taskArray.add(taskRequest);
+                    relations.addAll(toRelations(taskRequest.getCode(), 1, item.request.getUpstreamCodes()));
+                    locations.add(newLocation(taskRequest.getCode(), locations));
+                }
+                processClient.createOrUpdateProcessDefinition(
+                        projectCode,
+                        null,
+                        processName,
+                        items.get(0).request.getCode(),
+                        JsonUtils.toJsonString(relations),
+                        taskArray.toString(),
+                        locations,
+                        false);
+                items.forEach(item -> item.result.succeed(item.request.getCode()));
+                return;
+            }
+            if (process.getReleaseState() == ReleaseState.ONLINE) {
+                throw new BusException(Status.DS_WORK_FLOW_DEFINITION_ONLINE, process.getName());
+            }
+            DagData dagData = processClient.getProcessDefinitionInfo(projectCode, process.getCode());
+            if (dagData == null) {
+                throw new BusException(Status.DS_WORK_FLOW_DEFINITION_NOT_EXIST);
+            }
+            Map<Long, TaskDefinition> definitions = dagData.getTaskDefinitionList().stream()
+                    .collect(Collectors.toMap(TaskDefinition::getCode, d -> d, (a, b) -> a, LinkedHashMap::new));
+            List<TaskRequest> tasks = new ArrayList<>();
+            List<ProcessTaskRelation> relations = new ArrayList<>(dagData.getProcessTaskRelationList());
+            List<DagNodeLocation> locations =
+                    new ArrayList<>(JsonUtils.toList(process.getLocations(), DagNodeLocation.class));
+            List<PushItem> pushed = new ArrayList<>();
+            for (PushItem item : items) {
+                int version = 1;
+                if (item.taskMainInfo != null) {
+                    TaskDefinition taskDefinition = definitions.get(item.taskMainInfo.getTaskCode());
+                    if (taskDefinition == null) {
+                        item.result.fail(Status.DS_TASK_NOT_EXIST.getMessage());
+                        continue;
+                    }
+                    if (!TASK_TYPE.equals(taskDefinition.getTaskType())) {
+                        item.result.fail(StrUtil.format(
+                                Status.DS_TASK_TYPE_NOT_SUPPORT.getMessage(), taskDefinition.getTaskType()));
+                        continue;
+                    }
+                    item.request.setCode(taskDefinition.getCode());
+                    item.request.setName(taskDefinition.getName());
+                    item.request.setTaskParams(taskDefinition.getTaskParams());
+                    version = taskDefinition.getVersion() == null ? 1 : taskDefinition.getVersion();
+                }
+                TaskRequest taskRequest = toTaskRequest(item.request);
+                long taskCode = taskRequest.getCode();
+                definitions.remove(taskCode);
+                definitions.values().removeIf(d -> taskRequest.getName().equalsIgnoreCase(d.getName()));
+                tasks.add(taskRequest);
+                // the upstream of a pushed task are replaced by the requested ones
+                relations.removeIf(relation -> relation.getPostTaskCode() == taskCode);
+                relations.addAll(toRelations(taskCode, version, item.request.getUpstreamCodes()));
+                if (locations.stream().noneMatch(location -> location.getTaskCode() == taskCode)) {
+                    locations.add(newLocation(taskCode, locations));
+                }
+                pushed.add(item);
+            }
+            if (pushed.isEmpty()) {
+                return;
+            }
+            JSONArray taskArray = new JSONArray();
+            taskArray.addAll(definitions.values());
+            taskArray.addAll(tasks);
+            processClient.createOrUpdateProcessDefinition(
+                    projectCode,
+                    process.getCode(),
+                    process.getName(),
+                    pushed.get(0).request.getCode(),
+                    JsonUtils.toJsonString(relations),
+                    taskArray.toString(),
+                    locations,
+                    true);
+            pushed.forEach(item -> item.result.succeed(item.request.getCode()));
+            log.info("Pushed {} tasks to process {}", pushed.size(), process.getName());
+        } catch (Exception e) {
+            log.error("Push tasks of process {} failed", processName, e);
+            items.stream().filter(item -> !item.result.isSuccess()).forEach(item -> item.result.fail(e.getMessage()));
+        }
+    }
+
+    private static TaskRequest toTaskRequest(DinkyTaskRequest dinkyTaskRequest) {
+        TaskRequest taskRequest = new TaskRequest();
+        BeanUtil.copyProperties(dinkyTaskRequest, taskRequest);
+        taskRequest.setTimeoutFlag(dinkyTaskRequest.getTimeoutFlag());
+        taskRequest.setFlag(dinkyTaskRequest.getFlag());
+        taskRequest.setIsCache(dinkyTaskRequest.getIsCache());
+        taskRequest.setTaskGroupId(dinkyTaskRequest.getTaskGroupId());
+        taskRequest.setTaskGroupPriority(dinkyTaskRequest.getTaskGroupPriority());
+        return taskRequest;
+    }
+
+    private static List<ProcessTaskRelation> toRelations(long taskCode, int version, List<String> upstreamCodes) {
+        if (CollUtil.isEmpty(upstreamCodes)) {
+            ProcessTaskRelation relation = ProcessTaskRelation.generateProcessTaskRelation(taskCode);
+            relation.setPostTaskVersion(version);
+            return Collections.singletonList(relation);
+        }
+        List<ProcessTaskRelation> relations = new ArrayList<>();
+        for (String upstreamCode : upstreamCodes) {
+            ProcessTaskRelation relation = ProcessTaskRelation.generateProcessTaskRelation(taskCode);
+            relation.setPreTaskCode(Long.parseLong(upstreamCode));
+            relation.setPostTaskVersion(version);
+            relations.add(relation);
+        }
+        return relations;
+    }
+
+    private static DagNodeLocation newLocation(long taskCode, List<DagNodeLocation> locations) {
+        DagNodeLocation dagNodeLocation = new DagNodeLocation();
+        dagNodeLocation.setTaskCode(taskCode);
+        if (locations.isEmpty()) {
+            dagNodeLocation.setX(RandomUtil.randomLong(200, 800));
+            dagNodeLocation.setY(RandomUtil.randomLong(100, 600));
+        } else {
+            // below the lowest node, so that pushed nodes do not overlap
+            long xMin = locations.stream().mapToLong(DagNodeLocation::getX).min().getAsLong();
+            long yMax = locations.stream().mapToLong(DagNodeLocation::getY).max().getAsLong();
+            dagNodeLocation.setX(xMin);
+            dagNodeLocation.setY(yMax + 100);
+        }
+        return dagNodeLocation;
+    }
+
+    private static String taskKey(String processName, String taskName) {
+        return StrUtil.nullToEmpty(processName).toLowerCase() + "/" + StrUtil.nullToEmpty(taskName).toLowerCase();
+    }
+
+    /** A pushed task and its result. */
+    private static class PushItem {
+        private final DinkyTaskRequest request;
+        private final PushTaskResult result;
+        private TaskMainInfo taskMainInfo;
+
+        PushItem(DinkyTaskRequest request, PushTaskResult result) {
+            this.request = request;
+            this.result = result;
+        }
+    }
+
     /**
      * Retrieves the list of TaskMainInfo objects for a given dinkyTaskId.
      *
@@ -370,17 +669,21 @@ public class SchedulerServiceImpl implements SchedulerService {
      * @return              the dinky names retrieved from the catalogue
      */
     private String getDinkyNames(Catalogue catalogue, int i) {
+        return getDinkyNames(catalogue, i, catalogueService::getById);
+    }
+
+    private String getDinkyNames(Catalogue catalogue, int i, Function<Integer, Catalogue> parentLookup) {
         if (i == 3 || catalogue.getParentId().equals(0)) {
             return "";
         }
 
-        catalogue = catalogueService.getById(catalogue.getParentId());
+        catalogue = parentLookup.apply(catalogue.getParentId());
         if (catalogue == null) {
             throw new SchedulerException("Get Node List Error");
         }
 
         String name = i == 0 ? catalogue.getName() : catalogue.getName();
-        String next = getDinkyNames(catalogue, ++i);
+        String next = getDinkyNames(catalogue, ++i, parentLookup);
 
         if (Strings.isNullOrEmpty(next)) {
             return name;
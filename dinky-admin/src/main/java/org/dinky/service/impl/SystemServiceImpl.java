@@ -21,8 +21,12 @@ package org.dinky.service.impl;
 
 import org.dinky.data.constant.DirConstant;
 import org.dinky.data.dto.TreeNodeDTO;
+import org.dinky.data.model.LogChunk;
 import org.dinky.service.SystemService;
+import org.dinky.sse.SseEmitterUTF8;
 import org.dinky.utils.DirUtil;
+import org.dinky.utils.LogFileReader;
+import org.dinky.utils.MeterUtil;
 import org.dinky.utils.TreeUtil;
 
 import java.io.File;
@@ -32,17 +36,24 @@ import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.jar.Attributes;
 import java.util.jar.JarFile;
 import java.util.jar.Manifest;
 import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.io.FileUtil;
 import cn.hutool.core.lang.Singleton;
 import cn.hutool.core.map.MapUtil;
+import cn.hutool.core.thread.ThreadUtil;
 import cn.hutool.system.JavaRuntimeInfo;
 import lombok.extern.slf4j.Slf4j;
 
@@ -54,12 +65,20 @@ import lombok.extern.slf4j.Slf4j;
 @Service
 @Slf4j
 public class SystemServiceImpl implements SystemService {
+    private static final int DEFAULT_TAIL_LINES = 1000;
+    private static final long FOLLOW_TIMEOUT = TimeUnit.MINUTES.toMillis(30);
+    private static final ScheduledExecutorService FOLLOW_SCHEDULER =
+            Executors.newScheduledThreadPool(2, ThreadUtil.newNamedThreadFactory("log-follower", true));
     private static final Map<String, List<String>> JAR_GROUP_MAP = MapUtil.builder(new HashMap<String, List<String>>())
             .put("Dinky", Arrays.asList("org.dinky"))
             .put("Flink", Arrays.asList("org.apache.flink"))
             .put("CDC", Arrays.asList("org.apache.flink"))
             .build();
 
+    static {
+        MeterUtil.monitor(FOLLOW_SCHEDULER, "log-follower");
+    }
+
     @Override
     public List<TreeNodeDTO> listLogDir() {
         File systemLogFiles = TreeUtil.getFilesOfDir(DirConstant.getRootLogsPath());
@@ -71,6 +90,48 @@ public class SystemServiceImpl implements SystemService {
         return DirUtil.readFile(path);
     }
 
+    @Override
+    public LogChunk readFileRange(String path, Long offset, Integer length) {
+        return LogFileReader.readRange(new File(path), offset == null ? 0 : offset, length == null ? 0 : length);
+    }
+
+    @Override
+    public LogChunk tailFile(String path, Integer lines, Integer length) {
+        return LogFileReader.tail(
+                new File(path), lines == null ? DEFAULT_TAIL_LINES : lines, length == null ? 0 : length);
+    }
+
+    @Override
+    public LogChunk readFileFromTime(String path, String time, Integer length) {
+        return LogFileReader.readFromTime(new File(path), time, length == null ? 0 : length);
+    }
+
+    @Override
+    public SseEmitter followFile(String path, Long offset) {
+        File file = new File(path);
+        SseEmitter emitter = new SseEmitterUTF8(FOLLOW_TIMEOUT);
+        AtomicLong position = new AtomicLong(offset == null ? file.length() : offset);
+        ScheduledFuture<?> future = FOLLOW_SCHEDULER.scheduleWithFixedDelay(
+                () -> {
+                    try {
+                        LogChunk chunk = LogFileReader.readRange(file, position.get(), 0);
+                        if (chunk.getEndOffset() != position.get()) {
+                            position.set(chunk.getEndOffset());
+                            emitter.send(chunk);
+                        }
+                    } catch (Exception e) {
+                        emitter.completeWithError(e);
+                    }
+                },
+                0,
+                1,
+                TimeUnit.SECONDS);
+        emitter.onCompletion(() -> future.cancel(false));
+        emitter.onTimeout(() -> future.cancel(false));
+        emitter.onError(e -> future.cancel(false));
+        return emitter;
+    }
+
     /**
      * @return
      */
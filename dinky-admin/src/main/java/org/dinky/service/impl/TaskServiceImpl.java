@@ -93,6 +93,7 @@ import org.dinky.service.catalogue.CatalogueService;
 import org.dinky.service.task.BaseTask;
 import org.dinky.utils.FragmentVariableUtils;
 import org.dinky.utils.JsonUtils;
+import org.dinky.utils.MeterUtil;
 import org.dinky.utils.RunTimeUtil;
 import org.dinky.utils.UDFUtils;
 
@@ -112,6 +113,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import javax.annotation.Resource;
@@ -139,6 +141,8 @@ import cn.hutool.core.lang.tree.Tree;
 import cn.hutool.core.lang.tree.TreeNode;
 import cn.hutool.core.lang.tree.TreeUtil;
 import cn.hutool.core.text.StrFormatter;
+import cn.hutool.core.util.StrUtil;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
@@ -151,6 +155,8 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class TaskServiceImpl extends SuperServiceImpl<TaskMapper, Task> implements TaskService {
 
+    private static final Timer EXPLAIN_TIMER = MeterUtil.timer(MeterUtil.TASK_EXPLAIN);
+
     private final SavepointsService savepointsService;
     private final ClusterInstanceService clusterInstanceService;
     private final ClusterConfigurationService clusterCfgService;
@@ -204,12 +210,12 @@ public class TaskServiceImpl extends SuperServiceImpl<TaskMapper, Task> implemen
 
     @ProcessStep(type = ProcessStepType.SUBMIT_EXECUTE)
     public JobResult executeJob(TaskDTO task, Boolean stream) throws Exception {
-        JobResult jobResult;
-        if (stream) {
-            jobResult = BaseTask.getTask(task).StreamExecute();
-        } else {
-            jobResult = BaseTask.getTask(task).execute();
-        }
+        Timer timer = MeterUtil.timer(
+                MeterUtil.TASK_EXECUTE,
+                MeterUtil.TAG_MODE,
+                StrUtil.blankToDefault(task.getType(), GatewayType.LOCAL.getLongValue()));
+        JobResult jobResult = MeterUtil.recordCallable(
+                timer, () -> stream ? BaseTask.getTask(task).StreamExecute() : BaseTask.getTask(task).execute());
         log.info("execute job finished,status is {}", jobResult.getStatus());
         return jobResult;
     }
@@ -494,7 +500,12 @@ public class TaskServiceImpl extends SuperServiceImpl<TaskMapper, Task> implemen
 
     @Override
     public List<SqlExplainResult> explainTask(TaskDTO task) throws NotSupportExplainExcepition {
-        return BaseTask.getTask(task).explain();
+        long start = System.nanoTime();
+        try {
+            return BaseTask.getTask(task).explain();
+        } finally {
+            EXPLAIN_TIMER.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
     }
 
     @SneakyThrows
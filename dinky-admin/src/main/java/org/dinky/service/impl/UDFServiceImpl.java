@@ -20,6 +20,7 @@
 package org.dinky.service.impl;
 
 import org.dinky.config.Dialect;
+import org.dinky.data.exception.DinkyException;
 import org.dinky.data.model.Resources;
 import org.dinky.data.model.udf.UDFManage;
 import org.dinky.data.vo.CascaderVO;
@@ -122,7 +123,13 @@ public class UDFServiceImpl extends ServiceImpl<UDFManageMapper, UDFManage> impl
                         String suffix = FileUtil.getSuffix(x.getFileName());
                         if ("jar".equals(suffix)) {
                             File file = resourcesService.getFile(x.getId());
-                            List<Class<?>> classes = UDFUtils.getUdfClassByJar(file);
+                            List<Class<?>> classes;
+                            try {
+                                classes = UDFUtils.getUdfClassByJar(file);
+                            } catch (DinkyException e) {
+                                log.error("Skip the udfs of {}: {}", x.getFileName(), e.getMessage(), e);
+                                return Stream.of();
+                            }
                             return classes.stream().map(clazz -> {
                                 UDFManage udfManage = UDFManage.builder()
                                         .className(clazz.getName())
@@ -24,29 +24,39 @@ import org.dinky.data.exception.DinkyException;
 import org.dinky.data.model.GitProject;
 import org.dinky.function.util.UDFUtil;
 import org.dinky.sse.StepSse;
+import org.dinky.utils.GitBuildCache;
 import org.dinky.utils.JsonUtils;
 import org.dinky.utils.URLUtils;
 
+import java.io.File;
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.jar.JarFile;
 import java.util.stream.Collectors;
 
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import cn.hutool.core.io.FileUtil;
 import cn.hutool.core.lang.Dict;
+import cn.hutool.core.util.StrUtil;
+import cn.hutool.crypto.SecureUtil;
 
 /**
  * @author ZackYoung
  * @since 0.8.0
  */
 public class AnalysisUdfClassStepSse extends StepSse {
+    private static final String CLASS_SUFFIX = ".class";
 
     public AnalysisUdfClassStepSse(
             int sleep,
@@ -61,25 +71,40 @@ public class AnalysisUdfClassStepSse extends StepSse {
     @Override
     public void exec() {
         List<String> pathList = params.getBean("jarPath");
+        GitProject gitProject = (GitProject) params.get("gitProject");
+        GitBuildCache buildCache = new GitBuildCache(gitProject.getName(), gitProject.getBranch());
+        Map<String, GitBuildCache.JarClasses> lastClasses = buildCache.getJarClasses();
 
         List<GitAnalysisJarDTO> dataList = new ArrayList<>();
-        Map<String, List<Class<?>>> udfMap = new TreeMap<>();
+        Map<String, GitBuildCache.JarClasses> udfMap = new ConcurrentSkipListMap<>();
         try {
             Thread.currentThread().getContextClassLoader().loadClass("org.apache.flink.table.api.ValidationException");
         } catch (ClassNotFoundException e) {
             throw new DinkyException("flink dependency not found");
         }
+        Map<String, RuntimeException> failures = new ConcurrentSkipListMap<>();
         pathList.parallelStream().forEach(jar -> {
-            List<Class<?>> udfClassByJar = UDFUtil.getUdfClassByJar(URLUtils.toFile(jar));
-            udfMap.put(jar, udfClassByJar);
-            sendMsg(Dict.create().set(jar, udfClassByJar));
+            try {
+                GitBuildCache.JarClasses jarClasses = analysis(jar, URLUtils.toFile(jar), lastClasses.get(jar));
+                udfMap.put(jar, jarClasses);
+                sendMsg(Dict.create().set(jar, jarClasses.getUdfClasses()));
+            } catch (RuntimeException e) {
+                failures.put(jar, e);
+            }
         });
+        // a failed jar is left out of the cache, so that the next build analyses it again
+        buildCache.saveJarClasses(udfMap);
+        if (!failures.isEmpty()) {
+            Map.Entry<String, RuntimeException> failure = failures.entrySet().iterator().next();
+            throw new DinkyException(
+                    StrUtil.format("Analysis udf class of {} failed", failures.keySet()), failure.getValue());
+        }
 
         AtomicInteger index = new AtomicInteger(1);
         udfMap.forEach((k, v) -> {
             GitAnalysisJarDTO gitAnalysisJarDTO = new GitAnalysisJarDTO();
             gitAnalysisJarDTO.setJarPath(k);
-            gitAnalysisJarDTO.setClassList(v.stream().map(Class::getName).collect(Collectors.toList()));
+            gitAnalysisJarDTO.setClassList(v.getUdfClasses());
             gitAnalysisJarDTO.setOrderLine(index.get());
             index.getAndIncrement();
             dataList.add(gitAnalysisJarDTO);
@@ -93,8 +118,47 @@ public class AnalysisUdfClassStepSse extends StepSse {
         FileUtil.appendString(data, getLogFile(), StandardCharsets.UTF_8);
 
         // write result
-        GitProject gitProject = (GitProject) params.get("gitProject");
         gitProject.setUdfClassMapList(data);
         gitProject.updateById();
     }
+
+    /**
+     * Find the udf classes of a jar, loading only the last udf classes again when nothing but those changed since the
+     * last analysis, as their super classes may have changed. Any other changed or new class may turn an unchanged
+     * class into a udf, then the whole jar is scanned.
+     */
+    private GitBuildCache.JarClasses analysis(String jar, File jarFile, GitBuildCache.JarClasses last) {
+        String md5 = SecureUtil.md5(jarFile);
+        if (last != null && md5.equals(last.getMd5())) {
+            addFileMsgLog(StrUtil.format("{} is unchanged, skip", jar));
+            return last;
+        }
+        Map<String, Long> classCrc = new HashMap<>();
+        try (JarFile jarEntries = new JarFile(jarFile)) {
+            jarEntries.stream()
+                    .filter(entry -> !entry.isDirectory() && entry.getName().endsWith(CLASS_SUFFIX))
+                    .forEach(entry -> classCrc.put(
+                            StrUtil.removeSuffix(entry.getName(), CLASS_SUFFIX).replace('/', '.'), entry.getCrc()));
+        } catch (IOException e) {
+            throw new DinkyException("Read jar " + jar + " failed", e);
+        }
+        boolean onlyUdfChanged = last != null
+                && classCrc.entrySet().stream()
+                        .filter(entry -> !entry.getValue().equals(last.getClassCrc().get(entry.getKey())))
+                        .allMatch(entry -> last.getUdfClasses().contains(entry.getKey()));
+        List<Class<?>> classes;
+        if (onlyUdfChanged) {
+            Set<String> lastUdfClasses = last.getUdfClasses().stream()
+                    .filter(classCrc::containsKey)
+                    .collect(Collectors.toCollection(TreeSet::new));
+            addFileMsgLog(
+                    StrUtil.format("{}: analysis {} of {} classes", jar, lastUdfClasses.size(), classCrc.size()));
+            classes = UDFUtil.getUdfClassByJar(jarFile, lastUdfClasses);
+        } else {
+            addFileMsgLog(StrUtil.format("{}: analysis all {} classes", jar, classCrc.size()));
+            classes = UDFUtil.getUdfClassByJar(jarFile);
+        }
+        List<String> udfClasses = classes.stream().map(Class::getName).sorted().collect(Collectors.toList());
+        return new GitBuildCache.JarClasses(md5, classCrc, udfClasses);
+    }
 }
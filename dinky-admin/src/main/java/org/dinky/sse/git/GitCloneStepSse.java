@@ -24,6 +24,7 @@ import org.dinky.data.model.GitProject;
 import org.dinky.sse.StepSse;
 import org.dinky.utils.GitRepository;
 
+import java.io.File;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -53,6 +54,8 @@ public class GitCloneStepSse extends StepSse {
         GitProject gitProject = (GitProject) params.get("gitProject");
 
         GitRepository gitRepository = new GitRepository(BeanUtil.toBean(gitProject, GitProjectDTO.class));
-        gitRepository.cloneAndPull(gitProject.getName(), gitProject.getBranch(), getLogFile(), this::addMsg);
+        File repositoryDir =
+                gitRepository.cloneAndPull(gitProject.getName(), gitProject.getBranch(), getLogFile(), this::addMsg);
+        params.put("commit", GitRepository.getHeadCommit(repositoryDir));
     }
 }
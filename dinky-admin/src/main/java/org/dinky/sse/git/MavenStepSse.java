@@ -21,13 +21,12 @@ package org.dinky.sse.git;
 
 import org.dinky.data.model.GitProject;
 import org.dinky.sse.StepSse;
+import org.dinky.utils.GitBuildCache;
 import org.dinky.utils.GitRepository;
 import org.dinky.utils.MavenUtil;
 
 import java.io.File;
-import java.util.Arrays;
 import java.util.List;
-import java.util.Objects;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -38,6 +37,7 @@ import cn.hutool.core.io.FileUtil;
 import cn.hutool.core.lang.Assert;
 import cn.hutool.core.lang.Dict;
 import cn.hutool.core.util.StrUtil;
+import cn.hutool.crypto.SecureUtil;
 
 /**
  * @author ZackYoung
@@ -58,30 +58,48 @@ public class MavenStepSse extends StepSse {
     @Override
     public void exec() {
         GitProject gitProject = (GitProject) params.get("gitProject");
-        File pom = FileUtil.file(GitRepository.getProjectDir(gitProject.getName()), gitProject.getBranch());
+        File sourceDir = FileUtil.file(GitRepository.getProjectDir(gitProject.getName()), gitProject.getBranch());
 
-        File buildDir = FileUtil.mkdir(
-                new File(GitRepository.getProjectBuildDir(gitProject.getName()), gitProject.getBranch()));
+        GitBuildCache buildCache = new GitBuildCache(gitProject.getName(), gitProject.getBranch());
+        GitBuildCache.SyncResult syncResult = buildCache.sync(sourceDir);
+        addFileMsgLog(StrUtil.format(
+                "sync sources: {} copied, {} deleted, {} unchanged",
+                syncResult.getCopied(),
+                syncResult.getDeleted(),
+                syncResult.getTotal() - syncResult.getCopied()));
 
-        Arrays.stream(Objects.requireNonNull(pom.listFiles(pathname -> !".git".equals(pathname.getName()))))
-                .forEach(f -> FileUtil.copy(f, buildDir, true));
-        pom = buildDir;
+        File pom = buildCache.getBuildDir();
         if (StrUtil.isNotBlank(gitProject.getPom())) {
             pom = new File(pom, gitProject.getPom());
         }
 
         Assert.isTrue(pom.exists(), "pom not exists!");
+        params.put("pom", pom);
+
+        GitBuildCache.BuildState lastBuild = buildCache.getBuildState();
+        GitBuildCache.BuildState build = new GitBuildCache.BuildState(
+                params.getStr("commit"), SecureUtil.md5(gitProject.getPom() + "\n" + gitProject.getBuildArgs()));
+        if (build.getCommit() != null && build.equals(lastBuild) && !syncResult.isChanged()) {
+            addFileMsgLog(StrUtil.format("commit {} has been built with the same arguments, skip", build.getCommit()));
+            return;
+        }
 
+        // maven builds incrementally, clean only when deleted sources may have left stale classes behind
+        List<String> goals = CollUtil.newArrayList("package");
+        if (lastBuild == null || !lastBuild.getArgs().equals(build.getArgs()) || syncResult.getDeleted() > 0) {
+            goals.add(0, "clean");
+        }
+        buildCache.clearBuildState();
         boolean state = MavenUtil.build(
                 MavenUtil.getMavenSettingsPath(),
                 pom.getAbsolutePath(),
                 null,
                 null,
                 getLogFile().getAbsolutePath(),
-                CollUtil.newArrayList("clean", "package"),
+                goals,
                 gitProject.getBuildArgs(),
                 this::addFileMsgLog);
-        params.put("pom", pom);
         Assert.isTrue(state, "maven build failed");
+        buildCache.saveBuildState(build);
     }
 }
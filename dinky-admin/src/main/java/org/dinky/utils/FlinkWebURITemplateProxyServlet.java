@@ -23,35 +23,74 @@ import org.apache.http.NameValuePair;
 import org.apache.http.client.utils.URIUtils;
 import org.apache.http.client.utils.URLEncodedUtils;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.UnsupportedEncodingException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.net.URLDecoder;
 import java.net.URLEncoder;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.Cookie;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
 
 import org.mitre.dsmiley.httpproxy.ProxyServlet;
 import org.mitre.dsmiley.httpproxy.URITemplateProxyServlet;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import cn.hutool.cache.Cache;
+import cn.hutool.cache.CacheUtil;
+
+/**
+ * Proxy of the flink web ui, embedded by dinky in an iframe.
+ *
+ * <p>The iframe is opened with {@value #FLINK_WEB_PROXY}?_authority=host:port&amp;_jid=jobId, the requests of the
+ * flink ui then go to /api/flink_web/**. Their target is resolved per request, from the _authority of the referring
+ * page, or from a cookie which the entry request sets for resources whose referrer is not the page, such as fonts
+ * loaded by a stylesheet. Requests are served concurrently through the pooled keep-alive connections of the proxy
+ * http client and the bodies are streamed, a semaphore per job manager limits the concurrent requests to one target.
+ * Static assets and overview json are cached for a short time.
+ */
 public class FlinkWebURITemplateProxyServlet extends ProxyServlet {
     protected static final Logger logger = LoggerFactory.getLogger(FlinkWebURITemplateProxyServlet.class);
 
     public static final String FLINK_WEB_PROXY = "/api/flink_web/proxy";
-    private static volatile String AUTHORITY;
+    private static final String FLINK_WEB = "/api/flink_web";
+    private static final String AUTHORITY_PARAM = "_authority";
+    private static final String AUTHORITY_COOKIE = "dinky_flink_web_authority";
+
+    private static final int MAX_CONCURRENT_PER_TARGET = 16;
+    private static final long ACQUIRE_TIMEOUT_SECONDS = 10;
+
+    private static final int MAX_CACHED_BODY = 1024 * 1024;
+    private static final long ASSET_TTL = TimeUnit.MINUTES.toMillis(5);
+    private static final long OVERVIEW_TTL = TimeUnit.SECONDS.toMillis(2);
+    private static final Pattern ASSET_PATTERN =
+            Pattern.compile(".*\\.(js|css|html|png|jpg|gif|svg|ico|woff2?|ttf|eot)$", Pattern.CASE_INSENSITIVE);
+    private static final Pattern OVERVIEW_PATTERN = Pattern.compile("^/(config|overview|jobs/overview)$");
 
     protected static final Pattern TEMPLATE_PATTERN = Pattern.compile("\\{(.+?)\\}");
     private static final String ATTR_QUERY_STRING = URITemplateProxyServlet.class.getSimpleName() + ".queryString";
 
+    private final Map<String, Semaphore> targetPermits = new ConcurrentHashMap<>();
+    private final Cache<String, CachedResponse> responseCache = CacheUtil.newLRUCache(512, ASSET_TTL);
+
     protected String targetUriTemplate; // has {name} parts
 
     @Override
@@ -63,45 +102,76 @@ public class FlinkWebURITemplateProxyServlet extends ProxyServlet {
     }
 
     @Override
-    protected synchronized void service(HttpServletRequest servletRequest, HttpServletResponse servletResponse)
+    protected void service(HttpServletRequest servletRequest, HttpServletResponse servletResponse)
             throws ServletException, IOException {
 
         if (!servletRequest.getRequestURI().contains(FLINK_WEB_PROXY)) {
             // iframe inner request
-            int i = 0;
-            while (AUTHORITY == null && i++ < 10) {
-                try {
-                    Thread.sleep(10);
-                } catch (InterruptedException e) {
-                    throw new RuntimeException(e);
-                }
-            }
-
-            if (AUTHORITY != null) {
-                service(servletRequest, servletResponse, AUTHORITY);
+            String authority = resolveAuthority(servletRequest);
+            if (authority != null) {
+                service(servletRequest, servletResponse, authority);
             } else {
-                logger.debug("AUTHORITY is null, skip service");
+                logger.debug("No flink web target of {}, skip service", servletRequest.getRequestURI());
+                servletResponse.sendError(HttpServletResponse.SC_NOT_FOUND);
             }
             return;
         }
 
+        String authority = null;
         if (Objects.equals(servletRequest.getRequestURI(), FLINK_WEB_PROXY)) {
             String queryString = getQueryString(servletRequest);
             Map<String, String> params = getParams(queryString);
             String newTargetUri = getNewTargetUri(targetUriTemplate, params);
             try {
                 URI target = new URI(newTargetUri);
-                AUTHORITY = URIUtils.extractHost(target).toString();
+                authority = URIUtils.extractHost(target).toString();
             } catch (URISyntaxException e) {
                 throw new ServletException("Rewritten targetUri is invalid: " + newTargetUri, e);
             }
+            Cookie cookie = new Cookie(AUTHORITY_COOKIE, URLEncoder.encode(authority, "UTF-8"));
+            cookie.setPath(FLINK_WEB);
+            cookie.setHttpOnly(true);
+            servletResponse.addCookie(cookie);
+        }
+
+        service(servletRequest, servletResponse, targetUriTemplate, authority);
+    }
+
+    /** The target of a request of the flink ui, taken from the page which issued it or else from the cookie. */
+    private String resolveAuthority(HttpServletRequest servletRequest) throws UnsupportedEncodingException {
+        String referer = servletRequest.getHeader("Referer");
+        if (referer != null && referer.contains(FLINK_WEB_PROXY)) {
+            try {
+                for (NameValuePair pair : URLEncodedUtils.parse(new URI(referer), "UTF-8")) {
+                    if (AUTHORITY_PARAM.equals(pair.getName()) && pair.getValue() != null) {
+                        return URIUtils.extractHost(new URI("http://" + pair.getValue())).toString();
+                    }
+                }
+            } catch (URISyntaxException e) {
+                logger.debug("Invalid referer {}", referer);
+            }
+        }
+        Cookie[] cookies = servletRequest.getCookies();
+        if (cookies != null) {
+            for (Cookie cookie : cookies) {
+                if (AUTHORITY_COOKIE.equals(cookie.getName())) {
+                    return URLDecoder.decode(cookie.getValue(), "UTF-8");
+                }
+            }
         }
+        return null;
+    }
 
-        service(servletRequest, servletResponse, targetUriTemplate);
+    private void service(HttpServletRequest servletRequest, HttpServletResponse servletResponse, String authority)
+            throws ServletException, IOException {
+        service(servletRequest, servletResponse, authority, authority);
     }
 
     private void service(
-            HttpServletRequest servletRequest, HttpServletResponse servletResponse, String targetUriTemplateCurrent)
+            HttpServletRequest servletRequest,
+            HttpServletResponse servletResponse,
+            String targetUriTemplateCurrent,
+            String authority)
             throws ServletException, IOException {
 
         String queryString = getQueryString(servletRequest);
@@ -125,13 +195,62 @@ public class FlinkWebURITemplateProxyServlet extends ProxyServlet {
         }
         servletRequest.setAttribute(ATTR_QUERY_STRING, newQueryBuf.toString());
 
+        long ttl = cacheTtl(servletRequest, authority);
+        String cacheKey = authority + servletRequest.getPathInfo() + "?" + newQueryBuf;
+        if (ttl > 0) {
+            CachedResponse cached = responseCache.get(cacheKey, false);
+            if (cached != null) {
+                cached.writeTo(servletResponse);
+                return;
+            }
+        }
+
+        Semaphore permits = targetPermits.computeIfAbsent(
+                String.valueOf(servletRequest.getAttribute(ATTR_TARGET_HOST)),
+                k -> new Semaphore(MAX_CONCURRENT_PER_TARGET));
+        try {
+            if (!permits.tryAcquire(ACQUIRE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                servletResponse.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            servletResponse.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            return;
+        }
         try {
-            super.service(servletRequest, servletResponse);
+            if (ttl > 0) {
+                CachingResponseWrapper wrapper = new CachingResponseWrapper(servletResponse);
+                super.service(servletRequest, wrapper);
+                CachedResponse response = wrapper.toCachedResponse();
+                if (response != null) {
+                    responseCache.put(cacheKey, response, ttl);
+                }
+            } else {
+                super.service(servletRequest, servletResponse);
+            }
         } catch (Exception ex) {
             logger.warn(String.format(
                     "%s origin url:%s params:%s",
                     ex.getMessage(), servletRequest.getRequestURL(), servletRequest.getQueryString()));
+        } finally {
+            permits.release();
+        }
+    }
+
+    /** How long the response may be cached, 0 if it must not be. */
+    private static long cacheTtl(HttpServletRequest servletRequest, String authority) {
+        String path = servletRequest.getPathInfo();
+        if (authority == null
+                || path == null
+                || !"GET".equals(servletRequest.getMethod())
+                || servletRequest.getHeader("Range") != null) {
+            return 0;
+        }
+        if (OVERVIEW_PATTERN.matcher(path).matches()) {
+            return OVERVIEW_TTL;
         }
+        return ASSET_PATTERN.matcher(path).matches() ? ASSET_TTL : 0;
     }
 
     private static String getNewTargetUri(String targetUriTemplateCurrent, Map<String, String> params)
@@ -185,4 +304,124 @@ public class FlinkWebURITemplateProxyServlet extends ProxyServlet {
     protected String rewriteQueryStringFromRequest(HttpServletRequest servletRequest, String queryString) {
         return (String) servletRequest.getAttribute(ATTR_QUERY_STRING);
     }
+
+    private static class CachedResponse {
+        private final int status;
+        private final List<String[]> headers;
+        private final byte[] body;
+
+        CachedResponse(int status, List<String[]> headers, byte[] body) {
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+        }
+
+        void writeTo(HttpServletResponse servletResponse) throws IOException {
+            servletResponse.setStatus(status);
+            for (String[] header : headers) {
+                servletResponse.addHeader(header[0], header[1]);
+            }
+            servletResponse.getOutputStream().write(body);
+        }
+    }
+
+    /** Streams the response to the client and keeps a copy of a small successful one to be cached. */
+    private static class CachingResponseWrapper extends HttpServletResponseWrapper {
+        private final List<String[]> headers = new ArrayList<>();
+        private final ByteArrayOutputStream copy = new ByteArrayOutputStream();
+        private int status = SC_OK;
+        private boolean tooLarge = false;
+        private ServletOutputStream outputStream;
+
+        CachingResponseWrapper(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public void setStatus(int sc) {
+            status = sc;
+            super.setStatus(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            status = sc;
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            status = sc;
+            super.sendError(sc);
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            headers.add(new String[] {name, value});
+            super.addHeader(name, value);
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            headers.removeIf(header -> header[0].equalsIgnoreCase(name));
+            headers.add(new String[] {name, value});
+            super.setHeader(name, value);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                ServletOutputStream delegate = super.getOutputStream();
+                outputStream = new ServletOutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        delegate.write(b);
+                        keep(new byte[] {(byte) b}, 0, 1);
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        delegate.write(b, off, len);
+                        keep(b, off, len);
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        delegate.flush();
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return delegate.isReady();
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener writeListener) {
+                        delegate.setWriteListener(writeListener);
+                    }
+                };
+            }
+            return outputStream;
+        }
+
+        private void keep(byte[] b, int off, int len) {
+            if (tooLarge) {
+                return;
+            }
+            if (copy.size() + len > MAX_CACHED_BODY) {
+                tooLarge = true;
+                copy.reset();
+                return;
+            }
+            copy.write(b, off, len);
+        }
+
+        CachedResponse toCachedResponse() {
+            if (status != SC_OK || tooLarge) {
+                return null;
+            }
+            headers.removeIf(header -> "Set-Cookie".equalsIgnoreCase(header[0]));
+            return new CachedResponse(status, headers, copy.toByteArray());
+        }
+    }
 }
@@ -0,0 +1,180 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.dinky.utils;
+
+import org.dinky.data.exception.DinkyException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+
+import cn.hutool.core.io.FileUtil;
+import cn.hutool.crypto.SecureUtil;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Incremental state of the build of a git project branch: the content hashes of the synced source files, the commit
+ * and arguments of the last successful build, and the udf classes found in each built jar. The state is kept beside
+ * the build directory so that maven never sees it.
+ */
+public class GitBuildCache {
+    private static final String GIT_DIR = ".git";
+    private static final String STATE_DIR = ".dinky";
+    private static final String SYNC_FILE = "sync.json";
+    private static final String BUILD_FILE = "build.json";
+    private static final String UDF_CLASS_FILE = "udf-class.json";
+
+    @Getter
+    private final File buildDir;
+
+    private final File stateDir;
+
+    public GitBuildCache(String projectName, String branch) {
+        File projectBuildDir = GitRepository.getProjectBuildDir(projectName);
+        this.buildDir = FileUtil.file(projectBuildDir, branch);
+        this.stateDir = FileUtil.file(projectBuildDir, STATE_DIR, branch);
+    }
+
+    /**
+     * Make the build directory a copy of the source directory, without .git. Only the files whose content hash
+     * differs from the last sync are copied, the files which are gone from the source are deleted.
+     */
+    public SyncResult sync(File sourceDir) {
+        Map<String, String> previous = read(SYNC_FILE, new TypeReference<Map<String, String>>() {});
+        Map<String, String> synced = previous == null ? Collections.emptyMap() : previous;
+        Map<String, String> current = new HashMap<>();
+        Path root = sourceDir.toPath();
+        int[] copied = {0};
+        try {
+            Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                    return root.equals(dir.getParent()) && GIT_DIR.equals(dir.getFileName().toString())
+                            ? FileVisitResult.SKIP_SUBTREE
+                            : FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    String path = root.relativize(file).toString().replace(File.separatorChar, '/');
+                    String hash = SecureUtil.md5(file.toFile());
+                    current.put(path, hash);
+                    File target = FileUtil.file(buildDir, path);
+                    if (!hash.equals(synced.get(path)) || !target.exists()) {
+                        FileUtil.copy(file.toFile(), target, true);
+                        copied[0]++;
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            throw new DinkyException("Sync " + sourceDir + " failed", e);
+        }
+        int deleted = 0;
+        for (String path : synced.keySet()) {
+            if (!current.containsKey(path)) {
+                FileUtil.del(FileUtil.file(buildDir, path));
+                deleted++;
+            }
+        }
+        write(SYNC_FILE, current);
+        return new SyncResult(copied[0], deleted, current.size());
+    }
+
+    /** The last successful build, null if the branch has not been built yet. */
+    public BuildState getBuildState() {
+        return read(BUILD_FILE, new TypeReference<BuildState>() {});
+    }
+
+    /** Forget the last build before a new one starts, so that a failed build is never taken as cached. */
+    public void clearBuildState() {
+        FileUtil.del(FileUtil.file(stateDir, BUILD_FILE));
+    }
+
+    public void saveBuildState(BuildState buildState) {
+        write(BUILD_FILE, buildState);
+    }
+
+    /** The udf classes found by the last analysis, keyed by jar path. */
+    public Map<String, JarClasses> getJarClasses() {
+        Map<String, JarClasses> jarClasses = read(UDF_CLASS_FILE, new TypeReference<Map<String, JarClasses>>() {});
+        return jarClasses == null ? Collections.emptyMap() : jarClasses;
+    }
+
+    public void saveJarClasses(Map<String, JarClasses> jarClasses) {
+        write(UDF_CLASS_FILE, jarClasses);
+    }
+
+    private <T> T read(String name, TypeReference<T> type) {
+        File file = FileUtil.file(stateDir, name);
+        return file.exists() ? JsonUtils.parseObject(FileUtil.readUtf8String(file), type) : null;
+    }
+
+    private void write(String name, Object value) {
+        FileUtil.writeUtf8String(JsonUtils.toJsonString(value), FileUtil.file(stateDir, name));
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class SyncResult {
+        private final int copied;
+        private final int deleted;
+        private final int total;
+
+        public boolean isChanged() {
+            return copied > 0 || deleted > 0;
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BuildState {
+        /** Commit of the built sources */
+        private String commit;
+        /** Hash of the pom path and the build arguments */
+        private String args;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class JarClasses {
+        /** Md5 of the jar */
+        private String md5;
+        /** Crc of each class of the jar, keyed by class name */
+        private Map<String, Long> classCrc;
+        /** Names of the udf classes of the jar */
+        private List<String> udfClasses;
+    }
+}
@@ -26,6 +26,7 @@ import org.dinky.function.constant.PathConstant;
 import java.io.File;
 import java.io.StringWriter;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.function.Consumer;
 
@@ -36,6 +37,8 @@ import org.eclipse.jgit.api.PullCommand;
 import org.eclipse.jgit.api.TransportCommand;
 import org.eclipse.jgit.api.TransportConfigCallback;
 import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.lib.TextProgressMonitor;
 import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
@@ -98,8 +101,13 @@ public class GitRepository {
 
         try {
 
-            CloneCommand cloneCommand =
-                    Git.cloneRepository().setURI(url).setBranch(branch).setDirectory(writeFile);
+            // only the built branch is cloned, later builds pull the new commits of it
+            CloneCommand cloneCommand = Git.cloneRepository()
+                    .setURI(url)
+                    .setBranch(branch)
+                    .setCloneAllBranches(false)
+                    .setBranchesToClone(Collections.singletonList(BRANCH_PREFIX + branch))
+                    .setDirectory(writeFile);
             initCommand(cloneCommand);
 
             if (writeFile.exists()) {
@@ -140,6 +148,27 @@ public class GitRepository {
         }
     }
 
+    /**
+     * 获取本地仓库当前检出的提交
+     *
+     * @param repositoryDir 本地仓库目录
+     * @return commit id, 仓库不存在时返回 null
+     */
+    public static String getHeadCommit(File repositoryDir) {
+        File gitDir = new File(repositoryDir, Constants.DOT_GIT);
+        if (!gitDir.exists()) {
+            return null;
+        }
+        try (Repository repository =
+                new FileRepositoryBuilder().setGitDir(gitDir).readEnvironment().build()) {
+            ObjectId head = repository.resolve(Constants.HEAD);
+            return head == null ? null : head.getName();
+        } catch (Exception e) {
+            log.warn("Resolve head of {} failed", repositoryDir, e);
+            return null;
+        }
+    }
+
     public static File getProjectDir(String projectName) {
         return FileUtil.file(PathConstant.TMP_PATH, "git", projectName);
     }
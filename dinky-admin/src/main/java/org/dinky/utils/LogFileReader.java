@@ -0,0 +1,277 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.dinky.utils;
+
+import org.dinky.data.exception.BusException;
+import org.dinky.data.model.LogChunk;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import cn.hutool.cache.Cache;
+import cn.hutool.cache.CacheUtil;
+import cn.hutool.core.util.StrUtil;
+
+/**
+ * Read parts of a log file without loading the whole file: byte ranges, the last lines, and the lines starting at a
+ * given time. Lines are located through a sparse offset index which is built lazily and extended as the file grows.
+ */
+public class LogFileReader {
+
+    public static final int DEFAULT_CHUNK_SIZE = 1024 * 1024;
+    public static final int MAX_CHUNK_SIZE = 8 * 1024 * 1024;
+
+    private static final int BLOCK_SIZE = 64 * 1024;
+    private static final long INDEX_INTERVAL = 1024 * 1024;
+    private static final Pattern TIMESTAMP_PATTERN =
+            Pattern.compile("(\\d{4}-\\d{2}-\\d{2})[ T](\\d{2}:\\d{2}:\\d{2})");
+    private static final Cache<String, OffsetIndex> INDEX_CACHE = CacheUtil.newLRUCache(64);
+
+    private LogFileReader() {}
+
+    /**
+     * Read up to maxBytes from offset. The chunk ends at a line break so that no line is split, if the offset is
+     * beyond the end of the file the file is considered rotated and read from the start.
+     */
+    public static LogChunk readRange(File file, long offset, int maxBytes) {
+        checkFile(file);
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            long size = raf.length();
+            long start = offset < 0 || offset > size ? 0 : offset;
+            long end = Math.min(size, start + limit(maxBytes));
+            byte[] bytes = read(raf, start, end);
+            int length = bytes.length;
+            int lastBreak = lastIndexOf(bytes, length, (byte) '\n');
+            if (lastBreak >= 0) {
+                length = lastBreak + 1;
+            } else if (end < start + limit(maxBytes)) {
+                // an incomplete line at the end of the file, wait for the rest of it
+                length = 0;
+            }
+            return new LogChunk(new String(bytes, 0, length, StandardCharsets.UTF_8), start, start + length, size);
+        } catch (IOException e) {
+            throw new BusException(StrUtil.format("Read file {} failed: {}", file.getPath(), e.getMessage()));
+        }
+    }
+
+    /** Read the last lines of the file, scanning backwards block by block from the end. */
+    public static LogChunk tail(File file, int lines, int maxBytes) {
+        checkFile(file);
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            long size = raf.length();
+            long lowest = Math.max(0, size - limit(maxBytes));
+            long start = lowest;
+            byte[] block = new byte[BLOCK_SIZE];
+            int breaks = 0;
+            long pos = size;
+            scan:
+            while (pos > lowest) {
+                int len = (int) Math.min(BLOCK_SIZE, pos - lowest);
+                pos -= len;
+                raf.seek(pos);
+                raf.readFully(block, 0, len);
+                for (int i = len - 1; i >= 0; i--) {
+                    // the line break that terminates the last line does not start a new line
+                    if (block[i] == '\n' && pos + i != size - 1 && ++breaks >= lines) {
+                        start = pos + i + 1;
+                        break scan;
+                    }
+                }
+            }
+            if (start == lowest && lowest > 0) {
+                start = nextLineStart(raf, lowest, size);
+            }
+            byte[] bytes = read(raf, start, size);
+            return new LogChunk(new String(bytes, StandardCharsets.UTF_8), start, size, size);
+        } catch (IOException e) {
+            throw new BusException(StrUtil.format("Read file {} failed: {}", file.getPath(), e.getMessage()));
+        }
+    }
+
+    /**
+     * Read the lines starting at the first line logged at or after the given time.
+     *
+     * @param time time prefix of a log line, for example 2024-01-01 12:00:00
+     */
+    public static LogChunk readFromTime(File file, String time, int maxBytes) {
+        checkFile(file);
+        String target = normalizeTime(time);
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            OffsetIndex index = INDEX_CACHE.get(file.getCanonicalPath(), OffsetIndex::new);
+            long from = index.floor(raf, target);
+            long offset = seekLine(raf, from, target);
+            return readRange(file, offset, maxBytes);
+        } catch (IOException e) {
+            throw new BusException(StrUtil.format("Read file {} failed: {}", file.getPath(), e.getMessage()));
+        }
+    }
+
+    private static void checkFile(File file) {
+        if (!file.isFile()) {
+            throw new BusException(StrUtil.format("File path {} is not a file.", file.getPath()));
+        }
+    }
+
+    private static int limit(int maxBytes) {
+        return maxBytes <= 0 ? DEFAULT_CHUNK_SIZE : Math.min(maxBytes, MAX_CHUNK_SIZE);
+    }
+
+    private static byte[] read(RandomAccessFile raf, long start, long end) throws IOException {
+        byte[] bytes = new byte[(int) Math.max(0, end - start)];
+        raf.seek(start);
+        raf.readFully(bytes);
+        return bytes;
+    }
+
+    private static int lastIndexOf(byte[] bytes, int length, byte b) {
+        for (int i = length - 1; i >= 0; i--) {
+            if (bytes[i] == b) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static long nextLineStart(RandomAccessFile raf, long pos, long size) throws IOException {
+        if (pos == 0) {
+            return 0;
+        }
+        byte[] block = new byte[BLOCK_SIZE];
+        long current = pos - 1;
+        while (current < size) {
+            int len = (int) Math.min(BLOCK_SIZE, size - current);
+            raf.seek(current);
+            raf.readFully(block, 0, len);
+            for (int i = 0; i < len; i++) {
+                if (block[i] == '\n') {
+                    return current + i + 1;
+                }
+            }
+            current += len;
+        }
+        return size;
+    }
+
+    private static String normalizeTime(String time) {
+        Matcher matcher = TIMESTAMP_PATTERN.matcher(StrUtil.nullToEmpty(time));
+        if (!matcher.find()) {
+            throw new BusException(StrUtil.format("Invalid time {}, expect yyyy-MM-dd HH:mm:ss.", time));
+        }
+        return matcher.group(1) + " " + matcher.group(2);
+    }
+
+    /** The timestamp at the head of a log line, null for lines without one such as stack traces. */
+    private static String lineTime(byte[] bytes, int from, int to) {
+        int end = Math.min(to, from + 64);
+        Matcher matcher = TIMESTAMP_PATTERN.matcher(new String(bytes, from, end - from, StandardCharsets.ISO_8859_1));
+        return matcher.find() ? matcher.group(1) + " " + matcher.group(2) : null;
+    }
+
+    /** Find the offset of the first line at or after from whose time is not before target. */
+    private static long seekLine(RandomAccessFile raf, long from, String target) throws IOException {
+        long size = raf.length();
+        long pos = from;
+        byte[] block = new byte[BLOCK_SIZE];
+        while (pos < size) {
+            int len = (int) Math.min(BLOCK_SIZE, size - pos);
+            raf.seek(pos);
+            raf.readFully(block, 0, len);
+            int lineStart = 0;
+            for (int i = 0; i < len; i++) {
+                if (block[i] != '\n') {
+                    continue;
+                }
+                String lineTime = lineTime(block, lineStart, i);
+                if (lineTime != null && lineTime.compareTo(target) >= 0) {
+                    return pos + lineStart;
+                }
+                lineStart = i + 1;
+            }
+            if (lineStart == 0) {
+                // a single line longer than a block
+                lineStart = len;
+            }
+            pos += lineStart;
+        }
+        return size;
+    }
+
+    /** Sparse index of (line offset, line time), one entry about every {@link #INDEX_INTERVAL} bytes. */
+    private static class OffsetIndex {
+        private final List<Long> offsets = new ArrayList<>();
+        private final List<String> times = new ArrayList<>();
+        private long indexedSize;
+
+        /** The offset of the last indexed line logged before target. */
+        synchronized long floor(RandomAccessFile raf, String target) throws IOException {
+            update(raf);
+            int low = 0;
+            int high = times.size() - 1;
+            long result = 0;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (times.get(mid).compareTo(target) < 0) {
+                    result = offsets.get(mid);
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return result;
+        }
+
+        private void update(RandomAccessFile raf) throws IOException {
+            long size = raf.length();
+            if (size < indexedSize) {
+                // the file has been truncated or rotated
+                offsets.clear();
+                times.clear();
+                indexedSize = 0;
+            }
+            byte[] block = new byte[BLOCK_SIZE];
+            while (indexedSize + INDEX_INTERVAL <= size) {
+                long lineStart = nextLineStart(raf, indexedSize, size);
+                int len = (int) Math.min(BLOCK_SIZE, size - lineStart);
+                raf.seek(lineStart);
+                raf.readFully(block, 0, len);
+                int from = 0;
+                for (int i = 0; i < len; i++) {
+                    if (block[i] != '\n') {
+                        continue;
+                    }
+                    String time = lineTime(block, from, i);
+                    if (time != null) {
+                        offsets.add(lineStart + from);
+                        times.add(time);
+                        break;
+                    }
+                    from = i + 1;
+                }
+                indexedSize += INDEX_INTERVAL;
+            }
+        }
+    }
+}
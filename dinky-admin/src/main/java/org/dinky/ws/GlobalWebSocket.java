@@ -22,6 +22,7 @@ package org.dinky.ws;
 import org.dinky.assertion.Asserts;
 import org.dinky.data.vo.SseDataVo;
 import org.dinky.utils.JsonUtils;
+import org.dinky.utils.MeterUtil;
 import org.dinky.utils.ThreadUtil;
 import org.dinky.ws.topic.BaseTopic;
 
@@ -32,6 +33,7 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import javax.websocket.OnClose;
 import javax.websocket.OnError;
@@ -57,6 +59,10 @@ public class GlobalWebSocket {
             Executors.newFixedThreadPool(GlobalWebSocketTopic.values().length);
     private static boolean isRunning = true;
 
+    static {
+        MeterUtil.monitor(executorService, "websocket-topic");
+    }
+
     public GlobalWebSocket() {
         for (GlobalWebSocketTopic value : GlobalWebSocketTopic.values()) {
             executorService.execute(() -> {
@@ -163,7 +169,7 @@ public class GlobalWebSocket {
                     SseDataVo data = new SseDataVo(
                             session.getId(), topic.name(), params == null ? result.get(BaseTopic.NONE_PARAMS) : result);
 
-                    session.getBasicRemote().sendText(JsonUtils.toJsonString(data));
+                    send(session, topic, data);
 
                 } catch (Exception e) {
                     log.error("Error sending sse data:{}", e.getMessage());
@@ -187,11 +193,21 @@ public class GlobalWebSocket {
                 Map<String, Object> sendData = new HashMap<>();
                 params.forEach(p -> sendData.put(p, paramsAndData.get(p)));
                 SseDataVo sseDataVo = new SseDataVo(session.getId(), topic.name(), sendData);
-                session.getBasicRemote().sendText(JsonUtils.toJsonString(sseDataVo));
+                send(session, topic, sseDataVo);
             } catch (IOException e) {
                 log.error("Error sending sse data:{}", e.getMessage());
                 SpringUtil.getBean(GlobalWebSocket.class).onError(session, e);
             }
         });
     }
+
+    private static void send(Session session, GlobalWebSocketTopic topic, SseDataVo data) throws IOException {
+        long start = System.nanoTime();
+        try {
+            session.getBasicRemote().sendText(JsonUtils.toJsonString(data));
+        } finally {
+            MeterUtil.timer(MeterUtil.WEBSOCKET_SEND, MeterUtil.TAG_TOPIC, topic.name())
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
 }
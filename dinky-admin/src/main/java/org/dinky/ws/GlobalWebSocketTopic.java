@@ -20,6 +20,7 @@
 package org.dinky.ws;
 
 import org.dinky.ws.topic.BaseTopic;
+import org.dinky.ws.topic.JobSubmit;
 import org.dinky.ws.topic.JvmInfo;
 import org.dinky.ws.topic.Metrics;
 import org.dinky.ws.topic.PrintTable;
@@ -37,6 +38,7 @@ public enum GlobalWebSocketTopic {
     PRINT_TABLE("PRINT_TABLE", PrintTable.INSTANCE, Integer.MAX_VALUE),
     METRICS("METRICS", Metrics.INSTANCE, Integer.MAX_VALUE),
     TASK_RUN_INSTANCE("TASK_RUN_INSTANCE", TaskRunInstance.INSTANCE, 1000),
+    JOB_SUBMIT("JOB_SUBMIT", JobSubmit.INSTANCE, Integer.MAX_VALUE),
     ;
     private final String topic;
     private final BaseTopic instance;
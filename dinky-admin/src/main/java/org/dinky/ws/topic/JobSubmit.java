@@ -0,0 +1,66 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.dinky.ws.topic;
+
+import static org.dinky.ws.GlobalWebSocket.sendTopic;
+
+import org.dinky.job.JobSubmitQueue;
+import org.dinky.job.JobSubmitTicket;
+import org.dinky.ws.GlobalWebSocketTopic;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import cn.hutool.core.map.MapUtil;
+import cn.hutool.extra.spring.SpringUtil;
+import lombok.extern.slf4j.Slf4j;
+
+/** Pushes the changes of queued task submissions, subscribe with the ticket ids. */
+@Slf4j
+public class JobSubmit extends BaseTopic {
+    public static final JobSubmit INSTANCE = new JobSubmit();
+
+    private JobSubmit() {}
+
+    public void send(JobSubmitTicket ticket) {
+        try {
+            Map<String, Object> result =
+                    MapUtil.<String, Object>builder().put(ticket.getTicketId(), ticket).build();
+            sendTopic(GlobalWebSocketTopic.JOB_SUBMIT, result);
+        } catch (Exception e) {
+            log.error("send message failed: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public Map<String, Object> autoDataSend(Set<String> allParams) {
+        return new HashMap<>();
+    }
+
+    @Override
+    public Map<String, Object> firstDataSend(Set<String> allParams) {
+        Map<String, Object> result = new HashMap<>();
+        SpringUtil.getBean(JobSubmitQueue.class)
+                .getTickets(allParams)
+                .forEach(ticket -> result.put(ticket.getTicketId(), ticket));
+        return result;
+    }
+}
@@ -25,6 +25,7 @@ import org.dinky.service.impl.PrintTableServiceImpl;
 import org.dinky.ws.GlobalWebSocketTopic;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -40,12 +41,10 @@ public class PrintTable extends BaseTopic {
         printer.start();
     }
 
-    public void send(String message) {
+    public void send(String printIdentifier, List<String> rows) {
         try {
-            String[] data = message.split("\n", 2);
-
             Map<String, Object> result =
-                    MapUtil.<String, Object>builder().put(data[0], data[1]).build();
+                    MapUtil.<String, Object>builder().put(printIdentifier, rows).build();
             sendTopic(GlobalWebSocketTopic.PRINT_TABLE, result);
         } catch (Exception e) {
             log.error("send message failed: {}", e.getMessage());
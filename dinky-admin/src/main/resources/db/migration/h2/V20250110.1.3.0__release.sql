@@ -0,0 +1,12 @@
+-- Job history json sections, a save only rewrites the sections whose content hash changed
+CREATE TABLE IF NOT EXISTS `dinky_job_history_section` (
+    `id` int(11) NOT null AUTO_INCREMENT COMMENT 'id',
+    `job_history_id` int(11) NOT null COMMENT 'job history id',
+    `section` varchar(64) NOT null COMMENT 'job history field name',
+    `content_hash` varchar(32) NOT null COMMENT 'md5 of the json content',
+    `compressed` tinyint(1) NOT null DEFAULT 0 COMMENT 'whether the content is gzip compressed and base64 encoded',
+    `content` longtext null COMMENT 'json content',
+    `update_time` datetime(0) null DEFAULT null COMMENT 'update time',
+    PRIMARY KEY (`id`),
+    UNIQUE KEY `job_history_section_un_idx1` (`job_history_id`, `section`)
+) ENGINE = InnoDB ROW_FORMAT = Dynamic;
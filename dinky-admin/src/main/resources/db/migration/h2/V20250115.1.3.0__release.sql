@@ -0,0 +1,17 @@
+-- Admin nodes taking part in job monitoring, see dinky.job-monitor.sharding-enabled
+CREATE TABLE IF NOT EXISTS `dinky_job_monitor_node` (
+    `node_id` varchar(128) NOT null COMMENT 'node id',
+    `host` varchar(255) null DEFAULT null COMMENT 'host of the node',
+    `heartbeat_time` bigint NOT null COMMENT 'epoch millis of the last heartbeat',
+    PRIMARY KEY (`node_id`)
+) ENGINE = InnoDB ROW_FORMAT = Dynamic;
+
+-- Job instances monitored by each admin node, the epoch fences a node whose lease was taken over
+CREATE TABLE IF NOT EXISTS `dinky_job_monitor_lease` (
+    `job_instance_id` int(11) NOT null COMMENT 'job instance id',
+    `task_id` int(11) null DEFAULT null COMMENT 'task id',
+    `owner` varchar(128) NOT null COMMENT 'id of the node holding the lease',
+    `epoch` bigint NOT null DEFAULT 1 COMMENT 'fencing token, increased on every change of owner',
+    `expire_time` bigint NOT null COMMENT 'epoch millis after which another node may take the lease over',
+    PRIMARY KEY (`job_instance_id`)
+) ENGINE = InnoDB ROW_FORMAT = Dynamic;
@@ -0,0 +1,15 @@
+-- Indexes of the keyset pagination of the job instance, history, operate log and alert history lists. Each one is
+-- made of the filters of a list followed by its sort column and id, see the ProTableFields of the services
+CREATE INDEX IF NOT EXISTS `job_instance_task_idx2` ON `dinky_job_instance` (`tenant_id`, `task_id`, `id`);
+CREATE INDEX IF NOT EXISTS `job_instance_status_idx1` ON `dinky_job_instance` (`tenant_id`, `status`, `id`);
+CREATE INDEX IF NOT EXISTS `job_instance_create_time_idx1` ON `dinky_job_instance` (`tenant_id`, `create_time`, `id`);
+CREATE INDEX IF NOT EXISTS `job_instance_update_time_idx1` ON `dinky_job_instance` (`tenant_id`, `update_time`, `id`);
+CREATE INDEX IF NOT EXISTS `job_instance_step_idx1` ON `dinky_job_instance` (`tenant_id`, `step`, `id`);
+CREATE INDEX IF NOT EXISTS `job_instance_name_idx1` ON `dinky_job_instance` (`tenant_id`, `name`, `id`);
+CREATE INDEX IF NOT EXISTS `job_instance_jid_idx1` ON `dinky_job_instance` (`tenant_id`, `jid`, `id`);
+CREATE INDEX IF NOT EXISTS `history_task_idx2` ON `dinky_history` (`tenant_id`, `task_id`, `id`);
+CREATE INDEX IF NOT EXISTS `history_task_status_idx1` ON `dinky_history` (`tenant_id`, `task_id`, `status`, `id`);
+CREATE INDEX IF NOT EXISTS `operate_log_user_idx1` ON `dinky_sys_operate_log` (`operate_user_id`, `id`);
+CREATE INDEX IF NOT EXISTS `operate_log_user_status_idx1` ON `dinky_sys_operate_log` (`operate_user_id`, `status`, `id`);
+CREATE INDEX IF NOT EXISTS `alert_history_job_instance_idx1` ON `dinky_alert_history` (`tenant_id`, `job_instance_id`, `id`);
+CREATE INDEX IF NOT EXISTS `alert_history_create_time_idx1` ON `dinky_alert_history` (`tenant_id`, `create_time`, `id`);
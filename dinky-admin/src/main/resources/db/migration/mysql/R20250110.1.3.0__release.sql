@@ -0,0 +1,8 @@
+# note: Rolling back SQL statements is only necessary to perform a rollback operation in the event of an automatic upgrade failure. The following SQL statements need to be manually executed
+
+SET NAMES utf8mb4;
+SET FOREIGN_KEY_CHECKS = 0;
+
+DROP TABLE IF EXISTS `dinky_job_history_section`;
+
+SET FOREIGN_KEY_CHECKS = 1;
@@ -0,0 +1,19 @@
+# note: Rolling back SQL statements is only necessary to perform a rollback operation in the event of an automatic upgrade failure. The following SQL statements need to be manually executed
+
+SET NAMES utf8mb4;
+SET FOREIGN_KEY_CHECKS = 0;
+
+call drop_index_if_exists('dinky_job_instance', 'job_instance_task_idx2');
+call drop_index_if_exists('dinky_job_instance', 'job_instance_status_idx1');
+call drop_index_if_exists('dinky_job_instance', 'job_instance_create_time_idx1');
+call drop_index_if_exists('dinky_job_instance', 'job_instance_update_time_idx1');
+call drop_index_if_exists('dinky_job_instance', 'job_instance_step_idx1');
+call drop_index_if_exists('dinky_job_instance', 'job_instance_jid_idx1');
+call drop_index_if_exists('dinky_history', 'history_task_idx2');
+call drop_index_if_exists('dinky_history', 'history_task_status_idx1');
+call drop_index_if_exists('dinky_sys_operate_log', 'operate_log_user_idx1');
+call drop_index_if_exists('dinky_sys_operate_log', 'operate_log_user_status_idx1');
+call drop_index_if_exists('dinky_alert_history', 'alert_history_job_instance_idx1');
+call drop_index_if_exists('dinky_alert_history', 'alert_history_create_time_idx1');
+
+SET FOREIGN_KEY_CHECKS = 1;
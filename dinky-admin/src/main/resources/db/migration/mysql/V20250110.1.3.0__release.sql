@@ -0,0 +1,17 @@
+SET NAMES utf8mb4;
+SET FOREIGN_KEY_CHECKS = 0;
+
+-- Job history json sections, a save only rewrites the sections whose content hash changed
+CREATE TABLE IF NOT EXISTS `dinky_job_history_section` (
+    `id` int(11) NOT NULL AUTO_INCREMENT COMMENT 'id',
+    `job_history_id` int(11) NOT NULL COMMENT 'job history id',
+    `section` varchar(64) NOT NULL COMMENT 'job history field name',
+    `content_hash` varchar(32) NOT NULL COMMENT 'md5 of the json content',
+    `compressed` tinyint(1) NOT NULL DEFAULT 0 COMMENT 'whether the content is gzip compressed and base64 encoded',
+    `content` longtext NULL COMMENT 'json content',
+    `update_time` datetime(0) DEFAULT NULL COMMENT 'update time',
+    PRIMARY KEY (`id`) USING BTREE,
+    UNIQUE KEY `job_history_section_un_idx1` (`job_history_id`, `section`)
+) ENGINE = InnoDB CHARACTER SET = utf8mb4 COLLATE = utf8mb4_general_ci COMMENT = 'Job history sections' ROW_FORMAT = Dynamic;
+
+SET FOREIGN_KEY_CHECKS = 1;
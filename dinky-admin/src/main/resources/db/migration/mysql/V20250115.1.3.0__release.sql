@@ -0,0 +1,24 @@
+SET NAMES utf8mb4;
+SET FOREIGN_KEY_CHECKS = 0;
+
+-- Admin nodes taking part in job monitoring, see dinky.job-monitor.sharding-enabled
+CREATE TABLE IF NOT EXISTS `dinky_job_monitor_node` (
+    `node_id` varchar(128) NOT NULL COMMENT 'node id',
+    `host` varchar(255) DEFAULT NULL COMMENT 'host of the node',
+    `heartbeat_time` bigint NOT NULL COMMENT 'epoch millis of the last heartbeat',
+    PRIMARY KEY (`node_id`) USING BTREE,
+    KEY `job_monitor_node_idx1` (`heartbeat_time`)
+) ENGINE = InnoDB CHARACTER SET = utf8mb4 COLLATE = utf8mb4_general_ci COMMENT = 'Job monitor nodes' ROW_FORMAT = Dynamic;
+
+-- Job instances monitored by each admin node, the epoch fences a node whose lease was taken over
+CREATE TABLE IF NOT EXISTS `dinky_job_monitor_lease` (
+    `job_instance_id` int(11) NOT NULL COMMENT 'job instance id',
+    `task_id` int(11) DEFAULT NULL COMMENT 'task id',
+    `owner` varchar(128) NOT NULL COMMENT 'id of the node holding the lease',
+    `epoch` bigint NOT NULL DEFAULT 1 COMMENT 'fencing token, increased on every change of owner',
+    `expire_time` bigint NOT NULL COMMENT 'epoch millis after which another node may take the lease over',
+    PRIMARY KEY (`job_instance_id`) USING BTREE,
+    KEY `job_monitor_lease_idx1` (`owner`)
+) ENGINE = InnoDB CHARACTER SET = utf8mb4 COLLATE = utf8mb4_general_ci COMMENT = 'Job monitor leases' ROW_FORMAT = Dynamic;
+
+SET FOREIGN_KEY_CHECKS = 1;
@@ -0,0 +1,32 @@
+SET NAMES utf8mb4;
+SET FOREIGN_KEY_CHECKS = 0;
+
+-- Indexes of the keyset pagination of the job instance, history, operate log and alert history lists. Each one is
+-- made of the filters of a list followed by its sort column and id, see the ProTableFields of the services
+call drop_index_if_exists('dinky_job_instance', 'job_instance_task_idx2');
+CREATE INDEX `job_instance_task_idx2` ON `dinky_job_instance` (`tenant_id`, `task_id`, `id`) USING BTREE;
+call drop_index_if_exists('dinky_job_instance', 'job_instance_status_idx1');
+CREATE INDEX `job_instance_status_idx1` ON `dinky_job_instance` (`tenant_id`, `status`, `id`) USING BTREE;
+call drop_index_if_exists('dinky_job_instance', 'job_instance_create_time_idx1');
+CREATE INDEX `job_instance_create_time_idx1` ON `dinky_job_instance` (`tenant_id`, `create_time`, `id`) USING BTREE;
+call drop_index_if_exists('dinky_job_instance', 'job_instance_update_time_idx1');
+CREATE INDEX `job_instance_update_time_idx1` ON `dinky_job_instance` (`tenant_id`, `update_time`, `id`) USING BTREE;
+-- the name prefix filter is served by job_instance_un_idx1 (tenant_id, name, ...)
+call drop_index_if_exists('dinky_job_instance', 'job_instance_step_idx1');
+CREATE INDEX `job_instance_step_idx1` ON `dinky_job_instance` (`tenant_id`, `step`, `id`) USING BTREE;
+call drop_index_if_exists('dinky_job_instance', 'job_instance_jid_idx1');
+CREATE INDEX `job_instance_jid_idx1` ON `dinky_job_instance` (`tenant_id`, `jid`, `id`) USING BTREE;
+call drop_index_if_exists('dinky_history', 'history_task_idx2');
+CREATE INDEX `history_task_idx2` ON `dinky_history` (`tenant_id`, `task_id`, `id`) USING BTREE;
+call drop_index_if_exists('dinky_history', 'history_task_status_idx1');
+CREATE INDEX `history_task_status_idx1` ON `dinky_history` (`tenant_id`, `task_id`, `status`, `id`) USING BTREE;
+call drop_index_if_exists('dinky_sys_operate_log', 'operate_log_user_idx1');
+CREATE INDEX `operate_log_user_idx1` ON `dinky_sys_operate_log` (`operate_user_id`, `id`) USING BTREE;
+call drop_index_if_exists('dinky_sys_operate_log', 'operate_log_user_status_idx1');
+CREATE INDEX `operate_log_user_status_idx1` ON `dinky_sys_operate_log` (`operate_user_id`, `status`, `id`) USING BTREE;
+call drop_index_if_exists('dinky_alert_history', 'alert_history_job_instance_idx1');
+CREATE INDEX `alert_history_job_instance_idx1` ON `dinky_alert_history` (`tenant_id`, `job_instance_id`, `id`) USING BTREE;
+call drop_index_if_exists('dinky_alert_history', 'alert_history_create_time_idx1');
+CREATE INDEX `alert_history_create_time_idx1` ON `dinky_alert_history` (`tenant_id`, `create_time`, `id`) USING BTREE;
+
+SET FOREIGN_KEY_CHECKS = 1;
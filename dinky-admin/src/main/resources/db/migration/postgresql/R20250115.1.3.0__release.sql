@@ -0,0 +1,4 @@
+-- note: Rolling back SQL statements is only necessary to perform a rollback operation in the event of an automatic upgrade failure. The following SQL statements need to be manually executed
+
+DROP TABLE IF EXISTS public.dinky_job_monitor_node;
+DROP TABLE IF EXISTS public.dinky_job_monitor_lease;
@@ -0,0 +1,15 @@
+-- note: Rolling back SQL statements is only necessary to perform a rollback operation in the event of an automatic upgrade failure. The following SQL statements need to be manually executed
+
+SELECT public.drop_index_if_exists('public', 'job_instance_task_idx2', 'dinky_job_instance');
+SELECT public.drop_index_if_exists('public', 'job_instance_status_idx1', 'dinky_job_instance');
+SELECT public.drop_index_if_exists('public', 'job_instance_create_time_idx1', 'dinky_job_instance');
+SELECT public.drop_index_if_exists('public', 'job_instance_update_time_idx1', 'dinky_job_instance');
+SELECT public.drop_index_if_exists('public', 'job_instance_step_idx1', 'dinky_job_instance');
+SELECT public.drop_index_if_exists('public', 'job_instance_name_idx1', 'dinky_job_instance');
+SELECT public.drop_index_if_exists('public', 'job_instance_jid_idx1', 'dinky_job_instance');
+SELECT public.drop_index_if_exists('public', 'history_task_idx2', 'dinky_history');
+SELECT public.drop_index_if_exists('public', 'history_task_status_idx1', 'dinky_history');
+SELECT public.drop_index_if_exists('public', 'operate_log_user_idx1', 'dinky_sys_operate_log');
+SELECT public.drop_index_if_exists('public', 'operate_log_user_status_idx1', 'dinky_sys_operate_log');
+SELECT public.drop_index_if_exists('public', 'alert_history_job_instance_idx1', 'dinky_alert_history');
+SELECT public.drop_index_if_exists('public', 'alert_history_create_time_idx1', 'dinky_alert_history');
@@ -0,0 +1,22 @@
+-- Job history json sections, a save only rewrites the sections whose content hash changed
+CREATE TABLE IF NOT EXISTS public.dinky_job_history_section
+(
+    id             SERIAL PRIMARY KEY NOT NULL,
+    job_history_id INT                NOT NULL,
+    section        VARCHAR(64)        NOT NULL,
+    content_hash   VARCHAR(32)        NOT NULL,
+    compressed     BOOLEAN            NOT NULL DEFAULT false,
+    content        TEXT               NULL,
+    update_time    TIMESTAMP          NULL
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS job_history_section_un_idx1 ON public.dinky_job_history_section (job_history_id, section);
+
+COMMENT ON TABLE public.dinky_job_history_section IS 'Job history sections';
+COMMENT ON COLUMN public.dinky_job_history_section.id IS 'id';
+COMMENT ON COLUMN public.dinky_job_history_section.job_history_id IS 'job history id';
+COMMENT ON COLUMN public.dinky_job_history_section.section IS 'job history field name';
+COMMENT ON COLUMN public.dinky_job_history_section.content_hash IS 'md5 of the json content';
+COMMENT ON COLUMN public.dinky_job_history_section.compressed IS 'whether the content is gzip compressed and base64 encoded';
+COMMENT ON COLUMN public.dinky_job_history_section.content IS 'json content';
+COMMENT ON COLUMN public.dinky_job_history_section.update_time IS 'update time';
@@ -0,0 +1,33 @@
+-- Admin nodes taking part in job monitoring, see dinky.job-monitor.sharding-enabled
+CREATE TABLE IF NOT EXISTS public.dinky_job_monitor_node
+(
+    node_id        VARCHAR(128) PRIMARY KEY NOT NULL,
+    host           VARCHAR(255)             NULL,
+    heartbeat_time BIGINT                   NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS job_monitor_node_idx1 ON public.dinky_job_monitor_node (heartbeat_time);
+
+COMMENT ON TABLE public.dinky_job_monitor_node IS 'Job monitor nodes';
+COMMENT ON COLUMN public.dinky_job_monitor_node.node_id IS 'node id';
+COMMENT ON COLUMN public.dinky_job_monitor_node.host IS 'host of the node';
+COMMENT ON COLUMN public.dinky_job_monitor_node.heartbeat_time IS 'epoch millis of the last heartbeat';
+
+-- Job instances monitored by each admin node, the epoch fences a node whose lease was taken over
+CREATE TABLE IF NOT EXISTS public.dinky_job_monitor_lease
+(
+    job_instance_id INT PRIMARY KEY NOT NULL,
+    task_id         INT             NULL,
+    owner           VARCHAR(128)    NOT NULL,
+    epoch           BIGINT          NOT NULL DEFAULT 1,
+    expire_time     BIGINT          NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS job_monitor_lease_idx1 ON public.dinky_job_monitor_lease (owner);
+
+COMMENT ON TABLE public.dinky_job_monitor_lease IS 'Job monitor leases';
+COMMENT ON COLUMN public.dinky_job_monitor_lease.job_instance_id IS 'job instance id';
+COMMENT ON COLUMN public.dinky_job_monitor_lease.task_id IS 'task id';
+COMMENT ON COLUMN public.dinky_job_monitor_lease.owner IS 'id of the node holding the lease';
+COMMENT ON COLUMN public.dinky_job_monitor_lease.epoch IS 'fencing token, increased on every change of owner';
+COMMENT ON COLUMN public.dinky_job_monitor_lease.expire_time IS 'epoch millis after which another node may take the lease over';
@@ -0,0 +1,16 @@
+-- Indexes of the keyset pagination of the job instance, history, operate log and alert history lists. Each one is
+-- made of the filters of a list followed by its sort column and id, see the ProTableFields of the services
+CREATE INDEX IF NOT EXISTS job_instance_task_idx2 ON public.dinky_job_instance (tenant_id, task_id, id);
+CREATE INDEX IF NOT EXISTS job_instance_status_idx1 ON public.dinky_job_instance (tenant_id, status, id);
+CREATE INDEX IF NOT EXISTS job_instance_create_time_idx1 ON public.dinky_job_instance (tenant_id, create_time, id);
+CREATE INDEX IF NOT EXISTS job_instance_update_time_idx1 ON public.dinky_job_instance (tenant_id, update_time, id);
+CREATE INDEX IF NOT EXISTS job_instance_step_idx1 ON public.dinky_job_instance (tenant_id, step, id);
+-- the name prefix filter can not use job_instance_un_idx1 unless the collation is C, so it gets a pattern index
+CREATE INDEX IF NOT EXISTS job_instance_name_idx1 ON public.dinky_job_instance (tenant_id, name varchar_pattern_ops, id);
+CREATE INDEX IF NOT EXISTS job_instance_jid_idx1 ON public.dinky_job_instance (tenant_id, jid varchar_pattern_ops, id);
+CREATE INDEX IF NOT EXISTS history_task_idx2 ON public.dinky_history (tenant_id, task_id, id);
+CREATE INDEX IF NOT EXISTS history_task_status_idx1 ON public.dinky_history (tenant_id, task_id, status, id);
+CREATE INDEX IF NOT EXISTS operate_log_user_idx1 ON public.dinky_sys_operate_log (operate_user_id, id);
+CREATE INDEX IF NOT EXISTS operate_log_user_status_idx1 ON public.dinky_sys_operate_log (operate_user_id, status, id);
+CREATE INDEX IF NOT EXISTS alert_history_job_instance_idx1 ON public.dinky_alert_history (tenant_id, job_instance_id, id);
+CREATE INDEX IF NOT EXISTS alert_history_create_time_idx1 ON public.dinky_alert_history (tenant_id, create_time, id);
@@ -0,0 +1,73 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.dinky.aop;
+
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.dinky.data.model.OperateLog;
+import org.dinky.service.OperateLogService;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+
+public class OperateLogWriterTest {
+    private final OperateLogService operateLogService = mock(OperateLogService.class);
+    private final List<OperateLog> saved = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean interrupted = new AtomicBoolean();
+
+    @Test
+    public void testStopWritesQueuedLogsWithoutInterrupting() throws Exception {
+        when(operateLogService.saveBatch(anyCollection(), anyInt())).thenAnswer(invocation -> {
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                interrupted.set(true);
+                throw e;
+            }
+            Collection<OperateLog> batch = invocation.getArgument(0);
+            saved.addAll(batch);
+            return true;
+        });
+        OperateLogProperties properties = new OperateLogProperties();
+        properties.setBatchSize(2);
+        OperateLogWriter writer = new OperateLogWriter(operateLogService, properties);
+        writer.start();
+        for (int i = 0; i < 5; i++) {
+            OperateLog operateLog = new OperateLog();
+            operateLog.setMethod("method" + i);
+            writer.submit(operateLog);
+        }
+
+        writer.stop();
+
+        Assertions.assertThat(interrupted).isFalse();
+        Assertions.assertThat(saved)
+                .extracting(OperateLog::getMethod)
+                .containsExactly("method0", "method1", "method2", "method3", "method4");
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.dinky.controller;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import org.dinky.data.model.SystemConfiguration;
+import org.dinky.job.MetricsPushReceiver;
+import org.dinky.metrics.MetricsPushProtocol;
+
+import java.io.ByteArrayInputStream;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpStatus;
+
+public class MetricsPushControllerTest {
+
+    private final MetricsPushReceiver receiver = mock(MetricsPushReceiver.class);
+    private final MetricsPushController controller = new MetricsPushController(receiver);
+
+    @Before
+    public void setUp() {
+        SystemConfiguration.getInstances().getDinkyToken().setValue("token");
+    }
+
+    @Test
+    public void testReadFrame() throws Exception {
+        byte[] data = new byte[20000];
+        Assertions.assertThat(MetricsPushController.readFrame(new ByteArrayInputStream(data), 20000))
+                .isEqualTo(data);
+        Assertions.assertThat(MetricsPushController.readFrame(new ByteArrayInputStream(data), 19999))
+                .isNull();
+    }
+
+    @Test
+    public void testRejectLargeContentLength() {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.getContentLengthLong()).thenReturn(MetricsPushProtocol.MAX_FRAME_SIZE + 1L);
+
+        Assertions.assertThat(controller.push(request, "token").getStatusCode())
+                .isEqualTo(HttpStatus.PAYLOAD_TOO_LARGE);
+        verifyNoInteractions(receiver);
+    }
+
+    @Test
+    public void testRejectInvalidToken() {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+
+        Assertions.assertThat(controller.push(request, "other").getStatusCode())
+                .isEqualTo(HttpStatus.UNAUTHORIZED);
+        verifyNoInteractions(receiver);
+    }
+}
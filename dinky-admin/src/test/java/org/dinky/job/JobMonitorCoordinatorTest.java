@@ -0,0 +1,62 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.dinky.job;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+
+public class JobMonitorCoordinatorTest {
+
+    @Test
+    public void testAssignSpreadsJobsOverNodes() {
+        List<String> nodes = Arrays.asList("node-a", "node-b", "node-c");
+        Map<String, Integer> counts = new HashMap<>();
+        for (int jobInstanceId = 0; jobInstanceId < 3000; jobInstanceId++) {
+            counts.merge(JobMonitorCoordinator.assign(jobInstanceId, nodes), 1, Integer::sum);
+        }
+        Assertions.assertThat(counts).containsOnlyKeys(nodes);
+        for (Integer count : counts.values()) {
+            Assertions.assertThat(count).isBetween(800, 1200);
+        }
+    }
+
+    @Test
+    public void testJoiningNodeOnlyTakesJobsOver() {
+        List<String> before = Arrays.asList("node-a", "node-b");
+        List<String> after = Arrays.asList("node-a", "node-b", "node-c");
+        for (int jobInstanceId = 0; jobInstanceId < 1000; jobInstanceId++) {
+            String owner = JobMonitorCoordinator.assign(jobInstanceId, after);
+            if (!"node-c".equals(owner)) {
+                Assertions.assertThat(owner).isEqualTo(JobMonitorCoordinator.assign(jobInstanceId, before));
+            }
+        }
+    }
+
+    @Test
+    public void testAssignWithoutNodes() {
+        Assertions.assertThat(JobMonitorCoordinator.assign(1, Collections.emptyList())).isNull();
+    }
+}
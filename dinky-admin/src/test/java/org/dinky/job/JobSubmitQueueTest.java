@@ -0,0 +1,183 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.dinky.job;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.dinky.context.TenantContextHolder;
+import org.dinky.data.dto.TaskSubmitDto;
+import org.dinky.data.model.Task;
+import org.dinky.service.TaskService;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.assertj.core.api.Assertions;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class JobSubmitQueueTest {
+    private final TaskService taskService = mock(TaskService.class);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger maxRunning = new AtomicInteger();
+    private final Map<String, AtomicInteger> runningByCluster = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> maxRunningByCluster = new ConcurrentHashMap<>();
+    private JobSubmitQueue queue;
+
+    @Before
+    public void init() throws Exception {
+        when(taskService.getById(anyInt())).thenAnswer(invocation -> task(invocation.getArgument(0)));
+        when(taskService.submitTask(any())).thenAnswer(invocation -> {
+            TaskSubmitDto submitDto = invocation.getArgument(0);
+            String cluster = JobSubmitQueue.clusterOf(task(submitDto.getId()));
+            int clusterRunning = runningByCluster
+                    .computeIfAbsent(cluster, k -> new AtomicInteger())
+                    .incrementAndGet();
+            maxRunningByCluster
+                    .computeIfAbsent(cluster, k -> new AtomicInteger())
+                    .accumulateAndGet(clusterRunning, Math::max);
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            release.await(10, TimeUnit.SECONDS);
+            running.decrementAndGet();
+            runningByCluster.get(cluster).decrementAndGet();
+            JobResult jobResult = new JobResult();
+            jobResult.setSuccess(true);
+            jobResult.setJobInstanceId(submitDto.getId());
+            return jobResult;
+        });
+        JobSubmitProperties properties = new JobSubmitProperties();
+        properties.setGlobalParallelism(3);
+        properties.setClusterParallelism(1);
+        queue = new JobSubmitQueue(taskService, properties, ticket -> {});
+    }
+
+    @After
+    public void stop() {
+        queue.stop();
+    }
+
+    /** Tasks 0, 2, 4... run on cluster 0 and tasks 1, 3, 5... on cluster 1. */
+    private static Task task(Integer id) {
+        Task task = new Task();
+        task.setId(id);
+        task.setType("standalone");
+        task.setClusterId(id % 2);
+        task.setTenantId(1);
+        return task;
+    }
+
+    private static TaskSubmitDto submitDto(Integer id, String idempotencyKey) {
+        return new TaskSubmitDto(id, null, null, null, idempotencyKey);
+    }
+
+    private static void awaitFinished(List<JobSubmitTicket> tickets) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!tickets.stream().allMatch(JobSubmitTicket::isFinished) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private void awaitRunning(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (running.get() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    public void testParallelismIsLimitedPerCluster() throws Exception {
+        List<JobSubmitTicket> tickets = new ArrayList<>();
+        for (int id = 0; id < 6; id++) {
+            tickets.add(queue.submit(submitDto(id, null)));
+        }
+        Assertions.assertThat(queue.getRunningSize()).isEqualTo(2);
+        Assertions.assertThat(queue.getPendingSize()).isEqualTo(4);
+        awaitRunning(2);
+
+        release.countDown();
+        awaitFinished(tickets);
+        Assertions.assertThat(tickets).allMatch(ticket -> ticket.getState() == JobSubmitTicket.State.SUCCESS);
+        Assertions.assertThat(tickets).allMatch(ticket -> ticket.getTaskId().equals(ticket.getJobInstanceId()));
+        Assertions.assertThat(maxRunning.get()).isEqualTo(2);
+        Assertions.assertThat(maxRunningByCluster.values()).allMatch(max -> max.get() == 1);
+    }
+
+    @Test
+    public void testResubmitIsDeduplicated() throws Exception {
+        JobSubmitTicket first = queue.submit(submitDto(1, "restart-1"));
+        Assertions.assertThat(queue.submit(submitDto(1, "restart-1"))).isSameAs(first);
+        // a running task is not submitted twice, even without the key
+        Assertions.assertThat(queue.submit(submitDto(1, null))).isSameAs(first);
+
+        release.countDown();
+        awaitFinished(Collections.singletonList(first));
+        Assertions.assertThat(first.getState()).isEqualTo(JobSubmitTicket.State.SUCCESS);
+        // a finished ticket still answers its key within the retention
+        Assertions.assertThat(queue.submit(submitDto(1, "restart-1"))).isSameAs(first);
+        Assertions.assertThat(queue.getTicket(first.getTicketId())).isSameAs(first);
+        verify(taskService, times(1)).submitTask(any());
+    }
+
+    @Test
+    public void testFailedSubmission() throws Exception {
+        doThrow(new RuntimeException("cluster is down")).when(taskService).submitTask(any());
+        JobSubmitTicket ticket = queue.submit(submitDto(2, null));
+        awaitFinished(Collections.singletonList(ticket));
+        Assertions.assertThat(ticket.getState()).isEqualTo(JobSubmitTicket.State.FAILED);
+        Assertions.assertThat(ticket.getError()).isEqualTo("cluster is down");
+        // a failed task can be submitted again
+        Assertions.assertThat(queue.submit(submitDto(2, null))).isNotSameAs(ticket);
+    }
+
+    @Test
+    public void testTicketsAreScopedByTenantAndTask() throws Exception {
+        JobSubmitTicket first = queue.submit(submitDto(1, "deploy"));
+        // the same key of another task is another submission
+        JobSubmitTicket second = queue.submit(submitDto(3, "deploy"));
+        Assertions.assertThat(second).isNotSameAs(first);
+        try {
+            TenantContextHolder.set(2);
+            Assertions.assertThat(queue.getTicket(first.getTicketId())).isNull();
+            Assertions.assertThat(queue.getTickets(Arrays.asList(first.getTicketId(), second.getTicketId())))
+                    .isEmpty();
+            TenantContextHolder.set(1);
+            Assertions.assertThat(queue.getTicket(first.getTicketId())).isSameAs(first);
+        } finally {
+            TenantContextHolder.clear();
+        }
+        release.countDown();
+        awaitFinished(Arrays.asList(first, second));
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.dinky.job;
+
+import org.dinky.data.model.SystemConfiguration;
+import org.dinky.metrics.MetricsPushProtocol;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+
+public class MetricsPushReceiverTest {
+
+    private final MetricsPushProperties properties = new MetricsPushProperties();
+    private final MetricsPushReceiver receiver = new MetricsPushReceiver(properties);
+
+    @Before
+    public void setUp() {
+        SystemConfiguration.getInstances().getMetricsSysEnable().setValue(true);
+        // keep the snapshots out of the metrics store
+        properties.setEmitIntervalMs(Long.MAX_VALUE);
+        receiver.watch("job-1", ImmutableMap.of("vertex-1", ImmutableMap.of("0.numRecordsIn", "")));
+    }
+
+    @Test
+    public void testAnswerWithSelection() throws Exception {
+        Map<String, Map<String, Set<String>>> selection = receive();
+
+        Assertions.assertThat(selection.get("job-1"))
+                .isEqualTo(ImmutableMap.of("vertex-1", Collections.singleton("0.numRecordsIn")));
+        Assertions.assertThat(selection.get("job-2")).isEmpty();
+        Assertions.assertThat(receiver.isPushing("job-1")).isTrue();
+        Assertions.assertThat(receiver.isPushing("job-2")).isFalse();
+    }
+
+    @Test
+    public void testUnwatchedJobIsPolled() throws Exception {
+        receive();
+        receiver.unwatch("job-1");
+
+        Assertions.assertThat(receiver.isPushing("job-1")).isFalse();
+        Assertions.assertThat(receive().get("job-1")).isEmpty();
+    }
+
+    @Test
+    public void testDisabled() throws Exception {
+        properties.setEnabled(false);
+
+        Assertions.assertThat(receive().get("job-1")).isEmpty();
+        Assertions.assertThat(receiver.isPushing("job-1")).isFalse();
+    }
+
+    @Test
+    public void testInvalidFrame() {
+        Assertions.assertThatThrownBy(() -> receiver.receive(new byte[] {1, 2, 3, 4}))
+                .isInstanceOf(IOException.class);
+    }
+
+    private Map<String, Map<String, Set<String>>> receive() throws Exception {
+        Map<String, Map<String, Map<String, Object>>> jobs = new LinkedHashMap<>();
+        jobs.put("job-1", ImmutableMap.of("vertex-1", ImmutableMap.of("0.numRecordsIn", 42L)));
+        jobs.put("job-2", Collections.emptyMap());
+        byte[] answer = receiver.receive(MetricsPushProtocol.writePush(1L, 0L, System.currentTimeMillis(), jobs));
+        return MetricsPushProtocol.readSelection(new DataInputStream(new ByteArrayInputStream(answer)));
+    }
+}
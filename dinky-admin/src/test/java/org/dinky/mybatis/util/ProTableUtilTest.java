@@ -0,0 +1,92 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.dinky.mybatis.util;
+
+import org.dinky.data.exception.BusException;
+import org.dinky.data.model.job.JobInstance;
+
+import java.time.LocalDateTime;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class ProTableUtilTest {
+
+    private static final ProTableFields FIELDS = ProTableFields.of("a")
+            .sortable("createTime", LocalDateTime.class)
+            .filterable("status", "taskId");
+
+    private static JsonNode para(String json) throws Exception {
+        return new ObjectMapper().readTree(json);
+    }
+
+    @Test
+    public void testFilterIgnoresFieldsNotWhitelisted() throws Exception {
+        QueryWrapper<Object> wrapper = new QueryWrapper<>();
+        ProTableUtil.autoFilter(
+                para("{\"filter\":{\"task_id\":[1],\"status\":[\"RUNNING\"],\"error\":[\"x\"]}}"), wrapper, FIELDS);
+        Assertions.assertThat(wrapper.getSqlSegment())
+                .contains("a.task_id =")
+                .contains("a.status =")
+                .doesNotContain("error");
+    }
+
+    @Test
+    public void testSortFallsBackToId() throws Exception {
+        ProTableFields.Sort sort = ProTableUtil.autoSort(para("{\"sorter\":{\"jid\":\"ascend\"}}"), FIELDS);
+        Assertions.assertThat(sort.getColumn()).isEqualTo("id");
+        Assertions.assertThat(sort.isAscending()).isFalse();
+
+        sort = ProTableUtil.autoSort(para("{\"sorter\":{\"createTime\":\"ascend\"}}"), FIELDS);
+        Assertions.assertThat(sort.getColumn()).isEqualTo("create_time");
+        Assertions.assertThat(sort.isAscending()).isTrue();
+    }
+
+    @Test
+    public void testSeekAfterCursor() throws Exception {
+        JobInstance last = new JobInstance();
+        last.setId(42);
+        last.setCreateTime(LocalDateTime.of(2024, 1, 1, 12, 0, 0, 123000000));
+        ProTableFields.Sort sort = ProTableUtil.autoSort(para("{\"sorter\":{\"createTime\":\"descend\"}}"), FIELDS);
+        String cursor = ProTableUtil.cursorOf(last, sort);
+
+        QueryWrapper<Object> wrapper = new QueryWrapper<>();
+        ProTableUtil.seek(wrapper, FIELDS, sort, cursor);
+        ProTableUtil.orderBy(wrapper, FIELDS, sort);
+        Assertions.assertThat(wrapper.getSqlSegment())
+                .contains("a.create_time <")
+                .contains("a.id <")
+                .contains("ORDER BY a.create_time DESC")
+                .endsWith("a.id DESC");
+        Assertions.assertThat(wrapper.getParamNameValuePairs())
+                .containsValues(last.getCreateTime(), last.getId());
+    }
+
+    @Test
+    public void testInvalidCursor() {
+        Assertions.assertThatThrownBy(() ->
+                        ProTableUtil.seek(new QueryWrapper<>(), FIELDS, FIELDS.defaultSort(), "not a cursor"))
+                .isInstanceOf(BusException.class);
+    }
+}
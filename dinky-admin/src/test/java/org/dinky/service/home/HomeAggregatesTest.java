@@ -0,0 +1,112 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.dinky.service.home;
+
+import org.dinky.context.TenantContextHolder;
+import org.dinky.data.model.home.JobInstanceCount;
+import org.dinky.data.model.job.JobInstance;
+import org.dinky.mapper.AlertGroupMapper;
+import org.dinky.mapper.AlertInstanceMapper;
+import org.dinky.mapper.ClusterConfigurationMapper;
+import org.dinky.mapper.ClusterInstanceMapper;
+import org.dinky.mapper.DataBaseMapper;
+import org.dinky.mapper.FragmentVariableMapper;
+import org.dinky.mapper.GitProjectMapper;
+import org.dinky.mapper.JobInstanceMapper;
+import org.dinky.mapper.TaskMapper;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.assertj.core.api.Assertions;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class HomeAggregatesTest {
+
+    private JobInstanceMapper jobInstanceMapper;
+    private HomeAggregates homeAggregates;
+
+    @Before
+    public void setUp() {
+        jobInstanceMapper = Mockito.mock(JobInstanceMapper.class);
+        Mockito.when(jobInstanceMapper.listLatestStatus())
+                .thenReturn(Arrays.asList(jobInstance(10, 1, "RUNNING"), jobInstance(20, 2, "FAILED")));
+        homeAggregates = new HomeAggregates(
+                new HomeAggregatesProperties(),
+                jobInstanceMapper,
+                Mockito.mock(TaskMapper.class),
+                Mockito.mock(ClusterInstanceMapper.class),
+                Mockito.mock(ClusterConfigurationMapper.class),
+                Mockito.mock(DataBaseMapper.class),
+                Mockito.mock(FragmentVariableMapper.class),
+                Mockito.mock(GitProjectMapper.class),
+                Mockito.mock(AlertGroupMapper.class),
+                Mockito.mock(AlertInstanceMapper.class));
+        TenantContextHolder.set(1);
+    }
+
+    @After
+    public void tearDown() {
+        TenantContextHolder.clear();
+    }
+
+    private static JobInstance jobInstance(int id, int taskId, String status) {
+        JobInstance jobInstance = new JobInstance();
+        jobInstance.setId(id);
+        jobInstance.setTaskId(taskId);
+        jobInstance.setTenantId(1);
+        jobInstance.setStatus(status);
+        return jobInstance;
+    }
+
+    private Map<String, Integer> counts() {
+        return homeAggregates.getStatusCounts().stream()
+                .collect(Collectors.toMap(JobInstanceCount::getStatus, JobInstanceCount::getCounts));
+    }
+
+    @Test
+    public void testStatusCountsFollowTheLatestInstance() {
+        Assertions.assertThat(counts()).containsEntry("RUNNING", 1).containsEntry("FAILED", 1);
+
+        // task 2 is restarted, its new instance replaces the failed one
+        homeAggregates.onJobInstanceSaved(jobInstance(21, 2, "INITIALIZING"), true);
+        homeAggregates.onJobInstanceSaved(jobInstance(21, 2, "RUNNING"), false);
+        // an update of an older instance does not count
+        homeAggregates.onJobInstanceSaved(jobInstance(20, 2, "CANCELED"), false);
+
+        Assertions.assertThat(counts()).containsOnly(Assertions.entry("RUNNING", 2));
+        Mockito.verify(jobInstanceMapper, Mockito.times(1)).listLatestStatus();
+    }
+
+    @Test
+    public void testPartialUpdateReloads() {
+        counts();
+        JobInstance partial = new JobInstance();
+        partial.setId(10);
+        partial.setTenantId(1);
+        homeAggregates.onJobInstanceSaved(partial, false);
+        counts();
+        Mockito.verify(jobInstanceMapper, Mockito.times(2)).listLatestStatus();
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.dinky.service.impl;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.dinky.data.model.Catalogue;
+import org.dinky.init.SystemInit;
+import org.dinky.scheduler.client.ProcessClient;
+import org.dinky.scheduler.client.TaskClient;
+import org.dinky.scheduler.model.DinkyTaskRequest;
+import org.dinky.scheduler.model.Project;
+import org.dinky.scheduler.model.PushTaskResult;
+import org.dinky.service.catalogue.CatalogueService;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.assertj.core.api.Assertions;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import cn.hutool.core.util.ReflectUtil;
+
+public class SchedulerServiceImplTest {
+    private final ProcessClient processClient = mock(ProcessClient.class);
+    private final TaskClient taskClient = mock(TaskClient.class);
+    private final CatalogueService catalogueService = mock(CatalogueService.class);
+    private final Map<String, String> pushThreads = new ConcurrentHashMap<>();
+    private SchedulerServiceImpl schedulerService;
+
+    @Before
+    public void init() {
+        Project project = new Project();
+        project.setCode(1L);
+        ReflectUtil.setFieldValue(SystemInit.class, "project", project);
+
+        when(catalogueService.list(any())).thenReturn(Arrays.asList(catalogue(1, 10), catalogue(2, 20)));
+        when(catalogueService.getById(any())).thenAnswer(invocation -> {
+            int id = invocation.getArgument(0);
+            Catalogue parent = catalogue(0, 0);
+            parent.setId(id);
+            parent.setName("process" + id);
+            return parent;
+        });
+        when(processClient.getProcessDefinition(anyLong(), anyString())).thenReturn(Collections.emptyList());
+        when(taskClient.getTaskMainInfos(anyLong(), anyString(), anyString(), anyString()))
+                .thenReturn(Collections.emptyList());
+        when(taskClient.genTaskCodes(anyLong(), anyInt())).thenAnswer(invocation -> {
+            int count = invocation.getArgument(1);
+            return Arrays.asList(100L, 101L).subList(0, count);
+        });
+        when(processClient.createOrUpdateProcessDefinition(
+                        eq(1L), any(), anyString(), anyLong(), anyString(), anyString(), any(), anyBoolean()))
+                .thenAnswer(invocation -> {
+                    pushThreads.put(invocation.getArgument(2), Thread.currentThread().getName());
+                    return null;
+                });
+        schedulerService = new SchedulerServiceImpl(processClient, taskClient, catalogueService);
+    }
+
+    @After
+    public void stop() {
+        schedulerService.stop();
+        ReflectUtil.setFieldValue(SystemInit.class, "project", null);
+    }
+
+    @Test
+    public void testPushAddTasksOnSharedExecutor() {
+        for (int i = 0; i < 2; i++) {
+            pushThreads.clear();
+            List<PushTaskResult> results = schedulerService.pushAddTasks(Arrays.asList(request(1), request(2)));
+
+            Assertions.assertThat(results).allMatch(PushTaskResult::isSuccess);
+            Assertions.assertThat(results.stream().map(PushTaskResult::getProcessName).collect(Collectors.toList()))
+                    .containsExactly("process10", "process20");
+            Assertions.assertThat(pushThreads).containsOnlyKeys("process10", "process20");
+            Assertions.assertThat(pushThreads.values()).allMatch(name -> name.startsWith("ds-push-"));
+        }
+    }
+
+    private static Catalogue catalogue(int taskId, int parentId) {
+        Catalogue catalogue = new Catalogue();
+        catalogue.setTaskId(taskId);
+        catalogue.setParentId(parentId);
+        catalogue.setName("task" + taskId);
+        return catalogue;
+    }
+
+    private static DinkyTaskRequest request(int taskId) {
+        DinkyTaskRequest request = new DinkyTaskRequest();
+        request.setTaskId(String.valueOf(taskId));
+        return request;
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.dinky.utils;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.UUID;
+
+import org.assertj.core.api.Assertions;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import cn.hutool.core.io.FileUtil;
+
+public class GitBuildCacheTest {
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    private final String projectName = "git-build-cache-test-" + UUID.randomUUID();
+    private File sourceDir;
+    private GitBuildCache buildCache;
+
+    @Before
+    public void init() throws Exception {
+        sourceDir = tmp.newFolder("source");
+        FileUtil.writeUtf8String("<project/>", new File(sourceDir, "pom.xml"));
+        FileUtil.writeUtf8String("class A {}", new File(sourceDir, "src/A.java"));
+        FileUtil.writeUtf8String("class B {}", new File(sourceDir, "src/B.java"));
+        FileUtil.writeUtf8String("ref: refs/heads/master", new File(sourceDir, ".git/HEAD"));
+        buildCache = new GitBuildCache(projectName, "master");
+    }
+
+    @After
+    public void clean() {
+        FileUtil.del(GitRepository.getProjectBuildDir(projectName));
+    }
+
+    @Test
+    public void testSyncCopiesAllFilesButGit() {
+        GitBuildCache.SyncResult result = buildCache.sync(sourceDir);
+
+        Assertions.assertThat(result.getCopied()).isEqualTo(3);
+        Assertions.assertThat(result.getTotal()).isEqualTo(3);
+        Assertions.assertThat(new File(buildCache.getBuildDir(), "src/A.java")).hasContent("class A {}");
+        Assertions.assertThat(new File(buildCache.getBuildDir(), ".git")).doesNotExist();
+    }
+
+    @Test
+    public void testSyncCopiesOnlyChangedFilesAndDeletesRemovedOnes() throws Exception {
+        buildCache.sync(sourceDir);
+        File builtPom = new File(buildCache.getBuildDir(), "pom.xml");
+        long pomModified = (builtPom.lastModified() / 1000 - 10) * 1000;
+        Assertions.assertThat(builtPom.setLastModified(pomModified)).isTrue();
+
+        FileUtil.writeUtf8String("class A { int a; }", new File(sourceDir, "src/A.java"));
+        Files.delete(new File(sourceDir, "src/B.java").toPath());
+        FileUtil.writeUtf8String("ref: refs/heads/dev", new File(sourceDir, ".git/HEAD"));
+        GitBuildCache.SyncResult result = new GitBuildCache(projectName, "master").sync(sourceDir);
+
+        Assertions.assertThat(result.getCopied()).isEqualTo(1);
+        Assertions.assertThat(result.getDeleted()).isEqualTo(1);
+        Assertions.assertThat(result.getTotal()).isEqualTo(2);
+        Assertions.assertThat(new File(buildCache.getBuildDir(), "src/A.java")).hasContent("class A { int a; }");
+        Assertions.assertThat(new File(buildCache.getBuildDir(), "src/B.java")).doesNotExist();
+        Assertions.assertThat(builtPom.lastModified()).isEqualTo(pomModified);
+    }
+
+    @Test
+    public void testSyncWithoutChangesCopiesNothing() {
+        buildCache.sync(sourceDir);
+
+        GitBuildCache.SyncResult result = buildCache.sync(sourceDir);
+
+        Assertions.assertThat(result.isChanged()).isFalse();
+        Assertions.assertThat(result.getTotal()).isEqualTo(3);
+    }
+}
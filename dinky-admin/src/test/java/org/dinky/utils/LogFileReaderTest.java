@@ -0,0 +1,140 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.dinky.utils;
+
+import org.dinky.data.model.LogChunk;
+
+import java.io.File;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import cn.hutool.core.io.FileUtil;
+import cn.hutool.core.util.StrUtil;
+
+public class LogFileReaderTest {
+    // lines of 128 bytes, so that the 64 KiB blocks the reader scans start and end at line boundaries
+    private static final int LINE_SIZE = 128;
+    private static final int LINES = 2000;
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    private File file;
+
+    @Before
+    public void init() throws Exception {
+        file = tmp.newFile("dinky.log");
+        StringBuilder log = new StringBuilder();
+        for (int i = 0; i < LINES; i++) {
+            log.append(line(i));
+        }
+        FileUtil.writeUtf8String(log.toString(), file);
+    }
+
+    private static String line(int i) {
+        return StrUtil.padAfter("line " + i, LINE_SIZE - 1, '.') + "\n";
+    }
+
+    private static long offset(int line) {
+        return (long) line * LINE_SIZE;
+    }
+
+    @Test
+    public void testTail() {
+        LogChunk chunk = LogFileReader.tail(file, 3, 0);
+        Assertions.assertThat(chunk.getContent()).isEqualTo(line(LINES - 3) + line(LINES - 2) + line(LINES - 1));
+        Assertions.assertThat(chunk.getStartOffset()).isEqualTo(offset(LINES - 3));
+        Assertions.assertThat(chunk.getEndOffset()).isEqualTo(offset(LINES));
+        Assertions.assertThat(chunk.getFileSize()).isEqualTo(offset(LINES));
+    }
+
+    @Test
+    public void testTailAcrossBlockBoundary() {
+        // the last block holds exactly 512 lines, the break before them is the last byte of the previous block
+        LogChunk chunk = LogFileReader.tail(file, 512, 0);
+        Assertions.assertThat(chunk.getStartOffset()).isEqualTo(offset(LINES - 512));
+        Assertions.assertThat(chunk.getContent()).startsWith(line(LINES - 512));
+
+        chunk = LogFileReader.tail(file, 513, 0);
+        Assertions.assertThat(chunk.getStartOffset()).isEqualTo(offset(LINES - 513));
+
+        chunk = LogFileReader.tail(file, 1500, 0);
+        Assertions.assertThat(chunk.getStartOffset()).isEqualTo(offset(LINES - 1500));
+        Assertions.assertThat(chunk.getContent()).hasSize(1500 * LINE_SIZE);
+    }
+
+    @Test
+    public void testTailClampedToMaxBytes() {
+        // only the complete lines within the last 1000 bytes are returned
+        LogChunk chunk = LogFileReader.tail(file, 100, 1000);
+        Assertions.assertThat(chunk.getStartOffset()).isEqualTo(offset(LINES - 7));
+        Assertions.assertThat(chunk.getContent()).startsWith(line(LINES - 7));
+        Assertions.assertThat(chunk.getEndOffset()).isEqualTo(offset(LINES));
+
+        chunk = LogFileReader.tail(file, LINES + 1, -1);
+        Assertions.assertThat(chunk.getStartOffset()).isZero();
+        Assertions.assertThat(chunk.getContent()).hasSize(LINES * LINE_SIZE);
+    }
+
+    @Test
+    public void testReadRange() {
+        LogChunk chunk = LogFileReader.readRange(file, offset(2), LINE_SIZE * 2 + 10);
+        Assertions.assertThat(chunk.getContent()).isEqualTo(line(2) + line(3));
+        Assertions.assertThat(chunk.getStartOffset()).isEqualTo(offset(2));
+        Assertions.assertThat(chunk.getEndOffset()).isEqualTo(offset(4));
+    }
+
+    @Test
+    public void testReadRangePastEof() {
+        LogChunk chunk = LogFileReader.readRange(file, offset(LINES), 100);
+        Assertions.assertThat(chunk.getContent()).isEmpty();
+        Assertions.assertThat(chunk.getStartOffset()).isEqualTo(offset(LINES));
+        Assertions.assertThat(chunk.getEndOffset()).isEqualTo(offset(LINES));
+
+        // an offset beyond the end means the file has been rotated, it is read from the start
+        chunk = LogFileReader.readRange(file, offset(LINES) + 1, LINE_SIZE);
+        Assertions.assertThat(chunk.getContent()).isEqualTo(line(0));
+        Assertions.assertThat(chunk.getStartOffset()).isZero();
+    }
+
+    @Test
+    public void testReadRangeClampedLength() {
+        // a zero or negative length reads the default size instead of failing
+        LogChunk chunk = LogFileReader.readRange(file, 0, 0);
+        Assertions.assertThat(chunk.getEndOffset()).isEqualTo(offset(LINES));
+        chunk = LogFileReader.readRange(file, 0, -5);
+        Assertions.assertThat(chunk.getEndOffset()).isEqualTo(offset(LINES));
+
+        // a line longer than the length is split instead of never being returned
+        chunk = LogFileReader.readRange(file, 0, LINE_SIZE - 1);
+        Assertions.assertThat(chunk.getContent()).isEqualTo(line(0).substring(0, LINE_SIZE - 1));
+        Assertions.assertThat(chunk.getEndOffset()).isEqualTo(LINE_SIZE - 1);
+
+        // the incomplete last line of a growing file is left for the next read
+        FileUtil.appendUtf8String("partial", file);
+        chunk = LogFileReader.readRange(file, offset(LINES - 1), 1000);
+        Assertions.assertThat(chunk.getContent()).isEqualTo(line(LINES - 1));
+        Assertions.assertThat(chunk.getFileSize()).isEqualTo(offset(LINES) + "partial".length());
+    }
+}
@@ -22,6 +22,7 @@ package org.dinky.app.flinksql;
 import org.dinky.app.db.DBUtil;
 import org.dinky.app.model.StatementParam;
 import org.dinky.app.model.SysConfig;
+import org.dinky.app.util.DependencyCache;
 import org.dinky.app.util.FlinkAppUtil;
 import org.dinky.assertion.Asserts;
 import org.dinky.classloader.DinkyClassLoader;
@@ -33,6 +34,7 @@ import org.dinky.data.app.AppTask;
 import org.dinky.data.constant.DirConstant;
 import org.dinky.data.enums.GatewayType;
 import org.dinky.data.job.SqlType;
+import org.dinky.data.model.DependencyFile;
 import org.dinky.data.model.SystemConfiguration;
 import org.dinky.executor.Executor;
 import org.dinky.executor.ExecutorConfig;
@@ -45,6 +47,7 @@ import org.dinky.trans.parse.AddJarSqlParseStrategy;
 import org.dinky.trans.parse.ExecuteJarParseStrategy;
 import org.dinky.url.RsURLStreamHandlerFactory;
 import org.dinky.utils.FlinkStreamEnvironmentUtil;
+import org.dinky.utils.JsonUtils;
 import org.dinky.utils.SqlUtil;
 import org.dinky.utils.ZipUtils;
 
@@ -74,12 +77,15 @@ import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
+import com.fasterxml.jackson.databind.JsonNode;
+
 import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.io.FileUtil;
 import cn.hutool.core.util.ArrayUtil;
@@ -179,13 +185,19 @@ public class Submitter {
 
         if (GatewayType.get(type).isKubernetesApplicationMode()) {
             try {
-                String httpJar = dinkyAddr + "/download/downloadDepJar/" + taskId;
-                log.info("下载依赖 http-url为：{}", httpJar);
                 String flinkHome = System.getenv("FLINK_HOME");
                 String usrlib = flinkHome + "/usrlib";
                 FileUtils.forceMkdir(new File(usrlib));
-                String depZip = flinkHome + "/dep.zip";
                 String depPath = flinkHome + "/dep";
+                List<DependencyFile> depFiles = getDepManifest(dinkyAddr, taskId);
+                if (depFiles != null) {
+                    loadCachedDep(dinkyAddr, taskId, depFiles, usrlib, depPath + "/py/");
+                    return;
+                }
+                // the dinky server does not serve the manifest, fall back to the zip of all dependencies
+                String httpJar = dinkyAddr + "/download/downloadDepJar/" + taskId;
+                log.info("下载依赖 http-url为：{}", httpJar);
+                String depZip = flinkHome + "/dep.zip";
                 downloadFile(httpJar, depZip);
                 if (FileUtil.exist(depPath)) {
                     ZipUtils.unzip(depZip, depPath);
@@ -195,28 +207,9 @@ public class Submitter {
                         FileUtil.listFileNames(depPath + "/jar").forEach(f -> {
                             FileUtil.move(FileUtil.file(depPath + "/jar/" + f), FileUtil.file(usrlib + "/" + f), true);
                         });
-                        if (FileUtil.isDirectory(usrlib)) {
-                            URL[] jarUrls = FileUtil.listFileNames(usrlib).stream()
-                                    .map(f -> URLUtil.getURL(FileUtil.file(usrlib, f)))
-                                    .toArray(URL[]::new);
-                            addURLs(jarUrls);
-                            executor.getCustomTableEnvironment()
-                                    .addJar(FileUtil.file(usrlib).listFiles());
-                        }
-                    }
-                    if (FileUtil.isDirectory(depPath + "/py/")) {
-                        URL[] pyUrls = FileUtil.listFileNames(depPath + "/py/").stream()
-                                .map(f -> URLUtil.getURL(FileUtil.file(depPath + "/py/", f)))
-                                .toArray(URL[]::new);
-                        if (ArrayUtil.isNotEmpty(pyUrls)) {
-                            executor.getCustomTableEnvironment()
-                                    .addConfiguration(
-                                            PythonOptions.PYTHON_FILES,
-                                            Arrays.stream(pyUrls)
-                                                    .map(URL::toString)
-                                                    .collect(Collectors.joining(",")));
-                        }
+                        addUsrlibJars(usrlib);
                     }
+                    addPythonFiles(depPath + "/py/");
                 }
             } catch (IOException e) {
                 throw new RuntimeException(e);
@@ -224,6 +217,64 @@ public class Submitter {
         }
     }
 
+    /** The dependencies of the task with their sha256, null if the dinky server does not provide them. */
+    private static List<DependencyFile> getDepManifest(String dinkyAddr, Integer taskId) {
+        try {
+            JsonNode result = JsonUtils.parseObject(HttpUtil.get(dinkyAddr + "/download/depManifest/" + taskId));
+            if (result == null || !result.path("success").asBoolean(false)) {
+                return null;
+            }
+            return JsonUtils.toList(result.path("data").toString(), DependencyFile.class);
+        } catch (Exception e) {
+            log.warn("Failed to get dependency manifest of task {}, reason: {}", taskId, e.getMessage());
+            return null;
+        }
+    }
+
+    private static void loadCachedDep(
+            String dinkyAddr, Integer taskId, List<DependencyFile> depFiles, String usrlib, String pyPath)
+            throws IOException {
+        Map<String, List<DependencyFile>> byType =
+                depFiles.stream().collect(Collectors.groupingBy(DependencyFile::getType));
+        String fileUrlPrefix = dinkyAddr + "/download/depFile/" + taskId + "?name=";
+        DependencyCache cache = DependencyCache.fromEnv();
+        List<DependencyFile> jars = byType.getOrDefault(DependencyFile.TYPE_JAR, Collections.emptyList());
+        List<DependencyFile> pyFiles = byType.getOrDefault(DependencyFile.TYPE_PYTHON, Collections.emptyList());
+        cache.fetch(jars, fileUrlPrefix, new File(usrlib));
+        cache.fetch(pyFiles, fileUrlPrefix, new File(pyPath));
+        log.info(
+                "load dep success, include :{}",
+                depFiles.stream().map(DependencyFile::getName).collect(Collectors.joining(",")));
+        if (!jars.isEmpty()) {
+            addUsrlibJars(usrlib);
+        }
+        addPythonFiles(pyPath);
+    }
+
+    private static void addUsrlibJars(String usrlib) {
+        if (FileUtil.isDirectory(usrlib)) {
+            URL[] jarUrls = FileUtil.listFileNames(usrlib).stream()
+                    .map(f -> URLUtil.getURL(FileUtil.file(usrlib, f)))
+                    .toArray(URL[]::new);
+            addURLs(jarUrls);
+            executor.getCustomTableEnvironment().addJar(FileUtil.file(usrlib).listFiles());
+        }
+    }
+
+    private static void addPythonFiles(String pyPath) {
+        if (FileUtil.isDirectory(pyPath)) {
+            URL[] pyUrls = FileUtil.listFileNames(pyPath).stream()
+                    .map(f -> URLUtil.getURL(FileUtil.file(pyPath, f)))
+                    .toArray(URL[]::new);
+            if (ArrayUtil.isNotEmpty(pyUrls)) {
+                executor.getCustomTableEnvironment()
+                        .addConfiguration(
+                                PythonOptions.PYTHON_FILES,
+                                Arrays.stream(pyUrls).map(URL::toString).collect(Collectors.joining(",")));
+            }
+        }
+    }
+
     private static void addURLs(URL[] jarUrls) {
         Thread.currentThread().setContextClassLoader(new DinkyClassLoader(new URL[] {}));
         URLClassLoader urlClassLoader = (URLClassLoader) Thread.currentThread().getContextClassLoader();
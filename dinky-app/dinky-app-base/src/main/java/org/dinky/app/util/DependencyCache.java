@@ -0,0 +1,217 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.dinky.app.util;
+
+import org.dinky.data.model.DependencyFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import cn.hutool.core.io.FileUtil;
+import cn.hutool.core.thread.ThreadUtil;
+import cn.hutool.core.util.StrUtil;
+import cn.hutool.core.util.URLUtil;
+import cn.hutool.crypto.digest.DigestUtil;
+import cn.hutool.http.HttpUtil;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Node local cache of task dependencies, keyed by the sha256 of their content, so that the applications started on
+ * the same node download each jar only once. Entries live in {@code <cacheDir>/<sha256>/<name>}, every change of the
+ * cache directory is done while holding a file lock so that concurrent JVMs do not clobber each other, and the least
+ * recently used entries are evicted when the cache grows beyond its size cap.
+ */
+@Slf4j
+public class DependencyCache {
+    public static final String CACHE_DIR_ENV = "DINKY_DEP_CACHE_DIR";
+    public static final String MAX_BYTES_ENV = "DINKY_DEP_CACHE_MAX_BYTES";
+
+    private static final long DEFAULT_MAX_BYTES = 2L * 1024 * 1024 * 1024;
+    private static final int DOWNLOAD_THREADS = 4;
+    private static final String LOCK_FILE = ".lock";
+    private static final String TMP_SUFFIX = ".downloading";
+    /** File locks are held per JVM, the threads of this JVM take turns on this monitor before locking the file. */
+    private static final Object JVM_LOCK = new Object();
+
+    private final File cacheDir;
+    private final long maxBytes;
+
+    public DependencyCache(File cacheDir, long maxBytes) {
+        this.cacheDir = cacheDir;
+        this.maxBytes = maxBytes;
+        FileUtil.mkdir(cacheDir);
+    }
+
+    public static DependencyCache fromEnv() {
+        String dir = System.getenv(CACHE_DIR_ENV);
+        File cacheDir = StrUtil.isBlank(dir) ? FileUtil.file(FileUtil.getTmpDir(), "dinky-dep-cache") : new File(dir);
+        String maxBytes = System.getenv(MAX_BYTES_ENV);
+        return new DependencyCache(cacheDir, StrUtil.isBlank(maxBytes) ? DEFAULT_MAX_BYTES : Long.parseLong(maxBytes));
+    }
+
+    /**
+     * Make all files available in the cache and link them into targetDir, the files missing in the cache are
+     * downloaded in parallel from {@code fileUrlPrefix + name} and verified against their sha256.
+     *
+     * @return the files in targetDir, in the order of the manifest
+     */
+    public List<File> fetch(List<DependencyFile> files, String fileUrlPrefix, File targetDir) throws IOException {
+        FileUtil.mkdir(targetDir);
+        ExecutorService pool = Executors.newFixedThreadPool(
+                Math.max(1, Math.min(DOWNLOAD_THREADS, files.size())),
+                ThreadUtil.newNamedThreadFactory("dep-cache-download-", true));
+        try {
+            List<Future<File>> futures = new ArrayList<>();
+            for (DependencyFile file : files) {
+                File target = new File(targetDir, file.getName());
+                futures.add(pool.submit(() -> get(file, fileUrlPrefix + URLUtil.encodeQuery(file.getName()), target)));
+            }
+            List<File> result = new ArrayList<>();
+            for (Future<File> future : futures) {
+                result.add(future.get());
+            }
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while fetching dependencies", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException
+                    ? (IOException) e.getCause()
+                    : new IOException(e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Link the cached file of a dependency into target, downloading it if it is not in the cache yet. The lookup and
+     * the link are done under the lock, so that another JVM cannot evict the entry in between.
+     */
+    File get(DependencyFile file, String url, File target) throws IOException {
+        File entry = FileUtil.file(cacheDir, file.getSha256(), file.getName());
+        if (linkCached(entry, target)) {
+            log.info("Dependency {} found in cache {}", file.getName(), entry.getParent());
+            return target;
+        }
+        File tmp = FileUtil.file(cacheDir, file.getSha256() + "-" + UUID.randomUUID() + TMP_SUFFIX);
+        try {
+            HttpUtil.downloadFile(url, tmp);
+            String sha256 = DigestUtil.sha256Hex(tmp);
+            if (!sha256.equalsIgnoreCase(file.getSha256())) {
+                throw new IOException(StrUtil.format(
+                        "Checksum mismatch of {}, expected {} but got {}", file.getName(), file.getSha256(), sha256));
+            }
+            synchronized (JVM_LOCK) {
+                try (FileChannel channel = lockChannel();
+                        FileLock ignored = channel.lock()) {
+                    if (!entry.isFile()) {
+                        FileUtil.mkParentDirs(entry);
+                        move(tmp, entry);
+                    }
+                    touch(entry);
+                    link(entry, target);
+                    evict(file.getSha256());
+                }
+            }
+            log.info("Dependency {} downloaded into cache {}", file.getName(), entry.getParent());
+            return target;
+        } finally {
+            FileUtil.del(tmp);
+        }
+    }
+
+    /** Link the entry into target if it is cached, false if it is not. */
+    private boolean linkCached(File entry, File target) throws IOException {
+        synchronized (JVM_LOCK) {
+            try (FileChannel channel = lockChannel();
+                    FileLock ignored = channel.lock()) {
+                if (!entry.isFile()) {
+                    return false;
+                }
+                touch(entry);
+                link(entry, target);
+                return true;
+            }
+        }
+    }
+
+    private FileChannel lockChannel() throws IOException {
+        return new RandomAccessFile(new File(cacheDir, LOCK_FILE), "rw").getChannel();
+    }
+
+    /** Remove the least recently used entries until the cache fits into its cap, must hold the lock. */
+    private void evict(String keep) {
+        File[] entries = cacheDir.listFiles(f -> f.isDirectory() && !f.getName().equals(keep));
+        long total = FileUtil.size(cacheDir);
+        if (entries == null || total <= maxBytes) {
+            return;
+        }
+        Arrays.sort(entries, Comparator.comparingLong(File::lastModified));
+        for (File entry : entries) {
+            if (total <= maxBytes) {
+                break;
+            }
+            long size = FileUtil.size(entry);
+            if (FileUtil.del(entry)) {
+                total -= size;
+                log.info("Evicted dependency {} from cache", entry.getName());
+            }
+        }
+    }
+
+    private static void touch(File entry) {
+        long now = System.currentTimeMillis();
+        Objects.requireNonNull(entry.getParentFile()).setLastModified(now);
+    }
+
+    private static void move(File source, File target) throws IOException {
+        try {
+            Files.move(source.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /** Hard link the cached file so that a later eviction does not remove it under the running application. */
+    private static void link(File cached, File target) throws IOException {
+        FileUtil.del(target);
+        try {
+            Files.createLink(target.toPath(), cached.toPath());
+        } catch (IOException | UnsupportedOperationException e) {
+            Files.copy(cached.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -62,12 +62,12 @@ public class HttpFileSystem extends FileSystem {
 
     @Override
     public FSDataInputStream open(Path f, int bufferSize) throws IOException {
-        return null;
+        return open(f);
     }
 
     @Override
     public FSDataInputStream open(Path f) throws IOException {
-        return null;
+        return new HttpFsDataInputStream(f.getPath());
     }
 
     @Override
@@ -0,0 +1,146 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.dinky.resource.impl;
+
+import org.dinky.data.model.SystemConfiguration;
+
+import org.apache.flink.core.fs.FSDataInputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import cn.hutool.core.util.URLUtil;
+import cn.hutool.http.HttpResponse;
+import cn.hutool.http.HttpStatus;
+import cn.hutool.http.HttpUtil;
+
+/**
+ * Read a resource of dinky through http range requests, one window at a time, so that {@link #seek(long)} only
+ * fetches the bytes which are actually read.
+ */
+public class HttpFsDataInputStream extends FSDataInputStream {
+    private static final int WINDOW_SIZE = 1024 * 1024;
+
+    private final String path;
+    private byte[] window = new byte[0];
+    private long windowStart = 0;
+    private long pos = 0;
+    private boolean eof = false;
+
+    public HttpFsDataInputStream(String path) {
+        this.path = path;
+    }
+
+    @Override
+    public void seek(long desired) throws IOException {
+        if (desired < 0) {
+            throw new IOException("Cannot seek to a negative position: " + desired);
+        }
+        pos = desired;
+    }
+
+    @Override
+    public long getPos() throws IOException {
+        return pos;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!fill()) {
+            return -1;
+        }
+        return window[(int) (pos++ - windowStart)] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!fill()) {
+            return -1;
+        }
+        int n = (int) Math.min(len, windowStart + window.length - pos);
+        System.arraycopy(window, (int) (pos - windowStart), b, off, n);
+        pos += n;
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = Math.max(0, n);
+        pos += skipped;
+        return skipped;
+    }
+
+    /** Make sure the window contains pos, returns false at the end of the resource. */
+    private boolean fill() throws IOException {
+        if (pos >= windowStart && pos < windowStart + window.length) {
+            return true;
+        }
+        if (eof && pos >= windowStart + window.length) {
+            return false;
+        }
+        SystemConfiguration systemConfiguration = SystemConfiguration.getInstances();
+        try (HttpResponse response = HttpUtil.createGet(systemConfiguration.getDinkyAddr().getValue()
+                        + "/download/downloadFromRs?path=" + URLUtil.encode(path))
+                .header("Range", "bytes=" + pos + "-" + (pos + WINDOW_SIZE - 1))
+                .executeAsync()) {
+            if (response.getStatus() == HttpStatus.HTTP_PARTIAL) {
+                window = response.bodyBytes();
+                windowStart = pos;
+            } else if (response.isOk()) {
+                // the range is not supported, take the window out of the whole body
+                window = readWindow(response.bodyStream(), pos);
+                windowStart = pos;
+            } else {
+                throw new IOException("Read " + path + " failed, http status: " + response.getStatus());
+            }
+        }
+        eof = window.length < WINDOW_SIZE;
+        return window.length > 0;
+    }
+
+    private static byte[] readWindow(InputStream in, long offset) throws IOException {
+        long skipped = 0;
+        while (skipped < offset) {
+            long step = in.skip(offset - skipped);
+            if (step <= 0) {
+                if (in.read() == -1) {
+                    return new byte[0];
+                }
+                step = 1;
+            }
+            skipped += step;
+        }
+        byte[] bytes = new byte[WINDOW_SIZE];
+        int filled = 0;
+        int read;
+        while (filled < bytes.length && (read = in.read(bytes, filled, bytes.length - filled)) != -1) {
+            filled += read;
+        }
+        if (filled == bytes.length) {
+            return bytes;
+        }
+        byte[] result = new byte[filled];
+        System.arraycopy(bytes, 0, result, 0, filled);
+        return result;
+    }
+}
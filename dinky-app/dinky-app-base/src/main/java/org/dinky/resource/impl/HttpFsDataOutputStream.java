@@ -20,6 +20,7 @@
 package org.dinky.resource.impl;
 
 import org.dinky.data.model.SystemConfiguration;
+import org.dinky.utils.JsonUtils;
 
 import org.apache.flink.core.fs.FSDataOutputStream;
 import org.apache.flink.core.fs.Path;
@@ -27,18 +28,33 @@ import org.apache.flink.core.fs.local.LocalDataOutputStream;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.RandomAccessFile;
 import java.util.UUID;
 
+import com.fasterxml.jackson.databind.JsonNode;
+
 import cn.hutool.core.io.FileUtil;
 import cn.hutool.http.HttpResponse;
 import cn.hutool.http.HttpUtil;
+import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Buffer the written bytes in a local file and upload only the bytes written since the last flush, in chunks which
+ * dinky appends to the resource. Chunks are identified by upload id and offset, so a failed upload resumes from the
+ * size dinky has committed instead of sending the whole file again.
+ */
+@Slf4j
 public class HttpFsDataOutputStream extends FSDataOutputStream {
+    private static final int CHUNK_SIZE = 4 * 1024 * 1024;
+    private static final int MAX_RETRIES = 3;
+
     private final String uuid = UUID.randomUUID().toString();
 
     private final Path path;
     final File file = FileUtil.file(FileUtil.getTmpDir(), "/dinky-tmp/" + uuid + ".tmp");
     final LocalDataOutputStream localDataOutputStream;
+    private long uploadedBytes = 0;
+    private boolean started = false;
 
     public HttpFsDataOutputStream(Path f) throws IOException {
         this.path = f;
@@ -51,6 +67,11 @@ public class HttpFsDataOutputStream extends FSDataOutputStream {
         localDataOutputStream.write(b);
     }
 
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        localDataOutputStream.write(b, off, len);
+    }
+
     @Override
     public long getPos() throws IOException {
         return localDataOutputStream.getPos();
@@ -62,13 +83,80 @@ public class HttpFsDataOutputStream extends FSDataOutputStream {
         sendFile();
     }
 
-    private void sendFile() {
+    private void sendFile() throws IOException {
+        long size = localDataOutputStream.getPos();
+        if (started && uploadedBytes >= size) {
+            return;
+        }
+        IOException failure = null;
+        for (int attempt = 0; attempt <= MAX_RETRIES; attempt++) {
+            try {
+                if (attempt > 0) {
+                    uploadedBytes = queryUploadedBytes();
+                }
+                sendChunks(size);
+                return;
+            } catch (IOException e) {
+                failure = e;
+                log.warn("Upload {} failed at {}, attempt {}: {}", path, uploadedBytes, attempt, e.getMessage());
+            }
+        }
+        throw failure;
+    }
+
+    private void sendChunks(long size) throws IOException {
+        SystemConfiguration systemConfiguration = SystemConfiguration.getInstances();
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            do {
+                int length = (int) Math.min(CHUNK_SIZE, size - uploadedBytes);
+                byte[] chunk = new byte[length];
+                raf.seek(uploadedBytes);
+                raf.readFully(chunk);
+                try (HttpResponse httpResponse = HttpUtil.createPost(
+                                systemConfiguration.getDinkyAddr().getValue() + "/download/uploadChunkFromRsByLocal")
+                        .header("token", systemConfiguration.getDinkyToken().getValue())
+                        .form("file", chunk, uuid + "-" + uploadedBytes)
+                        .form("path", path.toString())
+                        .form("uploadId", uuid)
+                        .form("offset", uploadedBytes)
+                        .execute()) {
+                    uploadedBytes = parseSize(httpResponse);
+                }
+                started = true;
+            } while (uploadedBytes < size);
+        }
+    }
+
+    private long queryUploadedBytes() throws IOException {
+        SystemConfiguration systemConfiguration = SystemConfiguration.getInstances();
+        try (HttpResponse httpResponse = HttpUtil.createGet(
+                        systemConfiguration.getDinkyAddr().getValue() + "/download/uploadStatusFromRs")
+                .header("token", systemConfiguration.getDinkyToken().getValue())
+                .form("path", path.toString())
+                .form("uploadId", uuid)
+                .execute()) {
+            return parseSize(httpResponse);
+        }
+    }
+
+    private long parseSize(HttpResponse httpResponse) throws IOException {
+        if (!httpResponse.isOk()) {
+            throw new IOException("Upload failed, http status: " + httpResponse.getStatus());
+        }
+        JsonNode result = JsonUtils.parseObject(httpResponse.body());
+        if (result == null || !result.path("success").asBoolean(false)) {
+            throw new IOException("Upload failed: " + (result == null ? null : result.path("msg").asText()));
+        }
+        return result.path("data").asLong();
+    }
+
+    private void complete() {
         SystemConfiguration systemConfiguration = SystemConfiguration.getInstances();
         try (HttpResponse httpResponse = HttpUtil.createPost(
-                        systemConfiguration.getDinkyAddr().getValue() + "/download/uploadFromRsByLocal")
+                        systemConfiguration.getDinkyAddr().getValue() + "/download/completeUploadFromRs")
                 .header("token", systemConfiguration.getDinkyToken().getValue())
-                .form("file", file)
                 .form("path", path.toString())
+                .form("uploadId", uuid)
                 .execute()) {
             httpResponse.body();
         }
@@ -82,6 +170,11 @@ public class HttpFsDataOutputStream extends FSDataOutputStream {
     @Override
     public void close() throws IOException {
         localDataOutputStream.close();
-        sendFile();
+        try {
+            sendFile();
+            complete();
+        } finally {
+            FileUtil.del(file);
+        }
     }
 }
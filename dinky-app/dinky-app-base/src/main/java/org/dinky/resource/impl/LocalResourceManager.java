@@ -43,9 +43,6 @@ import java.util.stream.Stream;
 import cn.hutool.core.io.FileUtil;
 import cn.hutool.core.io.IORuntimeException;
 import cn.hutool.core.io.IoUtil;
-import cn.hutool.core.util.URLUtil;
-import cn.hutool.http.HttpResponse;
-import cn.hutool.http.HttpUtil;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
@@ -135,14 +132,7 @@ public class LocalResourceManager implements BaseResourceManager {
 
     @Override
     public InputStream readFile(String path) {
-        try (HttpResponse exec = HttpUtil.createGet(
-                        systemConfiguration.getDinkyAddr().getValue() + "/download/downloadFromRs?path="
-                                + URLUtil.encode(path))
-                .execute()) {
-            return exec.bodyStream();
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
+        return new HttpFsDataInputStream(path);
     }
 
     @Override
@@ -0,0 +1,170 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.dinky.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Run the benchmarks, write the jmh json report and compare it against a stored baseline. The process exits with 1
+ * when a benchmark got slower than the baseline by more than the threshold, so it can gate a build.
+ *
+ * <p>The module is only built with the benchmark profile.
+ *
+ * <pre>
+ * mvn -P benchmark package -pl dinky-benchmark -am
+ * java -jar dinky-benchmarks.jar [include regex...] [--report file] [--baseline file] [--threshold percent]
+ *                                [--save-baseline]
+ * </pre>
+ *
+ * <p>The baseline is a report of an earlier run, record one with --save-baseline on the machine which runs the
+ * comparison, scores taken on different hardware are not comparable.
+ */
+public class BenchmarkRunner {
+
+    private static final String DEFAULT_REPORT = "target/jmh-result.json";
+    private static final String DEFAULT_BASELINE = "jmh-baseline.json";
+    private static final double DEFAULT_THRESHOLD = 10;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public static void main(String[] args) throws Exception {
+        List<String> includes = new ArrayList<>();
+        String report = DEFAULT_REPORT;
+        String baseline = DEFAULT_BASELINE;
+        double threshold = DEFAULT_THRESHOLD;
+        boolean saveBaseline = false;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--report":
+                    report = args[++i];
+                    break;
+                case "--baseline":
+                    baseline = args[++i];
+                    break;
+                case "--threshold":
+                    threshold = Double.parseDouble(args[++i]);
+                    break;
+                case "--save-baseline":
+                    saveBaseline = true;
+                    break;
+                default:
+                    includes.add(args[i]);
+            }
+        }
+        BenchmarkRunner runner = new BenchmarkRunner();
+        Path reportPath = runner.run(includes, Paths.get(report));
+        Path baselinePath = Paths.get(baseline);
+        if (saveBaseline) {
+            Files.copy(reportPath, baselinePath, StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("Saved baseline to " + baselinePath.toAbsolutePath());
+            return;
+        }
+        if (!Files.exists(baselinePath)) {
+            System.out.println("No baseline at " + baselinePath.toAbsolutePath() + ", run with --save-baseline first.");
+            return;
+        }
+        List<String> regressions = runner.compare(reportPath, baselinePath, threshold);
+        if (!regressions.isEmpty()) {
+            System.out.println(regressions.size() + " benchmark(s) regressed by more than " + threshold + "%:");
+            regressions.forEach(System.out::println);
+            System.exit(1);
+        }
+    }
+
+    Path run(List<String> includes, Path report) throws RunnerException, IOException {
+        if (report.getParent() != null) {
+            Files.createDirectories(report.getParent());
+        }
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .resultFormat(ResultFormatType.JSON)
+                .result(report.toString())
+                .shouldFailOnError(true);
+        if (includes.isEmpty()) {
+            options.include(BenchmarkRunner.class.getPackage().getName() + ".*");
+        } else {
+            includes.forEach(options::include);
+        }
+        new Runner(options.build()).run();
+        return report;
+    }
+
+    /** Print the change of every benchmark against the baseline and return the regressed ones. */
+    List<String> compare(Path report, Path baseline, double threshold) throws IOException {
+        Map<String, JsonNode> current = readScores(report.toFile());
+        Map<String, JsonNode> previous = readScores(baseline.toFile());
+        List<String> regressions = new ArrayList<>();
+        System.out.printf("%-100s %14s %14s %9s%n", "Benchmark", "Baseline", "Current", "Change");
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode result = entry.getValue();
+            JsonNode base = previous.get(entry.getKey());
+            double score = result.path("primaryMetric").path("score").asDouble();
+            String unit = result.path("primaryMetric").path("scoreUnit").asText();
+            if (base == null) {
+                System.out.printf("%-100s %14s %14.3f %9s  %s%n", entry.getKey(), "-", score, "new", unit);
+                continue;
+            }
+            double baseScore = base.path("primaryMetric").path("score").asDouble();
+            double change = baseScore == 0 ? 0 : (score - baseScore) / baseScore * 100;
+            // throughput is better when higher, the time modes when lower
+            double slowdown = "thrpt".equals(result.path("mode").asText()) ? -change : change;
+            System.out.printf("%-100s %14.3f %14.3f %+8.1f%%  %s%n", entry.getKey(), baseScore, score, change, unit);
+            if (slowdown > threshold) {
+                regressions.add(String.format("  %s: %.3f -> %.3f %s", entry.getKey(), baseScore, score, unit));
+            }
+        }
+        return regressions;
+    }
+
+    /** Scores of a jmh json report by benchmark name and parameters. */
+    private Map<String, JsonNode> readScores(File file) throws IOException {
+        Map<String, JsonNode> scores = new LinkedHashMap<>();
+        for (JsonNode result : objectMapper.readTree(file)) {
+            Map<String, String> params = new TreeMap<>();
+            Iterator<Map.Entry<String, JsonNode>> fields = result.path("params").fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                params.put(field.getKey(), field.getValue().asText());
+            }
+            String key = result.path("benchmark").asText() + (params.isEmpty() ? "" : params.toString());
+            scores.put(key, result);
+        }
+        return scores;
+    }
+}
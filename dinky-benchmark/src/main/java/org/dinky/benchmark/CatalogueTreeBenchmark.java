@@ -0,0 +1,124 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.dinky.benchmark;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.dinky.data.model.Catalogue;
+import org.dinky.data.model.Task;
+import org.dinky.service.HistoryService;
+import org.dinky.service.JobHistoryService;
+import org.dinky.service.JobInstanceService;
+import org.dinky.service.MonitorService;
+import org.dinky.service.TaskService;
+import org.dinky.service.catalogue.factory.CatalogueFactory;
+import org.dinky.service.catalogue.factory.CatalogueTreeSortFactory;
+import org.dinky.service.catalogue.impl.CatalogueServiceImpl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Building the studio catalogue tree from a flat list of folders and tasks. The tasks are served from memory, so only
+ * the tree building is measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CatalogueTreeBenchmark {
+
+    private static final int FOLDERS_PER_LEVEL = 5;
+    private static final int DEPTH = 3;
+
+    @Param({"500", "2000"})
+    public int tasks;
+
+    private CatalogueServiceImpl catalogueService;
+    private List<Catalogue> catalogues;
+    private int nextId;
+
+    @Setup
+    public void setup() {
+        catalogues = new ArrayList<>();
+        nextId = 1;
+        List<Catalogue> parents = Collections.singletonList(null);
+        for (int level = 0; level < DEPTH; level++) {
+            List<Catalogue> folders = new ArrayList<>();
+            for (Catalogue parent : parents) {
+                for (int i = 0; i < FOLDERS_PER_LEVEL; i++) {
+                    int parentId = parent == null ? 0 : parent.getId();
+                    folders.add(catalogue("folder-" + level + "-" + i, null, parentId, false));
+                }
+            }
+            catalogues.addAll(folders);
+            parents = folders;
+        }
+        List<Task> taskList = new ArrayList<>(tasks);
+        for (int i = 0; i < tasks; i++) {
+            Task task = new Task();
+            task.setId(i + 1);
+            task.setName("task-" + i);
+            task.setNote("note of task " + i);
+            taskList.add(task);
+            catalogues.add(catalogue(task.getName(), task.getId(), parents.get(i % parents.size()).getId(), true));
+        }
+        Collections.shuffle(catalogues);
+
+        TaskService taskService = mock(TaskService.class);
+        when(taskService.list()).thenReturn(taskList);
+        catalogueService = new CatalogueServiceImpl(
+                taskService,
+                mock(JobInstanceService.class),
+                mock(HistoryService.class),
+                mock(JobHistoryService.class),
+                mock(MonitorService.class),
+                mock(CatalogueTreeSortFactory.class),
+                mock(CatalogueFactory.class));
+    }
+
+    private Catalogue catalogue(String name, Integer taskId, int parentId, boolean isLeaf) {
+        Catalogue catalogue = new Catalogue(name, taskId, isLeaf ? "FlinkSql" : null, parentId, isLeaf);
+        catalogue.setId(nextId++);
+        return catalogue;
+    }
+
+    @Benchmark
+    public List<Catalogue> buildCatalogueTree() {
+        return catalogueService.buildCatalogueTree(new ArrayList<>(catalogues));
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.dinky.benchmark;
+
+import org.dinky.context.MetricsContextHolder;
+import org.dinky.data.vo.MetricsVO;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Serializing a batch of job metrics before {@link MetricsContextHolder} writes it to sqlite. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class MetricsSerializationBenchmark {
+
+    /** {@link MetricsContextHolder} flushes every 1000 metrics. */
+    @Param({"100", "1000"})
+    public int batchSize;
+
+    @Param({"4", "32"})
+    public int vertices;
+
+    private MetricsContextHolder holder;
+    private List<MetricsVO> metrics;
+
+    @Setup
+    public void setup() {
+        holder = MetricsContextHolder.getInstance();
+        metrics = new ArrayList<>(batchSize);
+        LocalDateTime heartTime = LocalDateTime.now();
+        for (int i = 0; i < batchSize; i++) {
+            Map<String, Object> content = new ConcurrentHashMap<>();
+            for (int v = 0; v < vertices; v++) {
+                Map<String, String> vertex = new ConcurrentHashMap<>();
+                vertex.put("0.numRecordsIn", String.valueOf(i * 1000L + v));
+                vertex.put("0.numRecordsOut", String.valueOf(i * 990L + v));
+                vertex.put("0.numBytesInPerSecond", String.valueOf(i * 12.5d));
+                vertex.put("0.backPressuredTimeMsPerSecond", String.valueOf(v % 1000));
+                vertex.put("0.currentInputWatermark", String.valueOf(1700000000000L + i));
+                content.put("cbc357ccb763df2852fee8c4fc7d55f" + Integer.toHexString(v), vertex);
+            }
+            MetricsVO metricsVO = new MetricsVO();
+            metricsVO.setModel(String.valueOf(i % 50));
+            metricsVO.setContent(content);
+            metricsVO.setHeartTime(heartTime.plusSeconds(i));
+            metricsVO.setDate(heartTime.toLocalDate().toString());
+            metrics.add(metricsVO);
+        }
+    }
+
+    @Benchmark
+    public List<List<String>> convertMetricsVOsToStringList() {
+        return holder.convertMetricsVOsToStringList(metrics);
+    }
+}
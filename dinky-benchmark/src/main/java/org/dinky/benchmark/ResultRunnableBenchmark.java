@@ -0,0 +1,123 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.dinky.benchmark;
+
+import org.dinky.data.result.ResultRunnable;
+import org.dinky.data.result.SelectResult;
+
+import org.apache.flink.core.execution.JobClient;
+import org.apache.flink.table.api.DataTypes;
+import org.apache.flink.table.api.TableResult;
+import org.apache.flink.table.catalog.ResolvedSchema;
+import org.apache.flink.types.Row;
+import org.apache.flink.types.RowKind;
+import org.apache.flink.util.CloseableIterator;
+
+import java.lang.reflect.Proxy;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Buffering the rows of a select statement into the result pool, fed by an in memory table result. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ResultRunnableBenchmark {
+
+    @Param({"100", "1000"})
+    public int maxRowNum;
+
+    @Param({"false", "true"})
+    public boolean changeLog;
+
+    private final ResolvedSchema schema = ResolvedSchema.physical(
+            Arrays.asList("id", "name", "amount", "enabled", "ts"),
+            Arrays.asList(
+                    DataTypes.BIGINT(),
+                    DataTypes.STRING(),
+                    DataTypes.DOUBLE(),
+                    DataTypes.BOOLEAN(),
+                    DataTypes.TIMESTAMP_LTZ(3)));
+    private final JobClient jobClient = (JobClient) Proxy.newProxyInstance(
+            JobClient.class.getClassLoader(), new Class[] {JobClient.class}, (proxy, method, args) -> {
+                if ("cancel".equals(method.getName())) {
+                    return CompletableFuture.completedFuture(null);
+                }
+                throw new UnsupportedOperationException(method.getName());
+            });
+    private List<Row> rows;
+
+    @Setup
+    public void setup() {
+        rows = new ArrayList<>(maxRowNum);
+        Instant now = Instant.now();
+        for (int i = 0; i < maxRowNum; i++) {
+            // every tenth row retracts the previous one, as an aggregation does
+            RowKind kind = i % 10 == 9 ? RowKind.UPDATE_BEFORE : RowKind.INSERT;
+            int id = kind == RowKind.UPDATE_BEFORE ? i - 1 : i;
+            rows.add(Row.ofKind(kind, (long) id, "name-" + id, id * 1.5d, id % 2 == 0, now.plusMillis(id)));
+        }
+    }
+
+    @Benchmark
+    public SelectResult collect() {
+        AtomicReference<SelectResult> result = new AtomicReference<>();
+        new ResultRunnable(tableResult(), "benchmark", maxRowNum, changeLog, false, "UTC")
+                .registerCallback((id, selectResult) -> result.set(selectResult))
+                .run();
+        return result.get();
+    }
+
+    private TableResult tableResult() {
+        return (TableResult) Proxy.newProxyInstance(
+                TableResult.class.getClassLoader(), new Class[] {TableResult.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getJobClient":
+                            return Optional.of(jobClient);
+                        case "getResolvedSchema":
+                            return schema;
+                        case "collect":
+                            return CloseableIterator.adapterForIterator(rows.iterator());
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.dinky.benchmark;
+
+import org.dinky.cdc.AbstractSinkBuilder;
+import org.dinky.cdc.SinkBuilder;
+import org.dinky.data.enums.ColumnType;
+import org.dinky.data.model.Column;
+import org.dinky.data.model.FlinkCDCConfig;
+
+import org.apache.flink.api.common.functions.FlatMapFunction;
+import org.apache.flink.shaded.jackson2.com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.types.logical.LogicalType;
+import org.apache.flink.util.Collector;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * The per record path of a cdc sink: deserialize the debezium json and convert the changed row to {@link RowData}, as
+ * done by the flat map operators of {@link AbstractSinkBuilder}.
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SinkConversionBenchmark {
+
+    @Param({"c", "u"})
+    public String op;
+
+    private BenchmarkSinkBuilder sinkBuilder;
+    private FlatMapFunction<Map, RowData> function;
+    private String record;
+    private Map value;
+
+    @Setup
+    public void setup() throws Exception {
+        List<Column> columns = new ArrayList<>();
+        columns.add(column("id", ColumnType.JAVA_LANG_LONG));
+        columns.add(column("name", ColumnType.STRING));
+        columns.add(column("age", ColumnType.INTEGER));
+        columns.add(column("score", ColumnType.JAVA_LANG_DOUBLE));
+        columns.add(Column.builder()
+                .name("amount")
+                .javaType(ColumnType.DECIMAL)
+                .precision(12)
+                .scale(2)
+                .build());
+        columns.add(column("enabled", ColumnType.JAVA_LANG_BOOLEAN));
+        columns.add(column("birthday", ColumnType.LOCAL_DATE));
+        columns.add(Column.builder()
+                .name("updated_at")
+                .javaType(ColumnType.TIMESTAMP)
+                .length(3)
+                .build());
+
+        sinkBuilder = new BenchmarkSinkBuilder();
+        function = sinkBuilder.function(columns);
+
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", 1024L);
+        row.put("name", "dinky-benchmark-customer");
+        row.put("age", 30);
+        row.put("score", 98.5d);
+        row.put("amount", "12345.67");
+        row.put("enabled", true);
+        row.put("birthday", 19000);
+        row.put("updated_at", 1700000000000L);
+        Map<String, Object> source = new LinkedHashMap<>();
+        source.put("db", "shop");
+        source.put("table", "customer");
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("before", "u".equals(op) ? row : null);
+        event.put("after", row);
+        event.put("source", source);
+        event.put("op", op);
+        event.put("ts_ms", 1700000000000L);
+        record = sinkBuilder.objectMapper().writeValueAsString(event);
+        value = sinkBuilder.objectMapper().readValue(record, Map.class);
+    }
+
+    private static Column column(String name, ColumnType type) {
+        return Column.builder().name(name).javaType(type).build();
+    }
+
+    @Benchmark
+    public Map deserialize() throws Exception {
+        return sinkBuilder.objectMapper().readValue(record, Map.class);
+    }
+
+    @Benchmark
+    public void convert(Blackhole blackhole) throws Exception {
+        function.flatMap(value, new BlackholeCollector(blackhole));
+    }
+
+    @Benchmark
+    public void deserializeAndConvert(Blackhole blackhole) throws Exception {
+        function.flatMap(sinkBuilder.objectMapper().readValue(record, Map.class), new BlackholeCollector(blackhole));
+    }
+
+    /** Exposes the conversion of {@link AbstractSinkBuilder} without building a flink pipeline. */
+    private static class BenchmarkSinkBuilder extends AbstractSinkBuilder {
+
+        FlatMapFunction<Map, RowData> function(List<Column> columns) {
+            List<String> columnNameList = new ArrayList<>();
+            List<LogicalType> columnTypeList = new ArrayList<>();
+            buildColumn(columnNameList, columnTypeList, columns);
+            return sinkRowDataFunction(columnNameList, columnTypeList, "shop.customer");
+        }
+
+        ObjectMapper objectMapper() {
+            return objectMapper;
+        }
+
+        @Override
+        public String getHandle() {
+            return "benchmark";
+        }
+
+        @Override
+        public SinkBuilder create(FlinkCDCConfig config) {
+            return this;
+        }
+    }
+
+    private static class BlackholeCollector implements Collector<RowData> {
+        private final Blackhole blackhole;
+
+        BlackholeCollector(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void collect(RowData record) {
+            blackhole.consume(record);
+        }
+
+        @Override
+        public void close() {}
+    }
+}
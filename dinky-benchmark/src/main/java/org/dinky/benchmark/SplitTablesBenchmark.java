@@ -0,0 +1,116 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.dinky.benchmark;
+
+import org.dinky.data.model.Table;
+import org.dinky.metadata.driver.AbstractJdbcDriver;
+import org.dinky.metadata.driver.MySqlDriver;
+import org.dinky.metadata.query.IDBQuery;
+import org.dinky.utils.SplitUtil;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Merging sharded databases and tables into logical tables for a cdc source, see
+ * {@link AbstractJdbcDriver#getSplitTables(List, Map)}. The schema list is generated instead of being read from
+ * information_schema.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SplitTablesBenchmark {
+
+    private static final int LOGICAL_TABLES = 10;
+
+    @Param({"4", "16"})
+    public int databases;
+
+    @Param({"8", "32"})
+    public int shards;
+
+    private AbstractJdbcDriver driver;
+    private List<String> tableRegList;
+    private Map<String, String> splitConfig;
+
+    @Setup
+    public void setup() {
+        IDBQuery dbQuery = new MySqlDriver().getDBQuery();
+        String createTime = SimpleDateFormat.getDateInstance().format(new Date());
+        List<Map<String, String>> schemaList = new ArrayList<>();
+        for (int d = 0; d < databases; d++) {
+            for (int t = 0; t < LOGICAL_TABLES; t++) {
+                for (int s = 0; s < shards; s++) {
+                    Map<String, String> table = new HashMap<>();
+                    table.put(dbQuery.schemaName(), "shop_" + d);
+                    table.put(dbQuery.tableName(), "table" + t + "_" + s);
+                    table.put(dbQuery.tableComment(), "shard " + s + " of table" + t);
+                    table.put(dbQuery.tableType(), "BASE TABLE");
+                    table.put(dbQuery.catalogName(), "def");
+                    table.put(dbQuery.engine(), "InnoDB");
+                    table.put(dbQuery.options(), "");
+                    table.put(dbQuery.rows(), String.valueOf(s * 1000));
+                    table.put(dbQuery.createTime(), createTime);
+                    table.put(dbQuery.updateTime(), createTime);
+                    schemaList.add(table);
+                }
+            }
+        }
+        driver = new MySqlDriver() {
+            @Override
+            public List<Map<String, String>> getSplitSchemaList() {
+                return schemaList;
+            }
+        };
+        tableRegList = Arrays.asList("shop_[0-9]+\\.table[0-3]_[0-9]+", "shop_[0-9]+\\.table[4-9]_[0-9]+");
+        splitConfig = new HashMap<>();
+        splitConfig.put(SplitUtil.ENABLE, "true");
+        splitConfig.put(SplitUtil.MATCH_NUMBER_REGEX, "_[0-9]+");
+        splitConfig.put(SplitUtil.MAX_MATCH_VALUE, String.valueOf(Math.max(databases, shards)));
+        splitConfig.put(SplitUtil.MATCH_WAY, "suffix");
+    }
+
+    @Benchmark
+    public Set<Table> getSplitTables() {
+        return driver.getSplitTables(tableRegList, splitConfig);
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.dinky.benchmark;
+
+import org.dinky.utils.SqlUtil;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Comment removal and statement splitting of a 5000 line script by the lexer, against the regular expressions it
+ * replaced.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SqlLexerBenchmark {
+
+    private static final Pattern NOTE = Pattern.compile("(?ms)('(?:[^'])*')|--.*?$|/\\*[^+].*?\\*/|");
+
+    private String script;
+
+    @Setup
+    public void setup() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            sb.append("-- statement ").append(i).append('\n');
+            sb.append("insert into sink_").append(i).append(" /*+ OPTIONS('sink.parallelism'='1') */\n");
+            sb.append("select id, 'value-").append(i).append("' as v\n");
+            sb.append("from source_").append(i).append(" /* source table */\n");
+            sb.append("where id > ").append(i).append(";\n");
+        }
+        script = sb.toString();
+    }
+
+    @Benchmark
+    public String[] lexer() {
+        return SqlUtil.getStatements(SqlUtil.removeNote(script));
+    }
+
+    @Benchmark
+    public String[] regex() {
+        String sql = script.replaceAll("\u00A0", " ").replaceAll("[\r\n]+", "\n");
+        sql = NOTE.matcher(sql).replaceAll("$1").trim();
+        String[] splits = sql.replace("\r\n", "\n").split(";\\s*(?:\\n|--.*)");
+        String lastStatement = splits[splits.length - 1].trim();
+        if (lastStatement.endsWith(";")) {
+            splits[splits.length - 1] = lastStatement.substring(0, lastStatement.length() - 1);
+        }
+        return splits;
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.dinky.benchmark;
+
+import org.dinky.utils.SqlUtil;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Splitting, comment removal and parameter replacement of a flink sql script as submitted from the studio. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SqlUtilBenchmark {
+
+    @Param({"20", "200"})
+    public int statements;
+
+    private String script;
+    private Map<String, String> params;
+
+    @Setup
+    public void setup() {
+        StringBuilder sb = new StringBuilder();
+        params = new HashMap<>();
+        for (int i = 0; i < statements; i++) {
+            params.put("table_" + i, "ods.orders_" + i);
+            sb.append("-- source table ").append(i).append('\n');
+            sb.append("CREATE TABLE ${table_")
+                    .append(i)
+                    .append("} (\n")
+                    .append("    id BIGINT,\n")
+                    .append("    name STRING, /* customer name; may contain ';' */\n")
+                    .append("    amount DECIMAL(10, 2),\n")
+                    .append("    ts TIMESTAMP(3),\n")
+                    .append("    WATERMARK FOR ts AS ts - INTERVAL '5' SECOND\n")
+                    .append(") WITH ('connector' = 'datagen', 'rows-per-second' = '10');\n");
+            sb.append("INSERT INTO sink_")
+                    .append(i)
+                    .append(" SELECT id, UPPER(name), SUM(amount) FROM ${table_")
+                    .append(i)
+                    .append("} WHERE name <> 'a;b' GROUP BY id, name;\n\n");
+        }
+        script = sb.toString();
+    }
+
+    @Benchmark
+    public String[] getStatements() {
+        return SqlUtil.getStatements(script);
+    }
+
+    @Benchmark
+    public String removeNote() {
+        return SqlUtil.removeNote(script);
+    }
+
+    @Benchmark
+    public String replaceAllParam() {
+        return SqlUtil.replaceAllParam(script, params);
+    }
+}
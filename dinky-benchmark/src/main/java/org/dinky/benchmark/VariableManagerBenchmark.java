@@ -0,0 +1,94 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.dinky.benchmark;
+
+import org.dinky.executor.VariableManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Registering the variables of a task and replacing them in its statements, including nested references. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class VariableManagerBenchmark {
+
+    @Param({"10", "100"})
+    public int variables;
+
+    private Map<String, String> variableMap;
+    private String statement;
+    private String definition;
+    private VariableManager variableManager;
+
+    @Setup
+    public void setup() {
+        variableMap = new LinkedHashMap<>();
+        variableMap.put("database", "ods");
+        for (int i = 0; i < variables; i++) {
+            // every variable refers to another one, so the values have to be resolved recursively
+            variableMap.put("table_" + i, "${database}.orders_" + i);
+        }
+        StringBuilder sb = new StringBuilder("INSERT INTO ${database}.summary ");
+        for (int i = 0; i < variables; i++) {
+            sb.append(i == 0 ? "SELECT * FROM " : " UNION ALL SELECT * FROM ")
+                    .append("${table_")
+                    .append(i)
+                    .append('}');
+        }
+        statement = sb.toString();
+        definition = "summary_table := ${database}.summary_" + variables;
+        variableManager = new VariableManager();
+        variableManager.registerVariable(variableMap);
+    }
+
+    @Benchmark
+    public VariableManager registerVariable() {
+        VariableManager manager = new VariableManager();
+        manager.registerVariable(variableMap);
+        return manager;
+    }
+
+    @Benchmark
+    public String replaceVariable() {
+        return variableManager.replaceVariable(statement);
+    }
+
+    @Benchmark
+    public String parseVariable() {
+        return variableManager.parseVariable(definition);
+    }
+}
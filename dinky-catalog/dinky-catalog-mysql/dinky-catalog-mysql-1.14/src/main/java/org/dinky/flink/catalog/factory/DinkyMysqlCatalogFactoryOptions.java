@@ -25,6 +25,8 @@ import org.apache.flink.annotation.Internal;
 import org.apache.flink.configuration.ConfigOption;
 import org.apache.flink.configuration.ConfigOptions;
 
+import java.time.Duration;
+
 /** {@link ConfigOption}s for {@link DinkyMysqlCatalog}. */
 @Internal
 public class DinkyMysqlCatalogFactoryOptions {
@@ -40,5 +42,11 @@ public class DinkyMysqlCatalogFactoryOptions {
     public static final ConfigOption<String> URL =
             ConfigOptions.key("url").stringType().noDefaultValue();
 
+    public static final ConfigOption<Duration> CACHE_TTL = ConfigOptions.key("cache.ttl")
+            .durationType()
+            .defaultValue(Duration.ofSeconds(30))
+            .withDescription("How long a table read from the catalog is cached, 0 disables the cache. "
+                    + "DDL executed through the catalog invalidates the cache at once.");
+
     private DinkyMysqlCatalogFactoryOptions() {}
 }
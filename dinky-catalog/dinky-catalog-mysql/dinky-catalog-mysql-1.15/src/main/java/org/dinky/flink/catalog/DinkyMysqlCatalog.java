@@ -65,10 +65,15 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -94,8 +99,12 @@ public class DinkyMysqlCatalog extends AbstractCatalog {
     }
 
     private static final String COMMENT = "comment";
-    /** 判断是否发生过SQL异常，如果发生过，那么conn可能失效。要注意判断 */
-    private boolean sqlExceptionHappened = false;
+
+    /** 最多保留的空闲连接数 */
+    private static final int MAX_IDLE_CONNECTIONS = 4;
+
+    /** 校验归还连接的超时秒数 */
+    private static final int VALIDATION_TIMEOUT_SECONDS = 5;
 
     /** 对象类型，例如 库、表、视图等 */
     protected static class ObjectType {
@@ -134,6 +143,18 @@ public class DinkyMysqlCatalog extends AbstractCatalog {
     /** 默认database */
     private static final String defaultDatabase = "default_database";
 
+    /** 表结构缓存的有效期，为 0 时不缓存 */
+    private final long cacheTtlMs;
+
+    /** 空闲连接，每次调用借出一个连接，用完归还 */
+    private final Deque<Connection> idleConnections = new ArrayDeque<>();
+
+    /** getTable 的缓存 */
+    private final Map<ObjectPath, CachedTable> tableCache = new ConcurrentHashMap<>();
+
+    /** 元数据版本，通过本 catalog 执行的 DDL 都会加一，加载期间版本变化的表不会放入缓存 */
+    private final AtomicLong metadataVersion = new AtomicLong();
+
     /**
      * 数据库用户名
      *
@@ -162,10 +183,15 @@ public class DinkyMysqlCatalog extends AbstractCatalog {
     }
 
     public DinkyMysqlCatalog(String name, String url, String user, String pwd) {
+        this(name, url, user, pwd, DinkyMysqlCatalogFactoryOptions.CACHE_TTL.defaultValue().toMillis());
+    }
+
+    public DinkyMysqlCatalog(String name, String url, String user, String pwd, long cacheTtlMs) {
         super(name, defaultDatabase);
         this.url = url;
         this.user = user;
         this.pwd = pwd;
+        this.cacheTtlMs = cacheTtlMs;
     }
 
     public DinkyMysqlCatalog(String name) {
@@ -173,6 +199,7 @@ public class DinkyMysqlCatalog extends AbstractCatalog {
         this.url = DinkyMysqlCatalogFactoryOptions.URL.defaultValue();
         this.user = DinkyMysqlCatalogFactoryOptions.USERNAME.defaultValue();
         this.pwd = DinkyMysqlCatalogFactoryOptions.PASSWORD.defaultValue();
+        this.cacheTtlMs = DinkyMysqlCatalogFactoryOptions.CACHE_TTL.defaultValue().toMillis();
     }
 
     @Override
@@ -191,45 +218,69 @@ public class DinkyMysqlCatalog extends AbstractCatalog {
 
     @Override
     public void close() throws CatalogException {
-        if (connection != null) {
-            try {
-                connection.close();
-                connection = null;
-            } catch (SQLException e) {
-                sqlExceptionHappened = true;
-                throw new CatalogException("Fail to close connection.", e);
+        tableCache.clear();
+        synchronized (idleConnections) {
+            SQLException failure = null;
+            for (Connection connection : idleConnections) {
+                try {
+                    connection.close();
+                } catch (SQLException e) {
+                    failure = e;
+                }
+            }
+            idleConnections.clear();
+            if (failure != null) {
+                throw new CatalogException("Fail to close connection.", failure);
             }
         }
     }
 
-    private Connection connection;
-
+    /** 借出一个连接，优先复用空闲连接，否则新建。借出的连接必须在 finally 中通过 releaseConnection 归还 */
     protected Connection getConnection() throws CatalogException {
+        synchronized (idleConnections) {
+            Connection connection = idleConnections.pollFirst();
+            if (connection != null) {
+                return connection;
+            }
+        }
+        try {
+            return DriverManager.getConnection(url, user, pwd);
+        } catch (SQLException e) {
+            throw new CatalogException("Fail to get connection.", e);
+        }
+    }
+
+    /** 归还借出的连接。未提交的事务会回滚，校验有效且空闲连接未满时留作空闲连接，否则关闭 */
+    protected void releaseConnection(Connection connection) {
         try {
-            // todo: 包装一个方法用于获取连接，方便后续改造使用其他的连接生成。
-            // Class.forName(MYSQL_DRIVER);
-            if (connection == null) {
-                connection = DriverManager.getConnection(url, user, pwd);
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
             }
-            if (sqlExceptionHappened) {
-                sqlExceptionHappened = false;
-                if (!connection.isValid(10)) {
-                    connection.close();
-                }
-                if (connection.isClosed()) {
-                    connection = null;
-                    return getConnection();
+            if (connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                synchronized (idleConnections) {
+                    if (idleConnections.size() < MAX_IDLE_CONNECTIONS) {
+                        idleConnections.addFirst(connection);
+                        return;
+                    }
                 }
-                connection = null;
-                return getConnection();
             }
-
-            return connection;
-        } catch (Exception e) {
-            throw new CatalogException("Fail to get connection.", e);
+        } catch (SQLException e) {
+            logger.warn("Discard a broken catalog connection", e);
+        }
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            logger.warn("Fail to close connection.", e);
         }
     }
 
+    /** 表结构发生变化，缓存的表全部失效 */
+    private void invalidateTableCache() {
+        metadataVersion.incrementAndGet();
+        tableCache.clear();
+    }
+
     @Override
     public List<String> listDatabases() throws CatalogException {
         List<String> myDatabases = new ArrayList<>();
@@ -246,6 +297,8 @@ public class DinkyMysqlCatalog extends AbstractCatalog {
             return myDatabases;
         } catch (Exception e) {
             throw new CatalogException(String.format("Failed listing database in catalog %s", getName()), e);
+        } finally {
+            releaseConnection(conn);
         }
     }
 
@@ -271,7 +324,6 @@ public class DinkyMysqlCatalog extends AbstractCatalog {
                         map.put(prs.getString("key"), prs.getString("value"));
                     }
                 } catch (SQLException e) {
-                    sqlExceptionHappened = true;
                     throw new CatalogException(
                             String.format("Failed get database properties in catalog %s", getName()), e);
                 }
@@ -281,8 +333,9 @@ public class DinkyMysqlCatalog extends AbstractCatalog {
                 throw new DatabaseNotExistException(getName(), databaseName);
             }
         } catch (SQLException e) {
-            sqlExceptionHappened = true;
             throw new CatalogException(String.format("Failed get database in catalog %s", getName()), e);
+        } finally {
+            releaseConnection(conn);
         }
     }
 
@@ -309,8 +362,9 @@ public class DinkyMysqlCatalog extends AbstractCatalog {
             }
             return id;
         } catch (SQLException e) {
-            sqlExceptionHappened = true;
             throw new CatalogException(String.format("获取 database 信息失败：%s.%s", getName(), databaseName), e);
+        } finally {
+            releaseConnection(conn);
         }
     }
 
@@ -354,8 +408,9 @@ public class DinkyMysqlCatalog extends AbstractCatalog {
                 }
                 conn.commit();
             } catch (SQLException e) {
-                sqlExceptionHappened = true;
                 logger.error("创建 database 信息失败：", e);
+            } finally {
+                releaseConnection(conn);
             }
         }
     }
@@ -405,9 +460,11 @@ public class DinkyMysqlCatalog extends AbstractCatalog {
             dStat.executeUpdate();
             dStat.close();
             conn.commit();
+            invalidateTableCache();
         } catch (SQLException e) {
-            sqlExceptionHappened = true;
             throw new CatalogException("删除 database 信息失败：", e);
+        } finally {
+            releaseConnection(conn);
         }
     }
 
@@ -452,8 +509,9 @@ public class DinkyMysqlCatalog extends AbstractCatalog {
             }
             conn.commit();
         } catch (SQLException e) {
-            sqlExceptionHappened = true;
             throw new CatalogException("修改 database 信息失败：", e);
+        } finally {
+            releaseConnection(conn);
         }
     }
 
@@ -492,102 +550,86 @@ public class DinkyMysqlCatalog extends AbstractCatalog {
             return tables;
         } catch (Exception e) {
             throw new CatalogException(String.format("Failed listing %s in catalog %s", tableType, getName()), e);
+        } finally {
+            releaseConnection(conn);
         }
     }
 
     @Override
     public CatalogBaseTable getTable(ObjectPath tablePath) throws TableNotExistException, CatalogException {
-        // 还是分步骤来
-        // 1、先取出表 这可能是view也可能是table
-        // 2、取出列
-        // 3、取出属性
-        Integer id = getTableId(tablePath);
-
-        if (id == null) {
-            throw new TableNotExistException(getName(), tablePath);
+        CachedTable cached = tableCache.get(tablePath);
+        if (cached != null
+                && cached.version == metadataVersion.get()
+                && System.currentTimeMillis() - cached.loadTime < cacheTtlMs) {
+            return cached.table.copy();
         }
+        long version = metadataVersion.get();
+        CatalogBaseTable table = loadTable(tablePath);
+        if (cacheTtlMs > 0 && metadataVersion.get() == version) {
+            tableCache.put(tablePath, new CachedTable(table.copy(), version));
+        }
+        return table;
+    }
 
+    /** 一次查询取出表和它的属性，视图再取一次字段 */
+    private CatalogBaseTable loadTable(ObjectPath tablePath) throws TableNotExistException, CatalogException {
+        String queryTable = "SELECT t.id, t.description, t.table_type, p.`key`, p.`value` FROM metadata_table t"
+                + " JOIN metadata_database d ON d.id = t.database_id"
+                + " LEFT JOIN metadata_table_property p ON p.table_id = t.id"
+                + " WHERE d.database_name=? AND t.table_name=?";
         Connection conn = getConnection();
         try {
-            String queryTable =
-                    "SELECT table_name " + " ,description, table_type " + " FROM metadata_table " + " where  id=?";
-            PreparedStatement ps = conn.prepareStatement(queryTable);
-            ps.setInt(1, id);
-            ResultSet rs = ps.executeQuery();
-            String description;
-            String tableType;
-            if (rs.next()) {
-                description = rs.getString("description");
-                tableType = rs.getString("table_type");
-                ps.close();
-            } else {
-                ps.close();
+            Integer id = null;
+            String description = null;
+            String tableType = null;
+            Map<String, String> props = new HashMap<>();
+            try (PreparedStatement ps = conn.prepareStatement(queryTable)) {
+                ps.setString(1, tablePath.getDatabaseName());
+                ps.setString(2, tablePath.getObjectName());
+                ResultSet rs = ps.executeQuery();
+                while (rs.next()) {
+                    id = rs.getInt("id");
+                    description = rs.getString("description");
+                    tableType = rs.getString("table_type");
+                    String key = rs.getString("key");
+                    if (key != null) {
+                        props.put(key, rs.getString("value"));
+                    }
+                }
+            }
+            if (id == null) {
                 throw new TableNotExistException(getName(), tablePath);
             }
             if (tableType.equals(ObjectType.TABLE)) {
                 // 这个是 table
-                String propSql = "SELECT `key`, `value` from metadata_table_property " + "WHERE table_id=?";
-                PreparedStatement pState = conn.prepareStatement(propSql);
-                pState.setInt(1, id);
-                ResultSet prs = pState.executeQuery();
-                Map<String, String> props = new HashMap<>();
-                while (prs.next()) {
-                    String key = prs.getString("key");
-                    String value = prs.getString("value");
-                    props.put(key, value);
-                }
-                pState.close();
                 props.put(COMMENT, description);
                 return CatalogTable.fromProperties(props);
             } else if (tableType.equals(ObjectType.VIEW)) {
-                // 1、从库中取出table信息。（前面已做）
-                // 2、取出字段。
-                String colSql = "SELECT column_name, column_type, data_type, description "
-                        + " FROM metadata_column WHERE "
-                        + " table_id=?";
-                PreparedStatement cStat = conn.prepareStatement(colSql);
-                cStat.setInt(1, id);
-                ResultSet crs = cStat.executeQuery();
-
+                // 取出字段
+                String colSql = "SELECT column_name, data_type, description FROM metadata_column WHERE table_id=?";
                 Schema.Builder builder = Schema.newBuilder();
-                while (crs.next()) {
-                    String colName = crs.getString("column_name");
-                    String dataType = crs.getString("data_type");
-
-                    builder.column(colName, dataType);
-                    String cDesc = crs.getString("description");
-                    if (null != cDesc && cDesc.length() > 0) {
-                        builder.withComment(cDesc);
-                    }
-                }
-                cStat.close();
-                // 3、取出query
-                String qSql = "SELECT `key`, value FROM metadata_table_property" + " WHERE table_id=? ";
-                PreparedStatement qStat = conn.prepareStatement(qSql);
-                qStat.setInt(1, id);
-                ResultSet qrs = qStat.executeQuery();
-                String originalQuery = "";
-                String expandedQuery = "";
-                Map<String, String> options = new HashMap<>();
-                while (qrs.next()) {
-                    String key = qrs.getString("key");
-                    String value = qrs.getString("value");
-                    if ("OriginalQuery".equals(key)) {
-                        originalQuery = value;
-                    } else if ("ExpandedQuery".equals(key)) {
-                        expandedQuery = value;
-                    } else {
-                        options.put(key, value);
+                try (PreparedStatement cStat = conn.prepareStatement(colSql)) {
+                    cStat.setInt(1, id);
+                    ResultSet crs = cStat.executeQuery();
+                    while (crs.next()) {
+                        builder.column(crs.getString("column_name"), crs.getString("data_type"));
+                        String cDesc = crs.getString("description");
+                        if (null != cDesc && cDesc.length() > 0) {
+                            builder.withComment(cDesc);
+                        }
                     }
                 }
+                String originalQuery = Optional.ofNullable(props.remove("OriginalQuery")).orElse("");
+                String expandedQuery = Optional.ofNullable(props.remove("ExpandedQuery")).orElse("");
                 // 合成view
-                return CatalogView.of(builder.build(), description, originalQuery, expandedQuery, options);
+                return CatalogView.of(builder.build(), description, originalQuery, expandedQuery, props);
             } else {
                 throw new CatalogException("不支持的数据类型。" + tableType);
             }
         } catch (SQLException e) {
-            sqlExceptionHappened = true;
             throw new CatalogException("获取 表信息失败。", e);
+        } finally {
+            releaseConnection(conn);
         }
     }
 
@@ -613,9 +655,10 @@ public class DinkyMysqlCatalog extends AbstractCatalog {
                 return rs.getInt(1);
             }
         } catch (SQLException e) {
-            sqlExceptionHappened = true;
             logger.error("get table fail", e);
             throw new CatalogException("get table fail.", e);
+        } finally {
+            releaseConnection(conn);
         }
         return null;
     }
@@ -648,10 +691,12 @@ public class DinkyMysqlCatalog extends AbstractCatalog {
             dStat.executeUpdate();
             dStat.close();
             conn.commit();
+            invalidateTableCache();
         } catch (SQLException e) {
-            sqlExceptionHappened = true;
             logger.error("drop table fail", e);
             throw new CatalogException("drop table fail.", e);
+        } finally {
+            releaseConnection(conn);
         }
     }
 
@@ -673,9 +718,11 @@ public class DinkyMysqlCatalog extends AbstractCatalog {
             ps.setString(1, newTableName);
             ps.setInt(2, id);
             ps.executeUpdate();
+            invalidateTableCache();
         } catch (SQLException ex) {
-            sqlExceptionHappened = true;
             throw new CatalogException("修改表名失败", ex);
+        } finally {
+            releaseConnection(conn);
         }
     }
 
@@ -803,10 +850,12 @@ public class DinkyMysqlCatalog extends AbstractCatalog {
                 }
             }
             conn.commit();
+            invalidateTableCache();
         } catch (SQLException ex) {
-            sqlExceptionHappened = true;
             logger.error("插入数据库失败", ex);
             throw new CatalogException("插入数据库失败", ex);
+        } finally {
+            releaseConnection(conn);
         }
     }
 
@@ -834,9 +883,11 @@ public class DinkyMysqlCatalog extends AbstractCatalog {
                     ps.addBatch();
                 }
                 ps.executeBatch();
+                invalidateTableCache();
             } catch (SQLException ex) {
-                sqlExceptionHappened = true;
                 throw new CatalogException("修改表名失败", ex);
+            } finally {
+                releaseConnection(conn);
             }
         }
     }
@@ -927,8 +978,9 @@ public class DinkyMysqlCatalog extends AbstractCatalog {
             }
             return functions;
         } catch (SQLException e) {
-            sqlExceptionHappened = true;
             throw new CatalogException("获取 UDF 列表失败");
+        } finally {
+            releaseConnection(conn);
         }
     }
 
@@ -953,9 +1005,10 @@ public class DinkyMysqlCatalog extends AbstractCatalog {
                 throw new FunctionNotExistException(getName(), functionPath);
             }
         } catch (SQLException e) {
-            sqlExceptionHappened = true;
             throw new CatalogException(
                     "获取 UDF 失败：" + functionPath.getDatabaseName() + "." + functionPath.getObjectName());
+        } finally {
+            releaseConnection(conn);
         }
     }
 
@@ -982,9 +1035,10 @@ public class DinkyMysqlCatalog extends AbstractCatalog {
                 return id;
             }
         } catch (SQLException e) {
-            sqlExceptionHappened = true;
             logger.error("get function fail", e);
             throw new CatalogException("get function fail.", e);
+        } finally {
+            releaseConnection(conn);
         }
         return null;
     }
@@ -1013,8 +1067,9 @@ public class DinkyMysqlCatalog extends AbstractCatalog {
             ps.setString(4, function.getFunctionLanguage().toString());
             ps.executeUpdate();
         } catch (SQLException e) {
-            sqlExceptionHappened = true;
             throw new CatalogException("创建 函数 失败", e);
+        } finally {
+            releaseConnection(conn);
         }
     }
 
@@ -1037,8 +1092,9 @@ public class DinkyMysqlCatalog extends AbstractCatalog {
             ps.setInt(3, id);
             ps.executeUpdate();
         } catch (SQLException e) {
-            sqlExceptionHappened = true;
             throw new CatalogException("修改 函数 失败", e);
+        } finally {
+            releaseConnection(conn);
         }
     }
 
@@ -1059,8 +1115,9 @@ public class DinkyMysqlCatalog extends AbstractCatalog {
             ps.setInt(1, id);
             ps.executeUpdate();
         } catch (SQLException e) {
-            sqlExceptionHappened = true;
             throw new CatalogException("删除 函数 失败", e);
+        } finally {
+            releaseConnection(conn);
         }
     }
 
@@ -1149,4 +1206,16 @@ public class DinkyMysqlCatalog extends AbstractCatalog {
         // todo: 补充完成该方法。
         throw new UnsupportedOperationException("该方法尚未完成");
     }
+
+    /** 缓存的表结构及加载时的元数据版本 */
+    private static class CachedTable {
+        private final CatalogBaseTable table;
+        private final long version;
+        private final long loadTime = System.currentTimeMillis();
+
+        private CachedTable(CatalogBaseTable table, long version) {
+            this.table = table;
+            this.version = version;
+        }
+    }
 }
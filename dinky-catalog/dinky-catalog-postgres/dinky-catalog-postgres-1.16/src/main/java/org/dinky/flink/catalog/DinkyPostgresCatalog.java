@@ -65,10 +65,15 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -96,10 +101,16 @@ public class DinkyPostgresCatalog extends AbstractCatalog {
     }
 
     private static final String COMMENT = "comment";
+
+    /**
+     * At most this many idle connections are kept open
+     */
+    private static final int MAX_IDLE_CONNECTIONS = 4;
+
     /**
-     * Determine whether a SQL exception has occurred. If so, conn may be invalid. Pay attention to judgment
+     * Seconds to wait for the validation of a returned connection
      */
-    private boolean sqlExceptionHappened = false;
+    private static final int VALIDATION_TIMEOUT_SECONDS = 5;
 
     /**
      * Object type, such as library, table, view, etc.
@@ -162,6 +173,26 @@ public class DinkyPostgresCatalog extends AbstractCatalog {
      */
     private static final String defaultDatabase = "default_database";
 
+    /**
+     * How long a loaded table stays in the cache, 0 disables the cache
+     */
+    private final long cacheTtlMs;
+
+    /**
+     * Idle connections, a connection is borrowed for one call and returned to it afterwards
+     */
+    private final Deque<Connection> idleConnections = new ArrayDeque<>();
+
+    /**
+     * Tables returned by getTable
+     */
+    private final Map<ObjectPath, CachedTable> tableCache = new ConcurrentHashMap<>();
+
+    /**
+     * Bumped by every DDL executed through this catalog, a table loaded while it changed is not cached
+     */
+    private final AtomicLong metadataVersion = new AtomicLong();
+
     /**
      * Constructor method of DinkyPostgresCatalog class
      *
@@ -171,10 +202,24 @@ public class DinkyPostgresCatalog extends AbstractCatalog {
      * @param pwd  database password
      */
     public DinkyPostgresCatalog(String name, String url, String user, String pwd) {
+        this(name, url, user, pwd, DinkyPostgresCatalogFactoryOptions.CACHE_TTL.defaultValue().toMillis());
+    }
+
+    /**
+     * Constructor method of DinkyPostgresCatalog class
+     *
+     * @param name       database name
+     * @param url        database connection URL
+     * @param user       database user name
+     * @param pwd        database password
+     * @param cacheTtlMs how long a loaded table is cached in milliseconds, 0 disables the cache
+     */
+    public DinkyPostgresCatalog(String name, String url, String user, String pwd, long cacheTtlMs) {
         super(name, defaultDatabase);
         this.url = url;
         this.user = user;
         this.pwd = pwd;
+        this.cacheTtlMs = cacheTtlMs;
     }
 
     /**
@@ -187,6 +232,7 @@ public class DinkyPostgresCatalog extends AbstractCatalog {
         this.url = DinkyPostgresCatalogFactoryOptions.URL.defaultValue();
         this.user = DinkyPostgresCatalogFactoryOptions.USERNAME.defaultValue();
         this.pwd = DinkyPostgresCatalogFactoryOptions.PASSWORD.defaultValue();
+        this.cacheTtlMs = DinkyPostgresCatalogFactoryOptions.CACHE_TTL.defaultValue().toMillis();
     }
 
     /**
@@ -209,64 +255,95 @@ public class DinkyPostgresCatalog extends AbstractCatalog {
     }
 
     /**
-     * Close the Catalog connection.
+     * Close the Catalog connections.
      * <p>
-     * If a connection currently exists, try to close it. If a SQL exception occurs when closing the connection, the exception is logged and a CatalogException is thrown.
+     * All idle connections are closed and the table cache is cleared. If a SQL exception occurs when closing a
+     * connection, the remaining connections are still closed and a CatalogException is thrown.
      *
-     * @throws CatalogException This exception is thrown if an error occurs while closing the connection
+     * @throws CatalogException This exception is thrown if an error occurs while closing the connections
      */
     @Override
     public void close() throws CatalogException {
-        if (connection != null) {
-            try {
-                connection.close();
-                connection = null;
-            } catch (SQLException e) {
-                sqlExceptionHappened = true;
-                throw new CatalogException("Fail to close connection.", e);
+        tableCache.clear();
+        synchronized (idleConnections) {
+            SQLException failure = null;
+            for (Connection connection : idleConnections) {
+                try {
+                    connection.close();
+                } catch (SQLException e) {
+                    failure = e;
+                }
+            }
+            idleConnections.clear();
+            if (failure != null) {
+                throw new CatalogException("Fail to close connection.", failure);
             }
         }
     }
 
-    private Connection connection;
-
     /**
-     * Get the database connection.
+     * Borrow a database connection.
      * <p>
-     * If there is currently no connection, try to obtain a new connection through DriverManager.
-     * If a SQLException has occurred before, first check whether the current connection is valid, and if it is invalid, close and reacquire the connection.
-     * If the connection was closed, reacquire the connection.
+     * An idle connection is reused if there is one, otherwise a new connection is opened. Every borrowed connection
+     * must be given back with {@link #releaseConnection(Connection)} in a finally block.
      *
      * @return Returns the database connection object
      * @throws CatalogException This exception is thrown if an error occurs while obtaining the connection
      */
     protected Connection getConnection() throws CatalogException {
+        synchronized (idleConnections) {
+            Connection connection = idleConnections.pollFirst();
+            if (connection != null) {
+                return connection;
+            }
+        }
         try {
-            // todo: Wrap a method to obtain the connection to facilitate subsequent transformation and use other
-            // connection generation.
-            // Class.forName(MYSQL_DRIVER);
-            if (connection == null) {
-                connection = DriverManager.getConnection(url, user, pwd);
+            return DriverManager.getConnection(url, user, pwd);
+        } catch (SQLException e) {
+            throw new CatalogException("Fail to get connection.", e);
+        }
+    }
+
+    /**
+     * Give a borrowed connection back.
+     * <p>
+     * An open transaction is rolled back and the connection is validated. A valid connection is kept idle unless
+     * there are already {@link #MAX_IDLE_CONNECTIONS} idle ones, any other connection is closed.
+     *
+     * @param connection the borrowed connection
+     */
+    protected void releaseConnection(Connection connection) {
+        try {
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
             }
-            if (sqlExceptionHappened) {
-                sqlExceptionHappened = false;
-                if (!connection.isValid(10)) {
-                    connection.close();
-                }
-                if (connection.isClosed()) {
-                    connection = null;
-                    return getConnection();
+            if (connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                synchronized (idleConnections) {
+                    if (idleConnections.size() < MAX_IDLE_CONNECTIONS) {
+                        idleConnections.addFirst(connection);
+                        return;
+                    }
                 }
-                connection = null;
-                return getConnection();
             }
-
-            return connection;
-        } catch (Exception e) {
-            throw new CatalogException("Fail to get connection.", e);
+        } catch (SQLException e) {
+            logger.warn("Discard a broken catalog connection", e);
+        }
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            logger.warn("Fail to close connection.", e);
         }
     }
 
+    /**
+     * The tables have changed, drop every cached table.
+     */
+    private void invalidateTableCache() {
+        metadataVersion.incrementAndGet();
+        tableCache.clear();
+    }
+
     /**
      * List all database names in the current Catalog.
      *
@@ -289,6 +366,8 @@ public class DinkyPostgresCatalog extends AbstractCatalog {
             return myDatabases;
         } catch (Exception e) {
             throw new CatalogException(String.format("Failed listing database in catalog %s", getName()), e);
+        } finally {
+            releaseConnection(conn);
         }
     }
 
@@ -322,7 +401,6 @@ public class DinkyPostgresCatalog extends AbstractCatalog {
                         map.put(prs.getString("key"), prs.getString("value"));
                     }
                 } catch (SQLException e) {
-                    sqlExceptionHappened = true;
                     throw new CatalogException(
                             String.format("Failed get database properties in catalog %s", getName()), e);
                 }
@@ -332,8 +410,9 @@ public class DinkyPostgresCatalog extends AbstractCatalog {
                 throw new DatabaseNotExistException(getName(), databaseName);
             }
         } catch (SQLException e) {
-            sqlExceptionHappened = true;
             throw new CatalogException(String.format("Failed get database in catalog %s", getName()), e);
+        } finally {
+            releaseConnection(conn);
         }
     }
 
@@ -374,9 +453,10 @@ public class DinkyPostgresCatalog extends AbstractCatalog {
             }
             return id;
         } catch (SQLException e) {
-            sqlExceptionHappened = true;
             throw new CatalogException(
                     String.format("Failed to obtain database information：%s.%s", getName(), databaseName), e);
+        } finally {
+            releaseConnection(conn);
         }
     }
 
@@ -429,8 +509,9 @@ public class DinkyPostgresCatalog extends AbstractCatalog {
                 }
                 conn.commit();
             } catch (SQLException e) {
-                sqlExceptionHappened = true;
                 logger.error("Failed to create database information：", e);
+            } finally {
+                releaseConnection(conn);
             }
         }
     }
@@ -490,9 +571,11 @@ public class DinkyPostgresCatalog extends AbstractCatalog {
             dStat.executeUpdate();
             dStat.close();
             conn.commit();
+            invalidateTableCache();
         } catch (SQLException e) {
-            sqlExceptionHappened = true;
             throw new CatalogException("Failed to delete database information：", e);
+        } finally {
+            releaseConnection(conn);
         }
     }
 
@@ -545,8 +628,9 @@ public class DinkyPostgresCatalog extends AbstractCatalog {
             }
             conn.commit();
         } catch (SQLException e) {
-            sqlExceptionHappened = true;
             throw new CatalogException("Failed to modify database information：", e);
+        } finally {
+            releaseConnection(conn);
         }
     }
 
@@ -609,6 +693,8 @@ public class DinkyPostgresCatalog extends AbstractCatalog {
             return tables;
         } catch (Exception e) {
             throw new CatalogException(String.format("Failed listing %s in catalog %s", tableType, getName()), e);
+        } finally {
+            releaseConnection(conn);
         }
     }
 
@@ -622,95 +708,86 @@ public class DinkyPostgresCatalog extends AbstractCatalog {
      */
     @Override
     public CatalogBaseTable getTable(ObjectPath tablePath) throws TableNotExistException, CatalogException {
-        // Still do it in steps
-        // 1. Take out the table first. This may be a view or a table.
-        // 2. Take out the column
-        // 3. Get the attributes
-        Integer id = getTableId(tablePath);
-
-        if (id == null) {
-            throw new TableNotExistException(getName(), tablePath);
+        CachedTable cached = tableCache.get(tablePath);
+        if (cached != null
+                && cached.version == metadataVersion.get()
+                && System.currentTimeMillis() - cached.loadTime < cacheTtlMs) {
+            return cached.table.copy();
         }
+        long version = metadataVersion.get();
+        CatalogBaseTable table = loadTable(tablePath);
+        if (cacheTtlMs > 0 && metadataVersion.get() == version) {
+            tableCache.put(tablePath, new CachedTable(table.copy(), version));
+        }
+        return table;
+    }
 
+    /**
+     * Load the table and its properties with one query, a view takes one more query for its columns.
+     *
+     * @param tablePath table path object, including database name and table name
+     * @return table object
+     * @throws TableNotExistException If the table does not exist, this exception is thrown
+     * @throws CatalogException       This exception is thrown if an error occurs while getting table information
+     */
+    private CatalogBaseTable loadTable(ObjectPath tablePath) throws TableNotExistException, CatalogException {
+        String queryTable = "SELECT t.id, t.description, t.table_type, p.\"key\", p.\"value\" FROM metadata_table t"
+                + " JOIN metadata_database d ON d.id = t.database_id"
+                + " LEFT JOIN metadata_table_property p ON p.table_id = t.id"
+                + " WHERE d.database_name=? AND t.table_name=?";
         Connection conn = getConnection();
         try {
-            String queryTable = "SELECT table_name   ,description, table_type  FROM metadata_table  where  id=?";
-            PreparedStatement ps = conn.prepareStatement(queryTable);
-            ps.setInt(1, id);
-            ResultSet rs = ps.executeQuery();
-            String description;
-            String tableType;
-            if (rs.next()) {
-                description = rs.getString("description");
-                tableType = rs.getString("table_type");
-                ps.close();
-            } else {
-                ps.close();
+            Integer id = null;
+            String description = null;
+            String tableType = null;
+            Map<String, String> props = new HashMap<>();
+            try (PreparedStatement ps = conn.prepareStatement(queryTable)) {
+                ps.setString(1, tablePath.getDatabaseName());
+                ps.setString(2, tablePath.getObjectName());
+                ResultSet rs = ps.executeQuery();
+                while (rs.next()) {
+                    id = rs.getInt("id");
+                    description = rs.getString("description");
+                    tableType = rs.getString("table_type");
+                    String key = rs.getString("key");
+                    if (key != null) {
+                        props.put(key, rs.getString("value"));
+                    }
+                }
+            }
+            if (id == null) {
                 throw new TableNotExistException(getName(), tablePath);
             }
             if (tableType.equals(ObjectType.TABLE)) {
                 // This is table
-                String propSql = "SELECT \"key\", \"value\" from metadata_table_property " + "WHERE table_id=?";
-                PreparedStatement pState = conn.prepareStatement(propSql);
-                pState.setInt(1, id);
-                ResultSet prs = pState.executeQuery();
-                Map<String, String> props = new HashMap<>();
-                while (prs.next()) {
-                    String key = prs.getString("key");
-                    String value = prs.getString("value");
-                    props.put(key, value);
-                }
-                pState.close();
                 props.put(COMMENT, description);
                 return CatalogTable.fromProperties(props);
             } else if (tableType.equals(ObjectType.VIEW)) {
-                // 1. Get table information from the library. (Already done before)
-                // 2. Take out the field.
-                String colSql =
-                        "SELECT column_name, column_type, data_type, description  FROM metadata_column WHERE  table_id=?";
-                PreparedStatement cStat = conn.prepareStatement(colSql);
-                cStat.setInt(1, id);
-                ResultSet crs = cStat.executeQuery();
-
+                // Take out the field.
+                String colSql = "SELECT column_name, data_type, description FROM metadata_column WHERE table_id=?";
                 Schema.Builder builder = Schema.newBuilder();
-                while (crs.next()) {
-                    String colName = crs.getString("column_name");
-                    String dataType = crs.getString("data_type");
-
-                    builder.column(colName, dataType);
-                    String cDesc = crs.getString("description");
-                    if (null != cDesc && !cDesc.isEmpty()) {
-                        builder.withComment(cDesc);
-                    }
-                }
-                cStat.close();
-                // 3、Take out the query
-                String qSql = "SELECT \"key\", \"value\" FROM metadata_table_property  WHERE table_id=? ";
-                PreparedStatement qStat = conn.prepareStatement(qSql);
-                qStat.setInt(1, id);
-                ResultSet qrs = qStat.executeQuery();
-                String originalQuery = "";
-                String expandedQuery = "";
-                Map<String, String> options = new HashMap<>();
-                while (qrs.next()) {
-                    String key = qrs.getString("key");
-                    String value = qrs.getString("value");
-                    if ("OriginalQuery".equals(key)) {
-                        originalQuery = value;
-                    } else if ("ExpandedQuery".equals(key)) {
-                        expandedQuery = value;
-                    } else {
-                        options.put(key, value);
+                try (PreparedStatement cStat = conn.prepareStatement(colSql)) {
+                    cStat.setInt(1, id);
+                    ResultSet crs = cStat.executeQuery();
+                    while (crs.next()) {
+                        builder.column(crs.getString("column_name"), crs.getString("data_type"));
+                        String cDesc = crs.getString("description");
+                        if (null != cDesc && !cDesc.isEmpty()) {
+                            builder.withComment(cDesc);
+                        }
                     }
                 }
+                String originalQuery = Optional.ofNullable(props.remove("OriginalQuery")).orElse("");
+                String expandedQuery = Optional.ofNullable(props.remove("ExpandedQuery")).orElse("");
                 // Synthetic view
-                return CatalogView.of(builder.build(), description, originalQuery, expandedQuery, options);
+                return CatalogView.of(builder.build(), description, originalQuery, expandedQuery, props);
             } else {
                 throw new CatalogException("Unsupported data type。" + tableType);
             }
         } catch (SQLException e) {
-            sqlExceptionHappened = true;
             throw new CatalogException("Failed to obtain table information。", e);
+        } finally {
+            releaseConnection(conn);
         }
     }
 
@@ -750,9 +827,10 @@ public class DinkyPostgresCatalog extends AbstractCatalog {
                 return rs.getInt(1);
             }
         } catch (SQLException e) {
-            sqlExceptionHappened = true;
             logger.error("get table fail", e);
             throw new CatalogException("get table fail.", e);
+        } finally {
+            releaseConnection(conn);
         }
         return null;
     }
@@ -793,10 +871,12 @@ public class DinkyPostgresCatalog extends AbstractCatalog {
             dStat.executeUpdate();
             dStat.close();
             conn.commit();
+            invalidateTableCache();
         } catch (SQLException e) {
-            sqlExceptionHappened = true;
             logger.error("drop table fail", e);
             throw new CatalogException("drop table fail.", e);
+        } finally {
+            releaseConnection(conn);
         }
     }
 
@@ -828,9 +908,11 @@ public class DinkyPostgresCatalog extends AbstractCatalog {
             ps.setString(1, newTableName);
             ps.setInt(2, id);
             ps.executeUpdate();
+            invalidateTableCache();
         } catch (SQLException ex) {
-            sqlExceptionHappened = true;
             throw new CatalogException("Failed to modify table name", ex);
+        } finally {
+            releaseConnection(conn);
         }
     }
 
@@ -969,10 +1051,12 @@ public class DinkyPostgresCatalog extends AbstractCatalog {
                 }
             }
             conn.commit();
+            invalidateTableCache();
         } catch (SQLException ex) {
-            sqlExceptionHappened = true;
             logger.error("Insertion into database failed", ex);
             throw new CatalogException("Insertion into database failed", ex);
+        } finally {
+            releaseConnection(conn);
         }
     }
 
@@ -1010,9 +1094,11 @@ public class DinkyPostgresCatalog extends AbstractCatalog {
                     ps.addBatch();
                 }
                 ps.executeBatch();
+                invalidateTableCache();
             } catch (SQLException ex) {
-                sqlExceptionHappened = true;
                 throw new CatalogException("Failed to modify table name", ex);
+            } finally {
+                releaseConnection(conn);
             }
         }
     }
@@ -1191,8 +1277,9 @@ public class DinkyPostgresCatalog extends AbstractCatalog {
             }
             return functions;
         } catch (SQLException e) {
-            sqlExceptionHappened = true;
             throw new CatalogException("Failed to get UDF list");
+        } finally {
+            releaseConnection(conn);
         }
     }
 
@@ -1224,9 +1311,10 @@ public class DinkyPostgresCatalog extends AbstractCatalog {
                 throw new FunctionNotExistException(getName(), functionPath);
             }
         } catch (SQLException e) {
-            sqlExceptionHappened = true;
             throw new CatalogException(
                     "Failed to get UDF：" + functionPath.getDatabaseName() + "." + functionPath.getObjectName());
+        } finally {
+            releaseConnection(conn);
         }
     }
 
@@ -1267,9 +1355,10 @@ public class DinkyPostgresCatalog extends AbstractCatalog {
                 return id;
             }
         } catch (SQLException e) {
-            sqlExceptionHappened = true;
             logger.error("get function fail", e);
             throw new CatalogException("get function fail.", e);
+        } finally {
+            releaseConnection(conn);
         }
         return null;
     }
@@ -1308,8 +1397,9 @@ public class DinkyPostgresCatalog extends AbstractCatalog {
             ps.setString(4, function.getFunctionLanguage().toString());
             ps.executeUpdate();
         } catch (SQLException e) {
-            sqlExceptionHappened = true;
             throw new CatalogException("Create function failed", e);
+        } finally {
+            releaseConnection(conn);
         }
     }
 
@@ -1341,8 +1431,9 @@ public class DinkyPostgresCatalog extends AbstractCatalog {
             ps.setInt(3, id);
             ps.executeUpdate();
         } catch (SQLException e) {
-            sqlExceptionHappened = true;
             throw new CatalogException("Modify function failed", e);
+        } finally {
+            releaseConnection(conn);
         }
     }
 
@@ -1371,8 +1462,9 @@ public class DinkyPostgresCatalog extends AbstractCatalog {
             ps.setInt(1, id);
             ps.executeUpdate();
         } catch (SQLException e) {
-            sqlExceptionHappened = true;
             throw new CatalogException("Delete function failed", e);
+        } finally {
+            releaseConnection(conn);
         }
     }
 
@@ -1539,4 +1631,18 @@ public class DinkyPostgresCatalog extends AbstractCatalog {
         // todo: Supplementary completion of this method。
         throw new UnsupportedOperationException("This method is not yet complete");
     }
+
+    /**
+     * A cached table and the metadata version it was loaded at.
+     */
+    private static class CachedTable {
+        private final CatalogBaseTable table;
+        private final long version;
+        private final long loadTime = System.currentTimeMillis();
+
+        private CachedTable(CatalogBaseTable table, long version) {
+            this.table = table;
+            this.version = version;
+        }
+    }
 }
@@ -20,6 +20,7 @@
 package org.dinky.flink.catalog.factory;
 
 import static org.apache.flink.table.factories.FactoryUtil.PROPERTY_VERSION;
+import static org.dinky.flink.catalog.factory.DinkyPostgresCatalogFactoryOptions.CACHE_TTL;
 import static org.dinky.flink.catalog.factory.DinkyPostgresCatalogFactoryOptions.PASSWORD;
 import static org.dinky.flink.catalog.factory.DinkyPostgresCatalogFactoryOptions.URL;
 import static org.dinky.flink.catalog.factory.DinkyPostgresCatalogFactoryOptions.USERNAME;
@@ -52,6 +53,7 @@ public class DinkyPostgresCatalogFactory implements CatalogFactory {
         options.add(USERNAME);
         options.add(PASSWORD);
         options.add(URL);
+        options.add(CACHE_TTL);
         options.add(PROPERTY_VERSION);
         return options;
     }
@@ -65,6 +67,7 @@ public class DinkyPostgresCatalogFactory implements CatalogFactory {
                 context.getName(),
                 helper.getOptions().get(URL),
                 helper.getOptions().get(USERNAME),
-                helper.getOptions().get(PASSWORD));
+                helper.getOptions().get(PASSWORD),
+                helper.getOptions().get(CACHE_TTL).toMillis());
     }
 }
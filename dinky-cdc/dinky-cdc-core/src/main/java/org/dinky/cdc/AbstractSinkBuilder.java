@@ -187,7 +187,7 @@ public abstract class AbstractSinkBuilder implements SinkBuilder {
     }
 
     @SuppressWarnings("rawtypes")
-    private FlatMapFunction<Map, RowData> sinkRowDataFunction(
+    protected FlatMapFunction<Map, RowData> sinkRowDataFunction(
             List<String> columnNameList, List<LogicalType> columnTypeList, String schemaTableName) {
         return (value, out) -> {
             try {
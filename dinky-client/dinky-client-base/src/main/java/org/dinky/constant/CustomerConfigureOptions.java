@@ -23,6 +23,8 @@ import static org.apache.flink.configuration.ConfigOptions.key;
 
 import org.apache.flink.configuration.ConfigOption;
 
+import java.time.Duration;
+
 public class CustomerConfigureOptions {
     public static final ConfigOption<String> REST_TARGET_DIRECTORY = key("rest.target-directory")
             .stringType()
@@ -43,6 +45,11 @@ public class CustomerConfigureOptions {
     public static final ConfigOption<String> DINKY_HOST =
             key("dinky.dinkyHost").stringType().noDefaultValue().withDescription("dinky local address");
 
+    public static final ConfigOption<String> DINKY_PRINT_TRANSPORT = key("dinky.dinkyPrintTransport")
+            .stringType()
+            .noDefaultValue()
+            .withDescription("dinky print table transport, udp or tcp, udp if not set");
+
     public static final ConfigOption<Integer> DINKY_PORT =
             key("dinky.dinkyPort").intType().defaultValue(7125).withDescription("dinky local port");
 
@@ -61,4 +68,21 @@ public class CustomerConfigureOptions {
             .stringType()
             .noDefaultValue()
             .withDescription("A custom user for your YARN application.");
+
+    public static final ConfigOption<String> YARN_STAGING_DIR = key("dinky.yarn.staging.dir")
+            .stringType()
+            .noDefaultValue()
+            .withDescription("A directory of the cluster filesystem where the jars shared by yarn submissions are "
+                    + "uploaded once, addressed by their content hash, and referenced by the later submissions. "
+                    + "Without it the jars are shipped with every application.");
+
+    public static final ConfigOption<Duration> YARN_STAGING_RETENTION = key("dinky.yarn.staging.retention")
+            .durationType()
+            .defaultValue(Duration.ofHours(1))
+            .withDescription("How long a staged jar which no running application references is kept.");
+
+    public static final ConfigOption<Duration> YARN_STAGING_CLEANUP = key("dinky.yarn.staging.cleanup-interval")
+            .durationType()
+            .defaultValue(Duration.ofHours(1))
+            .withDescription("How often the staged jars no longer referenced are deleted.");
 }
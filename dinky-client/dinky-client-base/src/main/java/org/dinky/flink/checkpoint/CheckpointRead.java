@@ -20,27 +20,22 @@
 package org.dinky.flink.checkpoint;
 
 import org.dinky.data.model.CheckPointReadTable;
+import org.dinky.data.model.CheckpointStatePage;
+import org.dinky.data.model.CheckpointStateSummary;
 
 import org.apache.flink.api.common.typeutils.TypeSerializer;
 import org.apache.flink.api.common.typeutils.TypeSerializerSnapshot;
-import org.apache.flink.api.java.ExecutionEnvironment;
 import org.apache.flink.core.fs.FSDataInputStream;
 import org.apache.flink.core.memory.DataInputView;
 import org.apache.flink.core.memory.DataInputViewStreamWrapper;
 import org.apache.flink.runtime.checkpoint.OperatorState;
 import org.apache.flink.runtime.checkpoint.OperatorSubtaskState;
 import org.apache.flink.runtime.checkpoint.StateObjectCollection;
-import org.apache.flink.runtime.jobgraph.JobVertexID;
-import org.apache.flink.runtime.jobgraph.OperatorID;
 import org.apache.flink.runtime.state.OperatorBackendSerializationProxy;
 import org.apache.flink.runtime.state.OperatorStateHandle;
 import org.apache.flink.runtime.state.PartitionableListState;
 import org.apache.flink.runtime.state.RegisteredOperatorStateBackendMetaInfo;
-import org.apache.flink.runtime.state.hashmap.HashMapStateBackend;
 import org.apache.flink.runtime.state.metainfo.StateMetaInfoSnapshot;
-import org.apache.flink.state.api.ExistingSavepoint;
-import org.apache.flink.state.api.Savepoint;
-import org.apache.flink.state.api.runtime.metadata.SavepointMetadata;
 
 import java.io.IOException;
 import java.util.LinkedHashMap;
@@ -56,16 +51,7 @@ public class CheckpointRead implements CheckpointReadInterface {
         ClassLoader restoreClassLoader = Thread.currentThread().getContextClassLoader();
         Map<String, Map<String, CheckPointReadTable>> result = new LinkedHashMap<>();
         try {
-            ExistingSavepoint savepoint =
-                    Savepoint.load(ExecutionEnvironment.getExecutionEnvironment(), path, new HashMapStateBackend());
-            List<OperatorState> operatorStateList =
-                    ((SavepointMetadata) ReflectUtil.getFieldValue(savepoint, "metadata")).getExistingOperators();
-            OperatorState existingOperator = operatorStateList.stream()
-                    .filter(operatorState -> operatorState
-                            .getOperatorID()
-                            .equals(OperatorID.fromJobVertexID(JobVertexID.fromHexString(operatorId))))
-                    .findFirst()
-                    .orElseThrow(() -> new IllegalArgumentException("The corresponding operator ID was not found"));
+            OperatorState existingOperator = CheckpointStateReader.loadOperatorState(path, operatorId);
             Map<Integer, OperatorSubtaskState> subtaskStates = existingOperator.getSubtaskStates();
             if (CollUtil.isNotEmpty(subtaskStates)) {
                 subtaskStates.forEach((k, v) -> {
@@ -80,6 +66,17 @@ public class CheckpointRead implements CheckpointReadInterface {
         }
     }
 
+    @Override
+    public List<CheckpointStateSummary> readCheckpointSummary(String path, String operatorId) {
+        return new CheckpointStateReader(path, operatorId).summary();
+    }
+
+    @Override
+    public CheckpointStatePage readCheckpointPage(
+            String path, String operatorId, String stateName, String keyPrefix, String cursor, int pageSize) {
+        return new CheckpointStateReader(path, operatorId).read(stateName, keyPrefix, cursor, pageSize);
+    }
+
     private static Map<String, CheckPointReadTable> readState(
             ClassLoader restoreClassLoader, StateObjectCollection<OperatorStateHandle> managedOperatorState) {
         Map<String, CheckPointReadTable> map = new LinkedHashMap<>();
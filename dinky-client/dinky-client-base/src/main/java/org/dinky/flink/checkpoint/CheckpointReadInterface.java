@@ -20,7 +20,10 @@
 package org.dinky.flink.checkpoint;
 
 import org.dinky.data.model.CheckPointReadTable;
+import org.dinky.data.model.CheckpointStatePage;
+import org.dinky.data.model.CheckpointStateSummary;
 
+import java.util.List;
 import java.util.Map;
 
 public interface CheckpointReadInterface {
@@ -33,4 +36,27 @@ public interface CheckpointReadInterface {
     default Map<String, Map<String, CheckPointReadTable>> readCheckpoint(String path, String operatorId) {
         throw new UnsupportedOperationException("readCheckpoint not implemented");
     }
+
+    /**
+     * 读取checkpoint中各个state的条数与大小, 不读取state的值
+     * @param path Checkpoint路径
+     * @param operatorId 执行id
+     */
+    default List<CheckpointStateSummary> readCheckpointSummary(String path, String operatorId) {
+        throw new UnsupportedOperationException("readCheckpointSummary not implemented");
+    }
+
+    /**
+     * 分页读取checkpoint中一个state的数据
+     * @param path Checkpoint路径
+     * @param operatorId 执行id
+     * @param stateName state名称
+     * @param keyPrefix 只返回第一列以此开头的数据, 为空时返回全部
+     * @param cursor 上一页返回的nextCursor, 为空时读取第一页
+     * @param pageSize 每页条数
+     */
+    default CheckpointStatePage readCheckpointPage(
+            String path, String operatorId, String stateName, String keyPrefix, String cursor, int pageSize) {
+        throw new UnsupportedOperationException("readCheckpointPage not implemented");
+    }
 }
@@ -0,0 +1,261 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.dinky.flink.checkpoint;
+
+import org.dinky.data.model.CheckPointReadTable;
+import org.dinky.data.model.CheckpointStatePage;
+import org.dinky.data.model.CheckpointStateSummary;
+
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.java.ExecutionEnvironment;
+import org.apache.flink.core.fs.FSDataInputStream;
+import org.apache.flink.core.memory.DataInputView;
+import org.apache.flink.core.memory.DataInputViewStreamWrapper;
+import org.apache.flink.runtime.checkpoint.OperatorState;
+import org.apache.flink.runtime.checkpoint.OperatorSubtaskState;
+import org.apache.flink.runtime.jobgraph.JobVertexID;
+import org.apache.flink.runtime.jobgraph.OperatorID;
+import org.apache.flink.runtime.state.OperatorBackendSerializationProxy;
+import org.apache.flink.runtime.state.OperatorStateHandle;
+import org.apache.flink.runtime.state.PartitionableListState;
+import org.apache.flink.runtime.state.RegisteredOperatorStateBackendMetaInfo;
+import org.apache.flink.runtime.state.hashmap.HashMapStateBackend;
+import org.apache.flink.runtime.state.metainfo.StateMetaInfoSnapshot;
+import org.apache.flink.state.api.ExistingSavepoint;
+import org.apache.flink.state.api.Savepoint;
+import org.apache.flink.state.api.runtime.metadata.SavepointMetadata;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import cn.hutool.cache.Cache;
+import cn.hutool.cache.CacheUtil;
+import cn.hutool.core.util.ReflectUtil;
+import cn.hutool.core.util.StrUtil;
+
+/**
+ * Read the managed operator state of a checkpoint or savepoint lazily. The summary is computed from the state handles
+ * in the metadata without opening any state file, and pages are read by seeking to the offset of each entry, so that
+ * neither of them loads a whole state into memory.
+ */
+public class CheckpointStateReader {
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 1000;
+    /** Upper bound of the serialized bytes of the entries kept for one page. */
+    public static final long MAX_PAGE_BYTES = 4 * 1024 * 1024;
+
+    private static final Cache<String, List<OperatorState>> METADATA_CACHE =
+            CacheUtil.newLRUCache(8, TimeUnit.MINUTES.toMillis(10));
+
+    private final ClassLoader classLoader;
+    private final TreeMap<Integer, OperatorSubtaskState> subtaskStates;
+
+    public CheckpointStateReader(String path, String operatorId) {
+        this.classLoader = Thread.currentThread().getContextClassLoader();
+        this.subtaskStates = new TreeMap<>(loadOperatorState(path, operatorId).getSubtaskStates());
+    }
+
+    static OperatorState loadOperatorState(String path, String operatorId) {
+        OperatorID operatorID = OperatorID.fromJobVertexID(JobVertexID.fromHexString(operatorId));
+        return METADATA_CACHE.get(path, CheckpointStateReader::loadOperators).stream()
+                .filter(operatorState -> operatorState.getOperatorID().equals(operatorID))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("The corresponding operator ID was not found"));
+    }
+
+    private static List<OperatorState> loadOperators(String path) {
+        try {
+            ExistingSavepoint savepoint =
+                    Savepoint.load(ExecutionEnvironment.getExecutionEnvironment(), path, new HashMapStateBackend());
+            return ((SavepointMetadata) ReflectUtil.getFieldValue(savepoint, "metadata")).getExistingOperators();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /** Entry counts and sizes of every managed operator state, without reading any value. */
+    public List<CheckpointStateSummary> summary() {
+        Map<String, CheckpointStateSummary> result = new LinkedHashMap<>();
+        for (OperatorSubtaskState subtaskState : subtaskStates.values()) {
+            for (OperatorStateHandle handle : subtaskState.getManagedOperatorState()) {
+                Map<Long, Long> sizes = entrySizes(handle);
+                handle.getStateNameToPartitionOffsets().forEach((name, metaInfo) -> {
+                    CheckpointStateSummary summary = result.computeIfAbsent(
+                            name,
+                            n -> new CheckpointStateSummary(
+                                    n, metaInfo.getDistributionMode().name(), 0, 0, 0));
+                    long[] offsets = metaInfo.getOffsets();
+                    summary.setEntries(summary.getEntries() + offsets.length);
+                    summary.setBytes(summary.getBytes()
+                            + Arrays.stream(offsets).map(sizes::get).sum());
+                    summary.setSubtasks(summary.getSubtasks() + 1);
+                });
+            }
+        }
+        return new ArrayList<>(result.values());
+    }
+
+    /**
+     * Read a page of the entries of a list or union state.
+     *
+     * @param keyPrefix only keep the entries whose first column starts with it, for example the topic partition of a
+     *     kafka split, blank for all entries
+     * @param cursor the next cursor of the previous page, blank for the first page
+     */
+    public CheckpointStatePage read(String stateName, String keyPrefix, String cursor, int pageSize) {
+        int limit = pageSize <= 0 ? DEFAULT_PAGE_SIZE : Math.min(pageSize, MAX_PAGE_SIZE);
+        Position start = Position.parse(cursor);
+        List<Object> entries = new ArrayList<>();
+        StateMetaInfoSnapshot snapshot = null;
+        long bytes = 0;
+        String nextCursor = null;
+        scan:
+        for (Map.Entry<Integer, OperatorSubtaskState> subtask :
+                subtaskStates.tailMap(start.subtask, true).entrySet()) {
+            List<OperatorStateHandle> handles = new ArrayList<>(subtask.getValue().getManagedOperatorState());
+            int firstHandle = subtask.getKey() == start.subtask ? start.handle : 0;
+            for (int h = firstHandle; h < handles.size(); h++) {
+                OperatorStateHandle handle = handles.get(h);
+                OperatorStateHandle.StateMetaInfo metaInfo =
+                        handle.getStateNameToPartitionOffsets().get(stateName);
+                if (metaInfo == null || metaInfo.getOffsets().length == 0) {
+                    continue;
+                }
+                if (metaInfo.getDistributionMode() == OperatorStateHandle.Mode.BROADCAST) {
+                    throw new IllegalArgumentException("Paging broadcast state " + stateName + " is not supported");
+                }
+                long[] offsets = metaInfo.getOffsets();
+                Map<Long, Long> sizes = entrySizes(handle);
+                int from = subtask.getKey() == start.subtask && h == start.handle ? start.entry : 0;
+                try (FSDataInputStream in = handle.getDelegateStateHandle().openInputStream()) {
+                    DataInputView div = new DataInputViewStreamWrapper(in);
+                    OperatorBackendSerializationProxy proxy = new OperatorBackendSerializationProxy(classLoader);
+                    proxy.read(div);
+                    StateMetaInfoSnapshot handleSnapshot = proxy.getOperatorStateMetaInfoSnapshots().stream()
+                            .filter(s -> s.getName().equals(stateName))
+                            .findFirst()
+                            .orElseThrow(() -> new IllegalArgumentException("State not found: " + stateName));
+                    if (snapshot == null) {
+                        snapshot = handleSnapshot;
+                    }
+                    TypeSerializer<Object> serializer = newState(handleSnapshot)
+                            .getStateMetaInfo()
+                            .getPartitionStateSerializer();
+                    for (int i = from; i < offsets.length; i++) {
+                        long size = sizes.get(offsets[i]);
+                        if (!entries.isEmpty() && (entries.size() >= limit || bytes + size > MAX_PAGE_BYTES)) {
+                            nextCursor = new Position(subtask.getKey(), h, i).toString();
+                            break scan;
+                        }
+                        in.seek(offsets[i]);
+                        Object entry = serializer.deserialize(div);
+                        if (StrUtil.isNotBlank(keyPrefix) && !matches(handleSnapshot, entry, keyPrefix)) {
+                            continue;
+                        }
+                        entries.add(entry);
+                        bytes += size;
+                    }
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        }
+        if (entries.isEmpty()) {
+            return new CheckpointStatePage(stateName, Collections.emptyList(), Collections.emptyList(), nextCursor);
+        }
+        CheckPointReadTable table = toTable(snapshot, entries);
+        return new CheckpointStatePage(stateName, table.getHeaders(), table.getDatas(), nextCursor);
+    }
+
+    /** Serialized size of every entry of the handle, by offset. */
+    private static Map<Long, Long> entrySizes(OperatorStateHandle handle) {
+        long[] offsets = handle.getStateNameToPartitionOffsets().values().stream()
+                .flatMapToLong(metaInfo -> Arrays.stream(metaInfo.getOffsets()))
+                .sorted()
+                .toArray();
+        Map<Long, Long> sizes = new HashMap<>(offsets.length * 2);
+        long end = handle.getDelegateStateHandle().getStateSize();
+        for (int i = 0; i < offsets.length; i++) {
+            long next = i + 1 < offsets.length ? offsets[i + 1] : end;
+            sizes.put(offsets[i], Math.max(0, next - offsets[i]));
+        }
+        return sizes;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static PartitionableListState<Object> newState(StateMetaInfoSnapshot snapshot) {
+        return ReflectUtil.newInstance(
+                PartitionableListState.class, new RegisteredOperatorStateBackendMetaInfo<>(snapshot));
+    }
+
+    private static CheckPointReadTable toTable(StateMetaInfoSnapshot snapshot, List<Object> entries) {
+        PartitionableListState<Object> state = newState(snapshot);
+        entries.forEach(state::add);
+        return CheckpointReadFactory.getTable(state)
+                .orElseGet(() -> new CheckPointReadTable(Collections.singletonList("data"), entries));
+    }
+
+    private static boolean matches(StateMetaInfoSnapshot snapshot, Object entry, String keyPrefix) {
+        CheckPointReadTable table = toTable(snapshot, Collections.singletonList(entry));
+        Object row = table.getDatas().isEmpty() ? entry : table.getDatas().get(0);
+        Object key = row instanceof Map && !table.getHeaders().isEmpty()
+                ? ((Map<?, ?>) row).get(table.getHeaders().get(0))
+                : row;
+        return String.valueOf(key).startsWith(keyPrefix);
+    }
+
+    /** Position of an entry: subtask index, index of the state handle in the subtask, index of the entry. */
+    private static class Position {
+        private final int subtask;
+        private final int handle;
+        private final int entry;
+
+        Position(int subtask, int handle, int entry) {
+            this.subtask = subtask;
+            this.handle = handle;
+            this.entry = entry;
+        }
+
+        static Position parse(String cursor) {
+            if (StrUtil.isBlank(cursor)) {
+                return new Position(0, 0, 0);
+            }
+            String[] parts = cursor.split("/");
+            try {
+                return new Position(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return subtask + "/" + handle + "/" + entry;
+        }
+    }
+}
@@ -33,6 +33,7 @@ import org.apache.flink.core.fs.local.LocalFileStatus;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 
 import lombok.extern.slf4j.Slf4j;
@@ -90,7 +91,11 @@ public class ResourceFileSystem extends FileSystem {
 
     @Override
     public FSDataInputStream open(Path f) throws IOException {
-        return new InputStreamFSInputWrapper(getBaseResourceManager().readFile(f.getPath()));
+        InputStream inputStream = getBaseResourceManager().readFile(f.getPath());
+        // keep streams which are already seekable, such as the ranged http stream of dinky-app
+        return inputStream instanceof FSDataInputStream
+                ? (FSDataInputStream) inputStream
+                : new InputStreamFSInputWrapper(inputStream);
     }
 
     @Override
@@ -24,11 +24,13 @@ import org.dinky.context.FlinkUdfPathContextHolder;
 import java.io.File;
 import java.io.IOException;
 import java.net.MalformedURLException;
+import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.net.URLStreamHandlerFactory;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Enumeration;
 import java.util.Iterator;
 import java.util.LinkedList;
@@ -38,6 +40,13 @@ import cn.hutool.core.io.FileUtil;
 import lombok.extern.slf4j.Slf4j;
 
 /**
+ * The class loader of a session. The local jar files added to a session are loaded by a {@link SharedClassLoader}
+ * shared with the other sessions adding the same jars, so their classes are loaded once. The shared loader is taken
+ * lazily on the first lookup after jars were added. When jars are added after a class has been loaded from it, the
+ * shared loader of all the jars is taken for the classes loaded from then on, and the previous one is kept until this
+ * loader is closed, as its classes are still in use. Urls which are not local jars, and the urls of a session which
+ * does not share are loaded by this loader itself.
+ *
  * @since 0.7.0
  */
 @Slf4j
@@ -45,6 +54,16 @@ public class DinkyClassLoader extends URLClassLoader {
 
     FlinkUdfPathContextHolder udfPathContextHolder = new FlinkUdfPathContextHolder();
 
+    private final SharedClassLoaders.Lease lease = SharedClassLoaders.lease(this);
+    /** Jars of the shared loader, in the order they were added */
+    private final List<File> sharedJars = new ArrayList<>();
+    /** The shared jars changed since the lease was moved to their loader */
+    private volatile boolean sharedJarsChanged;
+    /** A class of the shared loader has been handed out, so its jars must not change any more */
+    private volatile boolean sharedClassLoaded;
+    /** The current shared loader has handed out classes, it is kept when the lease moves to the loader of more jars */
+    private boolean retainSharedClassLoader;
+
     public DinkyClassLoader(URL[] urls, ClassLoader parent) {
         this(urls, parent, null);
     }
@@ -79,12 +98,86 @@ public class DinkyClassLoader extends URLClassLoader {
         return udfPathContextHolder;
     }
 
-    public void addURLs(URL... urls) {
+    public synchronized void addURLs(URL... urls) {
         for (URL url : urls) {
+            File jar = toLocalJar(url);
+            if (jar != null && canShare()) {
+                if (!sharedJars.contains(jar)) {
+                    sharedJars.add(jar);
+                    sharedJarsChanged = true;
+                    if (sharedClassLoaded) {
+                        // the loaded classes can not see the new jar, later lookups go to the loader of all jars
+                        retainSharedClassLoader = true;
+                        sharedClassLoaded = false;
+                    }
+                }
+                continue;
+            }
+            if (jar == null) {
+                // classes of the shared jars could not see the url
+                unshare();
+            }
             super.addURL(url);
         }
     }
 
+    /**
+     * Jars are shared as long as this loader has no urls of its own, which the shared classes could not see, and the
+     * parent is not the loader of another session, which must not be held by the shared loader.
+     */
+    private boolean canShare() {
+        return !(getParent() instanceof DinkyClassLoader) && getURLs().length == 0;
+    }
+
+    /** Load the shared jars by this loader, before any class of them has been loaded. */
+    private void unshare() {
+        if (sharedClassLoaded || sharedJars.isEmpty()) {
+            return;
+        }
+        for (URL url : convertFilesToUrls(sharedJars)) {
+            super.addURL(url);
+        }
+        sharedJars.clear();
+        sharedJarsChanged = true;
+    }
+
+    /** The shared loader of the jars added so far, null if there are none. */
+    SharedClassLoader getSharedClassLoader() {
+        if (sharedJarsChanged) {
+            synchronized (this) {
+                if (sharedJarsChanged) {
+                    SharedClassLoaders.acquire(
+                            lease, getParent(), new ArrayList<>(sharedJars), retainSharedClassLoader);
+                    sharedJarsChanged = false;
+                    retainSharedClassLoader = false;
+                }
+            }
+        }
+        return lease.getLoader();
+    }
+
+    /** Keep the shared loader from now on, false if the jars changed since it was taken. */
+    private synchronized boolean keepSharedClassLoader(SharedClassLoader shared) {
+        if (sharedJarsChanged || lease.getLoader() != shared) {
+            return false;
+        }
+        sharedClassLoaded = true;
+        return true;
+    }
+
+    /** The canonical jar file of a file url, null for other urls. */
+    private static File toLocalJar(URL url) {
+        if (!"file".equals(url.getProtocol())) {
+            return null;
+        }
+        try {
+            File file = new File(url.toURI()).getCanonicalFile();
+            return file.isFile() && file.getName().endsWith(".jar") ? file : null;
+        } catch (URISyntaxException | IOException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     public void addURLs(Collection<File> fileSet) {
         URL[] urls = convertFilesToUrls(fileSet);
         addURLs(urls);
@@ -113,6 +206,11 @@ public class DinkyClassLoader extends URLClassLoader {
             Class<?> loadedClass = findLoadedClass(name);
 
             if (loadedClass == null) {
+                // first the shared jars, they were added before the urls of this loader
+                Class<?> sharedClass = findSharedClass(name);
+                if (sharedClass != null) {
+                    return sharedClass;
+                }
                 try {
                     // try to use this classloader to load
                     return findClass(name);
@@ -127,9 +225,25 @@ public class DinkyClassLoader extends URLClassLoader {
         }
     }
 
+    private Class<?> findSharedClass(String name) {
+        while (true) {
+            SharedClassLoader shared = getSharedClassLoader();
+            Class<?> sharedClass = shared == null ? null : shared.findInJars(name);
+            if (sharedClass == null || sharedClassLoaded || keepSharedClassLoader(shared)) {
+                return sharedClass;
+            }
+        }
+    }
+
     @Override
     public URL getResource(String name) {
-        // first, try and find it via the URLClassloader
+        SharedClassLoader shared = getSharedClassLoader();
+        URL sharedResource = shared == null ? null : shared.findResource(name);
+        if (sharedResource != null) {
+            return sharedResource;
+        }
+
+        // then try and find it via the URLClassloader
         URL urlClassLoaderResource = findResource(name);
 
         if (urlClassLoaderResource != null) {
@@ -142,11 +256,16 @@ public class DinkyClassLoader extends URLClassLoader {
 
     @Override
     public Enumeration<URL> getResources(String name) throws IOException {
-        // first get resources from URLClassloader
-        Enumeration<URL> urlClassLoaderResources = findResources(name);
-
         final List<URL> result = new ArrayList<>();
 
+        SharedClassLoader shared = getSharedClassLoader();
+        if (shared != null) {
+            result.addAll(Collections.list(shared.findResources(name)));
+        }
+
+        // then get resources from URLClassloader
+        Enumeration<URL> urlClassLoaderResources = findResources(name);
+
         while (urlClassLoaderResources.hasMoreElements()) {
             result.add(urlClassLoaderResources.nextElement());
         }
@@ -171,6 +290,13 @@ public class DinkyClassLoader extends URLClassLoader {
         };
     }
 
+    /** Close the urls of this session and give up its shared jars. */
+    @Override
+    public void close() throws IOException {
+        SharedClassLoaders.release(lease);
+        super.close();
+    }
+
     public static List<File> getJarFiles(String[] paths, List<String> notExistsFiles) {
         List<File> result = new LinkedList<>();
         for (String path : paths) {
@@ -0,0 +1,85 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.dinky.classloader;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+
+/**
+ * A read only class loader of the jars of a session, shared by the {@link DinkyClassLoader} of all sessions adding
+ * the same jars in the same order on the same parent. The jars are searched in order before the parent, like the
+ * urls of a session loader, so a class of one jar sees the classes of all the other jars of the session.
+ *
+ * <p>Created and closed by {@link SharedClassLoaders} only.
+ */
+public class SharedClassLoader extends URLClassLoader {
+
+    private final SharedClassLoaders.Key key;
+    int refCount;
+    long idleSince;
+
+    SharedClassLoader(URL[] urls, ClassLoader parent, SharedClassLoaders.Key key) {
+        super(urls, parent);
+        this.key = key;
+    }
+
+    SharedClassLoaders.Key getKey() {
+        return key;
+    }
+
+    @Override
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+        synchronized (getClassLoadingLock(name)) {
+            Class<?> loadedClass = findInJars(name);
+            if (loadedClass == null) {
+                return super.loadClass(name, resolve);
+            }
+            if (resolve) {
+                resolveClass(loadedClass);
+            }
+            return loadedClass;
+        }
+    }
+
+    /** Find the class in the jars without asking the parent, null if none contains it. */
+    Class<?> findInJars(String name) {
+        synchronized (getClassLoadingLock(name)) {
+            Class<?> loadedClass = findLoadedClass(name);
+            if (loadedClass != null) {
+                return loadedClass;
+            }
+            try {
+                return findClass(name);
+            } catch (ClassNotFoundException e) {
+                return null;
+            }
+        }
+    }
+
+    @Override
+    public URL getResource(String name) {
+        URL resource = findResource(name);
+        return resource != null ? resource : super.getResource(name);
+    }
+
+    static {
+        ClassLoader.registerAsParallelCapable();
+    }
+}
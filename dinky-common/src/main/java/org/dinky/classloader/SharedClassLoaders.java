@@ -0,0 +1,247 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.dinky.classloader;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import cn.hutool.crypto.digest.DigestUtil;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cache of the {@link SharedClassLoader}s, keyed by their parent and the hash of their ordered jars (canonical path,
+ * size and modification time). The order is part of the key, as it decides which of two jars containing the same
+ * class wins. Every session holds a {@link Lease} on the loader of all its jars, and on the loaders of fewer jars
+ * whose classes it still uses after more jars were added. A loader without leases is kept for
+ * {@link #IDLE_TIMEOUT_MS} so that the next session of the same jars can reuse it, then it is closed.
+ *
+ * <p>A lease whose session loader is collected without being closed is released the next time the cache is used.
+ */
+@Slf4j
+public final class SharedClassLoaders {
+
+    static final long IDLE_TIMEOUT_MS = 10 * 60 * 1000L;
+    static final int MAX_IDLE_LOADERS = 16;
+
+    private static final Map<Key, SharedClassLoader> LOADERS = new HashMap<>();
+    private static final Map<Reference<?>, Lease> LEASES = new HashMap<>();
+    private static final ReferenceQueue<DinkyClassLoader> COLLECTED = new ReferenceQueue<>();
+
+    private SharedClassLoaders() {}
+
+    /** Take a lease for a session loader, released when the session loader is closed or collected. */
+    static Lease lease(DinkyClassLoader owner) {
+        synchronized (LOADERS) {
+            expunge();
+            Lease lease = new Lease(new PhantomReference<>(owner, COLLECTED));
+            LEASES.put(lease.reference, lease);
+            return lease;
+        }
+    }
+
+    /**
+     * Move the lease to the loader of the given jars.
+     *
+     * @param lease lease of a session
+     * @param parent the loader asked after the jars
+     * @param jars all jar files of the session, in the order they are searched
+     * @param retainPrevious keep holding the previous loader until the lease is released, as its classes are in use
+     */
+    static void acquire(Lease lease, ClassLoader parent, List<File> jars, boolean retainPrevious) {
+        synchronized (LOADERS) {
+            expunge();
+            SharedClassLoader previous = lease.loader;
+            SharedClassLoader loader = null;
+            if (!jars.isEmpty()) {
+                Key key = new Key(parent, digest(jars));
+                loader = LOADERS.get(key);
+                if (loader == null) {
+                    loader = new SharedClassLoader(toUrls(jars), parent, key);
+                    LOADERS.put(key, loader);
+                    log.debug("Create shared class loader of {} jars, cached loaders: {}", jars.size(), LOADERS.size());
+                }
+                loader.refCount++;
+            }
+            lease.loader = loader;
+            if (previous != null && retainPrevious) {
+                lease.retained.add(previous);
+            } else if (previous != null) {
+                release(previous);
+            }
+            evict(System.currentTimeMillis());
+        }
+    }
+
+    /** Give the lease up, its loader is closed once no other session uses it and it has been idle long enough. */
+    static void release(Lease lease) {
+        synchronized (LOADERS) {
+            LEASES.remove(lease.reference);
+            releaseLoaders(lease);
+            expunge();
+            evict(System.currentTimeMillis());
+        }
+    }
+
+    /** Number of the cached loaders, used and idle. */
+    static int size() {
+        synchronized (LOADERS) {
+            return LOADERS.size();
+        }
+    }
+
+    /** Close the idle loaders, all of them or those idle longer than the timeout. */
+    static void closeIdle(boolean all) {
+        synchronized (LOADERS) {
+            expunge();
+            evict(all ? Long.MAX_VALUE : System.currentTimeMillis());
+        }
+    }
+
+    private static void releaseLoaders(Lease lease) {
+        if (lease.loader != null) {
+            release(lease.loader);
+            lease.loader = null;
+        }
+        lease.retained.forEach(SharedClassLoaders::release);
+        lease.retained.clear();
+    }
+
+    private static void release(SharedClassLoader loader) {
+        if (--loader.refCount == 0) {
+            loader.idleSince = System.currentTimeMillis();
+        }
+    }
+
+    private static void expunge() {
+        Reference<?> reference;
+        while ((reference = COLLECTED.poll()) != null) {
+            Lease lease = LEASES.remove(reference);
+            if (lease != null && (lease.loader != null || !lease.retained.isEmpty())) {
+                log.debug("Release the shared class loader of a session loader which was not closed");
+                releaseLoaders(lease);
+            }
+        }
+    }
+
+    private static void evict(long now) {
+        List<SharedClassLoader> idle = new ArrayList<>();
+        for (SharedClassLoader loader : LOADERS.values()) {
+            if (loader.refCount == 0) {
+                idle.add(loader);
+            }
+        }
+        idle.sort(Comparator.comparingLong(loader -> loader.idleSince));
+        for (int i = 0; i < idle.size(); i++) {
+            SharedClassLoader loader = idle.get(i);
+            if (now - loader.idleSince >= IDLE_TIMEOUT_MS || idle.size() - i > MAX_IDLE_LOADERS) {
+                close(loader);
+            }
+        }
+    }
+
+    private static void close(SharedClassLoader loader) {
+        LOADERS.remove(loader.getKey());
+        try {
+            loader.close();
+        } catch (IOException e) {
+            log.warn("Failed to close shared class loader: {}", e.getMessage());
+        }
+    }
+
+    private static String digest(List<File> jars) {
+        StringBuilder builder = new StringBuilder();
+        for (File jar : jars) {
+            builder.append(jar.getPath())
+                    .append('|')
+                    .append(jar.length())
+                    .append('|')
+                    .append(jar.lastModified())
+                    .append('\n');
+        }
+        return DigestUtil.sha256Hex(builder.toString());
+    }
+
+    private static URL[] toUrls(List<File> jars) {
+        URL[] urls = new URL[jars.size()];
+        for (int i = 0; i < urls.length; i++) {
+            try {
+                urls[i] = jars.get(i).toURI().toURL();
+            } catch (MalformedURLException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        return urls;
+    }
+
+    /** A reference of a session loader on the shared loader of its jars. */
+    static final class Lease {
+        private final Reference<?> reference;
+        private volatile SharedClassLoader loader;
+        /** Previous loaders whose classes are still used by the session */
+        private final List<SharedClassLoader> retained = new ArrayList<>();
+
+        private Lease(Reference<?> reference) {
+            this.reference = reference;
+        }
+
+        SharedClassLoader getLoader() {
+            return loader;
+        }
+    }
+
+    /** Parents are compared by identity, the jars by their digest. */
+    static final class Key {
+        private final ClassLoader parent;
+        private final String digest;
+
+        Key(ClassLoader parent, String digest) {
+            this.parent = parent;
+            this.digest = digest;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return parent == other.parent && digest.equals(other.digest);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(parent), digest);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.dinky.data.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Entry count and serialized size of an operator state, taken from the checkpoint metadata only. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CheckpointStateSummary {
+    private String stateName;
+    /** Distribution mode of the state: SPLIT_DISTRIBUTE, UNION or BROADCAST. */
+    private String mode;
+    /** Number of entries, for broadcast states the number of serialized maps. */
+    private long entries;
+    private long bytes;
+    private int subtasks;
+}
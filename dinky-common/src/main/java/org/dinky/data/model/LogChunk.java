@@ -0,0 +1,57 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.dinky.data.model;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@ApiModel(value = "LogChunk", description = "A byte range of a log file")
+public class LogChunk {
+
+    @ApiModelProperty(value = "Content", dataType = "String", notes = "Text of the range, complete lines only")
+    private String content;
+
+    @ApiModelProperty(
+            value = "Start offset",
+            dataType = "Long",
+            example = "0",
+            notes = "Byte offset of the first byte of the content")
+    private long startOffset;
+
+    @ApiModelProperty(
+            value = "End offset",
+            dataType = "Long",
+            example = "1024",
+            notes = "Byte offset after the last byte of the content, pass it as offset to follow the file")
+    private long endOffset;
+
+    @ApiModelProperty(
+            value = "File size",
+            dataType = "Long",
+            example = "2048",
+            notes = "Size of the file when it was read, -1 if unknown")
+    private long fileSize;
+}
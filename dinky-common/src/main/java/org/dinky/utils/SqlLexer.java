@@ -0,0 +1,285 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.dinky.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A single pass lexer for sql scripts. It only knows what is needed to find statement boundaries and comments:
+ * single and double quoted strings, backtick identifiers, line and block comments, hints, and
+ * {@code EXECUTE STATEMENT SET BEGIN ... END} blocks whose inner semicolons do not end the statement.
+ */
+public final class SqlLexer {
+
+    private SqlLexer() {}
+
+    /** A statement of a script together with its position in the source, for error reporting. */
+    @Getter
+    @AllArgsConstructor
+    public static class Statement {
+        private final String text;
+        /** Offset of the first char of the statement in the source. */
+        private final int startOffset;
+        /** Offset after the last char of the statement in the source. */
+        private final int endOffset;
+        /** 1 based line of the first non blank char of the statement in the source. */
+        private final int line;
+    }
+
+    /**
+     * Split a script into statements. A semicolon ends a statement when it is followed by a line break or by a line
+     * comment, optionally after blanks, or when it is the last token of the script. Blank statements are skipped.
+     */
+    public static List<Statement> split(String sql) {
+        List<Statement> statements = new ArrayList<>();
+        int n = sql.length();
+        int start = 0;
+        int startLine = 1;
+        int line = 1;
+        int lastSemicolon = -1;
+        int blockDepth = 0;
+        int caseDepth = 0;
+        boolean prevWordIsSet = false;
+        int i = 0;
+        while (i < n) {
+            char c = sql.charAt(i);
+            switch (c) {
+                case '\n':
+                    line++;
+                    i++;
+                    break;
+                case '\'':
+                case '"':
+                case '`':
+                    int close = skipQuoted(sql, i, c);
+                    line += countLines(sql, i, close);
+                    i = close;
+                    break;
+                case '-':
+                    i = isLineComment(sql, i) ? lineEnd(sql, i) : i + 1;
+                    break;
+                case '/':
+                    if (i + 1 < n && sql.charAt(i + 1) == '*') {
+                        int end = blockCommentEnd(sql, i);
+                        line += countLines(sql, i, end);
+                        i = end;
+                    } else {
+                        i++;
+                    }
+                    break;
+                case ';':
+                    lastSemicolon = i;
+                    int next = blockDepth == 0 ? nextStatementStart(sql, i) : -1;
+                    if (next < 0) {
+                        i++;
+                        break;
+                    }
+                    addStatement(statements, sql, start, i, startLine);
+                    line += countLines(sql, i, next);
+                    start = next;
+                    startLine = line;
+                    caseDepth = 0;
+                    i = next;
+                    break;
+                default:
+                    if (!Character.isJavaIdentifierStart(c)) {
+                        i++;
+                        break;
+                    }
+                    int wordEnd = i + 1;
+                    while (wordEnd < n && Character.isJavaIdentifierPart(sql.charAt(wordEnd))) {
+                        wordEnd++;
+                    }
+                    if (isWord(sql, i, wordEnd, "BEGIN")) {
+                        if (prevWordIsSet) {
+                            blockDepth++;
+                        }
+                    } else if (isWord(sql, i, wordEnd, "CASE")) {
+                        caseDepth++;
+                    } else if (isWord(sql, i, wordEnd, "END")) {
+                        if (caseDepth > 0) {
+                            caseDepth--;
+                        } else if (blockDepth > 0) {
+                            blockDepth--;
+                        }
+                    }
+                    prevWordIsSet = isWord(sql, i, wordEnd, "SET");
+                    i = wordEnd;
+            }
+        }
+        if (start < n) {
+            int end = n;
+            if (lastSemicolon >= start && isBlank(sql, lastSemicolon + 1, n)) {
+                // drop the trailing semicolon of the script
+                end = lastSemicolon;
+            }
+            addStatement(statements, sql, start, end, startLine);
+        }
+        return statements;
+    }
+
+    /**
+     * Remove line comments and block comments except hints, replace no-break spaces by spaces and collapse line
+     * breaks, quoted text is kept as it is.
+     */
+    public static String removeComments(String sql) {
+        int n = sql.length();
+        StringBuilder sb = new StringBuilder(n);
+        int i = 0;
+        while (i < n) {
+            char c = sql.charAt(i);
+            switch (c) {
+                case '\u00A0':
+                    sb.append(' ');
+                    i++;
+                    break;
+                case '\r':
+                case '\n':
+                    sb.append('\n');
+                    while (i < n && (sql.charAt(i) == '\r' || sql.charAt(i) == '\n')) {
+                        i++;
+                    }
+                    break;
+                case '\'':
+                case '"':
+                case '`':
+                    int close = skipQuoted(sql, i, c);
+                    sb.append(sql, i, close);
+                    i = close;
+                    break;
+                case '-':
+                    if (isLineComment(sql, i)) {
+                        i = lineEnd(sql, i);
+                    } else {
+                        sb.append(c);
+                        i++;
+                    }
+                    break;
+                case '/':
+                    if (i + 1 < n && sql.charAt(i + 1) == '*') {
+                        int end = blockCommentEnd(sql, i);
+                        boolean hint = i + 2 < n && sql.charAt(i + 2) == '+';
+                        if (hint || !sql.startsWith("*/", end - 2)) {
+                            // keep hints, and unterminated comments which are most likely not comments
+                            sb.append(sql, i, end);
+                        }
+                        i = end;
+                    } else {
+                        sb.append(c);
+                        i++;
+                    }
+                    break;
+                default:
+                    sb.append(c);
+                    i++;
+            }
+        }
+        return sb.toString().trim();
+    }
+
+    /** The offset after the closing quote, or the end of the text if the quote is not closed. */
+    private static int skipQuoted(String sql, int open, char quote) {
+        int close = sql.indexOf(quote, open + 1);
+        return close < 0 ? sql.length() : close + 1;
+    }
+
+    private static boolean isLineComment(String sql, int i) {
+        return sql.startsWith("--", i);
+    }
+
+    /** The offset of the line break ending the line of i, the line break is not part of a line comment. */
+    private static int lineEnd(String sql, int i) {
+        int end = sql.indexOf('\n', i);
+        if (end < 0) {
+            return sql.length();
+        }
+        return end > i && sql.charAt(end - 1) == '\r' ? end - 1 : end;
+    }
+
+    private static int blockCommentEnd(String sql, int open) {
+        int close = sql.indexOf("*/", open + 2);
+        return close < 0 ? sql.length() : close + 2;
+    }
+
+    /**
+     * The start of the next statement if the semicolon at i ends a statement, otherwise -1. The blanks up to the
+     * last line break, or a line comment on the same line, belong to the separator.
+     */
+    private static int nextStatementStart(String sql, int i) {
+        int n = sql.length();
+        int j = i + 1;
+        int lastLineBreak = -1;
+        while (j < n && Character.isWhitespace(sql.charAt(j))) {
+            if (sql.charAt(j) == '\n') {
+                lastLineBreak = j;
+            }
+            j++;
+        }
+        if (lastLineBreak >= 0) {
+            return lastLineBreak + 1;
+        }
+        if (isLineComment(sql, j)) {
+            return lineEnd(sql, j);
+        }
+        return -1;
+    }
+
+    private static boolean isWord(String sql, int start, int end, String word) {
+        return end - start == word.length() && sql.regionMatches(true, start, word, 0, word.length());
+    }
+
+    private static boolean isBlank(String sql, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (!Character.isWhitespace(sql.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int countLines(String sql, int start, int end) {
+        int lines = 0;
+        for (int i = start; i < end; i++) {
+            if (sql.charAt(i) == '\n') {
+                lines++;
+            }
+        }
+        return lines;
+    }
+
+    private static void addStatement(List<Statement> statements, String sql, int start, int end, int line) {
+        if (isBlank(sql, start, end)) {
+            return;
+        }
+        String text = sql.substring(start, end);
+        if (text.indexOf('\r') >= 0) {
+            text = text.replace("\r\n", "\n");
+        }
+        int firstChar = start;
+        while (Character.isWhitespace(sql.charAt(firstChar))) {
+            firstChar++;
+        }
+        statements.add(new Statement(text, start, end, line + countLines(sql, start, firstChar)));
+    }
+}
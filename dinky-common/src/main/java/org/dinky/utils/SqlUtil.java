@@ -22,7 +22,6 @@ package org.dinky.utils;
 import org.dinky.assertion.Asserts;
 
 import java.util.Map;
-import java.util.regex.Pattern;
 
 /**
  * SqlUtil
@@ -31,39 +30,24 @@ import java.util.regex.Pattern;
  */
 public class SqlUtil {
 
-    private static final String SEMICOLON = ";";
-    private static final String SQL_SEPARATOR = ";\\s*(?:\\n|--.*)";
-
     private SqlUtil() {}
 
     public static String[] getStatements(String sql) {
-        return getStatements(sql, SQL_SEPARATOR);
-    }
-
-    public static String[] getStatements(String sql, String sqlSeparator) {
         if (Asserts.isNullString(sql)) {
             return new String[0];
         }
+        return SqlLexer.split(sql).stream().map(SqlLexer.Statement::getText).toArray(String[]::new);
+    }
 
-        final String localSqlSeparator = ";\\s*(?:\\n|--.*)";
-        String[] splits = sql.replace("\r\n", "\n").split(localSqlSeparator);
-        String lastStatement = splits[splits.length - 1].trim();
-        if (lastStatement.endsWith(SEMICOLON)) {
-            splits[splits.length - 1] = lastStatement.substring(0, lastStatement.length() - 1);
-        }
-
-        return splits;
+    /** The separator is not used, statements are always split by {@link SqlLexer#split(String)}. */
+    public static String[] getStatements(String sql, String sqlSeparator) {
+        return getStatements(sql);
     }
 
     public static String removeNote(String sql) {
-
         if (Asserts.isNotNullString(sql)) {
-            // Remove the special-space characters
-            sql = sql.replaceAll("\u00A0", " ").replaceAll("[\r\n]+", "\n");
-            // Remove annotations Support '--aa' , '/**aaa*/' , '//aa' , '#aaa'
-            Pattern p = Pattern.compile("(?ms)('(?:[^'])*')|--.*?$|/\\*[^+].*?\\*/|");
-            String presult = p.matcher(sql).replaceAll("$1");
-            return presult.trim();
+            // Remove annotations Support '--aa' , '/**aaa*/' and the special-space characters
+            return SqlLexer.removeComments(sql);
         }
         return sql;
     }
@@ -0,0 +1,215 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.dinky.classloader;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import cn.hutool.core.io.IoUtil;
+
+public class SharedClassLoadersTest {
+
+    private static final String FIXTURE = Fixture.class.getName();
+
+    @TempDir
+    Path tempDir;
+
+    @AfterEach
+    public void closeIdle() {
+        SharedClassLoaders.closeIdle(true);
+    }
+
+    @Test
+    public void shareLoadedClassesTest() throws Exception {
+        File jar = fixtureJar("fixture.jar");
+        ClassLoader parent = getClass().getClassLoader();
+        try (DinkyClassLoader first = new DinkyClassLoader(new URL[] {}, parent);
+                DinkyClassLoader second = new DinkyClassLoader(new URL[] {}, parent)) {
+            first.addURLs(Collections.singletonList(jar));
+            second.addURLs(Collections.singletonList(jar));
+
+            Class<?> loaded = first.loadClass(FIXTURE);
+            assertSame(loaded, second.loadClass(FIXTURE));
+            assertSame(first.getSharedClassLoader(), loaded.getClassLoader());
+            assertNotSame(Fixture.class, loaded);
+            assertNotNull(second.getResource("fixture.txt"));
+        }
+    }
+
+    @Test
+    public void shareByOrderedJarsTest() throws Exception {
+        File jar = fixtureJar("fixture.jar");
+        File other = fixtureJar("other.jar");
+        ClassLoader parent = getClass().getClassLoader();
+        try (DinkyClassLoader first = new DinkyClassLoader(new URL[] {}, parent);
+                DinkyClassLoader second = new DinkyClassLoader(new URL[] {}, parent);
+                DinkyClassLoader third = new DinkyClassLoader(new URL[] {}, parent)) {
+            first.addURLs(Collections.singletonList(jar));
+            first.addURLs(Arrays.asList(other, jar));
+            second.addURLs(Arrays.asList(jar, other));
+            third.addURLs(Arrays.asList(other, jar));
+
+            assertSame(first.getSharedClassLoader(), second.getSharedClassLoader());
+            assertArrayEquals(
+                    new URL[] {jar.toURI().toURL(), other.toURI().toURL()},
+                    first.getSharedClassLoader().getURLs());
+            // the order decides which jar a class is loaded from, so it is part of the key
+            assertNotSame(first.getSharedClassLoader(), third.getSharedClassLoader());
+            assertEquals("fixture.jar", IoUtil.readUtf8(first.getResourceAsStream("fixture.txt")));
+        }
+    }
+
+    @Test
+    public void jarSeesLaterAddedJarTest() throws Exception {
+        File user = fixtureJar("user.jar", FixtureUser.class);
+        File dependency = fixtureJar("dependency.jar", Fixture.class);
+        // a parent which does not know the fixtures
+        ClassLoader parent = ClassLoader.getSystemClassLoader().getParent();
+        try (DinkyClassLoader session = new DinkyClassLoader(new URL[] {}, parent)) {
+            session.addURLs(Collections.singletonList(user));
+            // classes of the parent are loaded between the jars
+            assertSame(String.class, session.loadClass(String.class.getName()));
+            session.addURLs(Collections.singletonList(dependency));
+
+            Class<?> userClass = session.loadClass(FixtureUser.class.getName());
+            Object fixture = userClass.getMethod("fixture").invoke(userClass.newInstance());
+            assertEquals(FIXTURE, fixture.getClass().getName());
+            assertSame(session.getSharedClassLoader(), fixture.getClass().getClassLoader());
+        }
+    }
+
+    @Test
+    public void jarAddedAfterClassLoadedTest() throws Exception {
+        File user = fixtureJar("user.jar", FixtureUser.class);
+        File dependency = fixtureJar("dependency.jar", Fixture.class);
+        ClassLoader parent = ClassLoader.getSystemClassLoader().getParent();
+        try (DinkyClassLoader session = new DinkyClassLoader(new URL[] {}, parent)) {
+            // ADD JAR user.jar; CREATE FUNCTION ...; ADD JAR dependency.jar;
+            session.addURLs(Collections.singletonList(user));
+            Class<?> created = session.loadClass(FixtureUser.class.getName());
+            session.addURLs(Collections.singletonList(dependency));
+
+            Class<?> userClass = session.loadClass(FixtureUser.class.getName());
+            assertNotSame(created, userClass);
+            assertArrayEquals(
+                    new URL[] {user.toURI().toURL(), dependency.toURI().toURL()},
+                    session.getSharedClassLoader().getURLs());
+            Object fixture = userClass.getMethod("fixture").invoke(userClass.newInstance());
+            assertSame(session.getSharedClassLoader(), fixture.getClass().getClassLoader());
+
+            // the loader of the class loaded first stays open while the session is
+            SharedClassLoaders.closeIdle(true);
+            assertNotNull(created.getClassLoader().getResource("fixture.txt"));
+        }
+    }
+
+    @Test
+    public void otherUrlIsNotSharedTest() throws Exception {
+        File jar = fixtureJar("fixture.jar");
+        File directory = tempDir.resolve("classes").toFile();
+        assertTrue(directory.mkdirs());
+        try (DinkyClassLoader session =
+                new DinkyClassLoader(new URL[] {}, ClassLoader.getSystemClassLoader().getParent())) {
+            session.addURLs(Collections.singletonList(jar));
+            session.addURLs(Collections.singletonList(directory));
+            // classes of the jar must see the directory, so the jar is loaded by the session itself
+            assertNull(session.getSharedClassLoader());
+            assertSame(session, session.loadClass(FIXTURE).getClassLoader());
+        }
+    }
+
+    @Test
+    public void closeUnusedLoadersTest() throws Exception {
+        File jar = fixtureJar("fixture.jar");
+        int cached = SharedClassLoaders.size();
+        DinkyClassLoader session = new DinkyClassLoader(new URL[] {}, getClass().getClassLoader());
+        session.addURLs(Collections.singletonList(jar));
+        assertNotNull(session.getSharedClassLoader());
+        assertEquals(cached + 1, SharedClassLoaders.size());
+
+        session.close();
+        assertNull(session.getSharedClassLoader());
+        // kept idle for the next session until the timeout
+        assertEquals(cached + 1, SharedClassLoaders.size());
+        SharedClassLoaders.closeIdle(true);
+        assertEquals(cached, SharedClassLoaders.size());
+    }
+
+    @Test
+    public void changedJarIsNotSharedTest() throws Exception {
+        File jar = fixtureJar("fixture.jar");
+        ClassLoader parent = getClass().getClassLoader();
+        try (DinkyClassLoader first = new DinkyClassLoader(new URL[] {}, parent)) {
+            first.addURLs(Collections.singletonList(jar));
+            assertNotNull(first.getSharedClassLoader());
+            assertTrue(jar.setLastModified(jar.lastModified() - 60000));
+            try (DinkyClassLoader second = new DinkyClassLoader(new URL[] {}, parent)) {
+                second.addURLs(Collections.singletonList(jar));
+                assertNotSame(first.getSharedClassLoader(), second.getSharedClassLoader());
+            }
+        }
+    }
+
+    private File fixtureJar(String name) throws Exception {
+        return fixtureJar(name, Fixture.class);
+    }
+
+    private File fixtureJar(String name, Class<?> fixture) throws Exception {
+        File jar = tempDir.resolve(name).toFile();
+        String entry = fixture.getName().replace('.', '/') + ".class";
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar.toPath()));
+                InputStream in = getClass().getClassLoader().getResourceAsStream(entry)) {
+            out.putNextEntry(new JarEntry(entry));
+            IoUtil.copy(in, out);
+            out.closeEntry();
+            out.putNextEntry(new JarEntry("fixture.txt"));
+            out.write(name.getBytes());
+            out.closeEntry();
+        }
+        return jar;
+    }
+
+    public static class Fixture {}
+
+    public static class FixtureUser {
+        public Object fixture() {
+            return new Fixture();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.dinky.util;
+
+import org.dinky.utils.SqlLexer;
+import org.dinky.utils.SqlUtil;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.Test;
+
+public class SqlLexerTest {
+
+    @Test
+    void splitKeepsQuotedSeparators() {
+        String sql = "select ';\n' as a, `b;\n` from t; -- first\n"
+                + "select \"c;\n\" from t /* ;\n */;\n"
+                + "select 1;";
+        List<SqlLexer.Statement> statements = SqlLexer.split(sql);
+        Assert.assertEquals(3, statements.size());
+        Assert.assertEquals("select ';\n' as a, `b;\n` from t", statements.get(0).getText());
+        Assert.assertEquals(1, statements.get(0).getLine());
+        Assert.assertEquals(4, statements.get(1).getLine());
+        Assert.assertEquals("select 1", statements.get(2).getText().trim());
+        Assert.assertEquals(7, statements.get(2).getLine());
+    }
+
+    @Test
+    void splitKeepsStatementSetBlock() {
+        String sql = "EXECUTE STATEMENT SET BEGIN\n"
+                + "insert into a select case when x then 1 end from b;\n"
+                + "insert into c select 1;\n"
+                + "END;\n"
+                + "select 2;\n";
+        String[] statements = SqlUtil.getStatements(sql);
+        Assert.assertEquals(2, statements.length);
+        Assert.assertTrue(statements[0].trim().endsWith("END"));
+        Assert.assertEquals("select 2", statements[1].trim());
+    }
+
+    @Test
+    void removeCommentsKeepsHints() {
+        String sql = "select /*+ OPTIONS('a'='b') */ '--x' -- comment\r\n\r\nfrom t /* block */";
+        Assert.assertEquals("select /*+ OPTIONS('a'='b') */ '--x' \nfrom t", SqlLexer.removeComments(sql));
+    }
+
+    /** Same statements as the regex implementation which was replaced by the lexer, see SqlLexerBenchmark. */
+    @Test
+    void sameStatementsAsRegex() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            sb.append("-- statement ").append(i).append('\n');
+            sb.append("insert into sink_").append(i).append(" /*+ OPTIONS('sink.parallelism'='1') */\n");
+            sb.append("select id, 'value-").append(i).append("' as v\n");
+            sb.append("from source_").append(i).append(" /* source table */\n");
+            sb.append("where id > ").append(i).append(";\n");
+        }
+        String sql = sb.toString();
+        Assert.assertEquals(
+                Arrays.stream(regexGetStatements(regexRemoveNote(sql)))
+                        .filter(s -> !s.trim().isEmpty())
+                        .collect(Collectors.toList()),
+                Arrays.asList(SqlUtil.getStatements(SqlUtil.removeNote(sql))));
+    }
+
+    private static String[] regexGetStatements(String sql) {
+        String[] splits = sql.replace("\r\n", "\n").split(";\\s*(?:\\n|--.*)");
+        String lastStatement = splits[splits.length - 1].trim();
+        if (lastStatement.endsWith(";")) {
+            splits[splits.length - 1] = lastStatement.substring(0, lastStatement.length() - 1);
+        }
+        return splits;
+    }
+
+    private static String regexRemoveNote(String sql) {
+        sql = sql.replaceAll("\u00A0", " ").replaceAll("[\r\n]+", "\n");
+        Pattern p = Pattern.compile("(?ms)('(?:[^'])*')|--.*?$|/\\*[^+].*?\\*/|");
+        return p.matcher(sql).replaceAll("$1").trim();
+    }
+}
@@ -24,14 +24,21 @@ import org.dinky.data.constant.FlinkRestAPIConstant;
 import org.dinky.data.constant.NetConstant;
 import org.dinky.data.enums.GatewayType;
 import org.dinky.data.exception.BusException;
+import org.dinky.data.model.LogChunk;
 import org.dinky.gateway.enums.SavePointType;
 import org.dinky.gateway.model.JobInfo;
 import org.dinky.gateway.result.SavePointResult;
+import org.dinky.utils.MeterUtil;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -43,6 +50,9 @@ import com.google.common.collect.Lists;
 
 import cn.hutool.core.net.URLEncodeUtil;
 import cn.hutool.core.util.StrUtil;
+import cn.hutool.http.HttpRequest;
+import cn.hutool.http.HttpResponse;
+import cn.hutool.http.HttpStatus;
 import cn.hutool.http.HttpUtil;
 import cn.hutool.http.Method;
 
@@ -55,6 +65,11 @@ import cn.hutool.http.Method;
 public class FlinkAPI {
     private static final Logger logger = LoggerFactory.getLogger(FlinkAPI.class);
 
+    /** Bytes read by a log range request without a valid length, and the most one request may read */
+    public static final int DEFAULT_LOG_CHUNK_SIZE = 1024 * 1024;
+
+    public static final int MAX_LOG_CHUNK_SIZE = 8 * 1024 * 1024;
+
     public static final String REST_TARGET_DIRECTORY = "rest.target-directory";
     public static final String ERRORS = "errors";
     public static final String CANCEL_JOB = "cancel-job";
@@ -69,6 +84,7 @@ public class FlinkAPI {
     public static final String JOBS = "jobs";
 
     private final String address;
+    private final String cluster;
     private static final ObjectMapper mapper = new ObjectMapper();
 
     public FlinkAPI(String address) {
@@ -77,6 +93,7 @@ public class FlinkAPI {
         } else {
             this.address = NetConstant.HTTP + address;
         }
+        this.cluster = StrUtil.removePrefix(StrUtil.removePrefix(this.address, NetConstant.HTTPS), NetConstant.HTTP);
     }
 
     public static FlinkAPI build(String address) {
@@ -108,7 +125,110 @@ public class FlinkAPI {
         if (!address.startsWith(NetConstant.HTTP) && !address.startsWith(NetConstant.HTTPS)) {
             url = NetConstant.HTTP + url;
         }
-        return HttpUtil.get(url, NetConstant.SERVER_TIME_OUT_ACTIVE);
+        String target = url;
+        return request(() -> HttpUtil.get(target, NetConstant.SERVER_TIME_OUT_ACTIVE));
+    }
+
+    /** Time a rest call of the cluster and count its failures, application clusters come and go with their jobs. */
+    private <T> T request(Supplier<T> call) {
+        try {
+            return MeterUtil.record(
+                    MeterUtil.evictableTimer(MeterUtil.FLINK_REST, MeterUtil.TAG_CLUSTER, cluster), call);
+        } catch (RuntimeException e) {
+            MeterUtil.evictableCounter(MeterUtil.FLINK_REST_ERRORS, MeterUtil.TAG_CLUSTER, cluster).increment();
+            throw e;
+        }
+    }
+
+    /**
+     * Read a byte range of a jobManager/TaskManager log. The range is passed to the rest endpoint as a http Range
+     * header, if the endpoint ignores it the body is streamed and only the requested range is kept in memory.
+     *
+     * @param route  route of the log
+     * @param offset first byte to read, null to read the last length bytes
+     * @param length max bytes to read, limited to {@link #MAX_LOG_CHUNK_SIZE}
+     * @return {@link LogChunk}
+     */
+    private LogChunk getLogRange(String route, Long offset, int length) {
+        Long start = offset == null ? null : Math.max(0, offset);
+        return request(() -> readLogRange(route, start, limit(length)));
+    }
+
+    static int limit(int length) {
+        return length <= 0 ? DEFAULT_LOG_CHUNK_SIZE : Math.min(length, MAX_LOG_CHUNK_SIZE);
+    }
+
+    private LogChunk readLogRange(String route, Long offset, int length) {
+        String url = address + NetConstant.SLASH + route;
+        String range = offset == null ? "bytes=-" + length : "bytes=" + offset + "-" + (offset + length - 1);
+        try (HttpResponse response = HttpRequest.get(url)
+                .header("Range", range)
+                .timeout(NetConstant.SERVER_TIME_OUT_ACTIVE)
+                .executeAsync()) {
+            if (response.getStatus() == HttpStatus.HTTP_PARTIAL) {
+                // the endpoint may send more than asked for, never keep more than length bytes
+                byte[] body = read(response.bodyStream(), length);
+                // Content-Range: bytes start-end/total
+                String contentRange = StrUtil.subAfter(response.header("Content-Range"), " ", false);
+                long start = Long.parseLong(StrUtil.subBefore(contentRange, "-", false));
+                String total = StrUtil.subAfter(contentRange, "/", false);
+                long size = StrUtil.isNumeric(total) ? Long.parseLong(total) : -1;
+                return new LogChunk(new String(body, StandardCharsets.UTF_8), start, start + body.length, size);
+            }
+            return offset == null
+                    ? readTail(response.bodyStream(), length)
+                    : readRange(response.bodyStream(), offset, length);
+        } catch (IOException e) {
+            throw new BusException(StrUtil.format("Read log {} failed: {}", route, e.getMessage()));
+        }
+    }
+
+    static LogChunk readRange(InputStream in, long offset, int length) throws IOException {
+        byte[] buffer = new byte[8192];
+        long skipped = 0;
+        int read;
+        while (skipped < offset) {
+            read = in.read(buffer, 0, (int) Math.min(buffer.length, offset - skipped));
+            if (read == -1) {
+                break;
+            }
+            skipped += read;
+        }
+        byte[] bytes = read(in, length);
+        // the stream ended inside the range, so its size is known
+        long size = bytes.length < length ? skipped + bytes.length : -1;
+        return new LogChunk(new String(bytes, StandardCharsets.UTF_8), skipped, skipped + bytes.length, size);
+    }
+
+    /** Read up to length bytes, fewer if the stream ends first. */
+    private static byte[] read(InputStream in, int length) throws IOException {
+        byte[] bytes = new byte[length];
+        int filled = 0;
+        int read;
+        while (filled < length && (read = in.read(bytes, filled, length - filled)) != -1) {
+            filled += read;
+        }
+        return filled < length ? Arrays.copyOf(bytes, filled) : bytes;
+    }
+
+    static LogChunk readTail(InputStream in, int length) throws IOException {
+        // keep the last length bytes of the stream in a ring buffer
+        byte[] ring = new byte[length];
+        byte[] buffer = new byte[8192];
+        long total = 0;
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            for (int i = 0; i < read; i++) {
+                ring[(int) ((total + i) % length)] = buffer[i];
+            }
+            total += read;
+        }
+        int kept = (int) Math.min(total, length);
+        byte[] bytes = new byte[kept];
+        for (int i = 0; i < kept; i++) {
+            bytes[i] = ring[(int) ((total - kept + i) % length)];
+        }
+        return new LogChunk(new String(bytes, StandardCharsets.UTF_8), total - kept, total, total);
     }
 
     private JsonNode post(String route, String body) {
@@ -116,7 +236,8 @@ public class FlinkAPI {
         if (!address.startsWith(NetConstant.HTTP) && !address.startsWith(NetConstant.HTTPS)) {
             url = NetConstant.HTTP + url;
         }
-        String res = HttpUtil.post(url, body, NetConstant.SERVER_TIME_OUT_ACTIVE);
+        String target = url;
+        String res = request(() -> HttpUtil.post(target, body, NetConstant.SERVER_TIME_OUT_ACTIVE));
         return parse(res);
     }
 
@@ -125,11 +246,12 @@ public class FlinkAPI {
         if (!address.startsWith(NetConstant.HTTP) && !address.startsWith(NetConstant.HTTPS)) {
             url = NetConstant.HTTP + url;
         }
-        String res = HttpUtil.createRequest(Method.PATCH, url)
+        String target = url;
+        String res = request(() -> HttpUtil.createRequest(Method.PATCH, target)
                 .timeout(NetConstant.SERVER_TIME_OUT_ACTIVE)
                 .body(body)
                 .execute()
-                .body();
+                .body());
         return parse(res);
     }
 
@@ -292,6 +414,15 @@ public class FlinkAPI {
     public String getJobManagerLog() {
         return getResult(FlinkRestAPIConstant.JOB_MANAGER + FlinkRestAPIConstant.LOG);
     }
+
+    /**
+     * @param offset first byte to read, null to read the tail of the log
+     * @param length max bytes to read
+     * @return {@link LogChunk}
+     */
+    public LogChunk getJobManagerLog(Long offset, int length) {
+        return getLogRange(FlinkRestAPIConstant.JOB_MANAGER + FlinkRestAPIConstant.LOG, offset, length);
+    }
     /** @return JsonNode */
     public String getJobManagerThreadDump() {
         return getResult(FlinkRestAPIConstant.JOB_MANAGER + FlinkRestAPIConstant.THREAD_DUMP);
@@ -364,6 +495,16 @@ public class FlinkAPI {
         return getResult(FlinkRestAPIConstant.TASK_MANAGER + containerId + FlinkRestAPIConstant.LOG);
     }
 
+    /**
+     * @param containerId 容器id
+     * @param offset      first byte to read, null to read the tail of the log
+     * @param length      max bytes to read
+     * @return {@link LogChunk}
+     */
+    public LogChunk getTaskManagerLog(String containerId, Long offset, int length) {
+        return getLogRange(FlinkRestAPIConstant.TASK_MANAGER + containerId + FlinkRestAPIConstant.LOG, offset, length);
+    }
+
     /**
      * @param containerId 容器id
      * @return JsonNode
@@ -28,10 +28,27 @@ public class MockDynamicTableSink implements DynamicTableSink {
 
     private final String tableName;
     private final RowType rowType;
+    private final String hostname;
+    private final int port;
+    private final String channel;
+    private final String token;
+    private final int maxRowNum;
 
-    public MockDynamicTableSink(String tableName, RowType rowType) {
+    public MockDynamicTableSink(
+            String tableName,
+            RowType rowType,
+            String hostname,
+            int port,
+            String channel,
+            String token,
+            int maxRowNum) {
         this.tableName = tableName;
         this.rowType = rowType;
+        this.hostname = hostname;
+        this.port = port;
+        this.channel = channel;
+        this.token = token;
+        this.maxRowNum = maxRowNum;
     }
 
     @Override
@@ -41,12 +58,13 @@ public class MockDynamicTableSink implements DynamicTableSink {
 
     @Override
     public SinkRuntimeProvider getSinkRuntimeProvider(Context context) {
-        return SinkFunctionProvider.of(new MockSinkFunction(tableName, rowType));
+        return SinkFunctionProvider.of(
+                new MockSinkFunction(tableName, rowType, hostname, port, channel, token, maxRowNum));
     }
 
     @Override
     public DynamicTableSink copy() {
-        return new MockDynamicTableSink(tableName, rowType);
+        return new MockDynamicTableSink(tableName, rowType, hostname, port, channel, token, maxRowNum);
     }
 
     @Override
@@ -20,23 +20,57 @@
 package org.dinky.connector.mock.sink;
 
 import org.apache.flink.configuration.ConfigOption;
+import org.apache.flink.configuration.ConfigOptions;
+import org.apache.flink.configuration.ReadableConfig;
 import org.apache.flink.table.connector.sink.DynamicTableSink;
 import org.apache.flink.table.factories.DynamicTableSinkFactory;
+import org.apache.flink.table.factories.FactoryUtil;
 import org.apache.flink.table.types.logical.RowType;
 
-import java.util.Collections;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.Set;
 
 public class MockDynamicTableSinkFactory implements DynamicTableSinkFactory {
     public static final String IDENTIFIER = "dinky-mock";
 
+    public static final ConfigOption<String> HOSTNAME =
+            ConfigOptions.key("hostName").stringType().defaultValue("127.0.0.1");
+
+    public static final ConfigOption<Integer> PORT =
+            ConfigOptions.key("port").intType().noDefaultValue();
+
+    public static final ConfigOption<String> CHANNEL = ConfigOptions.key("channel")
+            .stringType()
+            .noDefaultValue()
+            .withDescription("The result channel of dinky which the mocked rows belong to.");
+
+    public static final ConfigOption<String> TOKEN = ConfigOptions.key("token")
+            .stringType()
+            .noDefaultValue()
+            .withDescription("The secret of the result channel, dinky rejects rows sent without it.");
+
+    public static final ConfigOption<Integer> MAX_ROW_NUM = ConfigOptions.key("max-row-num")
+            .intType()
+            .defaultValue(-1)
+            .withDescription("Maximum number of rows sent to dinky, a non-positive value means no limit.");
+
     @Override
     public DynamicTableSink createDynamicTableSink(Context context) {
+        final FactoryUtil.TableFactoryHelper helper = FactoryUtil.createTableFactoryHelper(this, context);
+        helper.validate();
+        final ReadableConfig options = helper.getOptions();
         return new MockDynamicTableSink(
-                context.getObjectIdentifier().asSummaryString(), (RowType) context.getCatalogTable()
+                context.getObjectIdentifier().asSummaryString(),
+                (RowType) context.getCatalogTable()
                         .getResolvedSchema()
                         .toPhysicalRowDataType()
-                        .getLogicalType());
+                        .getLogicalType(),
+                options.get(HOSTNAME),
+                options.get(PORT),
+                options.get(CHANNEL),
+                options.get(TOKEN),
+                options.get(MAX_ROW_NUM));
     }
 
     @Override
@@ -46,11 +80,11 @@ public class MockDynamicTableSinkFactory implements DynamicTableSinkFactory {
 
     @Override
     public Set<ConfigOption<?>> requiredOptions() {
-        return Collections.emptySet();
+        return new HashSet<>(Arrays.asList(PORT, CHANNEL, TOKEN));
     }
 
     @Override
     public Set<ConfigOption<?>> optionalOptions() {
-        return Collections.emptySet();
+        return new HashSet<>(Arrays.asList(HOSTNAME, MAX_ROW_NUM));
     }
 }
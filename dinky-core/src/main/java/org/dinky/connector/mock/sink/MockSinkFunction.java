@@ -21,56 +21,165 @@ package org.dinky.connector.mock.sink;
 
 import org.dinky.constant.FlinkConstant;
 
-import org.apache.flink.api.common.accumulators.SerializedListAccumulator;
-import org.apache.flink.api.common.typeutils.base.MapSerializer;
-import org.apache.flink.api.common.typeutils.base.StringSerializer;
 import org.apache.flink.configuration.Configuration;
 import org.apache.flink.streaming.api.functions.sink.RichSinkFunction;
 import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.types.logical.LogicalTypeRoot;
 import org.apache.flink.table.types.logical.RowType;
 
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
 import java.nio.charset.StandardCharsets;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Push the rows of a mocked sink table to dinky in batches, instead of collecting them into an accumulator which
+ * has to be polled and deserialized as a whole by dinky.
+ */
+@Slf4j
 public class MockSinkFunction extends RichSinkFunction<RowData> {
+    private static final int BATCH_SIZE = 200;
+    private static final long FLUSH_INTERVAL_MS = 500;
+    private static final int CONNECT_TIMEOUT_MS = 10000;
+
     private final RowType rowType;
     private final String tableIdentifier;
-    // when columns is in VARCHAR or STRING type, rowData will be generated to BinaryStringData, which is not
-    // serialized, as a result, SerializedListAccumulator is used here
-    private final SerializedListAccumulator<Map<String, String>> rowDataList;
+    private final String hostname;
+    private final int port;
+    private final String channel;
+    private final String token;
+    private final int maxRowNum;
 
-    public MockSinkFunction(String tableName, RowType rowType) {
+    private transient String[] fieldNames;
+    private transient RowData.FieldGetter[] fieldGetters;
+    private transient boolean[] binaryFields;
+    private transient Socket socket;
+    private transient DataOutputStream out;
+    private transient List<Map<String, String>> buffer;
+    private transient ScheduledExecutorService flushScheduler;
+    private transient int emittedRowNum;
+
+    public MockSinkFunction(
+            String tableName,
+            RowType rowType,
+            String hostname,
+            int port,
+            String channel,
+            String token,
+            int maxRowNum) {
         this.rowType = rowType;
         this.tableIdentifier = tableName;
-        this.rowDataList = new SerializedListAccumulator<>();
+        this.hostname = hostname;
+        this.port = port;
+        this.channel = channel;
+        this.token = token;
+        this.maxRowNum = maxRowNum;
     }
 
     @Override
     public void open(Configuration parameters) throws Exception {
-        getRuntimeContext().addAccumulator(tableIdentifier, rowDataList);
         super.open(parameters);
+        List<String> names = rowType.getFieldNames();
+        fieldNames = names.toArray(new String[0]);
+        fieldGetters = new RowData.FieldGetter[fieldNames.length];
+        binaryFields = new boolean[fieldNames.length];
+        for (int i = 0; i < fieldNames.length; i++) {
+            fieldGetters[i] = RowData.createFieldGetter(rowType.getTypeAt(i), i);
+            LogicalTypeRoot typeRoot = rowType.getTypeAt(i).getTypeRoot();
+            binaryFields[i] = typeRoot == LogicalTypeRoot.BINARY || typeRoot == LogicalTypeRoot.VARBINARY;
+        }
+        buffer = new ArrayList<>(BATCH_SIZE);
+        emittedRowNum = 0;
+
+        socket = new Socket();
+        socket.setTcpNoDelay(true);
+        socket.connect(new InetSocketAddress(hostname, port), CONNECT_TIMEOUT_MS);
+        out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        log.info(
+                "MockSinkFunction connected to {}:{}, table: {}, channel: {}",
+                hostname,
+                port,
+                tableIdentifier,
+                channel);
+
+        flushScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "mock-sink-flusher-" + tableIdentifier);
+            thread.setDaemon(true);
+            return thread;
+        });
+        flushScheduler.scheduleWithFixedDelay(
+                this::flushQuietly, FLUSH_INTERVAL_MS, FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
     }
 
     @Override
     public void invoke(RowData rowData, Context context) throws Exception {
-        List<String> fieldNames = rowType.getFieldNames();
-        Map<String, String> rowDataMap = new HashMap<>();
+        // rows beyond the preview limit would be dropped by dinky anyway, so they are not transferred at all
+        if (maxRowNum > 0 && emittedRowNum >= maxRowNum) {
+            return;
+        }
+        Map<String, String> rowDataMap = new LinkedHashMap<>(fieldNames.length * 2 + 2);
         rowDataMap.put(FlinkConstant.OP, rowData.getRowKind().shortString());
-        for (int i = 0; i < fieldNames.size(); i++) {
-            RowData.FieldGetter fieldGetter = RowData.createFieldGetter(rowType.getTypeAt(i), i);
-            switch (rowType.getTypeAt(i).getTypeRoot()) {
-                case BINARY:
-                case VARBINARY:
-                    rowDataMap.put(
-                            fieldNames.get(i),
-                            new String((byte[]) fieldGetter.getFieldOrNull(rowData), StandardCharsets.UTF_8));
-                    break;
-                default:
-                    rowDataMap.put(fieldNames.get(i), String.valueOf(fieldGetter.getFieldOrNull(rowData)));
+        for (int i = 0; i < fieldNames.length; i++) {
+            Object field = fieldGetters[i].getFieldOrNull(rowData);
+            if (binaryFields[i] && field != null) {
+                rowDataMap.put(fieldNames[i], new String((byte[]) field, StandardCharsets.UTF_8));
+            } else {
+                rowDataMap.put(fieldNames[i], String.valueOf(field));
+            }
+        }
+        emittedRowNum++;
+        boolean full;
+        synchronized (this) {
+            buffer.add(rowDataMap);
+            full = buffer.size() >= BATCH_SIZE;
+        }
+        if (full || emittedRowNum == maxRowNum) {
+            flush();
+        }
+    }
+
+    private synchronized void flush() throws IOException {
+        if (buffer.isEmpty() || out == null) {
+            return;
+        }
+        MockSinkProtocol.writeBatch(out, channel, token, tableIdentifier, buffer);
+        buffer = new ArrayList<>(BATCH_SIZE);
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (IOException e) {
+            log.error("MockSinkFunction flush failed, table: {}: {}", tableIdentifier, e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (flushScheduler != null) {
+            flushScheduler.shutdownNow();
+        }
+        try {
+            flush();
+        } finally {
+            synchronized (this) {
+                if (socket != null) {
+                    socket.close();
+                }
+                out = null;
             }
+            super.close();
         }
-        rowDataList.add(rowDataMap, new MapSerializer<>(new StringSerializer(), new StringSerializer()));
     }
 }
@@ -0,0 +1,142 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.dinky.connector.mock.sink;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiPredicate;
+
+/**
+ * Wire format shared by {@link MockSinkFunction} and the result server of dinky.
+ *
+ * <p>A frame is: magic, channel, token, table identifier, row count, then for each row the field count followed
+ * by (name, value) pairs. Strings are length prefixed, a negative length means null. The token is handed out by
+ * dinky with the channel, a frame is authorized before its rows are read.
+ */
+public final class MockSinkProtocol {
+
+    public static final int MAGIC = 0x444D4B31;
+
+    private MockSinkProtocol() {}
+
+    public static void writeBatch(
+            DataOutputStream out,
+            String channel,
+            String token,
+            String tableIdentifier,
+            List<Map<String, String>> rows)
+            throws IOException {
+        out.writeInt(MAGIC);
+        writeString(out, channel);
+        writeString(out, token);
+        writeString(out, tableIdentifier);
+        out.writeInt(rows.size());
+        for (Map<String, String> row : rows) {
+            out.writeInt(row.size());
+            for (Map.Entry<String, String> entry : row.entrySet()) {
+                writeString(out, entry.getKey());
+                writeString(out, entry.getValue());
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Read a frame.
+     *
+     * @param in        input of the connection
+     * @param authorize tests the channel and token of the frame, the rows are only read if it passes
+     * @return the batch of the frame
+     * @throws IOException if the frame is invalid or not authorized
+     */
+    public static Batch readBatch(DataInputStream in, BiPredicate<String, String> authorize) throws IOException {
+        int magic = in.readInt();
+        if (magic != MAGIC) {
+            throw new IOException("Invalid mock sink frame, magic: " + Integer.toHexString(magic));
+        }
+        String channel = readString(in);
+        if (!authorize.test(channel, readString(in))) {
+            throw new IOException("Unauthorized mock sink frame, channel: " + channel);
+        }
+        String tableIdentifier = readString(in);
+        int rowCount = in.readInt();
+        List<Map<String, String>> rows = new ArrayList<>(rowCount);
+        for (int i = 0; i < rowCount; i++) {
+            int fieldCount = in.readInt();
+            Map<String, String> row = new LinkedHashMap<>(fieldCount * 2);
+            for (int j = 0; j < fieldCount; j++) {
+                row.put(readString(in), readString(in));
+            }
+            rows.add(row);
+        }
+        return new Batch(channel, tableIdentifier, rows);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /** A batch of rows of one mocked table. */
+    public static class Batch {
+        private final String channel;
+        private final String tableIdentifier;
+        private final List<Map<String, String>> rows;
+
+        public Batch(String channel, String tableIdentifier, List<Map<String, String>> rows) {
+            this.channel = channel;
+            this.tableIdentifier = tableIdentifier;
+            this.rows = rows;
+        }
+
+        public String getChannel() {
+            return channel;
+        }
+
+        public String getTableIdentifier() {
+            return tableIdentifier;
+        }
+
+        public List<Map<String, String>> getRows() {
+            return rows;
+        }
+    }
+}
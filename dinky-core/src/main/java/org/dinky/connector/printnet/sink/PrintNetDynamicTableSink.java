@@ -37,6 +37,8 @@ public class PrintNetDynamicTableSink implements DynamicTableSink, SupportsParti
 
     private final String hostname;
     private final int port;
+    private final String transport;
+    private final long flushIntervalMs;
     private final EncodingFormat<SerializationSchema<RowData>> encodingFormat;
     private final DataType type;
     private final List<String> partitionKeys;
@@ -51,9 +53,13 @@ public class PrintNetDynamicTableSink implements DynamicTableSink, SupportsParti
             String hostname,
             int port,
             String printIdentifier,
-            ObjectIdentifier objectIdentifier) {
+            ObjectIdentifier objectIdentifier,
+            String transport,
+            long flushIntervalMs) {
         this.hostname = hostname;
         this.port = port;
+        this.transport = transport;
+        this.flushIntervalMs = flushIntervalMs;
         this.encodingFormat = serializingFormat;
         this.type = type;
         this.partitionKeys = partitionKeys;
@@ -84,13 +90,22 @@ public class PrintNetDynamicTableSink implements DynamicTableSink, SupportsParti
         });
 
         return SinkFunctionProvider.of(
-                new PrintNetSinkFunction(hostname, port, serializer, converter, printIdentifier));
+                new PrintNetSinkFunction(
+                        hostname, port, serializer, converter, printIdentifier, transport, flushIntervalMs));
     }
 
     @Override
     public DynamicTableSink copy() {
         return new PrintNetDynamicTableSink(
-                type, partitionKeys, encodingFormat, hostname, port, printIdentifier, objectIdentifier);
+                type,
+                partitionKeys,
+                encodingFormat,
+                hostname,
+                port,
+                printIdentifier,
+                objectIdentifier,
+                transport,
+                flushIntervalMs);
     }
 
     @Override
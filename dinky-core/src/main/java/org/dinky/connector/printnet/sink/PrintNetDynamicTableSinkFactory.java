@@ -33,6 +33,7 @@ import org.apache.flink.table.factories.DynamicTableSinkFactory;
 import org.apache.flink.table.factories.FactoryUtil;
 import org.apache.flink.table.factories.SerializationFormatFactory;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
@@ -54,6 +55,17 @@ public class PrintNetDynamicTableSinkFactory implements DynamicTableSinkFactory
             .noDefaultValue()
             .withDescription("Message that identify print and is prefixed to the output of the" + " value.");
 
+    public static final ConfigOption<String> TRANSPORT = key("transport")
+            .stringType()
+            .defaultValue(PrintNetProtocol.TRANSPORT_UDP)
+            .withDescription("Transport of the printed rows, 'udp' or 'tcp'. "
+                    + "The tcp transport never drops rows and applies back pressure to the job.");
+
+    public static final ConfigOption<Duration> FLUSH_INTERVAL = key("flush-interval")
+            .durationType()
+            .defaultValue(Duration.ofMillis(200))
+            .withDescription("Max time a printed row is buffered before its batch is sent.");
+
     @Override
     public DynamicTableSink createDynamicTableSink(Context context) {
         final FactoryUtil.TableFactoryHelper helper = FactoryUtil.createTableFactoryHelper(this, context);
@@ -77,7 +89,9 @@ public class PrintNetDynamicTableSinkFactory implements DynamicTableSinkFactory
                 options.get(HOSTNAME),
                 options.get(PORT),
                 options.get(PRINT_IDENTIFIER),
-                objectIdentifier);
+                objectIdentifier,
+                options.get(TRANSPORT),
+                options.get(FLUSH_INTERVAL).toMillis());
     }
 
     @Override
@@ -92,6 +106,6 @@ public class PrintNetDynamicTableSinkFactory implements DynamicTableSinkFactory
 
     @Override
     public Set<ConfigOption<?>> optionalOptions() {
-        return new HashSet<>(Arrays.asList(PRINT_IDENTIFIER, FactoryUtil.FORMAT));
+        return new HashSet<>(Arrays.asList(PRINT_IDENTIFIER, FactoryUtil.FORMAT, TRANSPORT, FLUSH_INTERVAL));
     }
 }
@@ -0,0 +1,137 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.dinky.connector.printnet.sink;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Frame format of the print net transport, the same frame is used as an udp datagram or on a tcp stream.
+ *
+ * <pre>
+ * int   magic
+ * long  sender id, random per sink subtask
+ * long  sequence, increased by one per frame of a sender
+ * int   identifier length, identifier bytes
+ * int   row count
+ * int   row length, row bytes (repeated)
+ * </pre>
+ *
+ * <p>On a tcp stream every frame is prefixed with its total length.
+ */
+public final class PrintNetProtocol {
+
+    public static final int MAGIC = 0x50524E31;
+
+    /** Max payload of an udp datagram. */
+    public static final int MAX_DATAGRAM_SIZE = 65507;
+
+    /** Max frame accepted on a tcp stream. */
+    public static final int MAX_FRAME_SIZE = 16 * 1024 * 1024;
+
+    public static final String TRANSPORT_UDP = "udp";
+    public static final String TRANSPORT_TCP = "tcp";
+
+    private PrintNetProtocol() {}
+
+    /**
+     * Size of the frame header without rows.
+     *
+     * @param identifier print identifier bytes
+     * @return header size in bytes
+     */
+    public static int headerSize(byte[] identifier) {
+        return 4 + 8 + 8 + 4 + identifier.length + 4;
+    }
+
+    public static void writeFrame(
+            DataOutputStream out, long senderId, long sequence, byte[] identifier, List<byte[]> rows)
+            throws IOException {
+        out.writeInt(MAGIC);
+        out.writeLong(senderId);
+        out.writeLong(sequence);
+        out.writeInt(identifier.length);
+        out.write(identifier);
+        out.writeInt(rows.size());
+        for (byte[] row : rows) {
+            out.writeInt(row.length);
+            out.write(row);
+        }
+    }
+
+    public static Frame readFrame(byte[] data, int offset, int length) throws IOException {
+        return readFrame(new DataInputStream(new ByteArrayInputStream(data, offset, length)));
+    }
+
+    public static Frame readFrame(DataInputStream in) throws IOException {
+        int magic = in.readInt();
+        if (magic != MAGIC) {
+            throw new IOException("Invalid print net frame, magic: " + Integer.toHexString(magic));
+        }
+        long senderId = in.readLong();
+        long sequence = in.readLong();
+        byte[] identifier = new byte[in.readInt()];
+        in.readFully(identifier);
+        int rowCount = in.readInt();
+        List<String> rows = new ArrayList<>(rowCount);
+        for (int i = 0; i < rowCount; i++) {
+            byte[] row = new byte[in.readInt()];
+            in.readFully(row);
+            rows.add(new String(row, StandardCharsets.UTF_8));
+        }
+        return new Frame(senderId, sequence, new String(identifier, StandardCharsets.UTF_8), rows);
+    }
+
+    /** A decoded batch of rows of one print table. */
+    public static class Frame {
+        private final long senderId;
+        private final long sequence;
+        private final String identifier;
+        private final List<String> rows;
+
+        public Frame(long senderId, long sequence, String identifier, List<String> rows) {
+            this.senderId = senderId;
+            this.sequence = sequence;
+            this.identifier = identifier;
+            this.rows = rows;
+        }
+
+        public long getSenderId() {
+            return senderId;
+        }
+
+        public long getSequence() {
+            return sequence;
+        }
+
+        public String getIdentifier() {
+            return identifier;
+        }
+
+        public List<String> getRows() {
+            return rows;
+        }
+    }
+}
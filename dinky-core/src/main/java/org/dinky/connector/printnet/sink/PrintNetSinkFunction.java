@@ -25,43 +25,83 @@ import org.apache.flink.streaming.api.functions.sink.RichSinkFunction;
 import org.apache.flink.table.connector.sink.DynamicTableSink;
 import org.apache.flink.table.data.RowData;
 
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.net.DatagramPacket;
 import java.net.DatagramSocket;
 import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
 import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Buffer the printed rows and send them as length framed batches, flushed by size or by time. In udp mode a batch
+ * fits into one datagram, in tcp mode the socket applies flow control back to the job.
+ */
 @Slf4j
 public class PrintNetSinkFunction extends RichSinkFunction<RowData> {
+    private static final int TCP_BATCH_BYTES = 1024 * 1024;
+    private static final int CONNECT_TIMEOUT_MS = 10000;
+
     private final int port;
     private final SerializationSchema<RowData> serializer;
     private final DynamicTableSink.DataStructureConverter converter;
-    private final byte[] printHeader;
-    private transient DatagramSocket socket;
+    private final byte[] printIdentifier;
     private final InetAddress targetAddress;
+    private final String transport;
+    private final long flushIntervalMs;
+
+    private transient DatagramSocket datagramSocket;
+    private transient Socket socket;
+    private transient DataOutputStream socketOut;
+    private transient ByteArrayOutputStream frameBuffer;
+    private transient List<byte[]> rows;
+    private transient int bufferedBytes;
+    private transient int maxBatchBytes;
+    private transient long senderId;
+    private transient long sequence;
+    private transient long droppedRows;
+    private transient ScheduledExecutorService flushScheduler;
 
     public PrintNetSinkFunction(
             String hostname,
             int port,
             SerializationSchema<RowData> serializer,
             DynamicTableSink.DataStructureConverter converter,
-            String printIdentifier) {
+            String printIdentifier,
+            String transport,
+            long flushIntervalMs) {
         this.port = port;
         this.serializer = serializer;
         this.converter = converter;
-        printHeader = (printIdentifier + "\n").getBytes();
+        this.printIdentifier = printIdentifier.getBytes(StandardCharsets.UTF_8);
+        this.transport = transport;
+        this.flushIntervalMs = flushIntervalMs;
 
         try {
             this.targetAddress = InetAddress.getByName(hostname);
-            log.info("PrintNetSinkFunction target address: {}, port: {}", hostname, port);
+            log.info("PrintNetSinkFunction target address: {}, port: {}, transport: {}", hostname, port, transport);
         } catch (UnknownHostException e) {
             log.error("Unknown host: {}", hostname);
             throw new RuntimeException(e);
         }
     }
 
+    private boolean isTcp() {
+        return PrintNetProtocol.TRANSPORT_TCP.equalsIgnoreCase(transport);
+    }
+
     @Override
     public void open(Configuration parameters) throws Exception {
         super.open(parameters);
@@ -69,25 +109,98 @@ public class PrintNetSinkFunction extends RichSinkFunction<RowData> {
             serializer.open(null);
         }
 
-        socket = new DatagramSocket();
+        if (isTcp()) {
+            socket = new Socket();
+            socket.connect(new InetSocketAddress(targetAddress, port), CONNECT_TIMEOUT_MS);
+            socketOut = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            maxBatchBytes = TCP_BATCH_BYTES;
+        } else {
+            datagramSocket = new DatagramSocket();
+            maxBatchBytes = PrintNetProtocol.MAX_DATAGRAM_SIZE;
+        }
+        frameBuffer = new ByteArrayOutputStream(Math.min(maxBatchBytes, 64 * 1024));
+        rows = new ArrayList<>();
+        bufferedBytes = PrintNetProtocol.headerSize(printIdentifier);
+        senderId = ThreadLocalRandom.current().nextLong();
+        sequence = 0;
+        droppedRows = 0;
+
+        flushScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "print-net-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flushScheduler.scheduleWithFixedDelay(
+                this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
     }
 
     @Override
     public void invoke(RowData value, Context context) throws IOException {
-        try {
-            byte[] buf = serializer != null
-                    ? serializer.serialize(value)
-                    : converter.toExternal(value).toString().getBytes();
+        byte[] row = serializer != null
+                ? serializer.serialize(value)
+                : converter.toExternal(value).toString().getBytes(StandardCharsets.UTF_8);
+        int rowBytes = 4 + row.length;
+        if (PrintNetProtocol.headerSize(printIdentifier) + rowBytes > maxBatchBytes && !isTcp()) {
+            // an udp datagram can not carry it, the tcp transport has to be used for such rows
+            droppedRows++;
+            log.warn(
+                    "Row of {} bytes exceeds the udp datagram limit and is dropped, dropped rows: {}",
+                    row.length,
+                    droppedRows);
+            return;
+        }
+        synchronized (this) {
+            if (!rows.isEmpty() && bufferedBytes + rowBytes > maxBatchBytes) {
+                flush();
+            }
+            rows.add(row);
+            bufferedBytes += rowBytes;
+        }
+    }
 
-            byte[] target = new byte[printHeader.length + buf.length];
-            System.arraycopy(printHeader, 0, target, 0, printHeader.length);
-            System.arraycopy(buf, 0, target, printHeader.length, buf.length);
+    private synchronized void flush() throws IOException {
+        if (rows == null || rows.isEmpty()) {
+            return;
+        }
+        frameBuffer.reset();
+        PrintNetProtocol.writeFrame(new DataOutputStream(frameBuffer), senderId, sequence++, printIdentifier, rows);
+        if (isTcp()) {
+            socketOut.writeInt(frameBuffer.size());
+            frameBuffer.writeTo(socketOut);
+            socketOut.flush();
+        } else {
+            byte[] frame = frameBuffer.toByteArray();
+            datagramSocket.send(new DatagramPacket(frame, frame.length, targetAddress, port));
+        }
+        rows.clear();
+        bufferedBytes = PrintNetProtocol.headerSize(printIdentifier);
+    }
 
-            DatagramPacket packet = new DatagramPacket(target, target.length, this.targetAddress, port);
-            socket.send(packet);
+    private void flushQuietly() {
+        try {
+            flush();
         } catch (Exception e) {
             log.error("Failed to send packet: {}", e.getMessage());
-            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (flushScheduler != null) {
+            flushScheduler.shutdownNow();
+        }
+        try {
+            flush();
+        } finally {
+            synchronized (this) {
+                if (socket != null) {
+                    socket.close();
+                }
+                if (datagramSocket != null) {
+                    datagramSocket.close();
+                }
+            }
+            super.close();
         }
     }
 }
@@ -19,26 +19,23 @@
 
 package org.dinky.data.result;
 
-import org.dinky.assertion.Asserts;
+import org.dinky.connector.mock.sink.MockSinkProtocol;
 import org.dinky.constant.FlinkConstant;
 import org.dinky.utils.JsonUtils;
 
-import org.apache.flink.api.common.typeutils.base.MapSerializer;
-import org.apache.flink.api.common.typeutils.base.StringSerializer;
 import org.apache.flink.core.execution.JobClient;
-import org.apache.flink.core.memory.DataInputViewStreamWrapper;
 import org.apache.flink.table.api.TableResult;
 import org.apache.flink.table.catalog.ResolvedSchema;
 import org.apache.flink.types.RowKind;
 
-import java.io.ByteArrayInputStream;
-import java.io.IOException;
 import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
 
 import lombok.extern.slf4j.Slf4j;
@@ -60,8 +57,6 @@ public class MockResultRunnable implements Runnable {
     private BiConsumer<String, SelectResult> callback;
     private final String MOCK_RESULT_TABLE_IDENTIFIER = "dinkySinkResultTableIdentifier";
     private final String MOCK_RESULT_COLUMN_IDENTIFIER = "dinkySinkResultColumnIdentifier";
-    private final MapSerializer<String, String> mapSerializer =
-            new MapSerializer<>(new StringSerializer(), new StringSerializer());
 
     public MockResultRunnable(
             TableResult tableResult, String id, Integer maxRowNum, boolean isChangeLog, boolean isAutoCancel) {
@@ -106,181 +101,120 @@ public class MockResultRunnable implements Runnable {
     }
 
     private void catchChangLog(SelectResult selectResult) {
-        List<Map<String, Object>> rows = selectResult.getRowData();
-        LinkedHashSet<String> columns = selectResult.getColumns();
-        // get table identifiers
-        ResolvedSchema resolvedSchema = tableResult.getResolvedSchema();
-        List<String> tableIdentifierList = resolvedSchema.getColumnNames();
-        // update row data map
-        Map<String, List<Map<String, String>>> rowDataMap = new HashMap<>();
-        Map<String, Integer> tableIdentifierIndexMap = new HashMap<>();
-        JobClient jobClient = tableResult.getJobClient().get();
-        while (!isAllSinkFinished(maxRowNum, rowDataMap, tableIdentifierList)) {
-            try {
-                boolean allSinkFinished = false;
-                Map<String, Object> accumulatorMap = jobClient.getAccumulators().get();
-                for (String tableIdentifier : tableIdentifierList) {
-                    if (!tableIdentifierIndexMap.containsKey(tableIdentifier)) {
-                        tableIdentifierIndexMap.put(tableIdentifier, 0);
-                    } else if (tableIdentifierIndexMap.get(tableIdentifier) >= maxRowNum - 1) {
-                        allSinkFinished = true;
-                        continue;
-                    }
-                    Object accumulatorObject = accumulatorMap.get(tableIdentifier);
-                    if (accumulatorObject instanceof List) {
-                        List<?> serializerRowDataList = (List<?>) accumulatorObject;
-                        for (int i = tableIdentifierIndexMap.get(tableIdentifier);
-                                i < serializerRowDataList.size();
-                                i++) {
-                            Map<String, Object> rowDataWithTableIdentifier = new HashMap<>();
-                            rowDataWithTableIdentifier.put(MOCK_RESULT_TABLE_IDENTIFIER, tableIdentifier);
-                            // deserialize data from accumulator
-                            Map<String, String> deserializeRowData =
-                                    deserializeObjFromBytes((byte[]) serializerRowDataList.get(i));
-                            if (tableIdentifierIndexMap.get(tableIdentifier) == 0) {
-                                columns.add(generateResultColumns(tableIdentifier, deserializeRowData));
-                            }
-                            rowDataWithTableIdentifier.putAll(deserializeRowData);
-                            // update row data map
-                            rows.add(rowDataWithTableIdentifier);
-                            tableIdentifierIndexMap.put(
-                                    tableIdentifier, tableIdentifierIndexMap.get(tableIdentifier) + 1);
-                            if (tableIdentifierIndexMap.get(tableIdentifier) >= maxRowNum) {
-                                break;
-                            }
-                        }
-                        log.info(
-                                "Catch change log: table-{}: size-{},",
-                                tableIdentifier,
-                                tableIdentifierIndexMap.get(tableIdentifier));
-                    }
-                }
-                if (jobClient.getJobStatus().get().isTerminalState()) {
-                    log.info(
-                            "JobClient status:{}",
-                            jobClient.getJobStatus().get().toString());
-                    break;
-                }
-                if (allSinkFinished && isAutoCancel) {
-                    jobClient.cancel();
-                }
-                Thread.sleep(1000);
-            } catch (Exception e) {
-                log.error("Deserialize change log from accumulator failed, jobId: {}: \nError: {}", id, e);
-                break;
-            }
-        }
+        catchRows(selectResult, true);
         log.info("Catch change log finish. Job id: {}", selectResult.getJobId());
     }
 
     private void catchData(SelectResult selectResult) {
+        catchRows(selectResult, false);
+        log.info("Catch data finish. Job id: {}", selectResult.getJobId());
+    }
+
+    /**
+     * Consume the row batches pushed by the mock sinks of this job until every table has caught enough rows or
+     * the job has terminated. Only new rows are transferred, so each row is handled exactly once.
+     *
+     * @param selectResult result to fill
+     * @param isChangeLog  keep every change if true, otherwise apply retractions to the rows
+     */
+    private void catchRows(SelectResult selectResult, boolean isChangeLog) {
         List<Map<String, Object>> rows = selectResult.getRowData();
         LinkedHashSet<String> columns = selectResult.getColumns();
         // get table identifiers
         ResolvedSchema resolvedSchema = tableResult.getResolvedSchema();
         List<String> tableIdentifierList = resolvedSchema.getColumnNames();
-        // update row data map
-        Map<String, List<Map<String, String>>> rowDataMap = new HashMap<>();
         Map<String, Integer> tableIdentifierIndexMap = new HashMap<>();
         JobClient jobClient = tableResult.getJobClient().get();
-        while (!isAllSinkFinished(maxRowNum, rowDataMap, tableIdentifierList)) {
-            try {
-                boolean allSinkFinished = false;
-                Map<String, Object> accumulatorMap = jobClient.getAccumulators().get();
-                for (String tableIdentifier : tableIdentifierList) {
-                    if (!tableIdentifierIndexMap.containsKey(tableIdentifier)) {
-                        tableIdentifierIndexMap.put(tableIdentifier, 0);
-                    } else if (tableIdentifierIndexMap.get(tableIdentifier) >= maxRowNum - 1) {
-                        allSinkFinished = true;
-                        continue;
-                    }
-                    Object accumulatorObject = accumulatorMap.get(tableIdentifier);
-                    if (accumulatorObject instanceof List) {
-                        List<?> serializerRowDataList = (List<?>) accumulatorObject;
-                        for (int i = tableIdentifierIndexMap.get(tableIdentifier);
-                                i < serializerRowDataList.size();
-                                i++) {
-                            Map<String, Object> rowDataWithTableIdentifier = new HashMap<>();
-                            rowDataWithTableIdentifier.put(MOCK_RESULT_TABLE_IDENTIFIER, tableIdentifier);
-                            // deserialize data from accumulator
-                            Map<String, String> deserializeRowData =
-                                    deserializeObjFromBytes((byte[]) serializerRowDataList.get(i));
-                            String op = deserializeRowData.get(FlinkConstant.OP);
-                            deserializeRowData.remove(FlinkConstant.OP);
-                            if (tableIdentifierIndexMap.get(tableIdentifier) == 0) {
-                                columns.add(generateResultColumns(tableIdentifier, deserializeRowData));
-                            }
-                            rowDataWithTableIdentifier.putAll(deserializeRowData);
-                            if (RowKind.UPDATE_BEFORE.shortString().equals(op)
-                                    || RowKind.DELETE.shortString().equals(op)) {
-                                rows.remove(rowDataWithTableIdentifier);
-                            } else {
-                                rows.add(rowDataWithTableIdentifier);
-                            }
-                            tableIdentifierIndexMap.put(
-                                    tableIdentifier, tableIdentifierIndexMap.get(tableIdentifier) + 1);
-                            if (tableIdentifierIndexMap.get(tableIdentifier) >= maxRowNum) {
-                                break;
-                            }
-                        }
+        BlockingQueue<MockSinkProtocol.Batch> channel = MockResultServer.getInstance().channel(id);
+        try {
+            while (!isAllSinkFinished(maxRowNum, tableIdentifierIndexMap, tableIdentifierList)) {
+                MockSinkProtocol.Batch batch = channel.poll(1, TimeUnit.SECONDS);
+                if (batch == null) {
+                    if (jobClient.getJobStatus().get().isTerminalState()) {
                         log.info(
-                                "Catch Data: table-{}: size-{},",
-                                tableIdentifier,
-                                tableIdentifierIndexMap.get(tableIdentifier));
+                                "JobClient status:{}",
+                                jobClient.getJobStatus().get().toString());
+                        // rows may still be in flight when the job finishes
+                        while ((batch = channel.poll()) != null) {
+                            catchBatch(batch, rows, columns, tableIdentifierIndexMap, isChangeLog);
+                        }
+                        break;
                     }
+                    continue;
                 }
-                if (jobClient.getJobStatus().get().isTerminalState()) {
-                    log.info(
-                            "JobClient status:{}",
-                            jobClient.getJobStatus().get().toString());
-                    break;
-                }
-                if (allSinkFinished && isAutoCancel) {
-                    jobClient.cancel();
-                }
-                Thread.sleep(1000);
-            } catch (Exception e) {
-                log.error("Deserialize data from accumulator failed, jobId: {}: \nError: {}", id, e);
+                catchBatch(batch, rows, columns, tableIdentifierIndexMap, isChangeLog);
+            }
+            if (isAutoCancel && !jobClient.getJobStatus().get().isTerminalState()) {
+                jobClient.cancel();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("Catch rows from mock sink failed, jobId: {}: \nError: {}", id, e);
+        } finally {
+            MockResultServer.getInstance().release(id);
+        }
+    }
+
+    private void catchBatch(
+            MockSinkProtocol.Batch batch,
+            List<Map<String, Object>> rows,
+            LinkedHashSet<String> columns,
+            Map<String, Integer> tableIdentifierIndexMap,
+            boolean isChangeLog) {
+        String tableIdentifier = batch.getTableIdentifier();
+        int index = tableIdentifierIndexMap.getOrDefault(tableIdentifier, 0);
+        for (Map<String, String> rowData : batch.getRows()) {
+            if (index >= maxRowNum) {
                 break;
             }
+            String op = isChangeLog ? null : rowData.remove(FlinkConstant.OP);
+            if (index == 0) {
+                columns.add(generateResultColumns(tableIdentifier, rowData));
+            }
+            Map<String, Object> rowDataWithTableIdentifier = new HashMap<>();
+            rowDataWithTableIdentifier.put(MOCK_RESULT_TABLE_IDENTIFIER, tableIdentifier);
+            rowDataWithTableIdentifier.putAll(rowData);
+            if (RowKind.UPDATE_BEFORE.shortString().equals(op) || RowKind.DELETE.shortString().equals(op)) {
+                rows.remove(rowDataWithTableIdentifier);
+            } else {
+                rows.add(rowDataWithTableIdentifier);
+            }
+            index++;
         }
-        log.info("Catch data finish. Job id: {}", selectResult.getJobId());
+        tableIdentifierIndexMap.put(tableIdentifier, index);
+        log.debug("Catch rows: table-{}: size-{},", tableIdentifier, index);
     }
 
     /**
      * check if all sink has finished
      *
-     * @param maxRowNum           maximum row num of each table
-     * @param rowData             row data map, key: table name, value: row data
-     * @param tableIdentifierList table identifier
+     * @param maxRowNum               maximum row num of each table
+     * @param tableIdentifierIndexMap caught row num map, key: table name, value: row num
+     * @param tableIdentifierList     table identifier
      * @return true if all tables has caught enough rows
      */
     private boolean isAllSinkFinished(
-            int maxRowNum, Map<String, List<Map<String, String>>> rowData, List<String> tableIdentifierList) {
-        if (tableIdentifierList.size() > rowData.size()) {
-            return false;
-        }
-        for (List<Map<String, String>> rowDataList : rowData.values()) {
-            if (Asserts.isNotNull(rowDataList) && rowDataList.size() < maxRowNum) {
+            int maxRowNum, Map<String, Integer> tableIdentifierIndexMap, List<String> tableIdentifierList) {
+        for (String tableIdentifier : tableIdentifierList) {
+            if (tableIdentifierIndexMap.getOrDefault(tableIdentifier, 0) < maxRowNum) {
                 return false;
             }
         }
         return true;
     }
 
-    private Map<String, String> deserializeObjFromBytes(byte[] byteArr) throws IOException {
-        return mapSerializer.deserialize(new DataInputViewStreamWrapper(new ByteArrayInputStream(byteArr)));
-    }
-
     private String generateResultColumns(String tableIdentifier, Map<String, String> rowData) {
         // __op__ is first column.
         Set<String> columns = new LinkedHashSet<>();
         if (rowData.containsKey(FlinkConstant.OP)) {
             columns.add(FlinkConstant.OP);
         }
-        Set<String> columnsFromRowData = rowData.keySet();
-        columnsFromRowData.remove(FlinkConstant.OP);
-        columns.addAll(columnsFromRowData);
+        for (String column : rowData.keySet()) {
+            if (!FlinkConstant.OP.equals(column)) {
+                columns.add(column);
+            }
+        }
         Map<String, Object> columnElement = new HashMap<>();
         columnElement.put(MOCK_RESULT_TABLE_IDENTIFIER, tableIdentifier);
         columnElement.put(MOCK_RESULT_COLUMN_IDENTIFIER, columns);
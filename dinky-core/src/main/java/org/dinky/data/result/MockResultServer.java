@@ -0,0 +1,202 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.dinky.data.result;
+
+import org.dinky.connector.mock.sink.MockSinkProtocol;
+import org.dinky.utils.IpUtil;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.NetworkInterface;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import cn.hutool.cache.Cache;
+import cn.hutool.cache.CacheUtil;
+import cn.hutool.core.util.StrUtil;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * MockResultServer receives the row batches pushed by the mock sink and dispatches them to the channel of the
+ * job that produced them.
+ * <p>
+ * A channel is registered before its job starts and hands out a token, frames without the token of their channel
+ * are rejected. Frames of a released channel are read and dropped, so that a channel is never created again by a
+ * late batch. The receiver never blocks on a full channel, batches the consumer cannot keep up with are dropped.
+ * </p>
+ */
+@Slf4j
+public final class MockResultServer {
+
+    private static final int MAX_PENDING_BATCHES = 1024;
+    private static final int MAX_RELEASED_CHANNELS = 1024;
+    private static volatile MockResultServer instance;
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService executor;
+    private final Map<String, Channel> channels = new ConcurrentHashMap<>();
+    /** Tokens of the released channels, whose sinks may still be sending */
+    private final Cache<String, String> released = CacheUtil.newLRUCache(MAX_RELEASED_CHANNELS);
+
+    private MockResultServer(InetAddress bindAddress) throws IOException {
+        this.serverSocket = new ServerSocket(0, 50, bindAddress);
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "mock-result-server-" + threadIndex.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.execute(this::accept);
+        log.info("MockResultServer started, address: {}:{}", bindAddress.getHostAddress(), getPort());
+    }
+
+    /**
+     * Get the server, start it on a random port of the host address at first call.
+     *
+     * @return the running server
+     */
+    public static MockResultServer getInstance() {
+        return getInstance(null);
+    }
+
+    /**
+     * Get the server, start it at first call on a random port of the configured dinky host, which the mock sinks
+     * connect to. The host address is used if the configured host is blank or not an address of this machine.
+     *
+     * @param host configured dinky host
+     * @return the running server
+     */
+    public static MockResultServer getInstance(String host) {
+        if (instance == null) {
+            synchronized (MockResultServer.class) {
+                if (instance == null) {
+                    try {
+                        instance = new MockResultServer(bindAddress(host));
+                    } catch (IOException e) {
+                        throw new IllegalStateException("MockResultServer start failed", e);
+                    }
+                }
+            }
+        }
+        return instance;
+    }
+
+    private static InetAddress bindAddress(String host) throws IOException {
+        if (StrUtil.isNotBlank(host)) {
+            try {
+                InetAddress address = InetAddress.getByName(host);
+                if (address.isLoopbackAddress() || NetworkInterface.getByInetAddress(address) != null) {
+                    return address;
+                }
+                log.warn("Dinky host {} is not an address of this machine, MockResultServer uses the host ip", host);
+            } catch (IOException e) {
+                log.warn("Resolve dinky host {} failed: {}", host, e.getMessage());
+            }
+        }
+        return InetAddress.getByName(IpUtil.getHostIp());
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Open the channel of a job before its mock sinks start.
+     *
+     * @param channel result channel of the job
+     * @return the token the mock sinks have to send with every batch
+     */
+    public String register(String channel) {
+        released.remove(channel);
+        return channels.computeIfAbsent(channel, k -> new Channel()).token;
+    }
+
+    /** Number of the open channels. */
+    public int getChannelCount() {
+        return channels.size();
+    }
+
+    public BlockingQueue<MockSinkProtocol.Batch> channel(String channel) {
+        return channels.computeIfAbsent(channel, k -> new Channel()).queue;
+    }
+
+    public void release(String channel) {
+        Channel removed = channels.remove(channel);
+        if (removed != null) {
+            released.put(channel, removed.token);
+        }
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                executor.execute(() -> receive(socket));
+            } catch (IOException e) {
+                log.error("MockResultServer accept failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void receive(Socket socket) {
+        try (Socket s = socket;
+                DataInputStream in = new DataInputStream(new BufferedInputStream(s.getInputStream()))) {
+            while (true) {
+                MockSinkProtocol.Batch batch = MockSinkProtocol.readBatch(in, this::authorize);
+                Channel channel = channels.get(batch.getChannel());
+                // the batch of a released channel is dropped, the receiver never waits for a slow consumer
+                if (channel != null && !channel.queue.offer(batch)) {
+                    log.debug("Channel {} is full, drop a batch of {}", batch.getChannel(), batch.getTableIdentifier());
+                }
+            }
+        } catch (EOFException e) {
+            // sink closed the connection
+        } catch (IOException e) {
+            log.error("MockResultServer receive failed: {}", e.getMessage());
+        }
+    }
+
+    private boolean authorize(String channel, String token) {
+        Channel open = channels.get(channel);
+        String expected = open != null ? open.token : released.get(channel, false);
+        return expected != null
+                && token != null
+                && MessageDigest.isEqual(
+                        expected.getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static class Channel {
+        private final BlockingQueue<MockSinkProtocol.Batch> queue = new LinkedBlockingQueue<>(MAX_PENDING_BATCHES);
+        private final String token = UUID.randomUUID().toString();
+    }
+}
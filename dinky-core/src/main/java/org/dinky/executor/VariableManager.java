@@ -26,9 +26,14 @@ import static org.apache.flink.util.Preconditions.checkNotNull;
 import org.dinky.assertion.Asserts;
 import org.dinky.constant.FlinkSQLConstant;
 import org.dinky.context.EngineContextHolder;
-import org.dinky.data.constant.CommonConstant;
 import org.dinky.data.exception.BusException;
 
+import org.apache.commons.jexl3.JexlBuilder;
+import org.apache.commons.jexl3.JexlContext;
+import org.apache.commons.jexl3.JexlException;
+import org.apache.commons.jexl3.JexlExpression;
+import org.apache.commons.jexl3.JexlScript;
+import org.apache.commons.jexl3.MapContext;
 import org.apache.flink.table.api.DataTypes;
 import org.apache.flink.table.api.Table;
 import org.apache.flink.table.api.TableResult;
@@ -39,10 +44,15 @@ import org.apache.flink.util.StringUtils;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
+import java.util.Set;
+import java.util.function.Function;
 
+import cn.hutool.cache.Cache;
+import cn.hutool.cache.CacheUtil;
 import cn.hutool.core.lang.Dict;
 import cn.hutool.core.util.StrUtil;
 import cn.hutool.extra.expression.engine.jexl.JexlEngine;
@@ -58,9 +68,15 @@ public final class VariableManager {
     public static final String VARIABLE = "variable";
     static final String SHOW_VARIABLES = "SHOW VARIABLES";
     private final Map<String, String> variables;
+    /** Resolved values of variables and expressions, valid until a variable changes. */
+    private final Map<String, Object> resolvedValues = new HashMap<>();
 
     public static final JexlEngine ENGINE = new JexlEngine();
 
+    private static final org.apache.commons.jexl3.JexlEngine JEXL =
+            new JexlBuilder().cache(512).strict(true).silent(false).create();
+    private static final Cache<String, Function<JexlContext, Object>> EXPRESSION_CACHE = CacheUtil.newLRUCache(512);
+
     public VariableManager() {
         variables = new HashMap<>();
     }
@@ -87,7 +103,7 @@ public final class VariableManager {
     public void registerVariable(String variableName, String variable) {
         checkArgument(!StringUtils.isNullOrWhitespaceOnly(variableName), "sql variable name cannot be null or empty.");
         checkNotNull(variable, "sql variable cannot be null");
-        variables.put(variableName, variable);
+        registerVariable(Collections.singletonMap(variableName, variable));
     }
 
     /**
@@ -99,7 +115,23 @@ public final class VariableManager {
      */
     public void registerVariable(Map<String, String> variableMap) {
         if (Asserts.isNotNull(variableMap)) {
+            Map<String, String> previous = new HashMap<>();
+            variableMap.keySet().forEach(name -> previous.put(name, variables.get(name)));
             variables.putAll(variableMap);
+            resolvedValues.clear();
+            try {
+                variableMap.keySet().forEach(this::checkCycle);
+            } catch (BusException e) {
+                // a variable closing a cycle is not registered, the previous values are kept
+                previous.forEach((name, value) -> {
+                    if (value == null) {
+                        variables.remove(name);
+                    } else {
+                        variables.put(name, value);
+                    }
+                });
+                throw e;
+            }
         }
     }
 
@@ -118,6 +150,7 @@ public final class VariableManager {
 
         if (variables.containsKey(variableName)) {
             variables.remove(variableName);
+            resolvedValues.clear();
         } else if (!ignoreIfNotExists) {
             throw new CatalogException(format("The variable of sql %s does not exist.", variableName));
         }
@@ -135,14 +168,22 @@ public final class VariableManager {
                 !StringUtils.isNullOrWhitespaceOnly(variableName),
                 "sql variable name or jexl key cannot be null or empty.");
         try {
-            if (variables.containsKey(variableName)) {
-                return variables.get(variableName);
+            if (resolvedValues.containsKey(variableName)) {
+                return resolvedValues.get(variableName);
             }
-            // load expression variable class
-            if (parseAndMatchExpressionVariable(variableName)) {
-                return ENGINE.eval(variableName, EngineContextHolder.getEngineContext(), null);
+            Object value = null;
+            if (variables.containsKey(variableName)) {
+                value = resolveVariable(variableName);
+            } else if (parseAndMatchExpressionVariable(variableName)) {
+                // load expression variable class
+                value = evaluateExpression(variableName);
+            } else {
+                return null;
             }
-            return null;
+            resolvedValues.put(variableName, value);
+            return value;
+        } catch (BusException e) {
+            throw e;
         } catch (Exception e) {
             String error = format(
                     "The variable name or jexl key of sql \"${%s}\" does not exist.\n"
@@ -155,6 +196,70 @@ public final class VariableManager {
         }
     }
 
+    /** The value of a registered variable, with the variables it references resolved. */
+    private String resolveVariable(String variableName) {
+        String value = variables.get(variableName);
+        VariableTemplate template = VariableTemplate.compile(value);
+        if (!template.hasVariables()) {
+            return value;
+        }
+        return template.render(name -> {
+            if (variables.containsKey(name) || isExpressionVariable(name)) {
+                return getVariable(name);
+            }
+            // not a variable, keep the text as it is
+            return "${" + name + "}";
+        });
+    }
+
+    private Object evaluateExpression(String expression) {
+        return EXPRESSION_CACHE
+                .get(expression, () -> compileExpression(expression))
+                .apply(new MapContext(EngineContextHolder.getEngineContext()));
+    }
+
+    /** Compile as an expression, falling back to a script for statements an expression cannot hold, like hutool. */
+    private static Function<JexlContext, Object> compileExpression(String expression) {
+        try {
+            JexlExpression jexlExpression = JEXL.createExpression(expression);
+            return jexlExpression::evaluate;
+        } catch (JexlException e) {
+            JexlScript jexlScript = JEXL.createScript(expression);
+            return jexlScript::execute;
+        }
+    }
+
+    private boolean isExpressionVariable(String variableName) {
+        return variableName.indexOf('.') > 0 && parseAndMatchExpressionVariable(variableName);
+    }
+
+    /**
+     * Check that the variables referenced by a variable, directly or through other variables, do not lead back to
+     * it, so that a cycle is reported when it is registered instead of when a statement uses it.
+     */
+    private void checkCycle(String variableName) {
+        checkCycle(variableName, new LinkedHashSet<>(), new HashSet<>());
+    }
+
+    private void checkCycle(String variableName, LinkedHashSet<String> path, Set<String> checked) {
+        if (path.contains(variableName)) {
+            List<String> cycle = new ArrayList<>(path);
+            cycle = cycle.subList(cycle.indexOf(variableName), cycle.size());
+            cycle.add(variableName);
+            throw new BusException(
+                    format("The variables of sql reference each other: %s", String.join(" -> ", cycle)));
+        }
+        String value = variables.get(variableName);
+        if (value == null || !checked.add(variableName)) {
+            return;
+        }
+        path.add(variableName);
+        for (String name : VariableTemplate.compile(value).variableNames()) {
+            checkCycle(name, path, checked);
+        }
+        path.remove(variableName);
+    }
+
     public boolean parseAndMatchExpressionVariable(String variableName) {
         checkArgument(
                 !StringUtils.isNullOrWhitespaceOnly(variableName),
@@ -244,15 +349,6 @@ public final class VariableManager {
      * @param statement A sql will be replaced.
      */
     public String replaceVariable(String statement) {
-        Matcher m = CommonConstant.GLOBAL_VARIABLE_PATTERN.matcher(statement);
-        StringBuffer sb = new StringBuffer();
-        while (m.find()) {
-            String key = m.group(1);
-            Object value = getVariable(key);
-            m.appendReplacement(sb, "");
-            sb.append(value == null ? "" : value);
-        }
-        m.appendTail(sb);
-        return sb.toString();
+        return VariableTemplate.compile(statement).render(this::getVariable);
     }
 }
@@ -0,0 +1,115 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.dinky.executor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+import cn.hutool.cache.Cache;
+import cn.hutool.cache.CacheUtil;
+
+/**
+ * A text compiled into literal segments and {@code ${name}} references, so that the same statement or fragment is
+ * scanned only once no matter how often it is rendered.
+ */
+final class VariableTemplate {
+    private static final Cache<String, VariableTemplate> CACHE = CacheUtil.newLRUCache(2048);
+
+    /** Literal text at even positions, variable names at odd positions. */
+    private final String[] segments;
+
+    private VariableTemplate(String[] segments) {
+        this.segments = segments;
+    }
+
+    static VariableTemplate compile(String text) {
+        return CACHE.get(text, () -> parse(text));
+    }
+
+    /**
+     * The same references as {@code \$\{(.+?)}}: the name ends at the first closing brace after at least one char
+     * and does not span lines.
+     */
+    private static VariableTemplate parse(String text) {
+        List<String> segments = new ArrayList<>();
+        int literalStart = 0;
+        int i = text.indexOf("${");
+        while (i >= 0) {
+            int close = text.indexOf('}', i + 3);
+            if (close < 0) {
+                break;
+            }
+            if (containsLineBreak(text, i + 2, close)) {
+                // a name does not span lines
+                i = text.indexOf("${", i + 1);
+                continue;
+            }
+            segments.add(text.substring(literalStart, i));
+            segments.add(text.substring(i + 2, close));
+            literalStart = close + 1;
+            i = text.indexOf("${", literalStart);
+        }
+        segments.add(text.substring(literalStart));
+        return new VariableTemplate(segments.toArray(new String[0]));
+    }
+
+    private static boolean containsLineBreak(String text, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    boolean hasVariables() {
+        return segments.length > 1;
+    }
+
+    List<String> variableNames() {
+        if (!hasVariables()) {
+            return Collections.emptyList();
+        }
+        List<String> names = new ArrayList<>(segments.length / 2);
+        for (int i = 1; i < segments.length; i += 2) {
+            names.add(segments[i]);
+        }
+        return names;
+    }
+
+    String render(Function<String, Object> resolver) {
+        if (!hasVariables()) {
+            return segments[0];
+        }
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < segments.length; i++) {
+            if (i % 2 == 0) {
+                sb.append(segments[i]);
+            } else {
+                Object value = resolver.apply(segments[i]);
+                sb.append(value == null ? "" : value);
+            }
+        }
+        return sb.toString();
+    }
+}
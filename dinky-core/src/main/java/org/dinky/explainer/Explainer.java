@@ -20,6 +20,7 @@
 package org.dinky.explainer;
 
 import org.dinky.assertion.Asserts;
+import org.dinky.constant.CustomerConfigureOptions;
 import org.dinky.data.enums.GatewayType;
 import org.dinky.data.exception.DinkyException;
 import org.dinky.data.job.JobStatement;
@@ -27,6 +28,7 @@ import org.dinky.data.job.JobStatementType;
 import org.dinky.data.job.SqlType;
 import org.dinky.data.model.LineageRel;
 import org.dinky.data.result.ExplainResult;
+import org.dinky.data.result.MockResultServer;
 import org.dinky.data.result.SqlExplainResult;
 import org.dinky.executor.Executor;
 import org.dinky.explainer.mock.MockStatementExplainer;
@@ -46,6 +48,7 @@ import org.apache.flink.streaming.api.graph.StreamGraph;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
@@ -79,7 +82,17 @@ public class Explainer {
         return new Explainer(executor, useStatementSet, jobManager);
     }
 
+    /** Parse the statements of a job which is executed, the result channel of its mock sinks is opened. */
     public JobStatementPlan parseStatements(String[] statements) {
+        return parseStatements(statements, true);
+    }
+
+    /**
+     * Parse the statements, replacing the sinks by mock sinks if enabled. Only an executed job opens its result
+     * channel, which is released by the {@link org.dinky.data.result.MockResultRunnable} of the job. An explained
+     * plan never runs, its mock sinks get a channel that is not registered.
+     */
+    private JobStatementPlan parseStatements(String[] statements, boolean execute) {
         JobStatementPlan jobStatementPlanWithMock = new JobStatementPlan();
         generateUDFStatement(jobStatementPlanWithMock);
 
@@ -87,7 +100,20 @@ public class Explainer {
         jobStatementPlanWithMock.getJobStatementList().addAll(jobStatementPlan.getJobStatementList());
         if (!jobManager.isPlanMode() && jobManager.getConfig().isMockSinkFunction()) {
             executor.setMockTest(true);
+            String host = Optional.ofNullable(jobManager.getConfig().getConfigJson())
+                    .map(t -> t.get(CustomerConfigureOptions.DINKY_HOST.key()))
+                    .orElse(null);
+            String channel = Optional.ofNullable(jobManager.getJob())
+                    .map(t -> String.valueOf(t.getId()))
+                    .orElseGet(() -> UUID.randomUUID().toString());
+            MockResultServer server = MockResultServer.getInstance(host);
             MockStatementExplainer.build(executor.getCustomTableEnvironment())
+                    .target(
+                            host,
+                            server.getPort(),
+                            channel,
+                            execute ? server.register(channel) : UUID.randomUUID().toString(),
+                            jobManager.getConfig().getMaxRowNum())
                     .jobStatementPlanMock(jobStatementPlanWithMock);
         }
         return jobStatementPlanWithMock;
@@ -113,7 +139,7 @@ public class Explainer {
         List<SqlExplainResult> sqlExplainRecords = new ArrayList<>();
         boolean correct = true;
         try {
-            jobStatementPlan = parseStatements(SqlUtil.getStatements(statement));
+            jobStatementPlan = parseStatements(SqlUtil.getStatements(statement), false);
             jobStatementPlan.buildFinalStatement();
             jobManager.setJobStatementPlan(jobStatementPlan);
         } catch (Exception e) {
@@ -139,7 +165,7 @@ public class Explainer {
 
     public ObjectNode getStreamGraph(String statement) {
         log.info("Start explain FlinkSQL...");
-        JobStatementPlan jobStatementPlan = parseStatements(SqlUtil.getStatements(statement));
+        JobStatementPlan jobStatementPlan = parseStatements(SqlUtil.getStatements(statement), false);
         jobStatementPlan.buildFinalStatement();
         log.info("Explain FlinkSQL successful");
         JobRunnerFactory jobRunnerFactory = JobRunnerFactory.create(jobManager);
@@ -165,7 +191,7 @@ public class Explainer {
 
     public JobPlanInfo getJobPlanInfo(String statement) {
         log.info("Start explain FlinkSQL...");
-        JobStatementPlan jobStatementPlan = parseStatements(SqlUtil.getStatements(statement));
+        JobStatementPlan jobStatementPlan = parseStatements(SqlUtil.getStatements(statement), false);
         jobStatementPlan.buildFinalStatement();
         log.info("Explain FlinkSQL successful");
         JobRunnerFactory jobRunnerFactory = JobRunnerFactory.create(jobManager);
@@ -195,7 +221,7 @@ public class Explainer {
 
         List<LineageRel> lineageRelList = new ArrayList<>();
         String[] statements = SqlUtil.getStatements(statement);
-        JobStatementPlan jobStatementPlan = parseStatements(statements);
+        JobStatementPlan jobStatementPlan = parseStatements(statements, false);
         List<JobStatement> statementList = jobStatementPlan.getJobStatementList();
         JobRunnerFactory jobRunnerFactory = JobRunnerFactory.create(jobManager);
 
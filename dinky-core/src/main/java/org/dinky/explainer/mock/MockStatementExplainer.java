@@ -25,6 +25,7 @@ import org.dinky.data.job.JobStatementType;
 import org.dinky.data.job.SqlType;
 import org.dinky.executor.CustomTableEnvironment;
 import org.dinky.job.JobStatementPlan;
+import org.dinky.utils.IpUtil;
 import org.dinky.utils.JsonUtils;
 
 import org.apache.calcite.config.Lex;
@@ -54,11 +55,37 @@ public class MockStatementExplainer {
     private final SqlParser.Config calciteConfig;
     private final String DROP_TABLE_SQL_TEMPLATE = "DROP TABLE IF EXISTS {0}";
     private final String MOCK_SQL_TEMPLATE = "CREATE TABLE {0} ({1}) WITH ({2})";
+    private String hostname = IpUtil.getHostIp();
+    private int port;
+    private String channel;
+    private String token;
+    private int maxRowNum = -1;
 
     public static MockStatementExplainer build(CustomTableEnvironment tableEnv) {
         return new MockStatementExplainer(tableEnv);
     }
 
+    /**
+     * Set where the mocked sinks push their rows to.
+     *
+     * @param hostname  dinky host reachable from the task managers
+     * @param port      port of the mock result server
+     * @param channel   result channel of the job
+     * @param token     secret of the result channel
+     * @param maxRowNum maximum rows of each table
+     * @return this
+     */
+    public MockStatementExplainer target(String hostname, int port, String channel, String token, Integer maxRowNum) {
+        if (StringUtils.isNotBlank(hostname)) {
+            this.hostname = hostname;
+        }
+        this.port = port;
+        this.channel = channel;
+        this.token = token;
+        this.maxRowNum = maxRowNum == null ? -1 : maxRowNum;
+        return this;
+    }
+
     public MockStatementExplainer(CustomTableEnvironment tableEnv) {
         this.tableEnv = tableEnv;
         this.calciteConfig = SqlParser.config().withLex(Lex.JAVA);
@@ -155,7 +182,16 @@ public class MockStatementExplainer {
      * @return ddl that connector is changed as well as other options not changed
      */
     private String getSinkMockDdlStatement(String tableName, String columns) {
-        String mockedOption = "'connector'='" + MockDynamicTableSinkFactory.IDENTIFIER + "'";
+        String mockedOption = StringUtils.join(
+                new String[] {
+                    "'connector'='" + MockDynamicTableSinkFactory.IDENTIFIER + "'",
+                    "'" + MockDynamicTableSinkFactory.HOSTNAME.key() + "'='" + hostname + "'",
+                    "'" + MockDynamicTableSinkFactory.PORT.key() + "'='" + port + "'",
+                    "'" + MockDynamicTableSinkFactory.CHANNEL.key() + "'='" + channel + "'",
+                    "'" + MockDynamicTableSinkFactory.TOKEN.key() + "'='" + token + "'",
+                    "'" + MockDynamicTableSinkFactory.MAX_ROW_NUM.key() + "'='" + maxRowNum + "'"
+                },
+                ",");
         return MessageFormat.format(
                 MOCK_SQL_TEMPLATE,
                 StringUtils.join(generateMockedTableIdentifier(tableName), "."),
@@ -19,6 +19,8 @@
 
 package org.dinky.explainer.print_table;
 
+import org.dinky.connector.printnet.sink.PrintNetProtocol;
+import org.dinky.constant.CustomerConfigureOptions;
 import org.dinky.utils.IpUtil;
 
 import java.net.InetAddress;
@@ -41,7 +43,7 @@ public class PrintStatementExplainer {
 
     public static final String CREATE_SQL_TEMPLATE =
             "CREATE TABLE IF NOT EXISTS print_{0} WITH (''connector'' = ''printnet'', "
-                    + "''port''=''{2,number,#}'', ''hostName'' = ''{1}'')\n"
+                    + "''port''=''{2,number,#}'', ''hostName'' = ''{1}'', ''transport'' = ''{3}'')\n"
                     + "AS SELECT * FROM {0}";
     public static final int DEFAULT_PORT = 7125;
 
@@ -59,17 +61,24 @@ public class PrintStatementExplainer {
     }
 
     public static String getCreateStatement(String tableName, String localIp, Integer localPort) {
+        return getCreateStatement(tableName, localIp, localPort, PrintNetProtocol.TRANSPORT_UDP);
+    }
+
+    public static String getCreateStatement(String tableName, String localIp, Integer localPort, String transport) {
         String ip = Strings.isNullOrEmpty(localIp)
                 ? getSystemLocalIp().map(InetAddress::getHostAddress).orElse("127.0.0.1")
                 : localIp;
         int port = localPort == null ? DEFAULT_PORT : localPort;
-        return MessageFormat.format(CREATE_SQL_TEMPLATE, tableName, ip, port);
+        String type = Strings.isNullOrEmpty(transport) ? PrintNetProtocol.TRANSPORT_UDP : transport;
+        return MessageFormat.format(CREATE_SQL_TEMPLATE, tableName, ip, port, type);
     }
 
     public static String getCreateStatement(String tableName, Map<String, String> config) {
-        String host = config.getOrDefault("dinky.dinkyHost", IpUtil.getHostIp());
+        String host = config.getOrDefault(CustomerConfigureOptions.DINKY_HOST.key(), IpUtil.getHostIp());
         int port = Integer.parseInt(config.getOrDefault("dinky.dinkyPrintPort", "7125"));
-        return getCreateStatement(tableName, host, port);
+        String transport = config.getOrDefault(
+                CustomerConfigureOptions.DINKY_PRINT_TRANSPORT.key(), PrintNetProtocol.TRANSPORT_UDP);
+        return getCreateStatement(tableName, host, port, transport);
     }
 
     private static Optional<InetAddress> getSystemLocalIp() {
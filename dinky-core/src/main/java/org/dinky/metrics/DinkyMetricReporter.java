@@ -0,0 +1,299 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.dinky.metrics;
+
+import org.apache.flink.metrics.Counter;
+import org.apache.flink.metrics.Gauge;
+import org.apache.flink.metrics.Histogram;
+import org.apache.flink.metrics.HistogramStatistics;
+import org.apache.flink.metrics.LogicalScopeProvider;
+import org.apache.flink.metrics.Meter;
+import org.apache.flink.metrics.Metric;
+import org.apache.flink.metrics.MetricConfig;
+import org.apache.flink.metrics.MetricGroup;
+import org.apache.flink.metrics.reporter.MetricReporter;
+import org.apache.flink.metrics.reporter.Scheduled;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Push the vertex metrics of the jobs running in this process to dinky, instead of dinky polling the rest api of
+ * every job. Only the metrics selected in the metrics layouts of dinky are sent, the selection comes back as the
+ * answer to every push so layout changes apply with the next report.
+ *
+ * <pre>
+ * metrics.reporter.dinky.factory.class: org.dinky.metrics.DinkyMetricReporterFactory
+ * metrics.reporter.dinky.address: http://127.0.0.1:8888
+ * metrics.reporter.dinky.token: the dinky token of the system settings
+ * metrics.reporter.dinky.interval: 10 SECONDS
+ * </pre>
+ */
+@Slf4j
+public class DinkyMetricReporter implements MetricReporter, Scheduled {
+
+    public static final String ARG_ADDRESS = "address";
+    public static final String ARG_TOKEN = "token";
+    public static final String ARG_TIMEOUT_MS = "timeout-ms";
+
+    private static final String PUSH_PATH = "/metrics/push";
+    /** Logical scope of the task group is taskmanager.job.task, operator groups add operator. */
+    private static final int TASK_SCOPE_DEPTH = 3;
+
+    private static final int OPERATOR_SCOPE_DEPTH = 4;
+    private static final String[] HISTOGRAM_SUFFIXES = {
+        "_min", "_max", "_mean", "_median", "_stddev", "_p75", "_p90", "_p95", "_p98", "_p99", "_p999"
+    };
+
+    /** Registered metrics by metric id by vertex id by job id. */
+    private final Map<String, Map<String, Map<String, Metric>>> metrics = new ConcurrentHashMap<>();
+
+    private volatile Map<String, Map<String, Set<String>>> selection = Collections.emptyMap();
+
+    private URL pushUrl;
+    private String token;
+    private int timeoutMs;
+    private long senderId;
+    private long sequence;
+    private boolean failing;
+
+    @Override
+    public void open(MetricConfig config) {
+        String address = config.getString(ARG_ADDRESS, null);
+        if (address == null || address.trim().isEmpty()) {
+            throw new IllegalArgumentException("The address of dinky is not configured for the dinky reporter");
+        }
+        try {
+            pushUrl = new URL(address.trim().replaceAll("/+$", "") + PUSH_PATH);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid dinky address: " + address, e);
+        }
+        token = config.getString(ARG_TOKEN, "");
+        timeoutMs = config.getInteger(ARG_TIMEOUT_MS, 5000);
+        senderId = ThreadLocalRandom.current().nextLong();
+        log.info("Dinky metric reporter pushes to {}", pushUrl);
+    }
+
+    @Override
+    public void close() {
+        metrics.clear();
+    }
+
+    @Override
+    public void notifyOfAddedMetric(Metric metric, String metricName, MetricGroup group) {
+        Map<String, String> variables = group.getAllVariables();
+        String jobId = variables.get("<job_id>");
+        String vertexId = variables.get("<task_id>");
+        String subtaskIndex = variables.get("<subtask_index>");
+        if (jobId == null || vertexId == null || subtaskIndex == null) {
+            // only the vertex metrics of jobs can be shown in the metrics layouts
+            return;
+        }
+        String metricId = metricId(metricName, group, variables);
+        metrics.computeIfAbsent(jobId, k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(vertexId, k -> new ConcurrentHashMap<>())
+                .put(metricId, metric);
+    }
+
+    @Override
+    public void notifyOfRemovedMetric(Metric metric, String metricName, MetricGroup group) {
+        Map<String, String> variables = group.getAllVariables();
+        String jobId = variables.get("<job_id>");
+        String vertexId = variables.get("<task_id>");
+        String subtaskIndex = variables.get("<subtask_index>");
+        if (jobId == null || vertexId == null || subtaskIndex == null) {
+            return;
+        }
+        String metricId = metricId(metricName, group, variables);
+        metrics.computeIfPresent(jobId, (job, vertices) -> {
+            vertices.computeIfPresent(vertexId, (vertex, vertexMetrics) -> {
+                vertexMetrics.remove(metricId, metric);
+                return vertexMetrics.isEmpty() ? null : vertexMetrics;
+            });
+            return vertices.isEmpty() ? null : vertices;
+        });
+    }
+
+    private static String metricId(String metricName, MetricGroup group, Map<String, String> variables) {
+        String operatorName = variables.get("<operator_name>");
+        return MetricsPushProtocol.metricId(
+                variables.get("<subtask_index>"),
+                operatorName,
+                groups(group, variables, operatorName != null),
+                metricName);
+    }
+
+    /**
+     * The groups between the task or operator group and the metric, which the rest api puts in front of the metric
+     * name. A key value group is named by its key and its value, the value is not part of the logical scope but one
+     * of the variables of the group.
+     */
+    static List<String> groups(MetricGroup group, Map<String, String> variables, boolean operator) {
+        if (!(group instanceof LogicalScopeProvider)) {
+            return Collections.emptyList();
+        }
+        String[] scope =
+                ((LogicalScopeProvider) group).getLogicalScope(MetricsPushProtocol::filter, '.').split("\\.");
+        List<String> groups = new ArrayList<>();
+        for (int i = operator ? OPERATOR_SCOPE_DEPTH : TASK_SCOPE_DEPTH; i < scope.length; i++) {
+            groups.add(scope[i]);
+            String value = variables.get("<" + scope[i] + ">");
+            if (value != null) {
+                groups.add(value);
+            }
+        }
+        return groups;
+    }
+
+    @Override
+    public void report() {
+        if (metrics.isEmpty()) {
+            return;
+        }
+        try {
+            byte[] frame = MetricsPushProtocol.writePush(
+                    senderId, sequence++, System.currentTimeMillis(), selectedValues());
+            selection = push(frame);
+            if (failing) {
+                failing = false;
+                log.info("Pushing metrics to {} recovered", pushUrl);
+            }
+        } catch (Exception e) {
+            if (!failing) {
+                failing = true;
+                log.warn("Failed to push metrics to {}: {}", pushUrl, e.getMessage());
+            }
+        }
+    }
+
+    /** Values of the selected metrics, every job is listed so that dinky answers with its current selection. */
+    private Map<String, Map<String, Map<String, Object>>> selectedValues() {
+        Map<String, Map<String, Set<String>>> current = selection;
+        Map<String, Map<String, Map<String, Object>>> jobs = new LinkedHashMap<>();
+        for (Map.Entry<String, Map<String, Map<String, Metric>>> job : metrics.entrySet()) {
+            Map<String, Map<String, Object>> vertices = new LinkedHashMap<>();
+            Map<String, Set<String>> selectedVertices = current.getOrDefault(job.getKey(), Collections.emptyMap());
+            for (Map.Entry<String, Set<String>> selected : selectedVertices.entrySet()) {
+                Map<String, Metric> vertexMetrics = job.getValue().get(selected.getKey());
+                if (vertexMetrics == null) {
+                    continue;
+                }
+                Map<String, Object> values = new HashMap<>();
+                vertexMetrics.forEach((metricId, metric) -> addValues(values, metricId, metric, selected.getValue()));
+                if (!values.isEmpty()) {
+                    vertices.put(selected.getKey(), values);
+                }
+            }
+            jobs.put(job.getKey(), vertices);
+        }
+        return jobs;
+    }
+
+    private static void addValues(Map<String, Object> values, String metricId, Metric metric, Set<String> selected) {
+        if (metric instanceof Histogram) {
+            HistogramStatistics statistics = null;
+            for (String suffix : HISTOGRAM_SUFFIXES) {
+                if (selected.contains(metricId + suffix)) {
+                    statistics = statistics == null ? ((Histogram) metric).getStatistics() : statistics;
+                    values.put(metricId + suffix, histogramValue(statistics, suffix));
+                }
+            }
+            return;
+        }
+        if (!selected.contains(metricId)) {
+            return;
+        }
+        if (metric instanceof Counter) {
+            values.put(metricId, ((Counter) metric).getCount());
+        } else if (metric instanceof Meter) {
+            values.put(metricId, ((Meter) metric).getRate());
+        } else if (metric instanceof Gauge) {
+            Object value = ((Gauge<?>) metric).getValue();
+            if (value != null) {
+                values.put(metricId, value);
+            }
+        }
+    }
+
+    private static double histogramValue(HistogramStatistics statistics, String suffix) {
+        switch (suffix) {
+            case "_min":
+                return statistics.getMin();
+            case "_max":
+                return statistics.getMax();
+            case "_mean":
+                return statistics.getMean();
+            case "_median":
+                return statistics.getQuantile(0.5);
+            case "_stddev":
+                return statistics.getStdDev();
+            case "_p75":
+                return statistics.getQuantile(0.75);
+            case "_p90":
+                return statistics.getQuantile(0.90);
+            case "_p95":
+                return statistics.getQuantile(0.95);
+            case "_p98":
+                return statistics.getQuantile(0.98);
+            case "_p99":
+                return statistics.getQuantile(0.99);
+            default:
+                return statistics.getQuantile(0.999);
+        }
+    }
+
+    private Map<String, Map<String, Set<String>>> push(byte[] frame) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) pushUrl.openConnection();
+        try {
+            connection.setRequestMethod("POST");
+            connection.setConnectTimeout(timeoutMs);
+            connection.setReadTimeout(timeoutMs);
+            connection.setDoOutput(true);
+            connection.setFixedLengthStreamingMode(frame.length);
+            connection.setRequestProperty("Content-Type", MetricsPushProtocol.CONTENT_TYPE);
+            connection.setRequestProperty("token", token);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(frame);
+            }
+            if (connection.getResponseCode() != HttpURLConnection.HTTP_OK) {
+                throw new IOException("http status " + connection.getResponseCode());
+            }
+            try (DataInputStream in = new DataInputStream(connection.getInputStream())) {
+                return MetricsPushProtocol.readSelection(in);
+            }
+        } finally {
+            connection.disconnect();
+        }
+    }
+}
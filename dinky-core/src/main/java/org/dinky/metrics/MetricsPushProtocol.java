@@ -0,0 +1,264 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.dinky.metrics;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Frame format of the metrics pushed by {@link DinkyMetricReporter} to dinky, and of the selection dinky answers
+ * with. Strings are written as modified utf-8, a vertex id is written once for all of its metrics.
+ *
+ * <pre>
+ * push frame:
+ * int   magic
+ * long  sender id, random per reporter
+ * long  sequence, increased by one per frame of a sender
+ * long  timestamp of the report
+ * int   job count
+ *   utf   job id
+ *   int   vertex count
+ *     utf   vertex id
+ *     int   metric count
+ *       utf   metric id
+ *       byte  value type, then a double or an utf value
+ *
+ * selection frame:
+ * int   magic
+ * int   job count
+ *   utf   job id
+ *   int   vertex count
+ *     utf   vertex id
+ *     int   metric count
+ *       utf   metric id
+ * </pre>
+ *
+ * <p>A job of the push frame without vertices only asks for its selection, a job of the selection frame without
+ * vertices is not watched by dinky and is not reported.
+ */
+public final class MetricsPushProtocol {
+
+    public static final int PUSH_MAGIC = 0x444D5031;
+    public static final int SELECTION_MAGIC = 0x444D5331;
+
+    /** Max push frame accepted by dinky. */
+    public static final int MAX_FRAME_SIZE = 16 * 1024 * 1024;
+
+    public static final String CONTENT_TYPE = "application/octet-stream";
+
+    private static final byte TYPE_NUMBER = 0;
+    private static final byte TYPE_TEXT = 1;
+
+    private MetricsPushProtocol() {}
+
+    /**
+     * The id of a vertex metric as the flink rest api names it: the subtask index, the operator name for operator
+     * metrics, the groups between the task or operator group and the metric, and the metric name.
+     *
+     * @param subtaskIndex subtask index
+     * @param operatorName operator name, null for task metrics
+     * @param groups names of the groups below the task or operator group, e.g. buffers
+     * @param name metric name
+     * @return metric id
+     */
+    public static String metricId(String subtaskIndex, String operatorName, List<String> groups, String name) {
+        StringBuilder id = new StringBuilder().append(subtaskIndex).append('.');
+        if (operatorName != null) {
+            id.append(filter(operatorName)).append('.');
+        }
+        for (String group : groups) {
+            id.append(filter(group)).append('.');
+        }
+        return id.append(filter(name)).toString();
+    }
+
+    /** Replace the characters the flink metric query service replaces in metric scopes. */
+    static String filter(String input) {
+        StringBuilder result = new StringBuilder(input.length());
+        for (int i = 0; i < input.length(); i++) {
+            char c = input.charAt(i);
+            result.append(c == ' ' || c == '.' || c == ':' || c == ',' ? '_' : c);
+        }
+        return result.toString();
+    }
+
+    public static byte[] writePush(
+            long senderId, long sequence, long timestamp, Map<String, Map<String, Map<String, Object>>> jobs)
+            throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(PUSH_MAGIC);
+        out.writeLong(senderId);
+        out.writeLong(sequence);
+        out.writeLong(timestamp);
+        out.writeInt(jobs.size());
+        for (Map.Entry<String, Map<String, Map<String, Object>>> job : jobs.entrySet()) {
+            out.writeUTF(job.getKey());
+            out.writeInt(job.getValue().size());
+            for (Map.Entry<String, Map<String, Object>> vertex : job.getValue().entrySet()) {
+                out.writeUTF(vertex.getKey());
+                out.writeInt(vertex.getValue().size());
+                for (Map.Entry<String, Object> metric : vertex.getValue().entrySet()) {
+                    out.writeUTF(metric.getKey());
+                    writeValue(out, metric.getValue());
+                }
+            }
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value instanceof Number) {
+            out.writeByte(TYPE_NUMBER);
+            out.writeDouble(((Number) value).doubleValue());
+        } else {
+            out.writeByte(TYPE_TEXT);
+            out.writeUTF(String.valueOf(value));
+        }
+    }
+
+    public static Push readPush(byte[] data) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        int magic = in.readInt();
+        if (magic != PUSH_MAGIC) {
+            throw new IOException("Invalid metrics push frame, magic: " + Integer.toHexString(magic));
+        }
+        long senderId = in.readLong();
+        long sequence = in.readLong();
+        long timestamp = in.readLong();
+        int jobCount = in.readInt();
+        Map<String, Map<String, Map<String, String>>> jobs = new LinkedHashMap<>();
+        for (int i = 0; i < jobCount; i++) {
+            String jobId = in.readUTF();
+            int vertexCount = in.readInt();
+            Map<String, Map<String, String>> vertices = new LinkedHashMap<>();
+            for (int j = 0; j < vertexCount; j++) {
+                String vertexId = in.readUTF();
+                int metricCount = in.readInt();
+                Map<String, String> metrics = new LinkedHashMap<>();
+                for (int k = 0; k < metricCount; k++) {
+                    metrics.put(in.readUTF(), readValue(in));
+                }
+                vertices.put(vertexId, metrics);
+            }
+            jobs.put(jobId, vertices);
+        }
+        return new Push(senderId, sequence, timestamp, jobs);
+    }
+
+    private static String readValue(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        if (type == TYPE_NUMBER) {
+            double value = in.readDouble();
+            return value == Math.rint(value) && !Double.isInfinite(value)
+                    ? String.valueOf((long) value)
+                    : String.valueOf(value);
+        }
+        if (type == TYPE_TEXT) {
+            return in.readUTF();
+        }
+        throw new IOException("Invalid metrics push value type: " + type);
+    }
+
+    public static byte[] writeSelection(Map<String, Map<String, Set<String>>> selection) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(SELECTION_MAGIC);
+        out.writeInt(selection.size());
+        for (Map.Entry<String, Map<String, Set<String>>> job : selection.entrySet()) {
+            out.writeUTF(job.getKey());
+            out.writeInt(job.getValue().size());
+            for (Map.Entry<String, Set<String>> vertex : job.getValue().entrySet()) {
+                out.writeUTF(vertex.getKey());
+                out.writeInt(vertex.getValue().size());
+                for (String metricId : vertex.getValue()) {
+                    out.writeUTF(metricId);
+                }
+            }
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    public static Map<String, Map<String, Set<String>>> readSelection(DataInputStream in) throws IOException {
+        int magic = in.readInt();
+        if (magic != SELECTION_MAGIC) {
+            throw new IOException("Invalid metrics selection frame, magic: " + Integer.toHexString(magic));
+        }
+        int jobCount = in.readInt();
+        Map<String, Map<String, Set<String>>> selection = new LinkedHashMap<>();
+        for (int i = 0; i < jobCount; i++) {
+            String jobId = in.readUTF();
+            int vertexCount = in.readInt();
+            Map<String, Set<String>> vertices = new LinkedHashMap<>();
+            for (int j = 0; j < vertexCount; j++) {
+                String vertexId = in.readUTF();
+                int metricCount = in.readInt();
+                Set<String> metrics = new LinkedHashSet<>();
+                for (int k = 0; k < metricCount; k++) {
+                    metrics.add(in.readUTF());
+                }
+                vertices.put(vertexId, metrics);
+            }
+            selection.put(jobId, vertices);
+        }
+        return selection;
+    }
+
+    /** A decoded push frame, metric values by metric id by vertex id by job id. */
+    public static class Push {
+        private final long senderId;
+        private final long sequence;
+        private final long timestamp;
+        private final Map<String, Map<String, Map<String, String>>> jobs;
+
+        public Push(long senderId, long sequence, long timestamp, Map<String, Map<String, Map<String, String>>> jobs) {
+            this.senderId = senderId;
+            this.sequence = sequence;
+            this.timestamp = timestamp;
+            this.jobs = jobs;
+        }
+
+        public long getSenderId() {
+            return senderId;
+        }
+
+        public long getSequence() {
+            return sequence;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public Map<String, Map<String, Map<String, String>>> getJobs() {
+            return jobs;
+        }
+    }
+}
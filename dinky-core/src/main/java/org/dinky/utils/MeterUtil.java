@@ -0,0 +1,145 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.dinky.utils;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+/**
+ * Meters of the dinky server, registered into the micrometer global registry to which spring boot attaches the
+ * prometheus registry. Meters are cached by name and tags so that recording on a hot path only costs a map lookup.
+ */
+public final class MeterUtil {
+
+    public static final String JOB_REFRESH = "dinky.job.refresh";
+    public static final String FLINK_REST = "dinky.flink.rest";
+    public static final String FLINK_REST_ERRORS = "dinky.flink.rest.errors";
+    public static final String ALERT_EVALUATE = "dinky.alert.evaluate";
+    public static final String METRICS_FLUSH = "dinky.metrics.flush";
+    public static final String WEBSOCKET_SEND = "dinky.websocket.send";
+    public static final String TASK_EXPLAIN = "dinky.task.explain";
+    public static final String TASK_EXECUTE = "dinky.task.execute";
+
+    public static final String TAG_CLUSTER = "cluster";
+    public static final String TAG_TOPIC = "topic";
+    public static final String TAG_MODE = "mode";
+
+    /** Max meters kept for tags without bounded values, see {@link #evictableTimer}. */
+    static final int MAX_EVICTABLE_METERS = 256;
+
+    private static final Map<String, Timer> TIMERS = new ConcurrentHashMap<>();
+    private static final Map<String, Counter> COUNTERS = new ConcurrentHashMap<>();
+    private static final Map<String, Meter> EVICTABLE_METERS =
+            Collections.synchronizedMap(new LinkedHashMap<String, Meter>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Meter> eldest) {
+                    if (size() <= MAX_EVICTABLE_METERS) {
+                        return false;
+                    }
+                    Metrics.globalRegistry.remove(eldest.getValue());
+                    return true;
+                }
+            });
+
+    private MeterUtil() {}
+
+    /** @param tags tag keys and values, alternately */
+    public static Timer timer(String name, String... tags) {
+        return TIMERS.computeIfAbsent(
+                key(name, tags), k -> Timer.builder(name).tags(tags).register(Metrics.globalRegistry));
+    }
+
+    /** @param tags tag keys and values, alternately */
+    public static Counter counter(String name, String... tags) {
+        return COUNTERS.computeIfAbsent(
+                key(name, tags), k -> Counter.builder(name).tags(tags).register(Metrics.globalRegistry));
+    }
+
+    /**
+     * A timer of a tag whose values are not bounded, like the address of a cluster. Only the least recently used of
+     * these meters are kept, the older ones are removed from the registry so that series do not grow without bound.
+     */
+    public static Timer evictableTimer(String name, String tagKey, String tagValue) {
+        return (Timer) EVICTABLE_METERS.computeIfAbsent(
+                key(name, tagKey, tagValue),
+                k -> Timer.builder(name).tags(tagKey, tagValue).register(Metrics.globalRegistry));
+    }
+
+    /** A counter of a tag whose values are not bounded, see {@link #evictableTimer}. */
+    public static Counter evictableCounter(String name, String tagKey, String tagValue) {
+        return (Counter) EVICTABLE_METERS.computeIfAbsent(
+                key(name, tagKey, tagValue),
+                k -> Counter.builder(name).tags(tagKey, tagValue).register(Metrics.globalRegistry));
+    }
+
+    public static <T> T record(Timer timer, Supplier<T> supplier) {
+        long start = System.nanoTime();
+        try {
+            return supplier.get();
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public static <T> T recordCallable(Timer timer, Callable<T> callable) throws Exception {
+        long start = System.nanoTime();
+        try {
+            return callable.call();
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public static void record(Timer timer, Runnable runnable) {
+        long start = System.nanoTime();
+        try {
+            runnable.run();
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /** Register the pool size, active, queued and completed task gauges of an executor. */
+    public static void monitor(ExecutorService executor, String name) {
+        new ExecutorServiceMetrics(executor, name, Collections.emptyList()).bindTo(Metrics.globalRegistry);
+    }
+
+    /** Register a gauge, the supplier is read on every scrape and must be cheap. */
+    public static void gauge(String name, Supplier<Number> supplier, String... tags) {
+        Gauge.builder(name, supplier).tags(tags).strongReference(true).register(Metrics.globalRegistry);
+    }
+
+    private static String key(String name, String... tags) {
+        return tags.length == 0 ? name : name + ':' + String.join(",", tags);
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.dinky.api;
+
+import static org.junit.Assert.assertEquals;
+
+import org.dinky.data.model.LogChunk;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+public class FlinkAPILogRangeTest {
+
+    private static final String LOG = "line 1\nline 2\nline 3\n";
+
+    private static ByteArrayInputStream log() {
+        return new ByteArrayInputStream(LOG.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void readRangeTest() throws Exception {
+        LogChunk chunk = FlinkAPI.readRange(log(), 7, 7);
+        assertEquals("line 2\n", chunk.getContent());
+        assertEquals(7, chunk.getStartOffset());
+        assertEquals(14, chunk.getEndOffset());
+        assertEquals(-1, chunk.getFileSize());
+    }
+
+    @Test
+    public void readRangeToEndTest() throws Exception {
+        LogChunk chunk = FlinkAPI.readRange(log(), 14, 100);
+        assertEquals("line 3\n", chunk.getContent());
+        assertEquals(21, chunk.getEndOffset());
+        assertEquals(21, chunk.getFileSize());
+
+        chunk = FlinkAPI.readRange(log(), 100, 10);
+        assertEquals("", chunk.getContent());
+        assertEquals(21, chunk.getStartOffset());
+        assertEquals(21, chunk.getFileSize());
+    }
+
+    @Test
+    public void readTailTest() throws Exception {
+        LogChunk chunk = FlinkAPI.readTail(log(), 7);
+        assertEquals("line 3\n", chunk.getContent());
+        assertEquals(14, chunk.getStartOffset());
+        assertEquals(21, chunk.getEndOffset());
+        assertEquals(21, chunk.getFileSize());
+
+        chunk = FlinkAPI.readTail(log(), 100);
+        assertEquals(LOG, chunk.getContent());
+        assertEquals(0, chunk.getStartOffset());
+    }
+
+    @Test
+    public void limitTest() throws Exception {
+        assertEquals(FlinkAPI.DEFAULT_LOG_CHUNK_SIZE, FlinkAPI.limit(0));
+        assertEquals(FlinkAPI.DEFAULT_LOG_CHUNK_SIZE, FlinkAPI.limit(-1));
+        assertEquals(FlinkAPI.DEFAULT_LOG_CHUNK_SIZE, FlinkAPI.limit(Integer.MIN_VALUE));
+        assertEquals(FlinkAPI.MAX_LOG_CHUNK_SIZE, FlinkAPI.limit(Integer.MAX_VALUE));
+        assertEquals(10, FlinkAPI.limit(10));
+
+        // a zero or negative length reads the default size instead of failing
+        assertEquals(LOG, FlinkAPI.readTail(log(), FlinkAPI.limit(0)).getContent());
+        assertEquals(LOG, FlinkAPI.readRange(log(), 0, FlinkAPI.limit(-5)).getContent());
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.dinky.executor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.dinky.context.EngineContextHolder;
+import org.dinky.data.exception.BusException;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class VariableManagerTest {
+
+    @Test
+    void replaceVariable() {
+        VariableManager variableManager = new VariableManager();
+        variableManager.parseVariable("tb:=orders");
+        variableManager.parseVariable("tb:=${tb}_v2");
+        assertEquals(
+                "select * from orders_v2 where a = '${b'",
+                variableManager.parseVariable("select * from ${tb} where a = '${b'"));
+    }
+
+    @Test
+    void resolveNestedVariables() {
+        VariableManager variableManager = new VariableManager();
+        Map<String, String> variables = new HashMap<>();
+        variables.put("db", "ods");
+        variables.put("table", "${db}.orders");
+        variables.put("path", "/data/${dt}");
+        variableManager.registerVariable(variables);
+        assertEquals("select * from ods.orders", variableManager.replaceVariable("select * from ${table}"));
+        // references which are neither variables nor expressions are kept
+        assertEquals("/data/${dt}", variableManager.replaceVariable("${path}"));
+    }
+
+    @Test
+    void detectCycle() {
+        VariableManager variableManager = new VariableManager();
+        Map<String, String> variables = new HashMap<>();
+        variables.put("a", "${b}");
+        variables.put("b", "${c}");
+        variables.put("c", "${a}");
+        assertThrows(BusException.class, () -> variableManager.registerVariable(variables));
+    }
+
+    @Test
+    void keepVariablesOnCycle() {
+        VariableManager variableManager = new VariableManager();
+        variableManager.registerVariable("a", "${b}");
+        variableManager.registerVariable("b", "x");
+        assertThrows(BusException.class, () -> variableManager.registerVariable("b", "${a}"));
+        assertEquals("x", variableManager.getVariable("b"));
+
+        Map<String, String> variables = new HashMap<>();
+        variables.put("c", "y");
+        variables.put("b", "${c}${a}");
+        assertThrows(BusException.class, () -> variableManager.registerVariable(variables));
+        assertEquals("x", variableManager.getVariable("a"));
+        assertFalse(variableManager.listVariablesName().contains("c"));
+    }
+
+    @Test
+    void evaluateExpressionAndScript() {
+        EngineContextHolder.getEngineContext().set("math", Math.class);
+        try {
+            VariableManager variableManager = new VariableManager();
+            assertEquals(2, variableManager.getVariable("math.max(1, 2)"));
+            // statements are not expressions, they are evaluated as a script
+            assertEquals(3, variableManager.getVariable("math.max(1, 2); math.max(2, 3)"));
+        } finally {
+            EngineContextHolder.getEngineContext().remove("math");
+        }
+    }
+}
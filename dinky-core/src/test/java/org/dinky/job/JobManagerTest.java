@@ -23,6 +23,7 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import org.dinky.data.enums.GatewayType;
 import org.dinky.data.result.ExplainResult;
+import org.dinky.data.result.MockResultServer;
 import org.dinky.executor.ExecutorConfig;
 import org.dinky.explainer.lineage.LineageBuilder;
 import org.dinky.explainer.lineage.LineageResult;
@@ -107,6 +108,28 @@ class JobManagerTest {
         checkBatchExecuteSqlFromFile("flink/sql/statement-set-batch.sql");
     }*/
 
+    @Test
+    void testExplainRegistersNoMockChannel() throws Exception {
+        String statement =
+                IOUtils.toString(Resources.getResource("flink/sql/single-insert.sql"), StandardCharsets.UTF_8);
+        config = JobConfig.builder()
+                .fragment(true)
+                .statementSet(true)
+                .type(GatewayType.LOCAL.getLongValue())
+                .parallelism(1)
+                .maxRowNum(100)
+                .mockSinkFunction(true)
+                .jobName("Test")
+                .build();
+        jobManager = JobManager.build(config);
+        int channels = MockResultServer.getInstance().getChannelCount();
+
+        assertNotNull(jobManager.explainSql(statement));
+
+        assertEquals(channels, MockResultServer.getInstance().getChannelCount());
+        jobManager.close();
+    }
+
     @Test
     void testLineageSqlSingle() throws Exception {
         String statement =
@@ -0,0 +1,67 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.dinky.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import org.apache.flink.metrics.LogicalScopeProvider;
+import org.apache.flink.metrics.MetricGroup;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+
+public class DinkyMetricReporterTest {
+
+    @Test
+    public void taskGroupsTest() {
+        MetricGroup group = group("taskmanager.job.task.buffers");
+        assertEquals(
+                Collections.singletonList("buffers"),
+                DinkyMetricReporter.groups(group, Collections.emptyMap(), false));
+        assertEquals(
+                Collections.emptyList(),
+                DinkyMetricReporter.groups(group("taskmanager.job.task"), Collections.emptyMap(), false));
+    }
+
+    @Test
+    public void operatorGroupsTest() {
+        Map<String, String> variables = ImmutableMap.of("<operator_name>", "Source: Kafka", "<topic>", "orders");
+        assertEquals(
+                Arrays.asList("KafkaConsumer", "topic", "orders"),
+                DinkyMetricReporter.groups(
+                        group("taskmanager.job.task.operator.KafkaConsumer.topic"), variables, true));
+    }
+
+    private static MetricGroup group(String logicalScope) {
+        MetricGroup group = mock(MetricGroup.class, withSettings().extraInterfaces(LogicalScopeProvider.class));
+        when(((LogicalScopeProvider) group).getLogicalScope(any(), eq('.'))).thenReturn(logicalScope);
+        return group;
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.dinky.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Sets;
+
+public class MetricsPushProtocolTest {
+
+    @Test
+    public void pushRoundTripTest() throws Exception {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("0.numRecordsIn", 42L);
+        values.put("0.Source__Kafka.currentEmitEventTimeLag", 1.5d);
+        values.put("0.checkpointStartDelayNanos", "n/a");
+        Map<String, Map<String, Map<String, Object>>> jobs = new LinkedHashMap<>();
+        jobs.put("job-1", ImmutableMap.of("vertex-1", values));
+        jobs.put("job-2", Collections.emptyMap());
+
+        byte[] frame = MetricsPushProtocol.writePush(7L, 3L, 1000L, jobs);
+        MetricsPushProtocol.Push push = MetricsPushProtocol.readPush(frame);
+
+        assertEquals(7L, push.getSenderId());
+        assertEquals(3L, push.getSequence());
+        assertEquals(1000L, push.getTimestamp());
+        Map<String, String> metrics = push.getJobs().get("job-1").get("vertex-1");
+        assertEquals("42", metrics.get("0.numRecordsIn"));
+        assertEquals("1.5", metrics.get("0.Source__Kafka.currentEmitEventTimeLag"));
+        assertEquals("n/a", metrics.get("0.checkpointStartDelayNanos"));
+        assertTrue(push.getJobs().get("job-2").isEmpty());
+    }
+
+    @Test
+    public void selectionRoundTripTest() throws Exception {
+        Map<String, Map<String, Set<String>>> selection = new LinkedHashMap<>();
+        selection.put("job-1", ImmutableMap.of("vertex-1", Sets.newHashSet("0.numRecordsIn", "1.numRecordsIn")));
+        selection.put("job-2", Collections.emptyMap());
+
+        byte[] frame = MetricsPushProtocol.writeSelection(selection);
+
+        assertEquals(
+                selection,
+                MetricsPushProtocol.readSelection(new DataInputStream(new ByteArrayInputStream(frame))));
+    }
+
+    @Test
+    public void metricIdTest() {
+        assertEquals(
+                "0.numRecordsIn", MetricsPushProtocol.metricId("0", null, Collections.emptyList(), "numRecordsIn"));
+        assertEquals(
+                "0.buffers.inPoolUsage",
+                MetricsPushProtocol.metricId("0", null, Collections.singletonList("buffers"), "inPoolUsage"));
+        assertEquals(
+                "1.Source__Kafka_topic.numRecordsOut",
+                MetricsPushProtocol.metricId("1", "Source: Kafka.topic", Collections.emptyList(), "numRecordsOut"));
+        assertEquals(
+                "1.Source__Kafka.KafkaConsumer.topic.my_topic.committedOffsets",
+                MetricsPushProtocol.metricId(
+                        "1",
+                        "Source: Kafka",
+                        Arrays.asList("KafkaConsumer", "topic", "my.topic"),
+                        "committedOffsets"));
+    }
+}
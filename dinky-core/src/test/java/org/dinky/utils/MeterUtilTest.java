@@ -0,0 +1,53 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.dinky.utils;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
+public class MeterUtilTest {
+
+    private static final String NAME = "dinky.test.evictable";
+
+    @Test
+    public void evictLeastRecentlyUsedMetersTest() {
+        Timer first = MeterUtil.evictableTimer(NAME, MeterUtil.TAG_CLUSTER, "cluster-0");
+        for (int i = 1; i < MeterUtil.MAX_EVICTABLE_METERS; i++) {
+            MeterUtil.evictableTimer(NAME, MeterUtil.TAG_CLUSTER, "cluster-" + i);
+        }
+        assertSame(first, MeterUtil.evictableTimer(NAME, MeterUtil.TAG_CLUSTER, "cluster-0"));
+
+        MeterUtil.evictableTimer(NAME, MeterUtil.TAG_CLUSTER, "cluster-new");
+
+        assertNotNull(find("cluster-0"));
+        assertNull(find("cluster-1"));
+        assertNotNull(find("cluster-new"));
+    }
+
+    private static Timer find(String cluster) {
+        return Metrics.globalRegistry.find(NAME).tag(MeterUtil.TAG_CLUSTER, cluster).timer();
+    }
+}
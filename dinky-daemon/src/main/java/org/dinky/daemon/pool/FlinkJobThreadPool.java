@@ -131,6 +131,14 @@ public class FlinkJobThreadPool implements ThreadPool {
         }
     }
 
+    public int getTaskSize() {
+        return queue.getTaskSize();
+    }
+
+    public int getWorkerNum() {
+        return workerNum.get();
+    }
+
     public DaemonTask getByTaskConfig(DaemonTaskConfig daemonTask) {
         return queue.getByTaskConfig(daemonTask);
     }
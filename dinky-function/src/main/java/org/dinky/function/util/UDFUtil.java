@@ -41,17 +41,18 @@ import org.dinky.utils.URLUtils;
 import org.apache.flink.client.python.PythonFunctionFactory;
 import org.apache.flink.configuration.Configuration;
 import org.apache.flink.python.PythonOptions;
-import org.apache.flink.table.api.ValidationException;
 import org.apache.flink.table.catalog.FunctionLanguage;
 import org.apache.flink.table.functions.UserDefinedFunction;
 import org.apache.flink.table.functions.UserDefinedFunctionHelper;
 
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -371,35 +372,76 @@ public class UDFUtil {
         return udfPathContextHolder;
     }
 
+    /**
+     * Find the udf classes of a jar.
+     *
+     * @throws DinkyException if a udf class is invalid or the jar can not be read, so that no partial list is returned
+     */
     public static List<Class<?>> getUdfClassByJar(File jarPath) {
         Assert.notNull(jarPath);
 
         List<Class<?>> classList = new ArrayList<>();
-        try (JarClassLoader loader = new JarClassLoader()) {
+        try (JarClassLoader loader = new JarClassLoader();
+                JarFile jarFile = new JarFile(jarPath)) {
             loader.addJar(jarPath);
 
             ClassScanner classScanner =
                     new ClassScanner("", aClass -> ClassUtil.isAssignable(UserDefinedFunction.class, aClass));
             classScanner.setClassLoader(loader);
-            ReflectUtil.invoke(classScanner, "scanJar", new JarFile(jarPath));
+            ReflectUtil.invoke(classScanner, "scanJar", jarFile);
             Set<Class<? extends UserDefinedFunction>> classes =
                     (Set<Class<? extends UserDefinedFunction>>) ReflectUtil.getFieldValue(classScanner, "classes");
             for (Class<? extends UserDefinedFunction> aClass : classes) {
+                validateUdfClass(aClass);
+                classList.add(aClass);
+            }
+        } catch (IOException e) {
+            log.error("Scan udf classes of {} failed", jarPath, e);
+            throw new DinkyException("Scan udf classes of " + jarPath + " failed", e);
+        }
+        return classList;
+    }
+
+    /**
+     * Find the udf classes among the given classes of a jar, the other classes of the jar are neither loaded nor
+     * checked. Classes which can not be loaded are skipped, an invalid function fails the scan like
+     * {@link #getUdfClassByJar(File)} does.
+     *
+     * @throws DinkyException if a udf class is invalid
+     */
+    public static List<Class<?>> getUdfClassByJar(File jarPath, Collection<String> classNames) {
+        Assert.notNull(jarPath);
+
+        List<Class<?>> classList = new ArrayList<>();
+        try (JarClassLoader loader = new JarClassLoader()) {
+            loader.addJar(jarPath);
+            for (String className : classNames) {
+                Class<?> aClass;
                 try {
-                    UserDefinedFunctionHelper.validateClass(aClass);
-                    classList.add(aClass);
-                } catch (Exception ex) {
-                    throw new DinkyException();
+                    aClass = loader.loadClass(className);
+                } catch (Throwable e) {
+                    continue;
+                }
+                if (!ClassUtil.isAssignable(UserDefinedFunction.class, aClass)) {
+                    continue;
                 }
+                validateUdfClass(aClass.asSubclass(UserDefinedFunction.class));
+                classList.add(aClass);
             }
-        } catch (ValidationException e) {
-            throw e;
-        } catch (Exception e) {
-            e.printStackTrace();
+        } catch (IOException e) {
+            log.error("Close the class loader of {} failed", jarPath, e);
         }
         return classList;
     }
 
+    private static void validateUdfClass(Class<? extends UserDefinedFunction> aClass) {
+        try {
+            UserDefinedFunctionHelper.validateClass(aClass);
+        } catch (Exception e) {
+            throw new DinkyException("Invalid udf " + aClass.getName(), e);
+        }
+    }
+
     public static List<String> getPythonUdfList(String udfFile) {
         return getPythonUdfList(SystemConfiguration.getInstances().getPythonHome(), udfFile);
     }
@@ -32,6 +32,7 @@ import org.dinky.gateway.exception.GatewayException;
 import org.dinky.gateway.kubernetes.ingress.DinkyKubernetesIngress;
 import org.dinky.gateway.kubernetes.utils.IgnoreNullRepresenter;
 import org.dinky.gateway.kubernetes.utils.K8sClientHelper;
+import org.dinky.gateway.kubernetes.watcher.KubernetesInformerCache;
 import org.dinky.gateway.model.ingress.JobDetails;
 import org.dinky.gateway.model.ingress.JobOverviewInfo;
 import org.dinky.gateway.result.GatewayResult;
@@ -189,6 +190,22 @@ public class KubernetesApplicationGateway extends KubernetesGateway {
                 clusterSpecificationBuilder.createClusterSpecification(), applicationConfiguration);
     }
 
+    /** The status of an application follows its deployment, which is removed when the job ends. */
+    @Override
+    public org.dinky.data.enums.JobStatus getJobStatusById(String id) {
+        Deployment deployment;
+        try (KubernetesInformerCache cache = getStatusInformerCache()) {
+            deployment = cache.getDeployment(config.getFlinkConfig().getJobName());
+        }
+        if (deployment == null) {
+            return org.dinky.data.enums.JobStatus.UNKNOWN;
+        }
+        Integer readyReplicas = deployment.getStatus() == null ? null : deployment.getStatus().getReadyReplicas();
+        return readyReplicas != null && readyReplicas > 0
+                ? org.dinky.data.enums.JobStatus.RUNNING
+                : org.dinky.data.enums.JobStatus.RECONNECTING;
+    }
+
     /**
      * Waits for the JobManager and the Job to start in Kubernetes.
      *
@@ -205,12 +222,7 @@ public class KubernetesApplicationGateway extends KubernetesGateway {
         long startTime = System.currentTimeMillis();
 
         while (System.currentTimeMillis() - startTime < waitSends) {
-            List<Pod> pods = kubernetesClient
-                    .pods()
-                    .inNamespace(deployment.getMetadata().getNamespace())
-                    .withLabelSelector(deployment.getSpec().getSelector())
-                    .list()
-                    .getItems();
+            List<Pod> pods = listPods(kubernetesClient, deployment);
             for (Pod pod : pods) {
                 if (!checkPodStatus(pod)) {
                     logger.info("Kubernetes Pod have not ready, reTry at 5 sec later");
@@ -244,7 +256,7 @@ public class KubernetesApplicationGateway extends KubernetesGateway {
                     logger.error("Get job status failed,{}", ex.getMessage());
                 }
             }
-            Thread.sleep(5000);
+            waitPodEvent(5000);
         }
         throw new GatewayException(
                 "The number of retries exceeds the limit, check the K8S cluster for more information");
@@ -266,12 +278,7 @@ public class KubernetesApplicationGateway extends KubernetesGateway {
         long startTime = System.currentTimeMillis();
 
         while (System.currentTimeMillis() - startTime < waitSends) {
-            List<Pod> pods = kubernetesClient
-                    .pods()
-                    .inNamespace(deployment.getMetadata().getNamespace())
-                    .withLabelSelector(deployment.getSpec().getSelector())
-                    .list()
-                    .getItems();
+            List<Pod> pods = listPods(kubernetesClient, deployment);
             for (Pod pod : pods) {
                 if (!checkPodStatus(pod)) {
                     logger.info("Kubernetes Pod have not ready, reTry at 5 sec later");
@@ -300,12 +307,36 @@ public class KubernetesApplicationGateway extends KubernetesGateway {
                     logger.error("Get job status failed,{}", ex.getMessage());
                 }
             }
-            Thread.sleep(5000);
+            waitPodEvent(5000);
         }
         throw new GatewayException(
                 "The number of retries exceeds the limit, check the K8S cluster for more information");
     }
 
+    /** List the pods of the deployment, from the informer cache once it has synced. */
+    private List<Pod> listPods(KubernetesClient kubernetesClient, Deployment deployment) {
+        KubernetesInformerCache cache = getK8sClientHelper().getInformerCache();
+        if (cache != null && cache.hasSynced()) {
+            return cache.getPods(deployment.getSpec().getSelector().getMatchLabels());
+        }
+        return kubernetesClient
+                .pods()
+                .inNamespace(deployment.getMetadata().getNamespace())
+                .withLabelSelector(deployment.getSpec().getSelector())
+                .list()
+                .getItems();
+    }
+
+    /** Wait for the next change of the pods, or sleep when the informers are not available. */
+    private void waitPodEvent(long timeoutMs) throws InterruptedException {
+        KubernetesInformerCache cache = getK8sClientHelper().getInformerCache();
+        if (cache != null) {
+            cache.awaitEvent(timeoutMs);
+        } else {
+            Thread.sleep(timeoutMs);
+        }
+    }
+
     private JobDetails fetchApplicationJob(KubernetesClient kubernetesClient, Deployment deployment) {
         // 判断是不是存在ingress, 如果存在ingress的话返回ingress地址
         Ingress ingress = kubernetesClient
@@ -26,7 +26,9 @@ import org.dinky.gateway.AbstractGateway;
 import org.dinky.gateway.config.FlinkConfig;
 import org.dinky.gateway.config.K8sConfig;
 import org.dinky.gateway.exception.GatewayException;
+import org.dinky.gateway.exception.NotSupportGetStatusException;
 import org.dinky.gateway.kubernetes.utils.K8sClientHelper;
+import org.dinky.gateway.kubernetes.watcher.KubernetesInformerCache;
 import org.dinky.gateway.result.SavePointResult;
 import org.dinky.gateway.result.TestResult;
 import org.dinky.utils.TextUtil;
@@ -45,6 +47,7 @@ import org.apache.flink.python.PythonOptions;
 
 import java.lang.reflect.Method;
 import java.util.Collections;
+import java.util.Map;
 import java.util.UUID;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -75,6 +78,8 @@ public abstract class KubernetesGateway extends AbstractGateway {
     private Pod tmPodTemplate;
     private Pod defaultPodTemplate;
 
+    private static final long KILL_CLUSTER_TIMEOUT = 60 * 1000;
+
     private K8sClientHelper k8sClientHelper;
     private String tmpConfDir = String.format("%s/kubernetes/%s", DirConstant.getTempRootDir(), UUID.randomUUID());
 
@@ -246,15 +251,9 @@ public abstract class KubernetesGateway extends AbstractGateway {
             try (KubernetesClusterDescriptor clusterDescriptor =
                     clusterClientFactory.createClusterDescriptor(configuration)) {
                 clusterDescriptor.killCluster(clusterId);
-                int retryCount = 0;
-                while (k8sClientHelper.getClusterIsPresent(clusterId)) {
-                    retryCount++;
-                    log.warn("cluster id: {} is still running, recheck at 1s later", clusterId);
-                    if (retryCount > 60) {
-                        throw new GatewayException("The cluster " + clusterId
-                                + " still running, abort wait kill cluster, please check your k8s cluster.");
-                    }
-                    Thread.sleep(1000);
+                if (!waitClusterRemoved(clusterId, KILL_CLUSTER_TIMEOUT)) {
+                    throw new GatewayException("The cluster " + clusterId
+                            + " still running, abort wait kill cluster, please check your k8s cluster.");
                 }
             } catch (Exception e) {
                 logger.error(e.getMessage(), e);
@@ -264,6 +263,55 @@ public abstract class KubernetesGateway extends AbstractGateway {
         }
     }
 
+    /**
+     * Wait until the deployment of the cluster is removed. With the informer cache the wait wakes up on the delete
+     * event, otherwise the api server is polled every second.
+     */
+    private boolean waitClusterRemoved(String clusterId, long timeoutMs) throws InterruptedException {
+        KubernetesInformerCache cache = k8sClientHelper.getInformerCache();
+        if (cache != null && cache.hasSynced()) {
+            return cache.await(() -> cache.getDeployment(clusterId) == null, timeoutMs);
+        }
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        while (k8sClientHelper.getClusterIsPresent(clusterId)) {
+            if (System.currentTimeMillis() > deadline) {
+                return false;
+            }
+            log.warn("cluster id: {} is still running, recheck at 1s later", clusterId);
+            Thread.sleep(1000);
+        }
+        return true;
+    }
+
+    /**
+     * The informer cache used to refresh the job status, without initializing the whole gateway. The caller closes the
+     * returned cache to release it.
+     *
+     * @throws NotSupportGetStatusException if the informers are not available, the status is then read from the
+     *     flink rest api
+     */
+    protected KubernetesInformerCache getStatusInformerCache() {
+        K8sConfig kubernetesConfig = config.getKubernetesConfig();
+        Map<String, String> flinkConfiguration = config.getFlinkConfig().getConfiguration();
+        String namespace = flinkConfiguration.getOrDefault(
+                KubernetesConfigOptions.NAMESPACE.key(),
+                kubernetesConfig
+                        .getConfiguration()
+                        .getOrDefault(
+                                KubernetesConfigOptions.NAMESPACE.key(),
+                                KubernetesConfigOptions.NAMESPACE.defaultValue()));
+        try {
+            KubernetesInformerCache cache = KubernetesInformerCache.get(kubernetesConfig.getKubeConfig(), namespace);
+            if (cache.hasSynced()) {
+                return cache;
+            }
+            cache.close();
+        } catch (Exception e) {
+            throw new NotSupportGetStatusException("Start kubernetes informer failed: " + e.getMessage(), e);
+        }
+        throw new NotSupportGetStatusException("The kubernetes informer of " + namespace + " has not synced.");
+    }
+
     public boolean close() {
         try {
             FileUtil.del(tmpConfDir);
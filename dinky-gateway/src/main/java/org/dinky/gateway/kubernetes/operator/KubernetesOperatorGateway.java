@@ -22,12 +22,14 @@ package org.dinky.gateway.kubernetes.operator;
 import org.dinky.assertion.Asserts;
 import org.dinky.data.enums.JobStatus;
 import org.dinky.gateway.enums.UpgradeMode;
+import org.dinky.gateway.exception.NotSupportGetStatusException;
 import org.dinky.gateway.kubernetes.KubernetesGateway;
 import org.dinky.gateway.kubernetes.operator.api.AbstractPodSpec;
 import org.dinky.gateway.kubernetes.operator.api.AbstractPodSpec.Resource;
 import org.dinky.gateway.kubernetes.operator.api.FlinkDeployment;
 import org.dinky.gateway.kubernetes.operator.api.FlinkDeploymentSpec;
 import org.dinky.gateway.kubernetes.operator.api.JobSpec;
+import org.dinky.gateway.kubernetes.watcher.KubernetesInformerCache;
 import org.dinky.gateway.result.SavePointResult;
 import org.dinky.gateway.result.TestResult;
 
@@ -49,6 +51,7 @@ import org.slf4j.LoggerFactory;
 import com.google.common.collect.Lists;
 
 import io.fabric8.kubernetes.api.model.ObjectMeta;
+import io.fabric8.kubernetes.client.KubernetesClientException;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 
@@ -101,6 +104,25 @@ public abstract class KubernetesOperatorGateway extends KubernetesGateway {
         return false;
     }
 
+    /** The status of the job reported by the operator in the FlinkDeployment. */
+    @Override
+    public JobStatus getJobStatusById(String id) {
+        FlinkDeployment deployment;
+        try (KubernetesInformerCache cache = getStatusInformerCache()) {
+            if (!cache.hasFlinkDeploymentSynced()) {
+                throw new NotSupportGetStatusException("The FlinkDeployment informer has not synced.");
+            }
+            deployment = cache.getFlinkDeployment(config.getFlinkConfig().getJobName());
+        } catch (KubernetesClientException e) {
+            throw new NotSupportGetStatusException("Watch FlinkDeployment failed: " + e.getMessage(), e);
+        }
+        if (deployment == null || deployment.getStatus() == null) {
+            return JobStatus.UNKNOWN;
+        }
+        String state = deployment.getStatus().getJobStatus().getState();
+        return Asserts.isNullString(state) ? JobStatus.RECONNECTING : JobStatus.get(state);
+    }
+
     public boolean deleteCluster() {
         kubernetesConfiguration = config.getKubernetesConfig().getConfiguration();
         initConfig();
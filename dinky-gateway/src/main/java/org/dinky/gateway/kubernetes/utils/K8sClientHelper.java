@@ -20,7 +20,7 @@
 package org.dinky.gateway.kubernetes.utils;
 
 import org.dinky.gateway.kubernetes.decorate.DinkySqlConfigMapDecorate;
-import org.dinky.gateway.kubernetes.watcher.DeploymentStatusWatcher;
+import org.dinky.gateway.kubernetes.watcher.KubernetesInformerCache;
 import org.dinky.utils.TextUtil;
 
 import org.apache.flink.configuration.Configuration;
@@ -67,22 +67,45 @@ public class K8sClientHelper {
     private KubernetesClient kubernetesClient;
     protected Configuration configuration;
     private DinkySqlConfigMapDecorate sqlFileDecorate;
-    private DeploymentStatusWatcher deploymentStatusWatch;
+    private String kubeConfig;
+    private KubernetesInformerCache informerCache;
+    private boolean informerUnavailable = false;
 
     public K8sClientHelper(Configuration configuration, String kubeConfig) {
         this.configuration = configuration;
-        deploymentStatusWatch = new DeploymentStatusWatcher();
+        this.kubeConfig = kubeConfig;
         initKubeClient(kubeConfig);
     }
 
+    /**
+     * The shared informer cache of the namespace, null if the informers can not be started, for example when the
+     * account is not allowed to watch the namespace. Callers then read the api server directly. The cache is released
+     * by {@link #close}.
+     */
+    public KubernetesInformerCache getInformerCache() {
+        if (informerCache == null && !informerUnavailable) {
+            try {
+                informerCache =
+                        KubernetesInformerCache.get(kubeConfig, configuration.get(KubernetesConfigOptions.NAMESPACE));
+            } catch (Exception e) {
+                informerUnavailable = true;
+                log.warn("Start kubernetes informer failed, read the api server instead: {}", e.getMessage());
+            }
+        }
+        return informerCache;
+    }
+
     public Optional<Deployment> getJobService(String clusterId) {
         String serviceName = ExternalServiceDecorator.getExternalServiceName(clusterId);
-        Deployment deployment = kubernetesClient
-                .apps()
-                .deployments()
-                .inNamespace(configuration.get(KubernetesConfigOptions.NAMESPACE))
-                .withName(configuration.get(KubernetesConfigOptions.CLUSTER_ID))
-                .get();
+        KubernetesInformerCache cache = getInformerCache();
+        Deployment deployment = cache != null && cache.hasSynced()
+                ? cache.getDeployment(configuration.get(KubernetesConfigOptions.CLUSTER_ID))
+                : kubernetesClient
+                        .apps()
+                        .deployments()
+                        .inNamespace(configuration.get(KubernetesConfigOptions.NAMESPACE))
+                        .withName(configuration.get(KubernetesConfigOptions.CLUSTER_ID))
+                        .get();
         if (deployment == null) {
             log.debug("Service {} does not exist", serviceName);
             return Optional.empty();
@@ -138,7 +161,6 @@ public class K8sClientHelper {
                 resource.getMetadata().setOwnerReferences(Collections.singletonList(deploymentOwnerReference)));
         // create resources
         resources.forEach(resource -> log.info(Serialization.asYaml(resource)));
-        deploymentRollableScalableResource.watch(deploymentStatusWatch);
         kubernetesClient.resourceList(resources).createOrReplace();
         return deployment;
     }
@@ -192,6 +214,10 @@ public class K8sClientHelper {
      * @return
      */
     public boolean close() {
+        if (informerCache != null) {
+            informerCache.close();
+            informerCache = null;
+        }
         if (client != null) {
             client.close();
         }
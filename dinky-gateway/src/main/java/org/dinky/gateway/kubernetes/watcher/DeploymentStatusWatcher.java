@@ -22,20 +22,43 @@ package org.dinky.gateway.kubernetes.watcher;
 import org.apache.hadoop.util.StringUtils;
 
 import java.util.List;
+import java.util.Objects;
 
 import cn.hutool.core.collection.CollectionUtil;
 import cn.hutool.core.util.ObjectUtil;
 import io.fabric8.kubernetes.api.model.apps.Deployment;
 import io.fabric8.kubernetes.api.model.apps.DeploymentCondition;
-import io.fabric8.kubernetes.client.Watcher;
-import io.fabric8.kubernetes.client.WatcherException;
+import io.fabric8.kubernetes.client.informers.ResourceEventHandler;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Log the conditions of the flink deployments, registered on the shared deployment informer of
+ * {@link KubernetesInformerCache}.
+ */
 @Slf4j
-public class DeploymentStatusWatcher implements Watcher<Deployment> {
+public class DeploymentStatusWatcher implements ResourceEventHandler<Deployment> {
+
+    @Override
+    public void onAdd(Deployment deployment) {
+        eventReceived("ADDED", deployment);
+    }
+
+    @Override
+    public void onUpdate(Deployment oldDeployment, Deployment deployment) {
+        // a resync delivers the unchanged deployments again
+        if (!Objects.equals(
+                oldDeployment.getMetadata().getResourceVersion(),
+                deployment.getMetadata().getResourceVersion())) {
+            eventReceived("MODIFIED", deployment);
+        }
+    }
 
     @Override
-    public void eventReceived(Action action, Deployment deployment) {
+    public void onDelete(Deployment deployment, boolean deletedFinalStateUnknown) {
+        log.info("deployment name: {}, deployment action: DELETED", deployment.getMetadata().getName());
+    }
+
+    private void eventReceived(String action, Deployment deployment) {
         String deploymentName = deployment.getMetadata().getName();
         log.info("deployment name: {}, deployment action: {}", deploymentName, action);
         if (ObjectUtil.isNotNull(deployment.getStatus())
@@ -58,13 +81,4 @@ public class DeploymentStatusWatcher implements Watcher<Deployment> {
             });
         }
     }
-
-    @Override
-    public void onClose(WatcherException cause) {
-        if (cause != null) {
-            log.error("Watcher closed due to exception: {}", cause.getMessage());
-        } else {
-            log.info("Watcher closed gracefully.");
-        }
-    }
 }
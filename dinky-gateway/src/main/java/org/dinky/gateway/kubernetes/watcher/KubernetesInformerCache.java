@@ -0,0 +1,312 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.dinky.gateway.kubernetes.watcher;
+
+import org.dinky.gateway.kubernetes.operator.api.FlinkDeployment;
+
+import org.apache.flink.kubernetes.utils.Constants;
+import org.apache.http.util.TextUtils;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import cn.hutool.cache.CacheUtil;
+import cn.hutool.cache.impl.TimedCache;
+import cn.hutool.crypto.digest.DigestUtil;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.apps.Deployment;
+import io.fabric8.kubernetes.client.Config;
+import io.fabric8.kubernetes.client.DefaultKubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.informers.ResourceEventHandler;
+import io.fabric8.kubernetes.client.informers.SharedIndexInformer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Informer backed cache of the flink Deployments, Pods and FlinkDeployments of a namespace, shared by all the gateways
+ * which use the same kube config and namespace.
+ *
+ * <p>The informers list the resources once and then follow them with a watch, resuming from the last resource version
+ * after a disconnect and relisting on every resync. Reads are served from the local store, and {@link #await} wakes
+ * up on the next event instead of polling the api server.
+ *
+ * <p>Every {@link #get} must be paired with a {@link #close}, which releases the cache. Caches which are not used for a
+ * while are evicted, and the informers are stopped once the last holder has released an evicted cache.
+ */
+@Slf4j
+public class KubernetesInformerCache implements AutoCloseable {
+
+    private static final long RESYNC_PERIOD = TimeUnit.MINUTES.toMillis(5);
+    private static final long IDLE_TIMEOUT = TimeUnit.MINUTES.toMillis(30);
+    private static final long FLINK_DEPLOYMENT_RETRY_INTERVAL = TimeUnit.MINUTES.toMillis(5);
+
+    private static final TimedCache<String, KubernetesInformerCache> CACHES = CacheUtil.newTimedCache(IDLE_TIMEOUT);
+
+    static {
+        CACHES.setListener((key, cache) -> cache.evict());
+        CACHES.schedulePrune(TimeUnit.MINUTES.toMillis(1));
+    }
+
+    private final String namespace;
+    private final KubernetesClient kubernetesClient;
+    private final SharedIndexInformer<Deployment> deploymentInformer;
+    private final SharedIndexInformer<Pod> podInformer;
+    private volatile SharedIndexInformer<FlinkDeployment> flinkDeploymentInformer;
+    private final Object eventLock = new Object();
+    private long eventCount = 0;
+    private final Object refLock = new Object();
+    private int refs = 0;
+    private boolean evicted = false;
+    private boolean closed = false;
+    private volatile KubernetesClientException flinkDeploymentFailure;
+    private volatile long flinkDeploymentRetryAt = 0;
+
+    private KubernetesInformerCache(String kubeConfig, String namespace) {
+        this(
+                TextUtils.isEmpty(kubeConfig)
+                        ? new DefaultKubernetesClient()
+                        : new DefaultKubernetesClient(Config.fromKubeconfig(kubeConfig)),
+                namespace);
+    }
+
+    KubernetesInformerCache(KubernetesClient kubernetesClient, String namespace) {
+        this.namespace = namespace;
+        this.kubernetesClient = kubernetesClient;
+        try {
+            this.deploymentInformer = kubernetesClient
+                    .apps()
+                    .deployments()
+                    .inNamespace(namespace)
+                    .withLabel(Constants.LABEL_TYPE_KEY, Constants.LABEL_TYPE_NATIVE_TYPE)
+                    .inform(new EventHandler<>(), RESYNC_PERIOD);
+            this.deploymentInformer.addEventHandler(new DeploymentStatusWatcher());
+            this.podInformer = kubernetesClient
+                    .pods()
+                    .inNamespace(namespace)
+                    .withLabel(Constants.LABEL_TYPE_KEY, Constants.LABEL_TYPE_NATIVE_TYPE)
+                    .inform(new EventHandler<>(), RESYNC_PERIOD);
+        } catch (RuntimeException e) {
+            kubernetesClient.close();
+            throw e;
+        }
+        log.info("Kubernetes informer cache of namespace {} started", namespace);
+    }
+
+    /**
+     * Get the shared cache of the namespace, the informers are started on first use. The cache must be released with
+     * {@link #close} when it is no longer used.
+     *
+     * @param kubeConfig kube config content, the default client config is used if empty
+     * @param namespace  namespace to watch
+     */
+    public static KubernetesInformerCache get(String kubeConfig, String namespace) {
+        String key = DigestUtil.md5Hex(TextUtils.isEmpty(kubeConfig) ? "" : kubeConfig) + "@" + namespace;
+        synchronized (CACHES) {
+            while (true) {
+                KubernetesInformerCache cache =
+                        CACHES.get(key, true, () -> new KubernetesInformerCache(kubeConfig, namespace));
+                // the cache may be evicted and closed right after the lookup, it is then created again
+                if (cache.retain()) {
+                    return cache;
+                }
+            }
+        }
+    }
+
+    boolean retain() {
+        synchronized (refLock) {
+            if (closed) {
+                return false;
+            }
+            refs++;
+            return true;
+        }
+    }
+
+    /** Called when the cache is idle for too long, the informers are stopped once nobody holds the cache. */
+    void evict() {
+        synchronized (refLock) {
+            evicted = true;
+            if (refs > 0) {
+                return;
+            }
+            closed = true;
+        }
+        stop();
+    }
+
+    public boolean hasSynced() {
+        return deploymentInformer.hasSynced() && podInformer.hasSynced();
+    }
+
+    public Deployment getDeployment(String name) {
+        return deploymentInformer.getIndexer().getByKey(key(name));
+    }
+
+    public List<Pod> getPods(Map<String, String> labels) {
+        if (labels == null || labels.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return podInformer.getIndexer().list().stream()
+                .filter(pod -> pod.getMetadata().getLabels() != null
+                        && pod.getMetadata().getLabels().entrySet().containsAll(labels.entrySet()))
+                .collect(Collectors.toList());
+    }
+
+    public FlinkDeployment getFlinkDeployment(String name) {
+        return flinkDeploymentInformer().getIndexer().getByKey(key(name));
+    }
+
+    public boolean hasFlinkDeploymentSynced() {
+        return flinkDeploymentInformer().hasSynced();
+    }
+
+    /**
+     * The FlinkDeployment informer is started on first use, as the operator crd may not be installed. A failed start is
+     * remembered and not retried before {@link #FLINK_DEPLOYMENT_RETRY_INTERVAL} has passed.
+     */
+    private SharedIndexInformer<FlinkDeployment> flinkDeploymentInformer() {
+        if (flinkDeploymentInformer == null) {
+            synchronized (this) {
+                if (flinkDeploymentInformer == null) {
+                    if (flinkDeploymentFailure != null && System.currentTimeMillis() < flinkDeploymentRetryAt) {
+                        throw new KubernetesClientException(
+                                flinkDeploymentFailure.getMessage(), flinkDeploymentFailure);
+                    }
+                    try {
+                        flinkDeploymentInformer = kubernetesClient
+                                .resources(FlinkDeployment.class)
+                                .inNamespace(namespace)
+                                .inform(new EventHandler<>(), RESYNC_PERIOD);
+                        flinkDeploymentFailure = null;
+                    } catch (RuntimeException e) {
+                        flinkDeploymentFailure = e instanceof KubernetesClientException
+                                ? (KubernetesClientException) e
+                                : new KubernetesClientException(e.getMessage(), e);
+                        flinkDeploymentRetryAt = System.currentTimeMillis() + FLINK_DEPLOYMENT_RETRY_INTERVAL;
+                        log.warn(
+                                "Start FlinkDeployment informer of namespace {} failed, retry after {} minutes: {}",
+                                namespace,
+                                TimeUnit.MILLISECONDS.toMinutes(FLINK_DEPLOYMENT_RETRY_INTERVAL),
+                                e.getMessage());
+                        throw flinkDeploymentFailure;
+                    }
+                }
+            }
+        }
+        return flinkDeploymentInformer;
+    }
+
+    /**
+     * Wait until the condition holds, it is checked again on every event of the namespace.
+     *
+     * @param condition the condition, which reads this cache
+     * @param timeoutMs max time to wait
+     * @return false if the condition does not hold before the timeout
+     */
+    public boolean await(BooleanSupplier condition, long timeoutMs) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        synchronized (eventLock) {
+            while (!condition.getAsBoolean()) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return false;
+                }
+                long seen = eventCount;
+                while (seen == eventCount && remaining > 0) {
+                    eventLock.wait(remaining);
+                    remaining = deadline - System.currentTimeMillis();
+                }
+            }
+            return true;
+        }
+    }
+
+    /** Wait for the next event of the namespace, at most timeoutMs. */
+    public void awaitEvent(long timeoutMs) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        synchronized (eventLock) {
+            long seen = eventCount;
+            long remaining = timeoutMs;
+            while (seen == eventCount && remaining > 0) {
+                eventLock.wait(remaining);
+                remaining = deadline - System.currentTimeMillis();
+            }
+        }
+    }
+
+    private String key(String name) {
+        return namespace + "/" + name;
+    }
+
+    private void onEvent(HasMetadata resource, String action) {
+        log.debug("{} {} {}/{}", action, resource.getKind(), namespace, resource.getMetadata().getName());
+        synchronized (eventLock) {
+            eventCount++;
+            eventLock.notifyAll();
+        }
+    }
+
+    /** Release the cache taken by {@link #get}, an evicted cache is stopped by its last holder. */
+    @Override
+    public void close() {
+        synchronized (refLock) {
+            if (closed || refs == 0 || --refs > 0 || !evicted) {
+                return;
+            }
+            closed = true;
+        }
+        stop();
+    }
+
+    private void stop() {
+        deploymentInformer.stop();
+        podInformer.stop();
+        if (flinkDeploymentInformer != null) {
+            flinkDeploymentInformer.stop();
+        }
+        kubernetesClient.close();
+        log.info("Kubernetes informer cache of namespace {} closed", namespace);
+    }
+
+    private class EventHandler<T extends HasMetadata> implements ResourceEventHandler<T> {
+
+        @Override
+        public void onAdd(T obj) {
+            onEvent(obj, "ADDED");
+        }
+
+        @Override
+        public void onUpdate(T oldObj, T newObj) {
+            onEvent(newObj, "MODIFIED");
+        }
+
+        @Override
+        public void onDelete(T obj, boolean deletedFinalStateUnknown) {
+            onEvent(obj, "DELETED");
+        }
+    }
+}
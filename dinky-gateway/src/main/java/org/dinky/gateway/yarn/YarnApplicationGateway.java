@@ -102,7 +102,7 @@ public class YarnApplicationGateway extends YarnGateway {
                     new ClusterDescriptorAdapterImpl(yarnClusterDescriptor);
             if (CollUtil.isNotEmpty(beforePipelineJars)) {
                 clusterDescriptorAdapter.addShipFiles(
-                        beforePipelineJars.stream().map(URLUtils::toFile).collect(Collectors.toList()));
+                        stage(beforePipelineJars.stream().map(URLUtils::toFile).collect(Collectors.toList())));
             }
             clusterDescriptorAdapter.addShipFiles(Collections.singletonList(preparSqlFile()));
             addConfigParas(
@@ -111,14 +111,16 @@ public class YarnApplicationGateway extends YarnGateway {
             ClusterClientProvider<ApplicationId> clusterClientProvider = yarnClusterDescriptor.deployApplicationCluster(
                     clusterSpecificationBuilder.createClusterSpecification(), applicationConfiguration);
             ClusterClient<ApplicationId> clusterClient = clusterClientProvider.getClusterClient();
+            ApplicationId applicationId = clusterClient.getClusterId();
+            finishStaging(applicationId);
 
             webUrl = getWebUrl(clusterClient, result);
 
-            ApplicationId applicationId = clusterClient.getClusterId();
             result.setId(applicationId.toString());
             result.setWebURL(webUrl);
             result.success();
         } catch (Exception e) {
+            finishStaging(null);
             result.fail(LogUtil.getError(e));
         } finally {
             close();
@@ -110,6 +110,8 @@ public abstract class YarnGateway extends AbstractGateway {
 
     protected YarnClient yarnClient;
 
+    protected YarnStagingArea stagingArea;
+
     public YarnGateway() {}
 
     public YarnGateway(GatewayConfig config) {
@@ -120,6 +122,7 @@ public abstract class YarnGateway extends AbstractGateway {
     public void init() {
         initConfig();
         initYarnClient();
+        initStagingArea();
     }
 
     private void initConfig() {
@@ -212,6 +215,56 @@ public abstract class YarnGateway extends AbstractGateway {
         }
     }
 
+    private void initStagingArea() {
+        try {
+            stagingArea = YarnStagingArea.of(configuration, yarnConfiguration);
+        } catch (Exception e) {
+            logger.warn("Init yarn staging area failed, the jars are shipped with the application: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Stage the files shared by submissions when a staging area is configured, see {@link YarnStagingArea}. The
+     * staged directories are added to the provided lib dirs.
+     *
+     * @return the files which still have to be shipped with the application
+     */
+    protected List<File> stage(List<File> files) {
+        if (stagingArea == null || files.isEmpty()) {
+            return files;
+        }
+        try {
+            List<File> unstaged = stagingArea.stage(files);
+            List<String> libDirs = new ArrayList<>(Optional.ofNullable(
+                            configuration.get(YarnConfigOptions.PROVIDED_LIB_DIRS))
+                    .orElse(Collections.emptyList()));
+            stagingArea.getStagedDirs().stream().filter(dir -> !libDirs.contains(dir)).forEach(libDirs::add);
+            configuration.set(YarnConfigOptions.PROVIDED_LIB_DIRS, libDirs);
+            return unstaged;
+        } catch (Exception e) {
+            logger.warn("Stage {} failed, they are shipped with the application: {}", files, e.getMessage());
+            return files;
+        }
+    }
+
+    /**
+     * Reference the staged files by the submitted application, or drop the references if the submission failed,
+     * then delete the staged files no application uses any more.
+     *
+     * @param applicationId the submitted application, null if the submission failed
+     */
+    protected void finishStaging(ApplicationId applicationId) {
+        if (stagingArea == null) {
+            return;
+        }
+        if (applicationId != null) {
+            stagingArea.commit(applicationId);
+        } else {
+            stagingArea.abort();
+        }
+        stagingArea.cleanup(yarnClient);
+    }
+
     private Path getYanConfigFilePath(String path) {
         return new Path(URI.create(config.getClusterConfig().getHadoopConfigPath() + "/" + path));
     }
@@ -361,13 +414,13 @@ public abstract class YarnGateway extends AbstractGateway {
         ClusterDescriptorAdapterImpl clusterDescriptorAdapter = new ClusterDescriptorAdapterImpl(yarnClusterDescriptor);
         if (Asserts.isNotNull(config.getJarPaths())) {
             clusterDescriptorAdapter.addShipFiles(
-                    Arrays.stream(config.getJarPaths()).map(FileUtil::file).collect(Collectors.toList()));
+                    stage(Arrays.stream(config.getJarPaths()).map(FileUtil::file).collect(Collectors.toList())));
             clusterDescriptorAdapter.addShipFiles(new ArrayList<>(udfPathContextHolder.getPyUdfFile()));
         }
         Set<File> otherPluginsFiles = udfPathContextHolder.getAllFileSet();
 
         if (CollUtil.isNotEmpty(otherPluginsFiles)) {
-            clusterDescriptorAdapter.addShipFiles(new ArrayList<>(otherPluginsFiles));
+            clusterDescriptorAdapter.addShipFiles(stage(new ArrayList<>(otherPluginsFiles)));
         }
         return yarnClusterDescriptor;
     }
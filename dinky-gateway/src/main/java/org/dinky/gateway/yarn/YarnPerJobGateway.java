@@ -33,7 +33,9 @@ import org.apache.flink.runtime.jobgraph.JobGraph;
 import org.apache.flink.yarn.YarnClusterDescriptor;
 import org.apache.hadoop.yarn.api.records.ApplicationId;
 
+import java.io.File;
 import java.util.Arrays;
+import java.util.List;
 import java.util.stream.Collectors;
 
 import cn.hutool.core.io.FileUtil;
@@ -58,9 +60,10 @@ public class YarnPerJobGateway extends YarnGateway {
         }
 
         if (Asserts.isNotNull(config.getJarPaths())) {
-            jobGraph.addJars(Arrays.stream(config.getJarPaths())
-                    .map(path -> URLUtil.getURL(FileUtil.file(path)))
-                    .collect(Collectors.toList()));
+            // staged jars are loaded from the provided lib dirs, only the others are uploaded as user jars
+            List<File> jars = stage(
+                    Arrays.stream(config.getJarPaths()).map(FileUtil::file).collect(Collectors.toList()));
+            jobGraph.addJars(jars.stream().map(URLUtil::getURL).collect(Collectors.toList()));
         }
 
         ClusterSpecification.ClusterSpecificationBuilder clusterSpecificationBuilder =
@@ -77,12 +80,14 @@ public class YarnPerJobGateway extends YarnGateway {
                     clusterSpecificationBuilder.createClusterSpecification(), jobGraph, true);
             ClusterClient<ApplicationId> clusterClient = clusterClientProvider.getClusterClient();
             ApplicationId applicationId = clusterClient.getClusterId();
+            finishStaging(applicationId);
             String webUrl = getWebUrl(clusterClient, result);
             result.setId(applicationId.toString());
             result.setWebURL(webUrl);
 
             result.success();
         } catch (Exception e) {
+            finishStaging(null);
             throw new RuntimeException(e);
         }
         return result;
@@ -0,0 +1,279 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.dinky.gateway.yarn;
+
+import org.dinky.constant.CustomerConfigureOptions;
+
+import org.apache.flink.configuration.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.yarn.api.records.ApplicationId;
+import org.apache.hadoop.yarn.api.records.YarnApplicationState;
+import org.apache.hadoop.yarn.client.api.YarnClient;
+import org.apache.hadoop.yarn.conf.YarnConfiguration;
+import org.apache.hadoop.yarn.exceptions.ApplicationNotFoundException;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import cn.hutool.cache.Cache;
+import cn.hutool.cache.CacheUtil;
+import cn.hutool.core.util.StrUtil;
+import cn.hutool.crypto.digest.DigestUtil;
+
+/**
+ * A content addressed staging area on the cluster filesystem for the jars shared by yarn submissions.
+ *
+ * <p>A jar is uploaded once to {@code <dir>/<sha256>/<name>}, and that directory is added to the provided lib dirs of
+ * every application using the jar, so yarn localizes it as a public resource instead of the client uploading it
+ * again. Uploads go to a temporary file first, a jar only appears under its hash once it is complete. Every
+ * application referencing a jar leaves a marker in {@code <dir>/.refs/<sha256>/}, the cleanup deletes the markers of
+ * finished applications and the jars without markers once the retention has passed.
+ */
+public class YarnStagingArea {
+    private static final Logger logger = LoggerFactory.getLogger(YarnStagingArea.class);
+
+    private static final String REFS_DIR = ".refs";
+    private static final String TMP_DIR = ".tmp";
+    private static final String PENDING_PREFIX = "pending-";
+    private static final Set<YarnApplicationState> FINISHED_STATES =
+            EnumSet.of(YarnApplicationState.FINISHED, YarnApplicationState.FAILED, YarnApplicationState.KILLED);
+
+    /** Hashes of local files by path, length and modification time, so that unchanged jars are hashed once */
+    private static final Cache<String, String> HASH_CACHE = CacheUtil.newLRUCache(1024);
+
+    private static final Map<Path, Long> LAST_CLEANUP = new ConcurrentHashMap<>();
+
+    private final FileSystem fileSystem;
+    private final Path root;
+    private final long retentionMs;
+    private final long cleanupIntervalMs;
+    private final String pendingMarker = PENDING_PREFIX + UUID.randomUUID();
+    private final Set<String> stagedHashes = new LinkedHashSet<>();
+    private final Set<String> stagedDirs = new LinkedHashSet<>();
+    private boolean finished;
+
+    private YarnStagingArea(FileSystem fileSystem, Path root, long retentionMs, long cleanupIntervalMs) {
+        this.fileSystem = fileSystem;
+        this.root = root;
+        this.retentionMs = retentionMs;
+        this.cleanupIntervalMs = cleanupIntervalMs;
+    }
+
+    /** The staging area of the submission, null if {@link CustomerConfigureOptions#YARN_STAGING_DIR} is not set. */
+    public static YarnStagingArea of(Configuration configuration, YarnConfiguration yarnConfiguration)
+            throws IOException {
+        String dir = configuration.get(CustomerConfigureOptions.YARN_STAGING_DIR);
+        if (StrUtil.isBlank(dir)) {
+            return null;
+        }
+        Path root = new Path(dir.trim());
+        FileSystem fileSystem = root.getFileSystem(yarnConfiguration);
+        return new YarnStagingArea(
+                fileSystem,
+                fileSystem.makeQualified(root),
+                configuration.get(CustomerConfigureOptions.YARN_STAGING_RETENTION).toMillis(),
+                configuration.get(CustomerConfigureOptions.YARN_STAGING_CLEANUP).toMillis());
+    }
+
+    /**
+     * Stage the files, uploading only those whose content is not staged yet.
+     *
+     * @return the files which can not be staged, such as directories, they have to be shipped as before
+     */
+    public List<File> stage(Collection<File> files) throws IOException {
+        List<File> unstaged = new ArrayList<>();
+        for (File file : files) {
+            if (file.isFile()) {
+                stagedDirs.add(stageFile(file).toString());
+            } else {
+                unstaged.add(file);
+            }
+        }
+        return unstaged;
+    }
+
+    /** The directories of the staged files, to be added to the provided lib dirs of the application. */
+    public List<String> getStagedDirs() {
+        return new ArrayList<>(stagedDirs);
+    }
+
+    private Path stageFile(File file) throws IOException {
+        String hash = hash(file);
+        Path dir = new Path(root, hash);
+        // reference the jar before looking for it, so that the cleanup never deletes it in between
+        fileSystem.create(new Path(new Path(new Path(root, REFS_DIR), hash), pendingMarker), true).close();
+        stagedHashes.add(hash);
+        if (findStaged(dir, file.length())) {
+            logger.info("Reuse staged {} of {}", dir, file);
+            return dir;
+        }
+        Path tmp = new Path(new Path(root, TMP_DIR), hash + "-" + UUID.randomUUID());
+        fileSystem.copyFromLocalFile(false, true, new Path(file.toURI()), tmp);
+        fileSystem.mkdirs(dir);
+        Path target = new Path(dir, file.getName());
+        if (!fileSystem.rename(tmp, target)) {
+            fileSystem.delete(tmp, false);
+            // another submission staged the same content at the same time
+            if (!findStaged(dir, file.length())) {
+                throw new IOException(StrUtil.format("Stage {} to {} failed", file, target));
+            }
+        }
+        logger.info("Staged {} to {}", file, target);
+        return dir;
+    }
+
+    private boolean findStaged(Path dir, long length) throws IOException {
+        if (!fileSystem.exists(dir)) {
+            return false;
+        }
+        for (FileStatus status : fileSystem.listStatus(dir)) {
+            if (status.isFile() && status.getLen() == length) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String hash(File file) {
+        String key = file.getAbsolutePath() + ":" + file.length() + ":" + file.lastModified();
+        return HASH_CACHE.get(key, () -> DigestUtil.sha256Hex(file));
+    }
+
+    /** The application was submitted, turn the pending references into references of the application. */
+    public void commit(ApplicationId applicationId) {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        for (String hash : stagedHashes) {
+            Path refs = new Path(new Path(root, REFS_DIR), hash);
+            try {
+                fileSystem.rename(new Path(refs, pendingMarker), new Path(refs, applicationId.toString()));
+            } catch (IOException e) {
+                logger.warn("Reference {} by {} failed: {}", refs, applicationId, e.getMessage());
+            }
+        }
+    }
+
+    /** The submission failed, drop its pending references. Does nothing once the application is committed. */
+    public void abort() {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        for (String hash : stagedHashes) {
+            Path marker = new Path(new Path(new Path(root, REFS_DIR), hash), pendingMarker);
+            try {
+                fileSystem.delete(marker, false);
+            } catch (IOException e) {
+                logger.warn("Delete {} failed: {}", marker, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Delete the staged jars no running application references any more, at most once per cleanup interval. The
+     * cleanup never fails the submission, errors are only logged.
+     */
+    public void cleanup(YarnClient yarnClient) {
+        long now = System.currentTimeMillis();
+        Long last = LAST_CLEANUP.get(root);
+        if (last != null && now - last < cleanupIntervalMs) {
+            return;
+        }
+        LAST_CLEANUP.put(root, now);
+        try {
+            Path refsRoot = new Path(root, REFS_DIR);
+            for (FileStatus dir : fileSystem.listStatus(root)) {
+                String hash = dir.getPath().getName();
+                if (!dir.isDirectory() || hash.startsWith(".")) {
+                    continue;
+                }
+                Path refs = new Path(refsRoot, hash);
+                long lastUsed = dir.getModificationTime();
+                if (fileSystem.exists(refs)) {
+                    if (isReferenced(refs, yarnClient, now)) {
+                        continue;
+                    }
+                    lastUsed = Math.max(lastUsed, fileSystem.getFileStatus(refs).getModificationTime());
+                }
+                if (now - lastUsed >= retentionMs) {
+                    logger.info("Delete staged {}, no application references it", dir.getPath());
+                    fileSystem.delete(dir.getPath(), true);
+                    fileSystem.delete(refs, true);
+                }
+            }
+            Path tmp = new Path(root, TMP_DIR);
+            if (fileSystem.exists(tmp)) {
+                for (FileStatus status : fileSystem.listStatus(tmp)) {
+                    if (now - status.getModificationTime() >= retentionMs) {
+                        fileSystem.delete(status.getPath(), false);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("Clean up the staging area {} failed: {}", root, e.getMessage());
+        }
+    }
+
+    /** Whether a pending submission or a running application references the jar, drops the outdated markers. */
+    private boolean isReferenced(Path refs, YarnClient yarnClient, long now) throws IOException {
+        boolean referenced = false;
+        for (FileStatus marker : fileSystem.listStatus(refs)) {
+            String name = marker.getPath().getName();
+            boolean alive = name.startsWith(PENDING_PREFIX)
+                    ? now - marker.getModificationTime() < retentionMs
+                    : isRunning(yarnClient, name);
+            if (alive) {
+                referenced = true;
+            } else {
+                fileSystem.delete(marker.getPath(), false);
+            }
+        }
+        return referenced;
+    }
+
+    private static boolean isRunning(YarnClient yarnClient, String applicationId) {
+        try {
+            return !FINISHED_STATES.contains(yarnClient
+                    .getApplicationReport(ApplicationId.fromString(applicationId))
+                    .getYarnApplicationState());
+        } catch (ApplicationNotFoundException | IllegalArgumentException e) {
+            return false;
+        } catch (Exception e) {
+            // keep the reference while yarn can not tell
+            return true;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.dinky.gateway.kubernetes.watcher;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.dinky.gateway.kubernetes.operator.api.FlinkDeployment;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+
+class KubernetesInformerCacheTest {
+
+    private KubernetesClient kubernetesClient;
+    private KubernetesInformerCache cache;
+
+    @BeforeEach
+    void init() {
+        kubernetesClient = mock(KubernetesClient.class, RETURNS_DEEP_STUBS);
+        cache = new KubernetesInformerCache(kubernetesClient, "flink");
+    }
+
+    @Test
+    void evictedCacheIsClosedByLastHolder() {
+        assertThat(cache.retain()).isTrue();
+        assertThat(cache.retain()).isTrue();
+
+        cache.evict();
+        cache.close();
+        verify(kubernetesClient, never()).close();
+
+        cache.close();
+        verify(kubernetesClient).close();
+        assertThat(cache.retain()).isFalse();
+    }
+
+    @Test
+    void releasedCacheIsClosedOnEviction() {
+        assertThat(cache.retain()).isTrue();
+        cache.close();
+        cache.close();
+        verify(kubernetesClient, never()).close();
+
+        cache.evict();
+        verify(kubernetesClient).close();
+    }
+
+    @Test
+    void failedFlinkDeploymentInformerIsNotRetriedAtOnce() {
+        when(kubernetesClient
+                        .resources(FlinkDeployment.class)
+                        .inNamespace("flink")
+                        .inform(any(), anyLong()))
+                .thenThrow(new KubernetesClientException("the server could not find the requested resource"));
+
+        assertThatThrownBy(cache::hasFlinkDeploymentSynced).isInstanceOf(KubernetesClientException.class);
+        assertThatThrownBy(() -> cache.getFlinkDeployment("job"))
+                .isInstanceOf(KubernetesClientException.class)
+                .hasMessageContaining("could not find the requested resource");
+        verify(kubernetesClient.resources(FlinkDeployment.class).inNamespace("flink"), times(1))
+                .inform(any(), anyLong());
+    }
+}
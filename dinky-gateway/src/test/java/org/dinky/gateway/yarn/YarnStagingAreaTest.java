@@ -0,0 +1,131 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.dinky.gateway.yarn;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.dinky.constant.CustomerConfigureOptions;
+
+import org.apache.flink.configuration.Configuration;
+import org.apache.hadoop.yarn.api.records.ApplicationId;
+import org.apache.hadoop.yarn.api.records.ApplicationReport;
+import org.apache.hadoop.yarn.api.records.YarnApplicationState;
+import org.apache.hadoop.yarn.client.api.YarnClient;
+import org.apache.hadoop.yarn.conf.YarnConfiguration;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import cn.hutool.core.io.FileUtil;
+
+class YarnStagingAreaTest {
+
+    @TempDir
+    Path tmp;
+
+    private Configuration configuration;
+    private File jar;
+    private File stagingDir;
+
+    @BeforeEach
+    void init() throws Exception {
+        stagingDir = tmp.resolve("staging").toFile();
+        configuration = new Configuration();
+        configuration.set(CustomerConfigureOptions.YARN_STAGING_DIR, stagingDir.toURI().toString());
+        configuration.set(CustomerConfigureOptions.YARN_STAGING_RETENTION, Duration.ZERO);
+        configuration.set(CustomerConfigureOptions.YARN_STAGING_CLEANUP, Duration.ZERO);
+        jar = Files.write(tmp.resolve("udf.jar"), new byte[] {1, 2, 3}).toFile();
+    }
+
+    private YarnStagingArea stagingArea() throws Exception {
+        return YarnStagingArea.of(configuration, new YarnConfiguration());
+    }
+
+    private static YarnClient yarnClient(YarnApplicationState state) throws Exception {
+        ApplicationReport report = mock(ApplicationReport.class);
+        when(report.getYarnApplicationState()).thenReturn(state);
+        YarnClient yarnClient = mock(YarnClient.class);
+        when(yarnClient.getApplicationReport(any())).thenReturn(report);
+        return yarnClient;
+    }
+
+    private List<File> stagedJars() {
+        return FileUtil.loopFiles(stagingDir, file -> "udf.jar".equals(file.getName()));
+    }
+
+    @Test
+    void disabledWithoutDir() throws Exception {
+        assertThat(YarnStagingArea.of(new Configuration(), new YarnConfiguration())).isNull();
+    }
+
+    @Test
+    void stageUploadsOnce() throws Exception {
+        YarnStagingArea first = stagingArea();
+        assertThat(first.stage(Collections.singletonList(jar))).isEmpty();
+        YarnStagingArea second = stagingArea();
+        assertThat(second.stage(Collections.singletonList(jar))).isEmpty();
+
+        assertThat(second.getStagedDirs()).isEqualTo(first.getStagedDirs()).hasSize(1);
+        assertThat(stagedJars()).hasSize(1);
+    }
+
+    @Test
+    void directoriesAreNotStaged() throws Exception {
+        File dir = tmp.resolve("plugins").toFile();
+        assertThat(dir.mkdirs()).isTrue();
+        YarnStagingArea stagingArea = stagingArea();
+        assertThat(stagingArea.stage(Collections.singletonList(dir))).containsExactly(dir);
+        assertThat(stagingArea.getStagedDirs()).isEmpty();
+    }
+
+    @Test
+    void cleanupKeepsJarsOfRunningApplications() throws Exception {
+        YarnStagingArea stagingArea = stagingArea();
+        stagingArea.stage(Collections.singletonList(jar));
+        stagingArea.commit(ApplicationId.newInstance(System.currentTimeMillis(), 1));
+
+        stagingArea.cleanup(yarnClient(YarnApplicationState.RUNNING));
+        assertThat(stagedJars()).hasSize(1);
+
+        stagingArea.cleanup(yarnClient(YarnApplicationState.FINISHED));
+        assertThat(stagedJars()).isEmpty();
+    }
+
+    @Test
+    void cleanupDeletesJarsOfFailedSubmissions() throws Exception {
+        YarnStagingArea stagingArea = stagingArea();
+        stagingArea.stage(Collections.singletonList(jar));
+        stagingArea.abort();
+
+        stagingArea.cleanup(yarnClient(YarnApplicationState.RUNNING));
+        assertThat(stagedJars()).isEmpty();
+    }
+}
@@ -20,7 +20,6 @@
 package org.dinky.scheduler.client;
 
 import org.dinky.data.model.SystemConfiguration;
-import org.dinky.scheduler.constant.Constants;
 import org.dinky.scheduler.model.DagData;
 import org.dinky.scheduler.model.DagNodeLocation;
 import org.dinky.scheduler.model.ProcessDefinition;
@@ -28,6 +27,7 @@ import org.dinky.scheduler.result.PageInfo;
 import org.dinky.scheduler.result.Result;
 import org.dinky.scheduler.utils.MyJSONUtil;
 import org.dinky.scheduler.utils.ParamUtil;
+import org.dinky.scheduler.utils.RequestUtil;
 import org.dinky.utils.JsonUtils;
 
 import java.util.ArrayList;
@@ -44,7 +44,6 @@ import org.springframework.stereotype.Component;
 import cn.hutool.core.lang.TypeReference;
 import cn.hutool.core.util.StrUtil;
 import cn.hutool.http.HttpRequest;
-import cn.hutool.http.HttpResponse;
 import cn.hutool.json.JSONObject;
 
 /**
@@ -68,31 +67,21 @@ public class ProcessClient {
                         + "/projects/{projectCode}/process-definition",
                 Collections.singletonMap("projectCode", projectCode));
 
-        try (HttpResponse httpResponse = HttpRequest.get(format)
-                .header(
-                        Constants.TOKEN,
-                        SystemConfiguration.getInstances()
-                                .getDolphinschedulerToken()
-                                .getValue())
-                .form(ParamUtil.getPageParams(processName))
-                .timeout(20000)
-                .execute()) {
-            String content = httpResponse.body();
-            PageInfo<JSONObject> data = MyJSONUtil.toPageBean(content);
-            List<ProcessDefinition> lists = new ArrayList<>();
-            if (data == null || data.getTotalList() == null) {
-                return lists;
-            }
-
-            for (JSONObject jsonObject : data.getTotalList()) {
-                ProcessDefinition processDefinition = MyJSONUtil.toBean(jsonObject, ProcessDefinition.class);
-                // The locations of processDefinition is json string
-                List<DagNodeLocation> locations = jsonObject.getBeanList("locations", DagNodeLocation.class);
-                processDefinition.setLocations(JsonUtils.toJsonString(locations));
-                lists.add(processDefinition);
-            }
+        String content = RequestUtil.execute(HttpRequest.get(format).form(ParamUtil.getPageParams(processName)), 20000);
+        PageInfo<JSONObject> data = MyJSONUtil.toPageBean(content);
+        List<ProcessDefinition> lists = new ArrayList<>();
+        if (data == null || data.getTotalList() == null) {
             return lists;
         }
+
+        for (JSONObject jsonObject : data.getTotalList()) {
+            ProcessDefinition processDefinition = MyJSONUtil.toBean(jsonObject, ProcessDefinition.class);
+            // The locations of processDefinition is json string
+            List<DagNodeLocation> locations = jsonObject.getBeanList("locations", DagNodeLocation.class);
+            processDefinition.setLocations(JsonUtils.toJsonString(locations));
+            lists.add(processDefinition);
+        }
+        return lists;
     }
 
     /**
@@ -126,18 +115,8 @@ public class ProcessClient {
                         + "/projects/{projectCode}/process-definition/{code}",
                 map);
 
-        try (HttpResponse httpResponse = HttpRequest.get(format)
-                .header(
-                        Constants.TOKEN,
-                        SystemConfiguration.getInstances()
-                                .getDolphinschedulerToken()
-                                .getValue())
-                .timeout(20000)
-                .execute()) {
-
-            return MyJSONUtil.verifyResult(
-                    MyJSONUtil.toBean(httpResponse.body(), new TypeReference<Result<DagData>>() {}));
-        }
+        String body = RequestUtil.execute(HttpRequest.get(format), 20000);
+        return MyJSONUtil.verifyResult(MyJSONUtil.toBean(body, new TypeReference<Result<DagData>>() {}));
     }
 
     /**
@@ -178,18 +157,7 @@ public class ProcessClient {
         } else {
             httpRequest = HttpRequest.put(format + "/" + processCode);
         }
-        try (HttpResponse httpResponse = httpRequest
-                .header(
-                        Constants.TOKEN,
-                        SystemConfiguration.getInstances()
-                                .getDolphinschedulerToken()
-                                .getValue())
-                .form(params)
-                .timeout(20000)
-                .execute(); ) {
-            String content = httpResponse.body();
-            return MyJSONUtil.verifyResult(
-                    MyJSONUtil.toBean(content, new TypeReference<Result<ProcessDefinition>>() {}));
-        }
+        String content = RequestUtil.execute(httpRequest.form(params), 20000);
+        return MyJSONUtil.verifyResult(MyJSONUtil.toBean(content, new TypeReference<Result<ProcessDefinition>>() {}));
     }
 }
@@ -20,7 +20,6 @@
 package org.dinky.scheduler.client;
 
 import org.dinky.data.model.SystemConfiguration;
-import org.dinky.scheduler.constant.Constants;
 import org.dinky.scheduler.exception.SchedulerException;
 import org.dinky.scheduler.model.TaskDefinition;
 import org.dinky.scheduler.model.TaskDefinitionLog;
@@ -30,6 +29,7 @@ import org.dinky.scheduler.result.PageInfo;
 import org.dinky.scheduler.result.Result;
 import org.dinky.scheduler.utils.MyJSONUtil;
 import org.dinky.scheduler.utils.ParamUtil;
+import org.dinky.scheduler.utils.RequestUtil;
 import org.dinky.utils.JsonUtils;
 
 import org.apache.commons.lang3.StringUtils;
@@ -47,7 +47,6 @@ import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.lang.TypeReference;
 import cn.hutool.core.util.StrUtil;
 import cn.hutool.http.HttpRequest;
-import cn.hutool.http.HttpResponse;
 import cn.hutool.json.JSONObject;
 
 /**
@@ -97,26 +96,17 @@ public class TaskClient {
         pageParams.put("searchWorkflowName", processName);
         pageParams.put("taskType", taskType);
 
-        try (HttpResponse httpResponse = HttpRequest.get(format)
-                .header(
-                        Constants.TOKEN,
-                        SystemConfiguration.getInstances()
-                                .getDolphinschedulerToken()
-                                .getValue())
-                .form(pageParams)
-                .timeout(5000)
-                .execute()) {
-            PageInfo<JSONObject> data = MyJSONUtil.toPageBean(httpResponse.body());
-            List<TaskMainInfo> lists = new ArrayList<>();
-            if (data == null || data.getTotalList() == null) {
-                return lists;
-            }
-
-            for (JSONObject jsonObject : data.getTotalList()) {
-                lists.add(JsonUtils.toBean(jsonObject, TaskMainInfo.class));
-            }
+        String body = RequestUtil.execute(HttpRequest.get(format).form(pageParams), 5000);
+        PageInfo<JSONObject> data = MyJSONUtil.toPageBean(body);
+        List<TaskMainInfo> lists = new ArrayList<>();
+        if (data == null || data.getTotalList() == null) {
             return lists;
         }
+
+        for (JSONObject jsonObject : data.getTotalList()) {
+            lists.add(JsonUtils.toBean(jsonObject, TaskMainInfo.class));
+        }
+        return lists;
     }
 
     /**
@@ -135,17 +125,8 @@ public class TaskClient {
                         + "/projects/{projectCode}/task-definition/{code}",
                 map);
 
-        try (HttpResponse httpResponse = HttpRequest.get(format)
-                .header(
-                        Constants.TOKEN,
-                        SystemConfiguration.getInstances()
-                                .getDolphinschedulerToken()
-                                .getValue())
-                .timeout(20000)
-                .execute()) {
-            return MyJSONUtil.verifyResult(
-                    MyJSONUtil.toBean(httpResponse.body(), new TypeReference<Result<TaskDefinition>>() {}));
-        }
+        String body = RequestUtil.execute(HttpRequest.get(format), 20000);
+        return MyJSONUtil.verifyResult(MyJSONUtil.toBean(body, new TypeReference<Result<TaskDefinition>>() {}));
     }
 
     /**
@@ -172,18 +153,8 @@ public class TaskClient {
 
         pageParams.put("taskDefinitionJsonObj", taskDefinitionJsonObj);
 
-        try (HttpResponse httpResponse = HttpRequest.post(format)
-                .header(
-                        Constants.TOKEN,
-                        SystemConfiguration.getInstances()
-                                .getDolphinschedulerToken()
-                                .getValue())
-                .form(pageParams)
-                .timeout(5000)
-                .execute()) {
-            return MyJSONUtil.verifyResult(
-                    MyJSONUtil.toBean(httpResponse.body(), new TypeReference<Result<TaskDefinitionLog>>() {}));
-        }
+        String body = RequestUtil.execute(HttpRequest.post(format).form(pageParams), 5000);
+        return MyJSONUtil.verifyResult(MyJSONUtil.toBean(body, new TypeReference<Result<TaskDefinitionLog>>() {}));
     }
 
     /**
@@ -210,18 +181,8 @@ public class TaskClient {
         }
         params.put("taskDefinitionJsonObj", taskDefinitionJsonObj);
 
-        try (HttpResponse httpResponse = HttpRequest.put(format)
-                .header(
-                        Constants.TOKEN,
-                        SystemConfiguration.getInstances()
-                                .getDolphinschedulerToken()
-                                .getValue())
-                .form(params)
-                .timeout(5000)
-                .execute()) {
-            return MyJSONUtil.verifyResult(
-                    MyJSONUtil.toBean(httpResponse.body(), new TypeReference<Result<Long>>() {}));
-        }
+        String body = RequestUtil.execute(HttpRequest.put(format).form(params), 5000);
+        return MyJSONUtil.verifyResult(MyJSONUtil.toBean(body, new TypeReference<Result<Long>>() {}));
     }
 
     /**
@@ -241,18 +202,8 @@ public class TaskClient {
         Map<String, Object> params = new HashMap<>();
         params.put("genNum", genNum);
 
-        try (HttpResponse httpResponse = HttpRequest.get(format)
-                .header(
-                        Constants.TOKEN,
-                        SystemConfiguration.getInstances()
-                                .getDolphinschedulerToken()
-                                .getValue())
-                .form(params)
-                .timeout(5000)
-                .execute()) {
-            return MyJSONUtil.verifyResult(
-                    MyJSONUtil.toBean(httpResponse.body(), new TypeReference<Result<List<Long>>>() {}));
-        }
+        String body = RequestUtil.execute(HttpRequest.get(format).form(params), 5000);
+        return MyJSONUtil.verifyResult(MyJSONUtil.toBean(body, new TypeReference<Result<List<Long>>>() {}));
     }
 
     /**
@@ -283,17 +234,8 @@ public class TaskClient {
         params.put("pageNo", 1);
         params.put("pageSize", 100);
 
-        try (HttpResponse httpResponse = HttpRequest.get(url)
-                .header(
-                        Constants.TOKEN,
-                        SystemConfiguration.getInstances()
-                                .getDolphinschedulerToken()
-                                .getValue())
-                .form(params)
-                .timeout(5000)
-                .execute()) {
-            PageInfo<JSONObject> pageInfo = MyJSONUtil.toPageBean(httpResponse.body());
-            return MyJSONUtil.toBean(pageInfo.getTotalList().toString(), new TypeReference<List<TaskGroup>>() {});
-        }
+        String body = RequestUtil.execute(HttpRequest.get(url).form(params), 5000);
+        PageInfo<JSONObject> pageInfo = MyJSONUtil.toPageBean(body);
+        return MyJSONUtil.toBean(pageInfo.getTotalList().toString(), new TypeReference<List<TaskGroup>>() {});
     }
 }
@@ -0,0 +1,65 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.dinky.scheduler.model;
+
+import io.swagger.annotations.ApiModelProperty;
+import lombok.Data;
+
+/** PushTaskResult */
+@Data
+public class PushTaskResult {
+
+    @ApiModelProperty(value = "Dinky 任务 id")
+    private String taskId;
+
+    @ApiModelProperty(value = "任务名称")
+    private String taskName;
+
+    @ApiModelProperty(value = "工作流定义名称")
+    private String processName;
+
+    @ApiModelProperty(value = "任务定义编号")
+    private Long taskCode;
+
+    @ApiModelProperty(value = "是否推送成功")
+    private boolean success;
+
+    @ApiModelProperty(value = "失败原因")
+    private String message;
+
+    public static PushTaskResult of(String taskId) {
+        PushTaskResult result = new PushTaskResult();
+        result.setTaskId(taskId);
+        return result;
+    }
+
+    public PushTaskResult succeed(Long taskCode) {
+        this.taskCode = taskCode;
+        this.success = true;
+        this.message = null;
+        return this;
+    }
+
+    public PushTaskResult fail(String message) {
+        this.success = false;
+        this.message = message;
+        return this;
+    }
+}
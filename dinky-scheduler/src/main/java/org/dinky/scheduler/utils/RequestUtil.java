@@ -0,0 +1,113 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.dinky.scheduler.utils;
+
+import org.dinky.data.model.SystemConfiguration;
+import org.dinky.scheduler.constant.Constants;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpDelete;
+import org.apache.http.client.methods.HttpEntityEnclosingRequestBase;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpPut;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.util.EntityUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import cn.hutool.core.map.MapUtil;
+import cn.hutool.http.HttpException;
+import cn.hutool.http.HttpRequest;
+import cn.hutool.http.HttpUtil;
+
+public class RequestUtil {
+
+    /** Connections kept alive per DolphinScheduler host, one for each task pushed at the same time. */
+    public static final int MAX_CONNECTIONS_PER_ROUTE = 5;
+
+    private static final CloseableHttpClient HTTP_CLIENT = HttpClients.custom()
+            .setMaxConnPerRoute(MAX_CONNECTIONS_PER_ROUTE)
+            .setMaxConnTotal(MAX_CONNECTIONS_PER_ROUTE * 4)
+            .evictIdleConnections(60, TimeUnit.SECONDS)
+            .build();
+
+    /**
+     * 执行 DolphinScheduler 请求并返回响应内容
+     *
+     * <p>The request is sent through a pooled client. The response body is read completely, so that the connection
+     * goes back to the pool and is reused by the next request to the same host.
+     *
+     * @param request the request without token, only its method, url and form are sent
+     * @param timeout timeout in milliseconds
+     * @return response body
+     */
+    public static String execute(HttpRequest request, int timeout) {
+        HttpRequestBase httpRequest = toHttpRequest(request);
+        httpRequest.setConfig(RequestConfig.custom()
+                .setConnectTimeout(timeout)
+                .setConnectionRequestTimeout(timeout)
+                .setSocketTimeout(timeout)
+                .build());
+        httpRequest.setHeader(
+                Constants.TOKEN, SystemConfiguration.getInstances().getDolphinschedulerToken().getValue());
+        try (CloseableHttpResponse response = HTTP_CLIENT.execute(httpRequest)) {
+            return response.getEntity() == null
+                    ? null
+                    : EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new HttpException(e);
+        }
+    }
+
+    private static HttpRequestBase toHttpRequest(HttpRequest request) {
+        Map<String, Object> form = request.form();
+        switch (request.getMethod()) {
+            case POST:
+                return withForm(new HttpPost(request.getUrl()), form);
+            case PUT:
+                return withForm(new HttpPut(request.getUrl()), form);
+            case DELETE:
+                return new HttpDelete(urlWithForm(request.getUrl(), form));
+            default:
+                return new HttpGet(urlWithForm(request.getUrl(), form));
+        }
+    }
+
+    private static HttpRequestBase withForm(HttpEntityEnclosingRequestBase httpRequest, Map<String, Object> form) {
+        if (MapUtil.isNotEmpty(form)) {
+            httpRequest.setEntity(new StringEntity(
+                    HttpUtil.toParams(form, StandardCharsets.UTF_8), ContentType.APPLICATION_FORM_URLENCODED));
+        }
+        return httpRequest;
+    }
+
+    private static String urlWithForm(String url, Map<String, Object> form) {
+        return MapUtil.isEmpty(form) ? url : HttpUtil.urlWithForm(url, form, StandardCharsets.UTF_8, true);
+    }
+}
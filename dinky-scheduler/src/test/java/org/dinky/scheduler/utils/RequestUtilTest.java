@@ -0,0 +1,97 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.dinky.scheduler.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.dinky.data.model.SystemConfiguration;
+import org.dinky.scheduler.constant.Constants;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpServer;
+
+import cn.hutool.core.io.IoUtil;
+import cn.hutool.http.HttpRequest;
+
+public class RequestUtilTest {
+
+    private final List<String> tokens = new CopyOnWriteArrayList<>();
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+    private HttpServer server;
+
+    @BeforeEach
+    public void start() throws Exception {
+        SystemConfiguration.getInstances().getDolphinschedulerToken().setValue("ds-token");
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            tokens.add(exchange.getRequestHeaders().getFirst(Constants.TOKEN));
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            requests.add(exchange.getRequestMethod() + " " + exchange.getRequestURI() + " "
+                    + IoUtil.read(exchange.getRequestBody(), StandardCharsets.UTF_8));
+            byte[] body = "{\"code\":0}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    public void stop() {
+        server.stop(0);
+    }
+
+    @Test
+    public void executeTest() {
+        String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/projects";
+
+        assertEquals("{\"code\":0}", RequestUtil.execute(HttpRequest.get(url), 5000));
+        assertEquals("{\"code\":0}", RequestUtil.execute(HttpRequest.get(url), 5000));
+
+        assertEquals(2, tokens.size());
+        assertEquals("ds-token", tokens.get(0));
+        // the body is read completely, so the second request reuses the pooled connection
+        assertEquals(1, clientPorts.size());
+    }
+
+    @Test
+    public void formTest() {
+        String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/projects";
+
+        RequestUtil.execute(HttpRequest.get(url).form("searchVal", "dinky"), 5000);
+        RequestUtil.execute(HttpRequest.post(url).form("name", "dinky"), 5000);
+
+        assertEquals("GET /projects?searchVal=dinky ", requests.get(0));
+        assertEquals("POST /projects name=dinky", requests.get(1));
+    }
+}
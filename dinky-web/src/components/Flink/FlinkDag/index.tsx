@@ -37,7 +37,18 @@ import { Edge, Graph, Node } from '@antv/x6';
 import { Rectangle } from '@antv/x6-geometry';
 import { Selection } from '@antv/x6-plugin-selection';
 import { register } from '@antv/x6-react-shape';
-import { Drawer, Select, Slider, Table, Tabs, TabsProps, Tag, Typography } from 'antd';
+import {
+  Button,
+  Drawer,
+  Input,
+  Select,
+  Slider,
+  Table,
+  Tabs,
+  TabsProps,
+  Tag,
+  Typography
+} from 'antd';
 import { useEffect, useRef, useState } from 'react';
 import './index.css';
 import dagre from 'dagre';
@@ -49,6 +60,80 @@ export type DagProps = {
 };
 const { Paragraph } = Typography;
 
+const CHECKPOINT_PAGE_SIZE = 100;
+
+const CheckpointStateTable = (props: { path: string; operatorId: string; stateName: string }) => {
+  const { path, operatorId, stateName } = props;
+  const [headers, setHeaders] = useState<string[]>([]);
+  const [datas, setDatas] = useState<any[]>([]);
+  const [cursor, setCursor] = useState<string | undefined>();
+  const [keyPrefix, setKeyPrefix] = useState<string>('');
+  const [loading, setLoading] = useState<boolean>(false);
+
+  const loadPage = (nextCursor?: string, prefix: string = keyPrefix) => {
+    setLoading(true);
+    getDataByParamsReturnResult(API_CONSTANTS.READ_CHECKPOINT_PAGE, {
+      path,
+      operatorId,
+      stateName,
+      keyPrefix: prefix,
+      cursor: nextCursor,
+      pageSize: CHECKPOINT_PAGE_SIZE
+    })
+      .then((res) => {
+        if (!res || res.code !== 0) {
+          return;
+        }
+        if (res.data.headers.length > 0) {
+          setHeaders(res.data.headers);
+        }
+        setDatas((prev) => (nextCursor ? prev.concat(res.data.datas) : res.data.datas));
+        setCursor(res.data.nextCursor ?? undefined);
+      })
+      .finally(() => setLoading(false));
+  };
+
+  useEffect(() => {
+    loadPage();
+  }, [path, operatorId, stateName]);
+
+  return (
+    <>
+      <Input.Search
+        placeholder='Key prefix'
+        allowClear
+        onSearch={(value) => {
+          setKeyPrefix(value);
+          loadPage(undefined, value);
+        }}
+      />
+      <Table
+        size='small'
+        loading={loading}
+        dataSource={datas}
+        pagination={false}
+        columns={headers.map((z) => {
+          return {
+            title: z,
+            dataIndex: z,
+            key: z,
+            render: (text) => (
+              <Paragraph copyable ellipsis={{ rows: 3 }}>
+                {text}
+              </Paragraph>
+            )
+          };
+        })}
+      />
+      {cursor && (
+        <Button block type='link' loading={loading} onClick={() => loadPage(cursor)}>
+          Load more
+        </Button>
+      )}
+    </>
+  );
+};
+
 const RenderCheckpoint = (id: string, checkPoints: any) => {
   const [selectPath, setSelectPath] = useState<string>('');
   const key = id + selectPath;
@@ -69,47 +154,27 @@ const RenderCheckpoint = (id: string, checkPoints: any) => {
       return;
     }
 
-    getDataByParamsReturnResult(API_CONSTANTS.READ_CHECKPOINT, {
+    getDataByParamsReturnResult(API_CONSTANTS.READ_CHECKPOINT_SUMMARY, {
       path: selectPath,
       operatorId: id
     }).then((res) => {
       if (!res || res.code !== 0) {
         return;
       }
-      const genData = Object.keys(res.data).map((x) => {
-        const datum = res.data[x];
+      const genData = (res.data as any[]).map((x) => {
         return {
-          key: x,
-          label: x,
-          children: (
-            <Tabs
-              items={Object.keys(datum).map((y) => {
-                return {
-                  key: y,
-                  label: y,
-                  children: (
-                    <Table
-                      dataSource={datum[y].datas}
-                      columns={(datum[y].headers as string[]).map((z) => {
-                        return {
-                          title: z,
-                          dataIndex: z,
-                          key: z,
-                          render: (text) => (
-                            <Paragraph copyable ellipsis={{ rows: 3 }}>
-                              {text}
-                            </Paragraph>
-                          )
-                        };
-                      })}
-                    />
-                  )
-                };
-              })}
-              tabBarStyle={{ marginBlock: 0 }}
-              tabBarGutter={10}
-            />
-          )
+          key: x.stateName,
+          label: (
+            <>
+              {x.stateName} <Tag>{x.mode}</Tag>
+              <Tag>{x.entries} entries</Tag>
+              <Tag>{x.bytes} bytes</Tag>
+            </>
+          ),
+          children:
+            x.mode === 'BROADCAST' ? undefined : (
+              <CheckpointStateTable path={selectPath} operatorId={id} stateName={x.stateName} />
+            )
         };
       });
       setItemChildren({ ...itemChildren, [key]: genData });
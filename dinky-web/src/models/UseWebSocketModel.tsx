@@ -33,7 +33,8 @@ export enum Topic {
   PROCESS_CONSOLE = 'PROCESS_CONSOLE',
   PRINT_TABLE = 'PRINT_TABLE',
   METRICS = 'METRICS',
-  TASK_RUN_INSTANCE = 'TASK_RUN_INSTANCE'
+  TASK_RUN_INSTANCE = 'TASK_RUN_INSTANCE',
+  JOB_SUBMIT = 'JOB_SUBMIT'
 }
 
 export type SubscriberData = {
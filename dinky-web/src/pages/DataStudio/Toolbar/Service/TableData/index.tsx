@@ -48,7 +48,8 @@ export const DataPage = (props: any) => {
     if (title) {
       return subscribeTopic(Topic.PRINT_TABLE, [title.fullTableName], (data: SseData) => {
         if (data?.data[title.fullTableName]) {
-          setData((prevData) => [...prevData, data.data[title.fullTableName]]);
+          // rows are pushed in batches
+          setData((prevData) => prevData.concat(data.data[title.fullTableName]));
         }
       });
     }
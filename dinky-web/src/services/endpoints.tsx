@@ -301,6 +301,8 @@ export enum API_CONSTANTS {
 
   // ------------------------------------ flink conf about ------------------------------------
   READ_CHECKPOINT = '/api/flinkConf/readCheckPoint',
+  READ_CHECKPOINT_SUMMARY = '/api/flinkConf/readCheckPointSummary',
+  READ_CHECKPOINT_PAGE = '/api/flinkConf/readCheckPointPage',
   FLINK_CONF_CONFIG_OPTIONS = '/api/flinkConf/configOptions',
 
   // ------------------------------------ suggestion ------------------------------------